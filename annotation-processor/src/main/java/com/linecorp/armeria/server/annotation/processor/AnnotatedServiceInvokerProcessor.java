@@ -0,0 +1,274 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server.annotation.processor;
+
+import static com.linecorp.armeria.internal.server.annotation.AnnotatedServiceInvokers.invokerClassName;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import com.linecorp.armeria.server.annotation.AnnotatedServiceInvoker;
+
+/**
+ * Processor that generates an {@link AnnotatedServiceInvoker} for each class with annotated service methods,
+ * so that the methods are invoked directly instead of via a {@link java.lang.invoke.MethodHandle}.
+ * Only the dispatch is generated; the arguments are still resolved by Armeria as usual.
+ * This processor does nothing unless the {@value #GENERATE_INVOKERS_OPTION} option is set to {@code true},
+ * e.g. {@code -Acom.linecorp.armeria.generateAnnotatedServiceInvokers=true}.
+ */
+@SupportedAnnotationTypes({
+        "com.linecorp.armeria.server.annotation.Post",
+        "com.linecorp.armeria.server.annotation.Get",
+        "com.linecorp.armeria.server.annotation.Put",
+        "com.linecorp.armeria.server.annotation.Delete",
+        "com.linecorp.armeria.server.annotation.Head",
+        "com.linecorp.armeria.server.annotation.Options",
+        "com.linecorp.armeria.server.annotation.Patch",
+        "com.linecorp.armeria.server.annotation.Trace",
+        "com.linecorp.armeria.server.annotation.Path",
+})
+@SupportedOptions(AnnotatedServiceInvokerProcessor.GENERATE_INVOKERS_OPTION)
+public final class AnnotatedServiceInvokerProcessor extends AbstractProcessor {
+
+    /**
+     * The name of the processor option that enables the generation of {@link AnnotatedServiceInvoker}s.
+     */
+    public static final String GENERATE_INVOKERS_OPTION =
+            "com.linecorp.armeria.generateAnnotatedServiceInvokers";
+
+    private static final String KOTLIN_CONTINUATION = "kotlin.coroutines.Continuation";
+
+    private final Set<String> generatedClassNames = new HashSet<>();
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (annotations == null || annotations.isEmpty() ||
+            !Boolean.parseBoolean(processingEnv.getOptions().get(GENERATE_INVOKERS_OPTION))) {
+            return false;
+        }
+
+        final Map<TypeElement, List<ExecutableElement>> methods = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                // Element is always ExecutableElement because it is a method.
+                final ExecutableElement method = (ExecutableElement) element;
+                final TypeElement clazz = (TypeElement) method.getEnclosingElement();
+                if (!isInvokable(clazz, method)) {
+                    continue;
+                }
+                final List<ExecutableElement> list = methods.computeIfAbsent(clazz, unused -> new ArrayList<>());
+                if (!list.contains(method)) {
+                    list.add(method);
+                }
+            }
+        }
+
+        methods.forEach((clazz, list) -> {
+            final String className = processingEnv.getElementUtils().getBinaryName(clazz).toString();
+            if (!generatedClassNames.add(className)) {
+                return;
+            }
+            try {
+                writeInvoker(clazz, className, list);
+            } catch (IOException e) {
+                final StringWriter writer = new StringWriter();
+                e.printStackTrace(new PrintWriter(writer));
+                processingEnv.getMessager().printMessage(
+                        Kind.ERROR,
+                        "Could not generate an invoker for: " + className + System.lineSeparator() + writer,
+                        clazz);
+            }
+        });
+        return false;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latest();
+    }
+
+    private static boolean isInvokable(TypeElement clazz, ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE) || method.isVarArgs()) {
+            return false;
+        }
+        final List<? extends VariableElement> parameters = method.getParameters();
+        if (!parameters.isEmpty()) {
+            final TypeMirror lastType = parameters.get(parameters.size() - 1).asType();
+            if (lastType.getKind() == TypeKind.DECLARED &&
+                KOTLIN_CONTINUATION.equals(
+                        ((TypeElement) ((DeclaredType) lastType).asElement()).getQualifiedName().toString())) {
+                // A Kotlin suspending function is called via the coroutine bridge.
+                return false;
+            }
+        }
+
+        // The generated invoker must be able to refer to the class from the same package.
+        for (Element e = clazz; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            final TypeElement type = (TypeElement) e;
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            final NestingKind nestingKind = type.getNestingKind();
+            if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeInvoker(TypeElement clazz, String className,
+                              List<ExecutableElement> methods) throws IOException {
+        final Elements elements = processingEnv.getElementUtils();
+        final String invokerClassName = invokerClassName(className);
+        final int lastDotIdx = invokerClassName.lastIndexOf('.');
+        final String packageName = lastDotIdx < 0 ? "" : invokerClassName.substring(0, lastDotIdx);
+        final String invokerSimpleName = invokerClassName.substring(lastDotIdx + 1);
+        final String targetType = erasedSourceName(clazz.asType());
+
+        try (Writer out = processingEnv.getFiler().createSourceFile(invokerClassName, clazz).openWriter();
+             PrintWriter writer = new PrintWriter(out)) {
+            if (!packageName.isEmpty()) {
+                writer.println("package " + packageName + ';');
+                writer.println();
+            }
+            writer.println("/**");
+            writer.println(" * Generated by " + getClass().getName() + " for {@link " + targetType + "}.");
+            writer.println(" */");
+            writer.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+            writer.println("public final class " + invokerSimpleName + " implements " +
+                           AnnotatedServiceInvoker.class.getName() + " {");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public int indexOf(String methodSignature) {");
+            writer.println("        switch (methodSignature) {");
+            for (int i = 0; i < methods.size(); i++) {
+                writer.println("            case \"" + signature(elements, methods.get(i)) + "\":");
+                writer.println("                return " + i + ';');
+            }
+            writer.println("            default:");
+            writer.println("                return -1;");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public Object invoke(int index, Object target, Object[] arguments)");
+            writer.println("            throws Throwable {");
+            writer.println("        switch (index) {");
+            for (int i = 0; i < methods.size(); i++) {
+                final ExecutableElement method = methods.get(i);
+                final boolean isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+                final String receiver;
+                if (method.getModifiers().contains(Modifier.STATIC)) {
+                    receiver = targetType;
+                } else {
+                    receiver = "((" + targetType + ") target)";
+                }
+                final StringJoiner args = new StringJoiner(", ", "(", ")");
+                final List<? extends VariableElement> parameters = method.getParameters();
+                for (int j = 0; j < parameters.size(); j++) {
+                    args.add("(" + castType(parameters.get(j).asType()) + ") arguments[" + j + ']');
+                }
+                final String call = receiver + '.' + method.getSimpleName() + args;
+                writer.println("            case " + i + ':');
+                if (isVoid) {
+                    writer.println("                " + call + ';');
+                    writer.println("                return null;");
+                } else {
+                    writer.println("                return " + call + ';');
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"index: \" + index);");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println("}");
+        }
+    }
+
+    /**
+     * Returns the signature of the specified method in the same format as
+     * {@code AnnotatedServiceInvokers.methodSignature(Method)}.
+     */
+    private String signature(Elements elements, ExecutableElement method) {
+        final StringJoiner joiner = new StringJoiner(",", method.getSimpleName() + "(", ")");
+        for (VariableElement parameter : method.getParameters()) {
+            joiner.add(typeName(elements, processingEnv.getTypeUtils().erasure(parameter.asType())));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the name of the specified erased type in the same format as {@link Class#getTypeName()}.
+     */
+    private static String typeName(Elements elements, TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return typeName(elements, ((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return elements.getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+            default:
+                return type.toString();
+        }
+    }
+
+    private String castType(TypeMirror type) {
+        final Types types = processingEnv.getTypeUtils();
+        if (type.getKind().isPrimitive()) {
+            // Unboxed implicitly when passed to the method.
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return erasedSourceName(type);
+    }
+
+    private String erasedSourceName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+}
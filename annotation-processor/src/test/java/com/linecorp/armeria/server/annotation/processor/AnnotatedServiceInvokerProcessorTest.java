@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server.annotation.processor;
+
+import static com.linecorp.armeria.internal.server.annotation.AnnotatedServiceInvokers.invokerClassName;
+import static com.linecorp.armeria.internal.server.annotation.AnnotatedServiceInvokers.methodSignature;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.server.annotation.AnnotatedServiceInvoker;
+
+class AnnotatedServiceInvokerProcessorTest {
+
+    private static final String SOURCE =
+            "package com.linecorp.armeria;\n" +
+            "import java.util.List;\n" +
+            "import com.linecorp.armeria.server.annotation.Get;\n" +
+            "import com.linecorp.armeria.server.annotation.Param;\n" +
+            "import com.linecorp.armeria.server.annotation.Post;\n" +
+            "public class InvokerService {\n" +
+            "    @Get(\"/a\")\n" +
+            "    public String a(@Param(\"x\") String x, @Param(\"y\") int y) { return x + y; }\n" +
+            "    @Post(\"/b\")\n" +
+            "    int b(List<String> values) { return values.size(); }\n" +
+            "    @Get(\"/c\")\n" +
+            "    public static String c() { return \"c\"; }\n" +
+            "    @Get(\"/d\")\n" +
+            "    private String d() { return \"d\"; }\n" +
+            "}\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generateInvoker() throws Exception {
+        try (URLClassLoader classLoader = compile(true)) {
+            final Class<?> serviceClass = classLoader.loadClass("com.linecorp.armeria.InvokerService");
+            final AnnotatedServiceInvoker invoker =
+                    (AnnotatedServiceInvoker) classLoader.loadClass(invokerClassName(serviceClass.getName()))
+                                                         .getDeclaredConstructor().newInstance();
+            final Object service = serviceClass.getDeclaredConstructor().newInstance();
+
+            final int a = invoker.indexOf(methodSignature(
+                    serviceClass.getDeclaredMethod("a", String.class, int.class)));
+            assertThat(a).isNotNegative();
+            assertThat(invoker.invoke(a, service, new Object[] { "foo", 1 })).isEqualTo("foo1");
+
+            final int b = invoker.indexOf(methodSignature(serviceClass.getDeclaredMethod("b", List.class)));
+            assertThat(b).isNotNegative();
+            assertThat(invoker.invoke(b, service, new Object[] { ImmutableList.of("1", "2") })).isEqualTo(2);
+
+            final int c = invoker.indexOf(methodSignature(serviceClass.getDeclaredMethod("c")));
+            assertThat(c).isNotNegative();
+            assertThat(invoker.invoke(c, null, new Object[0])).isEqualTo("c");
+
+            // A private method cannot be invoked by the generated invoker.
+            assertThat(invoker.indexOf(methodSignature(serviceClass.getDeclaredMethod("d")))).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void disabledByDefault() throws Exception {
+        try (URLClassLoader ignored = compile(false)) {
+            assertThat(tempDir.resolve("generated/com/linecorp/armeria/InvokerService_ArmeriaInvoker.java"))
+                    .doesNotExist();
+        }
+    }
+
+    private URLClassLoader compile(boolean generateInvokers) throws IOException {
+        final Path sourceFile = tempDir.resolve("InvokerService.java");
+        Files.write(sourceFile, SOURCE.getBytes(StandardCharsets.UTF_8));
+        final Path classOutput = Files.createDirectories(tempDir.resolve("classes"));
+        final Path sourceOutput = Files.createDirectories(tempDir.resolve("generated"));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            final Iterable<? extends JavaFileObject> sources = fileManager.getJavaFileObjects(sourceFile);
+            final CompilationTask task = compiler.getTask(
+                    null, fileManager, null,
+                    ImmutableList.of("-classpath", System.getProperty("java.class.path"),
+                                     "-d", classOutput.toString(),
+                                     "-s", sourceOutput.toString(),
+                                     "-A" + AnnotatedServiceInvokerProcessor.GENERATE_INVOKERS_OPTION + '=' +
+                                     generateInvokers),
+                    null, sources);
+            task.setProcessors(ImmutableList.of(new AnnotatedServiceInvokerProcessor()));
+            assertThat(task.call()).isTrue();
+        }
+        return new URLClassLoader(new URL[] { classOutput.toUri().toURL() }, getClass().getClassLoader());
+    }
+}
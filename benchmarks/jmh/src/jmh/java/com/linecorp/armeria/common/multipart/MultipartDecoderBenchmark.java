@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.multipart;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.stream.StreamMessage;
+
+/**
+ * Microbenchmarks for decoding a multipart body which is split into many chunks.
+ */
+@State(Scope.Benchmark)
+public class MultipartDecoderBenchmark {
+
+    private static final String BOUNDARY = "ArmeriaBenchmarkBoundary";
+
+    @Param({ "65536", "4194304" })
+    private int partSize;
+
+    @Param({ "1024", "16384" })
+    private int chunkSize;
+
+    private byte[][] chunks;
+
+    @Setup
+    public void setUp() {
+        // Random bytes exercise the full range of the boundary shift table.
+        final byte[] content = new byte[partSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        final byte[] head = ("--" + BOUNDARY + "\r\n" +
+                             "Content-Disposition: form-data; name=\"file\"; filename=\"file.bin\"\r\n" +
+                             "Content-Type: application/octet-stream\r\n" +
+                             "\r\n").getBytes(StandardCharsets.US_ASCII);
+        final byte[] tail = ("\r\n--" + BOUNDARY + "--").getBytes(StandardCharsets.US_ASCII);
+
+        final byte[] message = new byte[head.length + content.length + tail.length];
+        System.arraycopy(head, 0, message, 0, head.length);
+        System.arraycopy(content, 0, message, head.length, content.length);
+        System.arraycopy(tail, 0, message, head.length + content.length, tail.length);
+
+        final int numChunks = (message.length + chunkSize - 1) / chunkSize;
+        chunks = new byte[numChunks][];
+        for (int i = 0; i < numChunks; i++) {
+            final int offset = i * chunkSize;
+            final byte[] chunk = new byte[Math.min(chunkSize, message.length - offset)];
+            System.arraycopy(message, offset, chunk, 0, chunk.length);
+            chunks[i] = chunk;
+        }
+    }
+
+    @Benchmark
+    public int decode() {
+        final HttpData[] data = new HttpData[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            data[i] = HttpData.wrap(chunks[i]);
+        }
+        final AggregatedMultipart multipart = Multipart.from(BOUNDARY, StreamMessage.of(data))
+                                                       .aggregate()
+                                                       .join();
+        return multipart.bodyParts().get(0).content().length();
+    }
+}
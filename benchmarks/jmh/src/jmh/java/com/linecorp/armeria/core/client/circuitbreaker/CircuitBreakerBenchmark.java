@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.core.client.circuitbreaker;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.linecorp.armeria.client.circuitbreaker.CircuitBreaker;
+
+/**
+ * Microbenchmarks of recording events into a {@link CircuitBreaker} in the {@code CLOSED} state.
+ * Run with {@code -prof gc} to see the allocation rate of the event counter.
+ */
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+
+    @Param({ "1", "1000" })
+    private long counterUpdateIntervalMillis;
+
+    private CircuitBreaker circuitBreaker;
+
+    @Setup
+    public void setUp() {
+        circuitBreaker = CircuitBreaker.builder()
+                                       // Never open the circuit so that all events are counted.
+                                       .failureRateThreshold(1)
+                                       .counterSlidingWindow(Duration.ofSeconds(20))
+                                       .counterUpdateIntervalMillis(counterUpdateIntervalMillis)
+                                       .build();
+    }
+
+    @Benchmark
+    public void uncontended() {
+        record();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void contended() {
+        record();
+    }
+
+    private void record() {
+        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+}
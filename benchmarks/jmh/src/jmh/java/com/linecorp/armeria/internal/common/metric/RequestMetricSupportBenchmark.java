@@ -17,10 +17,14 @@
 package com.linecorp.armeria.internal.common.metric;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
 
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.RpcRequest;
+import com.linecorp.armeria.common.SuccessFunction;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
@@ -28,9 +32,23 @@ import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
 import com.linecorp.armeria.common.metric.NoopMeterRegistry;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.util.AttributeKey;
+
+/**
+ * Microbenchmarks of {@link RequestMetricSupport}.
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} of {@link #completeRequest()} with
+ * the others to see the per-request allocation of the request metrics.
+ */
+@State(Scope.Benchmark)
 public class RequestMetricSupportBenchmark {
 
+    private static final AttributeKey<Boolean> REQUEST_METRICS_SET =
+            AttributeKey.valueOf(RequestMetricSupportBenchmark.class, "REQUEST_METRICS_SET");
+
     private static final MeterIdPrefixFunction PREFIX_FUNC = MeterIdPrefixFunction.ofDefault("benchmark");
+    private static final MeterIdPrefixFunction CUSTOM_PREFIX_FUNC = PREFIX_FUNC.withTags("foo", "bar");
     private static final RequestLog REQUEST_LOG;
 
     static {
@@ -55,4 +73,51 @@ public class RequestMetricSupportBenchmark {
                                        String.class,
                                        (u1, u2) -> "foo");
     }
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * The baseline which completes a {@link RequestLog} without collecting metrics.
+     */
+    @Benchmark
+    public RequestLog completeRequest() {
+        return completeRequest(newContext());
+    }
+
+    /**
+     * Collects the metrics of a request with the default {@link MeterIdPrefixFunction}, whose meters are
+     * looked up from the cache.
+     */
+    @Benchmark
+    public RequestLog completeRequestWithMetrics() {
+        final ServiceRequestContext ctx = newContext();
+        RequestMetricSupport.setup(ctx, REQUEST_METRICS_SET, PREFIX_FUNC, true, SuccessFunction.ofDefault());
+        return completeRequest(ctx);
+    }
+
+    /**
+     * Collects the metrics of a request with a customized {@link MeterIdPrefixFunction}, which builds
+     * a {@link MeterIdPrefix} for each request.
+     */
+    @Benchmark
+    public RequestLog completeRequestWithCustomMetrics() {
+        final ServiceRequestContext ctx = newContext();
+        RequestMetricSupport.setup(ctx, REQUEST_METRICS_SET, CUSTOM_PREFIX_FUNC, true,
+                                   SuccessFunction.ofDefault());
+        return completeRequest(ctx);
+    }
+
+    private ServiceRequestContext newContext() {
+        return ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                    .meterRegistry(registry)
+                                    .build();
+    }
+
+    private static RequestLog completeRequest(ServiceRequestContext ctx) {
+        final RequestLogBuilder builder = ctx.logBuilder();
+        builder.endRequest();
+        builder.responseHeaders(ResponseHeaders.of(200));
+        builder.endResponse();
+        return ctx.log().ensureComplete();
+    }
 }
@@ -35,6 +35,8 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.server.annotation.AnnotatedServiceInvoker;
+import com.linecorp.armeria.server.annotation.Get;
 
 @State(Scope.Benchmark)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -51,6 +53,9 @@ public class MethodInvokerBenchmark {
     private final MethodHandle methodHandle;
     private final MethodHandle staticMethodHandle;
     private final MethodHandle varargMethodHandle;
+    private final AnnotatedServiceInvoker generatedInvoker;
+    private final int generatedMethodIndex;
+    private final int generatedStaticMethodIndex;
 
     public MethodInvokerBenchmark() {
         try {
@@ -66,6 +71,15 @@ public class MethodInvokerBenchmark {
             methodHandle = asMethodHandle(method, this);
             staticMethodHandle = asMethodHandle(staticMethod, null); // static
             varargMethodHandle = asMethodHandle(varargMethod, this); // vararg
+
+            // The invoker generated by AnnotatedServiceInvokerProcessor for the annotated methods below.
+            generatedInvoker = requireNonNull(
+                    AnnotatedServiceInvokers.find(MethodInvokerBenchmark.class),
+                    "generated invoker not found; was the annotation processor enabled?");
+            generatedMethodIndex = generatedInvoker.indexOf(
+                    AnnotatedServiceInvokers.methodSignature(method));
+            generatedStaticMethodIndex = generatedInvoker.indexOf(
+                    AnnotatedServiceInvokers.methodSignature(staticMethod));
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
@@ -97,6 +111,11 @@ public class MethodInvokerBenchmark {
         bh.consume(methodHandle.invoke(methodArgs));
     }
 
+    @Benchmark
+    public void invokeMethodGenerated(Blackhole bh) throws Throwable {
+        bh.consume(generatedInvoker.invoke(generatedMethodIndex, this, methodArgs));
+    }
+
     @Benchmark
     public void invokeStaticMethod(Blackhole bh) throws Exception {
         bh.consume(method2("foo", 1, 2L, 3.0f));
@@ -112,6 +131,11 @@ public class MethodInvokerBenchmark {
         bh.consume(staticMethodHandle.invoke(methodArgs));
     }
 
+    @Benchmark
+    public void invokeStaticMethodGenerated(Blackhole bh) throws Throwable {
+        bh.consume(generatedInvoker.invoke(generatedStaticMethodIndex, null, methodArgs));
+    }
+
     @Benchmark
     public void invokeVarargMethod(Blackhole bh) throws Exception {
         bh.consume(method3("foo", 1, 2, 3, 4));
@@ -127,6 +151,7 @@ public class MethodInvokerBenchmark {
         bh.consume(varargMethodHandle.invokeWithArguments(varargMethodArgs));
     }
 
+    @Get("/method1")
     public String method1(String param0, int param1, Long param2, float param3) {
         final StringBuilder builder = new StringBuilder()
                 .append(param0)
@@ -136,6 +161,7 @@ public class MethodInvokerBenchmark {
         return builder.toString();
     }
 
+    @Get("/method2")
     public static String method2(String param0, int param1, Long param2, float param3) {
         final StringBuilder builder = new StringBuilder()
                 .append(param0)
@@ -18,8 +18,18 @@ package com.linecorp.armeria.server;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jol.info.GraphLayout;
 import org.slf4j.helpers.NOPLogger;
 
 import com.google.common.collect.ImmutableList;
@@ -47,6 +57,14 @@ public class RoutersBenchmark {
     private static final RequestHeaders METHOD1_HEADERS =
             RequestHeaders.of(HttpMethod.POST, "/grpc.package.Service/Method1");
 
+    private static final int NUM_LARGE_ROUTES = 400;
+    private static final int NUM_HOT_ROUTES = 32;
+
+    private static final List<ServiceConfig> LARGE_SERVICES;
+    private static final VirtualHost LARGE_HOST;
+    private static final Router<ServiceConfig> LARGE_ROUTER;
+    private static final RequestHeaders[] HOT_HEADERS;
+
     static {
         final String defaultLogName = null;
         final String defaultServiceName = null;
@@ -77,6 +95,33 @@ public class RoutersBenchmark {
                 unused -> NOPLogger.NOP_LOGGER, defaultServiceNaming, 0, 0, false,
                 AccessLogWriter.disabled(), CommonPools.blockingTaskExecutor(), ImmutableList.of());
         ROUTER = Routers.ofVirtualHost(HOST, SERVICES, RejectedRouteHandler.DISABLED);
+
+        final ImmutableList.Builder<ServiceConfig> largeServices = ImmutableList.builder();
+        for (int i = 0; i < NUM_LARGE_ROUTES; i++) {
+            final Route route = Route.builder().exact("/api/v1/resource" + i).build();
+            largeServices.add(newServiceConfig(route));
+        }
+        LARGE_SERVICES = largeServices.build();
+        LARGE_HOST = newVirtualHost(LARGE_SERVICES);
+        LARGE_ROUTER = Routers.ofVirtualHost(LARGE_HOST, LARGE_SERVICES, RejectedRouteHandler.DISABLED);
+        HOT_HEADERS = new RequestHeaders[NUM_HOT_ROUTES];
+        for (int i = 0; i < NUM_HOT_ROUTES; i++) {
+            HOT_HEADERS[i] = RequestHeaders.of(HttpMethod.GET, "/api/v1/resource" + i);
+        }
+    }
+
+    private static ServiceConfig newServiceConfig(Route route) {
+        return new ServiceConfig(route, route, SERVICE, null, null, ServiceNaming.of("Service"), 0, 0,
+                                 false, AccessLogWriter.disabled(), CommonPools.blockingTaskExecutor(),
+                                 SuccessFunction.always(), Flags.defaultMultipartUploadsLocation(),
+                                 ImmutableList.of(), HttpHeaders.of());
+    }
+
+    private static VirtualHost newVirtualHost(List<ServiceConfig> services) {
+        return new VirtualHost(
+                "localhost", "localhost", 0, null, services, FALLBACK_SERVICE, RejectedRouteHandler.DISABLED,
+                unused -> NOPLogger.NOP_LOGGER, ServiceNaming.of("Service"), 0, 0, false,
+                AccessLogWriter.disabled(), CommonPools.blockingTaskExecutor(), ImmutableList.of());
     }
 
     @Benchmark
@@ -101,4 +146,123 @@ public class RoutersBenchmark {
         }
         return routed;
     }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Routed<ServiceConfig> exactMatch_multiThreaded() {
+        return exactMatch();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.eventLoopRouteCacheSize=64")
+    public Routed<ServiceConfig> exactMatch_multiThreaded_eventLoopRouteCache() {
+        return exactMatch();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Routed<ServiceConfig> hotRoutes_multiThreaded() {
+        return hotRoutes();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.eventLoopRouteCacheSize=64")
+    public Routed<ServiceConfig> hotRoutes_multiThreaded_eventLoopRouteCache() {
+        return hotRoutes();
+    }
+
+    private static Routed<ServiceConfig> hotRoutes() {
+        final int index = ThreadLocalRandom.current().nextInt(NUM_HOT_ROUTES);
+        final RequestHeaders headers = HOT_HEADERS[index];
+        final RoutingContext ctx = DefaultRoutingContext.of(LARGE_HOST, "localhost", headers.path(),
+                                                            null, headers, RoutingStatus.OK);
+        final Routed<ServiceConfig> routed = LARGE_ROUTER.find(ctx);
+        if (routed.value() != LARGE_SERVICES.get(index)) {
+            throw new IllegalStateException("Routing error");
+        }
+        return routed;
+    }
+
+    /**
+     * A large table of parameterized routes. The route cache is disabled for the benchmarks which use this
+     * table so that every lookup walks the routing trie.
+     */
+    @State(Scope.Benchmark)
+    public static class LargeRoutingTable {
+
+        @Param({ "1000", "5000" })
+        int numRoutes;
+
+        private List<ServiceConfig> services;
+        private VirtualHost host;
+        private Router<ServiceConfig> router;
+        private RequestHeaders[] headers;
+        private long footprintBytes;
+
+        @Setup
+        public void setUp() {
+            final ImmutableList.Builder<ServiceConfig> builder = ImmutableList.builder();
+            for (int i = 0; i < numRoutes; i++) {
+                final Route route = Route.builder().path("/api/v1/resource" + i + "/{id}/items/{item}")
+                                         .build();
+                builder.add(newServiceConfig(route));
+            }
+            services = builder.build();
+            host = newVirtualHost(services);
+
+            router = Routers.ofVirtualHost(host, services, RejectedRouteHandler.DISABLED);
+            // Exclude the ServiceConfigs and the VirtualHost, which are not owned by the router.
+            footprintBytes = GraphLayout.parseInstance(router)
+                                        .subtract(GraphLayout.parseInstance(host, services))
+                                        .totalSize();
+
+            headers = new RequestHeaders[numRoutes];
+            for (int i = 0; i < numRoutes; i++) {
+                headers[i] = RequestHeaders.of(HttpMethod.GET, "/api/v1/resource" + i + "/42/items/7");
+            }
+        }
+
+        Routed<ServiceConfig> find() {
+            final int index = ThreadLocalRandom.current().nextInt(numRoutes);
+            final RequestHeaders headers = this.headers[index];
+            final RoutingContext ctx = DefaultRoutingContext.of(host, "localhost", headers.path(),
+                                                                null, headers, RoutingStatus.OK);
+            final Routed<ServiceConfig> routed = router.find(ctx);
+            if (routed.value() != services.get(index)) {
+                throw new IllegalStateException("Routing error");
+            }
+            return routed;
+        }
+    }
+
+    /**
+     * Reports the retained size of the router in {@link LargeRoutingTable} as a secondary result.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RouterFootprint {
+
+        public long routerFootprintBytes;
+
+        @Setup(Level.Iteration)
+        public void setUp(LargeRoutingTable table) {
+            routerFootprintBytes = table.footprintBytes;
+        }
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.routeCacheSpec=off")
+    public Routed<ServiceConfig> parameterizedMatch(LargeRoutingTable table, RouterFootprint footprint) {
+        return table.find();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = { "-Dcom.linecorp.armeria.routeCacheSpec=off",
+                            "-Dcom.linecorp.armeria.useCompactRoutingTrie=true" })
+    public Routed<ServiceConfig> parameterizedMatch_compactTrie(LargeRoutingTable table,
+                                                                RouterFootprint footprint) {
+        return table.find();
+    }
 }
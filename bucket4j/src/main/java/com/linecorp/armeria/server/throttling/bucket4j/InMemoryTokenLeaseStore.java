@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling.bucket4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConfigurationBuilder;
+import io.github.bucket4j.TokensInheritanceStrategy;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+/**
+ * A {@link TokenLeaseStore} which keeps the token buckets in the memory of the current JVM.
+ */
+final class InMemoryTokenLeaseStore implements TokenLeaseStore {
+
+    private final Map<String, ConfiguredBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Long> lease(String key, TokenBucket tokenBucket, long maxTokens) {
+        final ConfiguredBucket bucket =
+                buckets.computeIfAbsent(key, unused -> new ConfiguredBucket(tokenBucket));
+        return UnmodifiableFuture.completedFuture(bucket.consume(tokenBucket, maxTokens));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("keys", buckets.keySet())
+                          .toString();
+    }
+
+    private static final class ConfiguredBucket {
+
+        private final Bucket bucket;
+        private volatile TokenBucket tokenBucket;
+
+        ConfiguredBucket(TokenBucket tokenBucket) {
+            final LocalBucketBuilder builder = Bucket.builder().withNanosecondPrecision();
+            for (BandwidthLimit limit : tokenBucket.limits()) {
+                builder.addLimit(limit.bandwidth());
+            }
+            bucket = builder.build();
+            this.tokenBucket = tokenBucket;
+        }
+
+        long consume(TokenBucket tokenBucket, long maxTokens) {
+            if (this.tokenBucket != tokenBucket) {
+                // Reconfigured by TokenBucketThrottlingStrategy.reconfigure()
+                final ConfigurationBuilder builder = BucketConfiguration.builder();
+                for (BandwidthLimit limit : tokenBucket.limits()) {
+                    builder.addLimit(limit.bandwidth());
+                }
+                bucket.replaceConfiguration(builder.build(), TokensInheritanceStrategy.PROPORTIONALLY);
+                this.tokenBucket = tokenBucket;
+            }
+            return bucket.tryConsumeAsMuchAsPossible(maxTokens);
+        }
+    }
+}
@@ -41,6 +41,12 @@ import io.github.bucket4j.local.LocalBucketBuilder;
  * A {@link ThrottlingStrategy} that provides a throttling strategy based on Token-Bucket algorithm.
  * The throttling works by examining the number of requests from the beginning, and
  * throttling if the request rate exceed the configured bucket limits.
+ *
+ * <p>By default, the limits are enforced per {@link TokenBucketThrottlingStrategy} instance. If a
+ * {@link TokenLeaseStore} is specified with
+ * {@link TokenBucketThrottlingStrategyBuilder#leaseStore(TokenLeaseStore, String)}, the limits are enforced
+ * across all nodes which share the store, by leasing batches of tokens from the store and consuming them
+ * locally.
  */
 @UnstableApi
 public final class TokenBucketThrottlingStrategy<T extends Request> extends ThrottlingStrategy<T> {
@@ -59,6 +65,9 @@ public final class TokenBucketThrottlingStrategy<T extends Request> extends Thro
     @Nullable
     private String quota;
     private final boolean sendQuota;
+    @Nullable
+    private final TokenLeaser leaser;
+    private final long leaseRetryAfterSeconds;
 
     /**
      * Creates a new named strategy with specified {@link TokenBucket} configuration,
@@ -72,12 +81,18 @@ public final class TokenBucketThrottlingStrategy<T extends Request> extends Thro
      *                      standard HTTP Retry-After header.
      * @param sendQuota indicates whether to use quota header for the scheme.
      * @param name optional name of the strategy. By default, it will be assigned with a predefined name.
+     * @param leaser optional {@link TokenLeaser} which leases tokens from a {@link TokenLeaseStore}.
+     *               By default, the tokens are consumed from a local bucket.
+     * @param leaseIntervalNanos the interval of leases, which is used as the {@code Retry-After} of
+     *                           the requests rejected by the {@code leaser}.
      */
     TokenBucketThrottlingStrategy(TokenBucket tokenBucket,
                                   @Nullable Duration minimumBackoff,
                                   @Nullable ThrottlingHeaders headersScheme,
                                   boolean sendQuota,
-                                  @Nullable String name) {
+                                  @Nullable String name,
+                                  @Nullable TokenLeaser leaser,
+                                  long leaseIntervalNanos) {
         super(name);
         // construct the bucket builder
         final LocalBucketBuilder builder = Bucket.builder().withNanosecondPrecision();
@@ -90,6 +105,9 @@ public final class TokenBucketThrottlingStrategy<T extends Request> extends Thro
         this.headersScheme = headersScheme;
         this.sendQuota = sendQuota;
         quota = sendQuota ? tokenBucket.toSpecString() : null;
+        this.leaser = leaser;
+        leaseRetryAfterSeconds = Math.max(1, (leaseIntervalNanos + TimeUnit.SECONDS.toNanos(1) - 1) /
+                                             TimeUnit.SECONDS.toNanos(1));
     }
 
     /**
@@ -104,6 +122,10 @@ public final class TokenBucketThrottlingStrategy<T extends Request> extends Thro
         for (BandwidthLimit limit : tokenBucket.limits()) {
             builder.addLimit(limit.bandwidth());
         }
+        if (leaser != null) {
+            // The store reconfigures the shared bucket when it sees the new configuration.
+            leaser.reconfigure(tokenBucket);
+        }
         // reconfigure the bucket
         return asyncBucket.replaceConfiguration(builder.build(),
                                                 TokensInheritanceStrategy.PROPORTIONALLY)
@@ -115,6 +137,15 @@ public final class TokenBucketThrottlingStrategy<T extends Request> extends Thro
      */
     @Override
     public CompletionStage<Boolean> accept(ServiceRequestContext ctx, T request) {
+        if (leaser != null) {
+            return leaser.tryAcquire().thenApply(accepted -> {
+                // The time until the shared bucket is refilled is unknown locally.
+                // Suggest retrying after the next lease.
+                final long retryAfter = Math.max(minimumBackoffSeconds, leaseRetryAfterSeconds);
+                addHeaders(ctx, accepted, leaser.localTokens(), 0, retryAfter);
+                return accepted;
+            });
+        }
         return asyncBucket.tryConsumeAndReturnRemaining(1L).thenApply(probe -> {
             final boolean accepted = probe.isConsumed();
             final long remainingTokens = probe.getRemainingTokens();
@@ -122,21 +153,26 @@ public final class TokenBucketThrottlingStrategy<T extends Request> extends Thro
                     TimeUnit.SECONDS.convert(probe.getNanosToWaitForRefill(), TimeUnit.NANOSECONDS);
             // calculate maximum between pre-configured minimum backoff and remaining seconds
             final long retryAfter = Math.max(minimumBackoffSeconds, remainingSeconds);
-            if (!accepted) {
-                // always send Retry-After header for rejected requests
-                ctx.addAdditionalResponseHeader(HttpHeaderNames.RETRY_AFTER, retryAfter);
-            }
-            if (headersScheme != null) {
-                // when headers scheme defined,
-                // add those to the response (either for accepted or rejected requests)
-                ctx.addAdditionalResponseHeader(headersScheme.remainingHeader(), remainingTokens);
-                ctx.addAdditionalResponseHeader(headersScheme.resetHeader(),
-                                                accepted ? remainingSeconds : retryAfter);
-                if (sendQuota && quota != null) {
-                    ctx.addAdditionalResponseHeader(headersScheme.limitHeader(), quota);
-                }
-            }
+            addHeaders(ctx, accepted, remainingTokens, remainingSeconds, retryAfter);
             return accepted;
         });
     }
+
+    private void addHeaders(ServiceRequestContext ctx, boolean accepted, long remainingTokens,
+                            long remainingSeconds, long retryAfter) {
+        if (!accepted) {
+            // always send Retry-After header for rejected requests
+            ctx.addAdditionalResponseHeader(HttpHeaderNames.RETRY_AFTER, retryAfter);
+        }
+        if (headersScheme != null) {
+            // when headers scheme defined,
+            // add those to the response (either for accepted or rejected requests)
+            ctx.addAdditionalResponseHeader(headersScheme.remainingHeader(), remainingTokens);
+            ctx.addAdditionalResponseHeader(headersScheme.resetHeader(),
+                                            accepted ? remainingSeconds : retryAfter);
+            if (sendQuota && quota != null) {
+                ctx.addAdditionalResponseHeader(headersScheme.limitHeader(), quota);
+            }
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package com.linecorp.armeria.server.throttling.bucket4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
 import java.time.Duration;
@@ -32,6 +33,10 @@ import com.linecorp.armeria.common.throttling.ThrottlingHeaders;
 @UnstableApi
 public final class TokenBucketThrottlingStrategyBuilder<T extends Request> {
 
+    static final Duration DEFAULT_LEASE_INTERVAL = Duration.ofSeconds(1);
+    static final long DEFAULT_MIN_LEASE_SIZE = 1;
+    static final long DEFAULT_MAX_LEASE_SIZE = 10000;
+
     private final TokenBucket tokenBucket;
     @Nullable
     private Duration minimumBackoff;
@@ -40,6 +45,13 @@ public final class TokenBucketThrottlingStrategyBuilder<T extends Request> {
     private boolean sendQuota;
     @Nullable
     private String name;
+    @Nullable
+    private TokenLeaseStore leaseStore;
+    @Nullable
+    private String leaseKey;
+    private Duration leaseInterval = DEFAULT_LEASE_INTERVAL;
+    private long minLeaseSize = DEFAULT_MIN_LEASE_SIZE;
+    private long maxLeaseSize = DEFAULT_MAX_LEASE_SIZE;
 
     TokenBucketThrottlingStrategyBuilder(TokenBucket tokenBucket) {
         this.tokenBucket = requireNonNull(tokenBucket, "tokenBucket");
@@ -90,10 +102,65 @@ public final class TokenBucketThrottlingStrategyBuilder<T extends Request> {
         return headersScheme(headersScheme, false);
     }
 
+    /**
+     * Enforces the limits across all nodes which share the specified {@link TokenLeaseStore}.
+     * The strategy leases batches of tokens for the specified {@code key} from the store in the background
+     * and consumes them locally, so that the store is not accessed for every request.
+     * By default, the limits are enforced per {@link TokenBucketThrottlingStrategy} instance.
+     *
+     * @param leaseStore the {@link TokenLeaseStore} shared by the nodes
+     * @param key the key of the shared token bucket. Use the same key in all nodes which enforce
+     *            the same quota.
+     */
+    public TokenBucketThrottlingStrategyBuilder<T> leaseStore(TokenLeaseStore leaseStore, String key) {
+        this.leaseStore = requireNonNull(leaseStore, "leaseStore");
+        leaseKey = requireNonNull(key, "key");
+        return this;
+    }
+
+    /**
+     * Sets how long a lease of tokens should last at the current request rate. A longer interval accesses
+     * the {@link TokenLeaseStore} less often, while the quota is distributed less evenly among the nodes.
+     * The leased tokens which are not consumed within twice this interval are discarded.
+     * This option is used only when {@link #leaseStore(TokenLeaseStore, String)} is specified.
+     * If unspecified, 1 second is used.
+     */
+    public TokenBucketThrottlingStrategyBuilder<T> leaseInterval(Duration leaseInterval) {
+        requireNonNull(leaseInterval, "leaseInterval");
+        checkArgument(!leaseInterval.isNegative() && !leaseInterval.isZero(),
+                      "leaseInterval: %s (expected: > 0)", leaseInterval);
+        this.leaseInterval = leaseInterval;
+        return this;
+    }
+
+    /**
+     * Sets the minimum and maximum number of tokens to lease at once. The actual size of a lease is
+     * adjusted between them according to the local request rate.
+     * This option is used only when {@link #leaseStore(TokenLeaseStore, String)} is specified.
+     * If unspecified, {@value #DEFAULT_MIN_LEASE_SIZE} and {@value #DEFAULT_MAX_LEASE_SIZE} are used.
+     */
+    public TokenBucketThrottlingStrategyBuilder<T> leaseSize(long minLeaseSize, long maxLeaseSize) {
+        checkArgument(minLeaseSize > 0, "minLeaseSize: %s (expected: > 0)", minLeaseSize);
+        checkArgument(maxLeaseSize >= minLeaseSize,
+                      "maxLeaseSize: %s (expected: >= minLeaseSize(%s))", maxLeaseSize, minLeaseSize);
+        this.minLeaseSize = minLeaseSize;
+        this.maxLeaseSize = maxLeaseSize;
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link TokenBucketThrottlingStrategy} based on the properties of this builder.
      */
     public TokenBucketThrottlingStrategy<T> build() {
-        return new TokenBucketThrottlingStrategy<>(tokenBucket, minimumBackoff, headersScheme, sendQuota, name);
+        final long leaseIntervalNanos = leaseInterval.toNanos();
+        TokenLeaser leaser = null;
+        if (leaseStore != null) {
+            assert leaseKey != null;
+            checkState(tokenBucket.limits().length > 0, "tokenBucket has no limits: %s", tokenBucket);
+            leaser = new TokenLeaser(leaseStore, leaseKey, tokenBucket, leaseIntervalNanos,
+                                     minLeaseSize, maxLeaseSize);
+        }
+        return new TokenBucketThrottlingStrategy<>(tokenBucket, minimumBackoff, headersScheme, sendQuota, name,
+                                                   leaser, leaseIntervalNanos);
     }
 }
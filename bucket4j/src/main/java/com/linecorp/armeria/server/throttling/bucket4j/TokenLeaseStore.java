@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling.bucket4j;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * A store shared by all nodes of a cluster, which holds the token buckets and hands out batches of tokens
+ * to the nodes. A {@link TokenBucketThrottlingStrategy} configured with
+ * {@link TokenBucketThrottlingStrategyBuilder#leaseStore(TokenLeaseStore, String)} leases tokens from
+ * this store in the background and consumes them locally, so that the store is not accessed for every
+ * request.
+ *
+ * <p>An implementation usually delegates to a distributed backend of Bucket4j, such as JCache or Redis,
+ * consuming the tokens with {@code tryConsumeAsMuchAsPossible()}.
+ */
+@UnstableApi
+@FunctionalInterface
+public interface TokenLeaseStore {
+
+    /**
+     * Returns a new {@link TokenLeaseStore} which keeps the token buckets in the memory of the current
+     * JVM. It is meant for testing and for sharing a quota between several strategies in one JVM.
+     */
+    static TokenLeaseStore ofInMemory() {
+        return new InMemoryTokenLeaseStore();
+    }
+
+    /**
+     * Consumes up to {@code maxTokens} tokens from the token bucket of the specified {@code key}.
+     *
+     * @param key the key of the token bucket, shared by all nodes that enforce the same quota
+     * @param tokenBucket the configuration of the token bucket, which should be used to create the bucket
+     *                    if it does not exist
+     * @param maxTokens the maximum number of tokens to consume
+     * @return the {@link CompletableFuture} which is completed with the number of consumed tokens,
+     *         between {@code 0} and {@code maxTokens}
+     */
+    CompletableFuture<Long> lease(String key, TokenBucket tokenBucket, long maxTokens);
+}
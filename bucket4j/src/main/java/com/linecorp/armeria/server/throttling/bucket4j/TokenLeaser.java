@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling.bucket4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.CommonPools;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
+
+/**
+ * Leases batches of tokens from a {@link TokenLeaseStore} and consumes them locally.
+ *
+ * <p>The size of a lease follows the local consumption rate so that one lease lasts about
+ * {@code leaseIntervalNanos}. A new lease is requested in the background when a quarter of the current
+ * lease is left, so the common path is a single compare-and-set on a local counter. The leased tokens
+ * expire after two lease intervals, so that an idle node does not hold back the quota of the cluster.
+ * A lease which does not complete within a lease interval fails, so that a hung store does not block
+ * the later leases.
+ */
+final class TokenLeaser {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenLeaser.class);
+
+    private static final CompletableFuture<Boolean> TRUE_FUTURE = UnmodifiableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> FALSE_FUTURE = UnmodifiableFuture.completedFuture(false);
+
+    private final TokenLeaseStore store;
+    private final String key;
+    private final long leaseIntervalNanos;
+    private final long minLeaseSize;
+    private final long maxLeaseSize;
+
+    private volatile TokenBucket tokenBucket;
+
+    private final AtomicLong localTokens = new AtomicLong();
+    private final LongAdder consumedTokens = new LongAdder();
+    private final AtomicReference<CompletableFuture<Boolean>> pendingLease = new AtomicReference<>();
+
+    private volatile long expiryNanos;
+    private volatile long nextLeaseNanos;
+    private volatile long leaseSize;
+    private volatile long nextWarnNanos;
+
+    // Updated only by the thread which started the pending lease.
+    private long lastLeaseStartNanos;
+    private double consumptionRatePerNanos;
+
+    TokenLeaser(TokenLeaseStore store, String key, TokenBucket tokenBucket, long leaseIntervalNanos,
+                long minLeaseSize, long maxLeaseSize) {
+        this.store = store;
+        this.key = key;
+        this.tokenBucket = tokenBucket;
+        this.leaseIntervalNanos = leaseIntervalNanos;
+        this.minLeaseSize = minLeaseSize;
+        this.maxLeaseSize = maxLeaseSize;
+        leaseSize = minLeaseSize;
+        final long now = System.nanoTime();
+        expiryNanos = now;
+        nextLeaseNanos = now;
+        nextWarnNanos = now;
+        lastLeaseStartNanos = now;
+    }
+
+    void reconfigure(TokenBucket tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    /**
+     * Returns the number of the tokens that are left in the current lease.
+     */
+    long localTokens() {
+        return localTokens.get();
+    }
+
+    @VisibleForTesting
+    long leaseSize() {
+        return leaseSize;
+    }
+
+    CompletableFuture<Boolean> tryAcquire() {
+        final long now = System.nanoTime();
+        if (tryConsume(now)) {
+            if (localTokens.get() <= leaseSize / 4) {
+                lease(now);
+            }
+            return TRUE_FUTURE;
+        }
+
+        // Ran out of the leased tokens. Wait for a lease instead of rejecting the request if the cluster
+        // still has tokens to give.
+        final CompletableFuture<Boolean> lease = lease(now);
+        if (lease == null) {
+            return FALSE_FUTURE;
+        }
+        return lease.thenApply(leased -> leased && tryConsume(System.nanoTime()));
+    }
+
+    private boolean tryConsume(long now) {
+        for (;;) {
+            // Read the tokens before the expiry. onLeaseComplete() updates them in the opposite order,
+            // so the tokens observed with a stale expiry are the ones of the expired lease.
+            final long tokens = localTokens.get();
+            if (now - expiryNanos >= 0) {
+                if (tokens > 0) {
+                    // Discard the expired tokens unless a new lease has replaced them in the meantime.
+                    localTokens.compareAndSet(tokens, 0);
+                }
+                return false;
+            }
+            if (tokens <= 0) {
+                return false;
+            }
+            if (localTokens.compareAndSet(tokens, tokens - 1)) {
+                consumedTokens.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Requests a new lease if there's no pending lease. Returns {@code null} if a new lease cannot be
+     * requested yet because the store had no tokens left recently.
+     */
+    @Nullable
+    private CompletableFuture<Boolean> lease(long now) {
+        final CompletableFuture<Boolean> pending = pendingLease.get();
+        if (pending != null) {
+            return pending;
+        }
+        if (now - nextLeaseNanos < 0) {
+            return null;
+        }
+
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        if (!pendingLease.compareAndSet(null, future)) {
+            // Another thread started a lease. If it's already complete, let the caller try the local
+            // tokens again.
+            final CompletableFuture<Boolean> other = pendingLease.get();
+            return other != null ? other : TRUE_FUTURE;
+        }
+
+        final long requestedTokens = nextLeaseSize(now);
+        leaseSize = requestedTokens;
+        final CompletableFuture<Long> leaseFuture;
+        try {
+            leaseFuture = store.lease(key, tokenBucket, requestedTokens);
+        } catch (Throwable t) {
+            onLeaseComplete(future, null, t);
+            return future;
+        }
+        final CompletableFuture<Long> timedLeaseFuture = new CompletableFuture<>();
+        final ScheduledFuture<?> timeoutFuture = CommonPools.workerGroup().next().schedule(
+                () -> timedLeaseFuture.completeExceptionally(new TimeoutException(
+                        "lease timed out after " + TimeUnit.NANOSECONDS.toMillis(leaseIntervalNanos) + "ms")),
+                leaseIntervalNanos, TimeUnit.NANOSECONDS);
+        leaseFuture.handle((granted, cause) -> {
+            timeoutFuture.cancel(false);
+            if (cause != null) {
+                timedLeaseFuture.completeExceptionally(cause);
+            } else {
+                timedLeaseFuture.complete(granted);
+            }
+            return null;
+        });
+        timedLeaseFuture.handle((granted, cause) -> {
+            onLeaseComplete(future, granted, cause);
+            return null;
+        });
+        return future;
+    }
+
+    private void onLeaseComplete(CompletableFuture<Boolean> future, @Nullable Long granted,
+                                 @Nullable Throwable cause) {
+        final long now = System.nanoTime();
+        final boolean leased;
+        if (cause != null) {
+            // Warn at most once per lease interval while the store is unavailable.
+            if (now - nextWarnNanos >= 0) {
+                nextWarnNanos = now + leaseIntervalNanos;
+                logger.warn("Failed to lease tokens from {}. key: {}", store, key, cause);
+            }
+            leased = false;
+        } else {
+            leased = granted != null && granted > 0;
+        }
+
+        if (leased) {
+            final boolean expired = now - expiryNanos >= 0;
+            // Extend the expiry before publishing the tokens so that tryConsume() does not discard
+            // the new tokens as expired ones.
+            expiryNanos = now + 2 * leaseIntervalNanos;
+            if (expired) {
+                // The previous lease expired. Do not carry over its tokens.
+                localTokens.set(granted);
+            } else {
+                localTokens.addAndGet(granted);
+            }
+        } else {
+            // The cluster has no tokens left or the store is unavailable.
+            // Back off instead of asking the store for every request.
+            nextLeaseNanos = now + leaseIntervalNanos / 10;
+        }
+        pendingLease.set(null);
+        future.complete(leased);
+    }
+
+    private long nextLeaseSize(long now) {
+        final long elapsedNanos = now - lastLeaseStartNanos;
+        lastLeaseStartNanos = now;
+        final long consumed = consumedTokens.sumThenReset();
+        if (elapsedNanos > 0) {
+            final double rate = (double) consumed / elapsedNanos;
+            // Weigh the latest rate more so that the lease size catches up with a burst quickly.
+            consumptionRatePerNanos =
+                    consumptionRatePerNanos == 0 ? rate : consumptionRatePerNanos * 0.3 + rate * 0.7;
+        }
+        final long size = (long) Math.ceil(consumptionRatePerNanos * leaseIntervalNanos);
+        return Math.max(minLeaseSize, Math.min(maxLeaseSize, size));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("key", key)
+                          .add("store", store)
+                          .add("localTokens", localTokens)
+                          .add("leaseSize", leaseSize)
+                          .add("leaseIntervalMillis", TimeUnit.NANOSECONDS.toMillis(leaseIntervalNanos))
+                          .toString();
+    }
+}
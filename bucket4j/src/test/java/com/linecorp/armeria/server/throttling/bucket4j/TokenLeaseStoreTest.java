@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling.bucket4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.throttling.ThrottlingHeaders;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+class TokenLeaseStoreTest {
+
+    private static final TokenBucket tokenBucket = TokenBucket.of(10, Duration.ofHours(1));
+
+    @Test
+    void quotaIsSharedBetweenStrategies() {
+        final TokenLeaseStore store = TokenLeaseStore.ofInMemory();
+        final TokenBucketThrottlingStrategy<HttpRequest> node1 = newStrategy(store);
+        final TokenBucketThrottlingStrategy<HttpRequest> node2 = newStrategy(store);
+
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (accept(node1)) {
+                accepted++;
+            }
+            if (accept(node2)) {
+                accepted++;
+            }
+        }
+        assertThat(accepted).isEqualTo(10);
+    }
+
+    @Test
+    void leaseSizeFollowsConsumption() {
+        final TokenLeaser leaser = new TokenLeaser(TokenLeaseStore.ofInMemory(), "key",
+                                                   TokenBucket.of(1000000, Duration.ofHours(1)),
+                                                   Duration.ofSeconds(1).toNanos(), 1, 100);
+        assertThat(leaser.tryAcquire().join()).isTrue();
+        assertThat(leaser.leaseSize()).isOne();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(leaser.tryAcquire().join()).isTrue();
+        }
+        // A thousand tokens were consumed in far less than a second.
+        assertThat(leaser.leaseSize()).isEqualTo(100);
+    }
+
+    @Test
+    void rejectAndBackOffWhenStoreFails() {
+        final AtomicInteger numLeases = new AtomicInteger();
+        final TokenLeaseStore store = (key, tokenBucket, maxTokens) -> {
+            numLeases.incrementAndGet();
+            return UnmodifiableFuture.exceptionallyCompletedFuture(new IllegalStateException("unavailable"));
+        };
+        final TokenBucketThrottlingStrategy<HttpRequest> strategy =
+                TokenBucketThrottlingStrategy.<HttpRequest>builder(tokenBucket)
+                                             .leaseStore(store, "key")
+                                             .headersScheme(ThrottlingHeaders.X_RATELIMIT)
+                                             .build();
+        final ServiceRequestContext ctx = newContext();
+        assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isFalse();
+        assertThat(ctx.additionalResponseHeaders().get(HttpHeaderNames.RETRY_AFTER)).isEqualTo("1");
+        assertThat(ctx.additionalResponseHeaders().get("X-RateLimit-Remaining")).isEqualTo("0");
+
+        // The store is not accessed again until the backoff elapses.
+        assertThat(accept(strategy)).isFalse();
+        assertThat(numLeases).hasValue(1);
+    }
+
+    @Test
+    void lateLeaseIsUsed() {
+        final CompletableFuture<Long> lease = new CompletableFuture<>();
+        final TokenLeaseStore store = (key, tokenBucket, maxTokens) -> lease;
+        final TokenBucketThrottlingStrategy<HttpRequest> strategy =
+                TokenBucketThrottlingStrategy.<HttpRequest>builder(tokenBucket)
+                                             .leaseStore(store, "key")
+                                             .build();
+        final ServiceRequestContext ctx = newContext();
+        final CompletableFuture<Boolean> accepted = strategy.accept(ctx, ctx.request()).toCompletableFuture();
+        assertThat(accepted).isNotDone();
+        lease.complete(1L);
+        assertThat(accepted.join()).isTrue();
+    }
+
+    @Test
+    void hungLeaseTimesOut() {
+        final AtomicInteger numLeases = new AtomicInteger();
+        final TokenLeaseStore store = (key, tokenBucket, maxTokens) -> {
+            numLeases.incrementAndGet();
+            return new CompletableFuture<>();
+        };
+        final TokenLeaser leaser = new TokenLeaser(store, "key", tokenBucket,
+                                                   Duration.ofMillis(100).toNanos(), 1, 100);
+        assertThat(leaser.tryAcquire().join()).isFalse();
+        assertThat(numLeases).hasValue(1);
+
+        // A new lease is requested once the backoff elapses instead of waiting for the hung one.
+        await().untilAsserted(() -> {
+            assertThat(leaser.tryAcquire().join()).isFalse();
+            assertThat(numLeases).hasValueGreaterThan(1);
+        });
+    }
+
+    private static TokenBucketThrottlingStrategy<HttpRequest> newStrategy(TokenLeaseStore store) {
+        return TokenBucketThrottlingStrategy.<HttpRequest>builder(tokenBucket)
+                                            .leaseStore(store, "tenant-1")
+                                            .leaseSize(1, 4)
+                                            .build();
+    }
+
+    private static boolean accept(TokenBucketThrottlingStrategy<HttpRequest> strategy) {
+        final ServiceRequestContext ctx = newContext();
+        return strategy.accept(ctx, ctx.request()).toCompletableFuture().join();
+    }
+
+    private static ServiceRequestContext newContext() {
+        return ServiceRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+    }
+}
@@ -21,6 +21,8 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import com.linecorp.armeria.common.annotation.Nullable;
+
 import io.netty.channel.EventLoop;
 
 abstract class AbstractEventLoopState {
@@ -73,7 +75,16 @@ abstract class AbstractEventLoopState {
         lock.unlock();
     }
 
-    abstract AbstractEventLoopEntry acquire();
+    final AbstractEventLoopEntry acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Acquires an {@link AbstractEventLoopEntry}. If {@code preferredEventLoop} is not {@code null},
+     * the entry of the {@code preferredEventLoop} is returned if this state already uses it or can add it
+     * without exceeding the maximum number of {@link EventLoop}s.
+     */
+    abstract AbstractEventLoopEntry acquire(@Nullable EventLoop preferredEventLoop);
 
     abstract void release(AbstractEventLoopEntry e);
 
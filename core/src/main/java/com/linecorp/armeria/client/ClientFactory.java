@@ -39,10 +39,12 @@ import com.linecorp.armeria.common.Scheme;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.common.util.ListenableAsyncCloseable;
 import com.linecorp.armeria.common.util.ReleasableHolder;
 import com.linecorp.armeria.common.util.ShutdownHooks;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
 import com.linecorp.armeria.common.util.Unwrappable;
 
 import io.micrometer.core.instrument.MeterRegistry;
@@ -209,6 +211,28 @@ public interface ClientFactory extends Unwrappable, ListenableAsyncCloseable {
      */
     int numConnections();
 
+    /**
+     * Opens the specified number of connections to each {@link Endpoint} of the specified
+     * {@link EndpointGroup} and keeps them in the connection pool, so that the first requests do not
+     * suffer from the latency of connection establishment and TLS handshakes, e.g. right after
+     * a deployment. Note that this method opens new connections regardless of the existing ones.
+     *
+     * @param sessionProtocol the {@link SessionProtocol} of the connections, which must be one of
+     *                        {@link SessionProtocol#httpValues()} and {@link SessionProtocol#httpsValues()}
+     * @param endpointGroup the {@link EndpointGroup} whose {@link Endpoint}s the connections are opened to.
+     *                      The connections are opened once the {@link EndpointGroup} is ready.
+     * @param numConnectionsPerEndpoint the number of connections to open to each {@link Endpoint}
+     *
+     * @return the {@link CompletableFuture} which is completed when all connection attempts are done.
+     *         It is completed exceptionally if any of the attempts failed.
+     */
+    @UnstableApi
+    default CompletableFuture<Void> prewarm(SessionProtocol sessionProtocol, EndpointGroup endpointGroup,
+                                            int numConnectionsPerEndpoint) {
+        return UnmodifiableFuture.exceptionallyCompletedFuture(new UnsupportedOperationException(
+                getClass().getName() + " does not support connection pre-warming."));
+    }
+
     /**
      * Returns the {@link ClientBuilderParams} held in {@code client}. This is used when creating a new derived
      * {@link Client} which inherits {@link ClientBuilderParams} from {@code client}. If this
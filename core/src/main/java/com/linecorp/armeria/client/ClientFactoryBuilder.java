@@ -64,6 +64,8 @@ import com.linecorp.armeria.common.Http1HeaderNaming;
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.TlsSetters;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.EventLoopGroups;
 import com.linecorp.armeria.internal.common.RequestContextUtil;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
@@ -107,6 +109,9 @@ public final class ClientFactoryBuilder implements TlsSetters {
 
     static final long MIN_MAX_CONNECTION_AGE_MILLIS = 1_000L;
 
+    static final MeterIdPrefix DEFAULT_EVENT_LOOP_METER_ID_PREFIX =
+            new MeterIdPrefix("armeria.client.event.loop");
+
     static {
         RequestContextUtil.init();
     }
@@ -121,6 +126,8 @@ public final class ClientFactoryBuilder implements TlsSetters {
     private int maxNumEventLoopsPerEndpoint;
     private int maxNumEventLoopsPerHttp1Endpoint;
     private final List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions = new ArrayList<>();
+    private boolean preferCallerEventLoop;
+    private MeterIdPrefix eventLoopMeterIdPrefix = DEFAULT_EVENT_LOOP_METER_ID_PREFIX;
     private boolean tlsNoVerifySet;
     private final Set<String> insecureHosts = new HashSet<>();
 
@@ -161,7 +168,7 @@ public final class ClientFactoryBuilder implements TlsSetters {
             Function<? super EventLoopGroup, ? extends EventLoopScheduler> eventLoopSchedulerFactory) {
         requireNonNull(eventLoopSchedulerFactory, "eventLoopSchedulerFactory");
         checkState(maxNumEventLoopsPerHttp1Endpoint == 0 && maxNumEventLoopsPerEndpoint == 0 &&
-                   maxNumEventLoopsFunctions.isEmpty(),
+                   maxNumEventLoopsFunctions.isEmpty() && !preferCallerEventLoop,
                    "Cannot set eventLoopSchedulerFactory when maxEventLoop per endpoint is specified.");
         option(ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY, eventLoopSchedulerFactory);
         return this;
@@ -219,6 +226,41 @@ public final class ClientFactoryBuilder implements TlsSetters {
         return this;
     }
 
+    /**
+     * Sets whether to prefer the {@link EventLoop} of the caller when assigning an {@link EventLoop} to
+     * a request. If enabled and a request is sent from one of the {@link EventLoop}s of this factory,
+     * e.g. by a server-side service sharing the worker group, the request is handled by the same
+     * {@link EventLoop} as long as the number of {@link EventLoop}s used for the {@link Endpoint} does not
+     * exceed {@link #maxNumEventLoopsPerEndpoint(int)}, so that the request and its response are not
+     * handed off to another thread. This option is disabled by default.
+     *
+     * <p>If enabled, the number of the acquisitions which got the caller's {@link EventLoop} and the ones
+     * which did not are exported as {@code armeria.client.event.loop.acquisitions} with the tag
+     * {@code result}. Use {@link #preferCallerEventLoop(boolean, MeterIdPrefix)} to tell the meters of
+     * this factory from the ones of other factories which share the same {@link MeterRegistry}.
+     */
+    @UnstableApi
+    public ClientFactoryBuilder preferCallerEventLoop(boolean preferCallerEventLoop) {
+        return preferCallerEventLoop(preferCallerEventLoop, DEFAULT_EVENT_LOOP_METER_ID_PREFIX);
+    }
+
+    /**
+     * Sets whether to prefer the {@link EventLoop} of the caller when assigning an {@link EventLoop} to
+     * a request, exporting the number of the acquisitions as {@code <meterIdPrefix>.acquisitions}.
+     *
+     * @see #preferCallerEventLoop(boolean)
+     */
+    @UnstableApi
+    public ClientFactoryBuilder preferCallerEventLoop(boolean preferCallerEventLoop,
+                                                      MeterIdPrefix meterIdPrefix) {
+        requireNonNull(meterIdPrefix, "meterIdPrefix");
+        checkState(!options.containsKey(ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY),
+                   "preferCallerEventLoop() and eventLoopSchedulerFactory() are mutually exclusive.");
+        this.preferCallerEventLoop = preferCallerEventLoop;
+        eventLoopMeterIdPrefix = meterIdPrefix;
+        return this;
+    }
+
     /**
      * Sets the timeout of a socket connection attempt.
      */
@@ -718,6 +760,26 @@ public final class ClientFactoryBuilder implements TlsSetters {
         return this;
     }
 
+    /**
+     * Sets the ratio of the active streams to the {@code MAX_CONCURRENT_STREAMS} setting of an HTTP/2
+     * connection above which a new HTTP/2 connection to the same endpoint is opened in the background.
+     * Once there are multiple connections to an endpoint, a new stream is sent through the connection with
+     * the lowest utilization, so that the streams are spread across multiple TCP connections rather than
+     * being limited by the throughput of a single connection. {@code 1.0}, the default, opens a new
+     * connection only when all the existing connections are full.
+     *
+     * @param http2StreamUtilizationThreshold the threshold between {@code 0.0} (exclusive)
+     *                                        and {@code 1.0} (inclusive)
+     */
+    @UnstableApi
+    public ClientFactoryBuilder http2StreamUtilizationThreshold(double http2StreamUtilizationThreshold) {
+        checkArgument(http2StreamUtilizationThreshold > 0 && http2StreamUtilizationThreshold <= 1,
+                      "http2StreamUtilizationThreshold: %s (expected: 0.0 < threshold <= 1.0)",
+                      http2StreamUtilizationThreshold);
+        option(ClientFactoryOptions.HTTP2_STREAM_UTILIZATION_THRESHOLD, http2StreamUtilizationThreshold);
+        return this;
+    }
+
     /**
      * Sets whether to send an HTTP/2 preface string instead of an HTTP/1 upgrade request to negotiate
      * the protocol version of a cleartext HTTP connection.
@@ -834,7 +896,7 @@ public final class ClientFactoryBuilder implements TlsSetters {
             final Function<? super EventLoopGroup, ? extends EventLoopScheduler> eventLoopSchedulerFactory =
                     eventLoopGroup -> new DefaultEventLoopScheduler(
                             eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
-                            maxNumEventLoopsFunctions);
+                            maxNumEventLoopsFunctions, preferCallerEventLoop, eventLoopMeterIdPrefix);
             return ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY.newValue(eventLoopSchedulerFactory);
         });
 
@@ -196,6 +196,16 @@ public final class ClientFactoryOptions
             ClientFactoryOption.define("MAX_NUM_REQUESTS_PER_CONNECTION",
                                        Flags.defaultMaxClientNumRequestsPerConnection());
 
+    /**
+     * The ratio of the active streams to the {@code MAX_CONCURRENT_STREAMS} setting of an HTTP/2 connection
+     * above which a new HTTP/2 connection to the same endpoint is opened in the background, so that
+     * the streams are spread across multiple connections. {@code 1.0}, the default, opens a new
+     * connection only when all the existing connections are full.
+     */
+    @UnstableApi
+    public static final ClientFactoryOption<Double> HTTP2_STREAM_UTILIZATION_THRESHOLD =
+            ClientFactoryOption.define("HTTP2_STREAM_UTILIZATION_THRESHOLD", 1.0);
+
     /**
      * Whether to send an HTTP/2 preface string instead of an HTTP/1 upgrade request to negotiate
      * the protocol version of a cleartext HTTP connection.
@@ -483,6 +493,15 @@ public final class ClientFactoryOptions
         return get(MAX_NUM_REQUESTS_PER_CONNECTION);
     }
 
+    /**
+     * Returns the ratio of the active streams to the {@code MAX_CONCURRENT_STREAMS} setting of an HTTP/2
+     * connection above which a new HTTP/2 connection to the same endpoint is opened in the background.
+     */
+    @UnstableApi
+    public double http2StreamUtilizationThreshold() {
+        return get(HTTP2_STREAM_UTILIZATION_THRESHOLD);
+    }
+
     /**
      * Returns whether to send an HTTP/2 preface string instead of an HTTP/1 upgrade request to negotiate
      * the protocol version of a cleartext HTTP connection.
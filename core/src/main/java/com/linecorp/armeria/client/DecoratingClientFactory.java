@@ -147,6 +147,12 @@ public class DecoratingClientFactory extends AbstractUnwrappable<ClientFactory>
         return unwrap().numConnections();
     }
 
+    @Override
+    public CompletableFuture<Void> prewarm(SessionProtocol sessionProtocol, EndpointGroup endpointGroup,
+                                           int numConnectionsPerEndpoint) {
+        return unwrap().prewarm(sessionProtocol, endpointGroup, numConnectionsPerEndpoint);
+    }
+
     @Override
     public CompletableFuture<Void> closeOnJvmShutdown(Runnable whenClosing) {
         return unwrap().closeOnJvmShutdown(whenClosing);
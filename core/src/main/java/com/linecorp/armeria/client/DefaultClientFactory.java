@@ -155,6 +155,12 @@ final class DefaultClientFactory implements ClientFactory {
         return httpClientFactory.numConnections();
     }
 
+    @Override
+    public CompletableFuture<Void> prewarm(SessionProtocol sessionProtocol, EndpointGroup endpointGroup,
+                                           int numConnectionsPerEndpoint) {
+        return httpClientFactory.prewarm(sessionProtocol, endpointGroup, numConnectionsPerEndpoint);
+    }
+
     @Override
     public ClientFactoryOptions options() {
         return httpClientFactory.options();
@@ -13,7 +13,6 @@
  * License for the specific language governing permissions and limitations
  * under the License.
  */
-
 package com.linecorp.armeria.client;
 
 import static com.linecorp.armeria.internal.common.util.CollectionUtil.truncate;
@@ -25,6 +24,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,30 +42,46 @@ import com.google.common.primitives.Ints;
 
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.internal.client.dns.DnsCacheExtension;
 import com.linecorp.armeria.internal.common.metric.CaffeineMetricSupport;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.handler.codec.dns.DnsQuestion;
 import io.netty.handler.codec.dns.DnsRecord;
 
-final class DefaultDnsCache implements DnsCache {
+final class DefaultDnsCache implements DnsCacheExtension {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultDnsCache.class);
 
+    private static final AtomicIntegerFieldUpdater<CacheEntry> refreshingUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(CacheEntry.class, "refreshing");
+
     private final List<DnsCacheListener> listeners = new CopyOnWriteArrayList<>();
     private final Cache<DnsQuestion, CacheEntry> cache;
     private final ScheduledExecutorService executor;
     private final int minTtl;
     private final int maxTtl;
     private final int negativeTtl;
+    private final double prefetchRatio;
+    private final int staleTtl;
     private boolean evictionWarned;
 
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter prefetches;
+    private final Counter revalidations;
+
     DefaultDnsCache(String cacheSpec, MeterRegistry meterRegistry, ScheduledExecutorService executor,
-                    int minTtl, int maxTtl, int negativeTtl) {
+                    int minTtl, int maxTtl, int negativeTtl, double prefetchRatio, int staleTtl) {
         this.executor = executor;
         this.minTtl = minTtl;
         this.maxTtl = maxTtl;
         this.negativeTtl = negativeTtl;
+        this.prefetchRatio = prefetchRatio;
+        this.staleTtl = staleTtl;
         cache = Caffeine.from(cacheSpec)
                         .removalListener((RemovalListener<DnsQuestion, CacheEntry>) (key, value, cause) -> {
                             if (value != null) {
@@ -101,6 +118,15 @@ final class DefaultDnsCache implements DnsCache {
 
         final MeterIdPrefix idPrefix = new MeterIdPrefix("armeria.client.dns.cache");
         CaffeineMetricSupport.setup(meterRegistry, idPrefix, cache);
+
+        final String lookups = idPrefix.name("lookups");
+        hits = meterRegistry.counter(lookups, idPrefix.tags("result", "hit"));
+        staleHits = meterRegistry.counter(lookups, idPrefix.tags("result", "stale"));
+        negativeHits = meterRegistry.counter(lookups, idPrefix.tags("result", "negative"));
+        misses = meterRegistry.counter(lookups, idPrefix.tags("result", "miss"));
+        final String refreshes = idPrefix.name("refreshes");
+        prefetches = meterRegistry.counter(refreshes, idPrefix.tags("reason", "prefetch"));
+        revalidations = meterRegistry.counter(refreshes, idPrefix.tags("reason", "stale"));
     }
 
     private static void invokeListener(DnsCacheListener listener, boolean evicted, DnsQuestion question,
@@ -129,7 +155,7 @@ final class DefaultDnsCache implements DnsCache {
                                .orElse(minTtl);
         final int effectiveTtl = Math.min(maxTtl, Math.max(minTtl, Ints.saturatedCast(ttl)));
 
-        cache.put(question, new CacheEntry(cache, question, copied, null, executor, effectiveTtl));
+        cache.put(question, new CacheEntry(question, copied, null, effectiveTtl, false));
     }
 
     @Override
@@ -137,22 +163,67 @@ final class DefaultDnsCache implements DnsCache {
         requireNonNull(question, "question");
         requireNonNull(cause, "cause");
 
+        final CacheEntry oldEntry = cache.getIfPresent(question);
+        if (oldEntry != null && oldEntry.records() != null && oldEntry.refreshing != 0) {
+            // A prefetch or a revalidation of the cached records has failed.
+            // Keep serving the old records rather than replacing them with the failure.
+            logger.debug("[{}] Keeping the cached DNS records after a failed refresh: {}",
+                         question.name(), cause.getMessage());
+            // Allow the next lookup to try again.
+            oldEntry.refreshing = 0;
+            return;
+        }
+
         if (negativeTtl > 0) {
-            cache.put(question, new CacheEntry(cache, question, null, cause, executor, negativeTtl));
+            cache.put(question, new CacheEntry(question, null, cause, negativeTtl, false));
         }
     }
 
+    @Nullable
     @Override
     public List<DnsRecord> get(DnsQuestion question) throws UnknownHostException {
         requireNonNull(question, "question");
         final CacheEntry entry = cache.getIfPresent(question);
+        if (entry == null || entry.stale) {
+            return null;
+        }
+        final UnknownHostException cause = entry.cause();
+        if (cause != null) {
+            throw cause;
+        }
+        return entry.records();
+    }
+
+    @Nullable
+    @Override
+    public List<DnsRecord> get(DnsQuestion question, Consumer<? super DnsQuestion> refresher)
+            throws UnknownHostException {
+        requireNonNull(question, "question");
+        requireNonNull(refresher, "refresher");
+        final CacheEntry entry = cache.getIfPresent(question);
         if (entry == null) {
+            misses.increment();
             return null;
         }
         final UnknownHostException cause = entry.cause();
         if (cause != null) {
+            negativeHits.increment();
             throw cause;
         }
+
+        if (entry.stale) {
+            staleHits.increment();
+            if (entry.tryRefresh()) {
+                revalidations.increment();
+                refresher.accept(question);
+            }
+        } else {
+            hits.increment();
+            if (entry.shouldPrefetch() && entry.tryRefresh()) {
+                prefetches.increment();
+                refresher.accept(question);
+            }
+        }
         return entry.records();
     }
 
@@ -173,26 +244,50 @@ final class DefaultDnsCache implements DnsCache {
         listeners.add(listener);
     }
 
-    private static final class CacheEntry {
+    private final class CacheEntry {
 
+        private final DnsQuestion question;
         @Nullable
         private final List<DnsRecord> records;
         @Nullable
         private final UnknownHostException cause;
         private final ScheduledFuture<?> scheduledFuture;
+        private final boolean stale;
+        private final long prefetchNanos;
         int hashCode;
 
-        CacheEntry(Cache<DnsQuestion, CacheEntry> cache, DnsQuestion question,
-                   @Nullable List<DnsRecord> records,
-                   @Nullable UnknownHostException cause, ScheduledExecutorService executor,
-                   int timeToLive) {
+        // Updated via refreshingUpdater
+        volatile int refreshing;
+
+        CacheEntry(DnsQuestion question, @Nullable List<DnsRecord> records,
+                   @Nullable UnknownHostException cause, int timeToLive, boolean stale) {
             assert records != null || cause != null;
+            this.question = question;
             this.records = records;
             this.cause = cause;
+            this.stale = stale;
 
-            scheduledFuture = executor.schedule(() -> {
+            if (records != null && !stale && prefetchRatio > 0) {
+                final long ttlNanos = TimeUnit.SECONDS.toNanos(timeToLive);
+                prefetchNanos = System.nanoTime() + ttlNanos - (long) (ttlNanos * prefetchRatio);
+            } else {
+                prefetchNanos = 0;
+            }
+
+            scheduledFuture = executor.schedule(this::expire, timeToLive, TimeUnit.SECONDS);
+        }
+
+        private void expire() {
+            if (records != null && !stale && staleTtl > 0) {
+                // Keep the records around so that they are served while being revalidated.
+                // The listeners are notified of the removal as usual so that they can refresh them.
+                final CacheEntry staleEntry = new CacheEntry(question, records, null, staleTtl, true);
+                if (!cache.asMap().replace(question, this, staleEntry)) {
+                    staleEntry.scheduledFuture.cancel(false);
+                }
+            } else {
                 cache.asMap().remove(question, this);
-            }, timeToLive, TimeUnit.SECONDS);
+            }
         }
 
         @Nullable
@@ -205,6 +300,14 @@ final class DefaultDnsCache implements DnsCache {
             return cause;
         }
 
+        boolean shouldPrefetch() {
+            return prefetchNanos != 0 && System.nanoTime() - prefetchNanos >= 0;
+        }
+
+        boolean tryRefresh() {
+            return refreshingUpdater.compareAndSet(this, 0, 1);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
@@ -216,6 +319,7 @@ final class DefaultDnsCache implements DnsCache {
             final CacheEntry that = (CacheEntry) o;
             return Objects.equal(records, that.records) &&
                    Objects.equal(cause, that.cause) &&
+                   stale == that.stale &&
                    scheduledFuture.equals(that.scheduledFuture);
         }
 
@@ -240,6 +344,7 @@ final class DefaultDnsCache implements DnsCache {
             final ToStringHelper builder = MoreObjects.toStringHelper(this)
                                                       .omitNullValues()
                                                       .add("cause", cause)
+                                                      .add("stale", stale)
                                                       .add("scheduledFuture", scheduledFuture);
             if (records != null) {
                 builder.add("records", truncate(records, 10))
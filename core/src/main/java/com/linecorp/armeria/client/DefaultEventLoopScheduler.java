@@ -20,6 +20,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.ToIntFunction;
 
@@ -40,10 +42,14 @@ import com.google.common.collect.Streams;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.ReleasableHolder;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.FastThreadLocal;
 
 final class DefaultEventLoopScheduler implements EventLoopScheduler {
     private static final Logger logger = LoggerFactory.getLogger(DefaultEventLoopScheduler.class);
@@ -69,6 +75,33 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
 
     private final List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions;
 
+    private final boolean preferCallerEventLoop;
+    private final MeterIdPrefix meterIdPrefix;
+    private final List<Meter> meters = new ArrayList<>();
+    @Nullable
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The {@link EventLoop} of {@link #eventLoops} which runs the current thread, or {@code null}
+     * if the current thread is not one of them.
+     */
+    private final FastThreadLocal<EventLoop> callerEventLoop = new FastThreadLocal<EventLoop>() {
+        @Nullable
+        @Override
+        protected EventLoop initialValue() {
+            for (EventLoop eventLoop : eventLoops) {
+                if (eventLoop.inEventLoop()) {
+                    return eventLoop;
+                }
+            }
+            return null;
+        }
+    };
+
+    private final LongAdder localAcquisitions = new LongAdder();
+    private final LongAdder handoffAcquisitions = new LongAdder();
+    private final LongAdder externalAcquisitions = new LongAdder();
+
     private int cleanupCounter;
 
     @SuppressWarnings("FieldMayBeFinal")
@@ -80,6 +113,14 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
     DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
                               int maxNumEventLoopsPerHttp1Endpoint,
                               List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions) {
+        this(eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
+             maxNumEventLoopsFunctions, false, ClientFactoryBuilder.DEFAULT_EVENT_LOOP_METER_ID_PREFIX);
+    }
+
+    DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
+                              int maxNumEventLoopsPerHttp1Endpoint,
+                              List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions,
+                              boolean preferCallerEventLoop, MeterIdPrefix meterIdPrefix) {
         eventLoops = Streams.stream(eventLoopGroup)
                             .map(EventLoop.class::cast)
                             .collect(toImmutableList());
@@ -99,6 +140,8 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
                     Math.min(maxNumEventLoopsPerHttp1Endpoint, eventLoopSize);
         }
         this.maxNumEventLoopsFunctions = ImmutableList.copyOf(maxNumEventLoopsFunctions);
+        this.preferCallerEventLoop = preferCallerEventLoop;
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
     }
 
     /**
@@ -123,11 +166,62 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
         requireNonNull(sessionProtocol, "sessionProtocol");
         requireNonNull(endpointGroup, "endpointGroup");
         final AbstractEventLoopState state = state(sessionProtocol, endpointGroup, endpoint);
-        final AbstractEventLoopEntry acquired = state.acquire();
+        final AbstractEventLoopEntry acquired;
+        if (preferCallerEventLoop) {
+            final EventLoop callerEventLoop = this.callerEventLoop.get();
+            acquired = state.acquire(callerEventLoop);
+            if (callerEventLoop == null) {
+                externalAcquisitions.increment();
+            } else if (acquired.get() == callerEventLoop) {
+                localAcquisitions.increment();
+            } else {
+                handoffAcquisitions.increment();
+            }
+        } else {
+            acquired = state.acquire(null);
+        }
         cleanup();
         return acquired;
     }
 
+    /**
+     * Registers the meters which count the acquisitions by whether the acquired {@link EventLoop} is
+     * the caller's {@link EventLoop}, if the caller's {@link EventLoop} is preferred:
+     * <ul>
+     *   <li>{@code <prefix>.acquisitions#count{result=local}} - the caller's {@link EventLoop}</li>
+     *   <li>{@code <prefix>.acquisitions#count{result=handoff}} - another {@link EventLoop} than
+     *       the caller's {@link EventLoop}, i.e. the request is handed off to another thread.</li>
+     *   <li>{@code <prefix>.acquisitions#count{result=external}} - the caller is not an {@link EventLoop}
+     *       of this scheduler.</li>
+     * </ul>
+     */
+    void bindTo(MeterRegistry registry) {
+        if (!preferCallerEventLoop) {
+            return;
+        }
+        final String name = meterIdPrefix.name("acquisitions");
+        meterRegistry = registry;
+        meters.add(registry.more().counter(name, meterIdPrefix.tags("result", "local"),
+                                           localAcquisitions, LongAdder::sum));
+        meters.add(registry.more().counter(name, meterIdPrefix.tags("result", "handoff"),
+                                           handoffAcquisitions, LongAdder::sum));
+        meters.add(registry.more().counter(name, meterIdPrefix.tags("result", "external"),
+                                           externalAcquisitions, LongAdder::sum));
+    }
+
+    /**
+     * Removes the meters registered by {@link #bindTo(MeterRegistry)}.
+     */
+    void unbind() {
+        final MeterRegistry meterRegistry = this.meterRegistry;
+        if (meterRegistry == null) {
+            return;
+        }
+        meters.forEach(meterRegistry::remove);
+        meters.clear();
+        this.meterRegistry = null;
+    }
+
     @VisibleForTesting
     List<AbstractEventLoopEntry> entries(SessionProtocol sessionProtocol,
                                          EndpointGroup endpointGroup,
@@ -29,6 +29,7 @@ import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.util.ThreadFactories;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.dns.DnsRecord;
 
 /**
  * A builder for {@link DnsCache}.
@@ -47,6 +48,8 @@ public final class DnsCacheBuilder {
     private int minTtl = 1;
     private int maxTtl = Integer.MAX_VALUE;
     private int negativeTtl;
+    private double prefetchRatio;
+    private int staleTtl;
 
     DnsCacheBuilder() {}
 
@@ -60,7 +63,8 @@ public final class DnsCacheBuilder {
     }
 
     /**
-     * Sets the {@link MeterRegistry} that collects cache stats.
+     * Sets the {@link MeterRegistry} that collects cache stats, such as the number of hits, stale hits and
+     * prefetches.
      * If unspecified, {@link Flags#meterRegistry()} is used.
      */
     public DnsCacheBuilder meterRegistry(MeterRegistry meterRegistry) {
@@ -96,7 +100,12 @@ public final class DnsCacheBuilder {
 
     /**
      * Sets the TTL of the cache for the failed DNS queries in seconds. The default value is {@code 0} which
-     * means that failed DNS queries are not cached.
+     * means that failed DNS queries are not cached. The negative TTL is capped by the maximum TTL specified
+     * with {@link #ttl(int, int)}.
+     *
+     * <p>Note that a failed DNS query never replaces the {@link DnsRecord}s which are being refreshed by
+     * {@link #prefetchRatio(double)} or {@link #staleTtl(int)}. The cached {@link DnsRecord}s are served
+     * until the next refresh succeeds or they expire.
      */
     public DnsCacheBuilder negativeTtl(int negativeTtl) {
         checkArgument(negativeTtl >= 0, "negativeTtl: %s (expected: >= 0)", negativeTtl);
@@ -104,10 +113,37 @@ public final class DnsCacheBuilder {
         return this;
     }
 
+    /**
+     * Sets the ratio of the TTL before the expiration in which a cache hit triggers a refresh of the cached
+     * {@link DnsRecord}s in the background. For example, if {@code 0.1} is set and the TTL is 60 seconds, the
+     * first lookup after 54 seconds sends a new DNS query while the cached {@link DnsRecord}s are returned,
+     * so that frequently used entries are renewed before they expire.
+     * The default value is {@code 0} which disables prefetching.
+     */
+    public DnsCacheBuilder prefetchRatio(double prefetchRatio) {
+        checkArgument(prefetchRatio >= 0 && prefetchRatio < 1,
+                      "prefetchRatio: %s (expected: >= 0 && < 1)", prefetchRatio);
+        this.prefetchRatio = prefetchRatio;
+        return this;
+    }
+
+    /**
+     * Sets how long the expired {@link DnsRecord}s may be served in seconds while a new DNS query is sent in
+     * the background. If the new DNS query fails, the stale {@link DnsRecord}s keep being served until this
+     * period ends, so that a temporary DNS failure does not delay establishing connections.
+     * The default value is {@code 0} which means that expired {@link DnsRecord}s are removed immediately.
+     */
+    public DnsCacheBuilder staleTtl(int staleTtl) {
+        checkArgument(staleTtl >= 0, "staleTtl: %s (expected: >= 0)", staleTtl);
+        this.staleTtl = staleTtl;
+        return this;
+    }
+
     /**
      * Returns a newly created {@link DnsCache}.
      */
     public DnsCache build() {
-        return new DefaultDnsCache(cacheSpec, meterRegistry, executor, minTtl, maxTtl, negativeTtl);
+        return new DefaultDnsCache(cacheSpec, meterRegistry, executor, minTtl, maxTtl,
+                                   Math.min(negativeTtl, maxTtl), prefetchRatio, staleTtl);
     }
 }
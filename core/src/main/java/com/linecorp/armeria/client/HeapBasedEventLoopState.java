@@ -22,6 +22,8 @@ import java.util.concurrent.ThreadLocalRandom;
 
 import com.google.common.base.Joiner;
 
+import com.linecorp.armeria.common.annotation.Nullable;
+
 import io.netty.channel.EventLoop;
 
 final class HeapBasedEventLoopState extends AbstractEventLoopState {
@@ -47,26 +49,43 @@ final class HeapBasedEventLoopState extends AbstractEventLoopState {
         if (eventLoops.size() == maxNumEventLoops) {
             // We use all event loops so initialize early.
             init(0);
+            addUnusedEventLoop();
         }
     }
 
     private void init(int acquisitionStartIndex) {
         this.acquisitionStartIndex = acquisitionStartIndex;
         nextUnusedEventLoopOffset = ThreadLocalRandom.current().nextInt(maxNumEventLoops);
-        addUnusedEventLoop();
     }
 
     private boolean addUnusedEventLoop() {
-        if (entries.size() < maxNumEventLoops) {
+        if (entries.size() >= maxNumEventLoops) {
+            return false;
+        }
+        // Skip the event loops which were added by acquire(preferredEventLoop).
+        for (int i = 0; i < maxNumEventLoops; i++) {
             final int nextIndex = (acquisitionStartIndex + nextUnusedEventLoopOffset) %
                                   eventLoops().size();
-            push(new Entry(this, eventLoops().get(nextIndex), entries.size()));
             nextUnusedEventLoopOffset = (nextUnusedEventLoopOffset + 1) % maxNumEventLoops;
-            return true;
+            final EventLoop eventLoop = eventLoops().get(nextIndex);
+            if (find(eventLoop) == null) {
+                push(new Entry(this, eventLoop, entries.size()));
+                return true;
+            }
         }
         return false;
     }
 
+    @Nullable
+    private AbstractEventLoopEntry find(EventLoop eventLoop) {
+        for (AbstractEventLoopEntry e : entries) {
+            if (e.get() == eventLoop) {
+                return e;
+            }
+        }
+        return null;
+    }
+
     @Override
     List<AbstractEventLoopEntry> entries() {
         return entries;
@@ -78,12 +97,31 @@ final class HeapBasedEventLoopState extends AbstractEventLoopState {
     }
 
     @Override
-    AbstractEventLoopEntry acquire() {
+    AbstractEventLoopEntry acquire(@Nullable EventLoop preferredEventLoop) {
         lock();
         try {
             if (acquisitionStartIndex == -1) {
                 init(scheduler().acquisitionStartIndex(maxNumEventLoops));
             }
+
+            if (preferredEventLoop != null) {
+                AbstractEventLoopEntry preferred = find(preferredEventLoop);
+                if (preferred == null && entries.size() < maxNumEventLoops) {
+                    final Entry newEntry = new Entry(this, preferredEventLoop, entries.size());
+                    push(newEntry);
+                    preferred = newEntry;
+                }
+                if (preferred != null) {
+                    preferred.incrementActiveRequests();
+                    allActiveRequests++;
+                    bubbleDown(preferred.index());
+                    return preferred;
+                }
+            }
+
+            if (entries.isEmpty()) {
+                addUnusedEventLoop();
+            }
             AbstractEventLoopEntry e = entries.get(0);
             if (e.activeRequests() > 0) {
                 // All event loops are handling connections; try to add an unused event loop.
@@ -96,7 +134,7 @@ final class HeapBasedEventLoopState extends AbstractEventLoopState {
             assert e.index() == 0;
             e.incrementActiveRequests();
             allActiveRequests++;
-            bubbleDown();
+            bubbleDown(0);
             return e;
         } finally {
             unlock();
@@ -123,8 +161,8 @@ final class HeapBasedEventLoopState extends AbstractEventLoopState {
         bubbleUp(entries.size() - 1);
     }
 
-    private void bubbleDown() {
-        int best = 0;
+    private void bubbleDown(int i) {
+        int best = i;
         for (;;) {
             final int oldBest = best;
             final int left = left(best);
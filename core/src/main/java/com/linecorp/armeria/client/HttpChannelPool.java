@@ -26,6 +26,7 @@ import java.util.Deque;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -51,6 +52,7 @@ import com.linecorp.armeria.client.proxy.Socks5ProxyConfig;
 import com.linecorp.armeria.common.ClosedSessionException;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.ClientConnectionTimings;
 import com.linecorp.armeria.common.logging.ClientConnectionTimingsBuilder;
 import com.linecorp.armeria.common.util.AsyncCloseable;
 import com.linecorp.armeria.common.util.AsyncCloseableSupport;
@@ -91,6 +93,7 @@ final class HttpChannelPool implements AsyncCloseable {
     // Fields for creating a new connection:
     private final Bootstrap[] bootstraps;
     private final int connectTimeoutMillis;
+    private final double http2StreamUtilizationThreshold;
 
     private final SslContext sslCtxHttp1Or2;
     private final SslContext sslCtxHttp1Only;
@@ -137,6 +140,7 @@ final class HttpChannelPool implements AsyncCloseable {
                 SessionProtocol.H2, SessionProtocol.H2C);
         connectTimeoutMillis = (Integer) baseBootstrap.config().options()
                                                       .get(ChannelOption.CONNECT_TIMEOUT_MILLIS);
+        http2StreamUtilizationThreshold = clientFactory.http2StreamUtilizationThreshold();
     }
 
     private SslContext determineSslContext(SessionProtocol desiredProtocol) {
@@ -225,8 +229,17 @@ final class HttpChannelPool implements AsyncCloseable {
         pendingAcquisitions[desiredProtocol.ordinal()].put(key, future);
     }
 
-    private void removePendingAcquisition(SessionProtocol desiredProtocol, PoolKey key) {
-        pendingAcquisitions[desiredProtocol.ordinal()].remove(key);
+    private void removePendingAcquisition(SessionProtocol desiredProtocol, PoolKey key,
+                                          ChannelAcquisitionFuture future) {
+        // Do not remove the pending acquisition of another connection attempt to the same key.
+        pendingAcquisitions[desiredProtocol.ordinal()].remove(key, future);
+    }
+
+    private boolean hasPendingAcquisition(SessionProtocol actualProtocol, PoolKey key) {
+        final SessionProtocol desiredProtocol = actualProtocol.isTls() ? SessionProtocol.HTTPS
+                                                                      : SessionProtocol.HTTP;
+        return getPendingAcquisition(actualProtocol, key) != null ||
+               getPendingAcquisition(desiredProtocol, key) != null;
     }
 
     /**
@@ -264,6 +277,10 @@ final class HttpChannelPool implements AsyncCloseable {
             return null;
         }
 
+        if (protocol.isMultiplex() && http2StreamUtilizationThreshold < 1) {
+            return acquireLeastUtilized(key, protocol, queue);
+        }
+
         // Find the most recently released channel while cleaning up the unhealthy channels.
         for (int i = queue.size(); i > 0; i--) {
             final PooledChannel pooledChannel = queue.peekLast();
@@ -291,6 +308,47 @@ final class HttpChannelPool implements AsyncCloseable {
         return null;
     }
 
+    /**
+     * Acquires the HTTP/2 channel with the lowest stream utilization, and opens another connection in
+     * the background if even the least utilized channel is busier than
+     * {@link ClientFactoryOptions#HTTP2_STREAM_UTILIZATION_THRESHOLD}.
+     */
+    @Nullable
+    private PooledChannel acquireLeastUtilized(PoolKey key, SessionProtocol protocol,
+                                               Deque<PooledChannel> queue) {
+        PooledChannel leastUtilized = null;
+        double minUtilization = Double.MAX_VALUE;
+        for (final Iterator<PooledChannel> i = queue.iterator(); i.hasNext();) {
+            final PooledChannel pooledChannel = i.next();
+            if (!isHealthy(pooledChannel)) {
+                i.remove();
+                continue;
+            }
+
+            final HttpSession session = HttpSession.get(pooledChannel.get());
+            final double utilization = (double) session.numUnfinishedResponses() /
+                                       session.maxUnfinishedResponses();
+            if (utilization < minUtilization) {
+                leastUtilized = pooledChannel;
+                minUtilization = utilization;
+            }
+        }
+
+        if (leastUtilized == null ||
+            !HttpSession.get(leastUtilized.get()).incrementNumUnfinishedResponses()) {
+            // All channels are full of streams.
+            return null;
+        }
+
+        if (minUtilization >= http2StreamUtilizationThreshold && !hasPendingAcquisition(protocol, key)) {
+            openConnection(protocol, key).exceptionally(cause -> {
+                logger.debug("Failed to open an additional connection to {}", key, cause);
+                return null;
+            });
+        }
+        return leastUtilized;
+    }
+
     private static boolean isHealthy(PooledChannel pooledChannel) {
         final Channel ch = pooledChannel.get();
         return ch.isActive() && HttpSession.get(ch).canSendRequest();
@@ -320,6 +378,23 @@ final class HttpChannelPool implements AsyncCloseable {
         return promise;
     }
 
+    /**
+     * Opens a new connection and adds it to this pool without sending a request, so that the following
+     * requests do not have to wait for the connection establishment.
+     */
+    CompletableFuture<Void> openConnection(SessionProtocol desiredProtocol, PoolKey key) {
+        assert eventLoop.inEventLoop() : Thread.currentThread().getName();
+        final ChannelAcquisitionFuture promise = new ChannelAcquisitionFuture();
+        connect(desiredProtocol, key, promise, ClientConnectionTimings.builder());
+        return promise.thenAccept(pooledChannel -> {
+            // Give back the stream reserved for a request because no request is sent through the channel.
+            // Otherwise, the connection would never become idle or finish its graceful shutdown.
+            HttpSession.get(pooledChannel.get()).decrementNumUnfinishedResponses();
+            // Release the channel to the pool.
+            pooledChannel.release();
+        });
+    }
+
     /**
      * Tries to use the pending HTTP/2 connection to avoid creating an extra connection.
      *
@@ -469,7 +544,7 @@ final class HttpChannelPool implements AsyncCloseable {
                                ChannelAcquisitionFuture promise,
                                ClientConnectionTimingsBuilder timingsBuilder) {
         assert future.isDone();
-        removePendingAcquisition(desiredProtocol, key);
+        removePendingAcquisition(desiredProtocol, key, promise);
 
         timingsBuilder.socketConnectEnd();
         try {
@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.client;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.Objects.requireNonNull;
 
@@ -37,7 +38,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.MapMaker;
 
+import com.linecorp.armeria.client.HttpChannelPool.PoolKey;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.proxy.ProxyConfig;
 import com.linecorp.armeria.client.proxy.ProxyConfigSelector;
 import com.linecorp.armeria.client.redirect.RedirectConfig;
 import com.linecorp.armeria.common.Http1HeaderNaming;
@@ -62,6 +65,7 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import reactor.core.scheduler.NonBlocking;
 
@@ -96,6 +100,7 @@ final class HttpClientFactory implements ClientFactory {
     private final long pingIntervalMillis;
     private final long maxConnectionAgeMillis;
     private final int maxNumRequestsPerConnection;
+    private final double http2StreamUtilizationThreshold;
     private final boolean useHttp2Preface;
     private final boolean useHttp1Pipelining;
     private final ConnectionPoolListener connectionPoolListener;
@@ -157,10 +162,14 @@ final class HttpClientFactory implements ClientFactory {
         useHttp1Pipelining = options.useHttp1Pipelining();
         connectionPoolListener = options.connectionPoolListener();
         meterRegistry = options.meterRegistry();
+        if (eventLoopScheduler instanceof DefaultEventLoopScheduler) {
+            ((DefaultEventLoopScheduler) eventLoopScheduler).bindTo(meterRegistry);
+        }
         proxyConfigSelector = options.proxyConfigSelector();
         http1HeaderNaming = options.http1HeaderNaming();
         maxConnectionAgeMillis = options.maxConnectionAgeMillis();
         maxNumRequestsPerConnection = options.maxNumRequestsPerConnection();
+        http2StreamUtilizationThreshold = options.http2StreamUtilizationThreshold();
         channelPipelineCustomizer = options.channelPipelineCustomizer();
 
         this.options = options;
@@ -220,6 +229,10 @@ final class HttpClientFactory implements ClientFactory {
         return maxNumRequestsPerConnection;
     }
 
+    double http2StreamUtilizationThreshold() {
+        return http2StreamUtilizationThreshold;
+    }
+
     boolean useHttp2Preface() {
         return useHttp2Preface;
     }
@@ -364,6 +377,9 @@ final class HttpClientFactory implements ClientFactory {
         }
 
         addressResolverGroup.close();
+        if (eventLoopScheduler instanceof DefaultEventLoopScheduler) {
+            ((DefaultEventLoopScheduler) eventLoopScheduler).unbind();
+        }
 
         CompletableFuture.allOf(dependencies.toArray(EMPTY_FUTURES)).handle((unused, cause) -> {
             if (cause != null) {
@@ -400,6 +416,87 @@ final class HttpClientFactory implements ClientFactory {
         return pools.values().stream().mapToInt(HttpChannelPool::numConnections).sum();
     }
 
+    @Override
+    public CompletableFuture<Void> prewarm(SessionProtocol sessionProtocol, EndpointGroup endpointGroup,
+                                           int numConnectionsPerEndpoint) {
+        requireNonNull(sessionProtocol, "sessionProtocol");
+        checkArgument(SessionProtocol.httpValues().contains(sessionProtocol) ||
+                      SessionProtocol.httpsValues().contains(sessionProtocol),
+                      "sessionProtocol: %s (expected: one of %s or %s)", sessionProtocol,
+                      SessionProtocol.httpValues(), SessionProtocol.httpsValues());
+        requireNonNull(endpointGroup, "endpointGroup");
+        checkArgument(numConnectionsPerEndpoint > 0, "numConnectionsPerEndpoint: %s (expected: > 0)",
+                      numConnectionsPerEndpoint);
+
+        return endpointGroup.whenReady().thenCompose(endpoints -> {
+            final List<CompletableFuture<Void>> futures =
+                    new ArrayList<>(endpoints.size() * numConnectionsPerEndpoint);
+            for (Endpoint endpoint : endpoints) {
+                for (int i = 0; i < numConnectionsPerEndpoint; i++) {
+                    futures.add(prewarm(sessionProtocol, endpointGroup, endpoint));
+                }
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    private CompletableFuture<Void> prewarm(SessionProtocol sessionProtocol, EndpointGroup endpointGroup,
+                                            Endpoint endpoint) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        // Keep the EventLoop acquired until the connection is established, so that the connections to
+        // the same endpoint are spread across the EventLoops which will handle the requests to it.
+        final ReleasableHolder<EventLoop> eventLoopHolder =
+                acquireEventLoop(sessionProtocol, endpointGroup, endpoint);
+        future.handle((unused, cause) -> {
+            eventLoopHolder.release();
+            return null;
+        });
+
+        final EventLoop eventLoop = eventLoopHolder.get();
+        final ProxyConfig proxyConfig;
+        try {
+            proxyConfig = requireNonNull(proxyConfigSelector.select(sessionProtocol, endpoint), "proxyConfig");
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return future;
+        }
+
+        final Endpoint endpointWithPort = endpoint.withDefaultPort(sessionProtocol.defaultPort());
+        if (endpointWithPort.hasIpAddr() || proxyConfig.proxyType().isForwardProxy()) {
+            openConnection(eventLoop, sessionProtocol, endpointWithPort, proxyConfig, future);
+            return future;
+        }
+
+        final Future<InetSocketAddress> resolveFuture =
+                addressResolverGroup.getResolver(eventLoop)
+                                    .resolve(InetSocketAddress.createUnresolved(endpointWithPort.host(),
+                                                                                endpointWithPort.port()));
+        resolveFuture.addListener(unused -> {
+            if (resolveFuture.isSuccess()) {
+                final Endpoint resolved = endpointWithPort.withInetAddress(resolveFuture.getNow().getAddress());
+                openConnection(eventLoop, sessionProtocol, resolved, proxyConfig, future);
+            } else {
+                future.completeExceptionally(resolveFuture.cause());
+            }
+        });
+        return future;
+    }
+
+    private void openConnection(EventLoop eventLoop, SessionProtocol sessionProtocol, Endpoint endpoint,
+                                ProxyConfig proxyConfig, CompletableFuture<Void> future) {
+        final PoolKey key = new PoolKey(endpoint.host(), endpoint.ipAddr(), endpoint.port(), proxyConfig);
+        eventLoop.execute(() -> {
+            pool(eventLoop).openConnection(sessionProtocol, key).handle((unused, cause) -> {
+                if (cause == null) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(cause);
+                }
+                return null;
+            });
+        });
+    }
+
     @Override
     public CompletableFuture<Void> closeOnJvmShutdown(Runnable whenClosing) {
         requireNonNull(whenClosing, "whenClosing");
@@ -113,6 +113,10 @@ abstract class HttpResponseDecoder {
         return unfinishedResponses != 0;
     }
 
+    final int unfinishedResponses() {
+        return unfinishedResponses;
+    }
+
     final boolean reserveUnfinishedResponse(int maxUnfinishedResponses) {
         if (unfinishedResponses >= maxUnfinishedResponses) {
             return false;
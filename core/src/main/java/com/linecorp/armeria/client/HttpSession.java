@@ -59,6 +59,19 @@ interface HttpSession {
             return false;
         }
 
+        @Override
+        public void decrementNumUnfinishedResponses() {}
+
+        @Override
+        public int numUnfinishedResponses() {
+            return 0;
+        }
+
+        @Override
+        public int maxUnfinishedResponses() {
+            return 0;
+        }
+
         @Override
         public void invoke(PooledChannel pooledChannel, ClientRequestContext ctx,
                            HttpRequest req, DecodedHttpResponse res) {
@@ -103,6 +116,20 @@ interface HttpSession {
 
     boolean incrementNumUnfinishedResponses();
 
+    /**
+     * Releases the unfinished response reserved by {@link #incrementNumUnfinishedResponses()} for a request
+     * that is never sent, e.g. when a connection is opened only to be added to the pool.
+     */
+    void decrementNumUnfinishedResponses();
+
+    int numUnfinishedResponses();
+
+    /**
+     * Returns the maximum number of unfinished responses, which is the {@code MAX_CONCURRENT_STREAMS} setting
+     * of the remote peer for an HTTP/2 session, or {@link Integer#MAX_VALUE} if unlimited.
+     */
+    int maxUnfinishedResponses();
+
     void invoke(PooledChannel pooledChannel, ClientRequestContext ctx,
                 HttpRequest req, DecodedHttpResponse res);
 
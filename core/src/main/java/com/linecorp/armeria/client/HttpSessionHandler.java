@@ -158,6 +158,25 @@ final class HttpSessionHandler extends ChannelDuplexHandler implements HttpSessi
         return responseDecoder.reserveUnfinishedResponse(maxUnfinishedResponses);
     }
 
+    @Override
+    public void decrementNumUnfinishedResponses() {
+        assert responseDecoder != null;
+        responseDecoder.decrementUnfinishedResponses();
+    }
+
+    @Override
+    public int numUnfinishedResponses() {
+        if (responseDecoder == null) {
+            return 0;
+        }
+        return responseDecoder.unfinishedResponses();
+    }
+
+    @Override
+    public int maxUnfinishedResponses() {
+        return maxUnfinishedResponses;
+    }
+
     @Override
     public boolean canSendRequest() {
         assert responseDecoder != null;
@@ -19,6 +19,8 @@ package com.linecorp.armeria.client;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.linecorp.armeria.common.annotation.Nullable;
+
 import io.netty.channel.EventLoop;
 
 final class OneEventLoopState extends AbstractEventLoopState {
@@ -32,11 +34,14 @@ final class OneEventLoopState extends AbstractEventLoopState {
     }
 
     @Override
-    AbstractEventLoopEntry acquire() {
+    AbstractEventLoopEntry acquire(@Nullable EventLoop preferredEventLoop) {
         lock();
         try {
             if (entry.isEmpty()) {
-                entry.add(new Entry(this, eventLoops().get(scheduler().acquisitionStartIndex(1))));
+                final EventLoop eventLoop =
+                        preferredEventLoop != null ? preferredEventLoop
+                                                   : eventLoops().get(scheduler().acquisitionStartIndex(1));
+                entry.add(new Entry(this, eventLoop));
             }
             final AbstractEventLoopEntry e = entry.get(0);
             allActiveRequests++;
@@ -26,6 +26,8 @@ import java.util.List;
 import com.google.common.annotations.VisibleForTesting;
 
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.util.Ticker;
 
 /**
@@ -39,6 +41,7 @@ public final class CircuitBreakerBuilder {
     private static final int DEFAULT_CIRCUIT_OPEN_WINDOW_SECONDS = 10;
     private static final int DEFAULT_COUNTER_SLIDING_WINDOW_SECONDS = 20;
     private static final int DEFAULT_COUNTER_UPDATE_INTERVAL_SECONDS = 1;
+    private static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1;
     private static final Ticker DEFAULT_TICKER = Ticker.systemTicker();
 
     @Nullable
@@ -56,6 +59,10 @@ public final class CircuitBreakerBuilder {
 
     private Duration counterUpdateInterval = Duration.ofSeconds(DEFAULT_COUNTER_UPDATE_INTERVAL_SECONDS);
 
+    private Duration slowCallThreshold = Duration.ZERO;
+
+    private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+
     private Ticker ticker = DEFAULT_TICKER;
 
     private List<CircuitBreakerListener> listeners = Collections.emptyList();
@@ -192,6 +199,53 @@ public final class CircuitBreakerBuilder {
         return this;
     }
 
+    /**
+     * Sets the duration above which a successful call is counted as a slow call. A slow call is counted as
+     * a failure when the failure rate is calculated, and the rate of slow calls is also checked against
+     * {@link #slowCallRateThreshold(double)}. The duration of a call is measured from the start of the
+     * request to the end of the response recorded in its {@link RequestLog}.
+     * Slow calls are not detected if unspecified.
+     */
+    @UnstableApi
+    public CircuitBreakerBuilder slowCallThreshold(Duration slowCallThreshold) {
+        requireNonNull(slowCallThreshold, "slowCallThreshold");
+        if (slowCallThreshold.isNegative() || slowCallThreshold.isZero()) {
+            throw new IllegalArgumentException(
+                    "slowCallThreshold: " + slowCallThreshold + " (expected: > 0)");
+        }
+        this.slowCallThreshold = slowCallThreshold;
+        return this;
+    }
+
+    /**
+     * Sets the duration in milliseconds above which a successful call is counted as a slow call.
+     *
+     * @see #slowCallThreshold(Duration)
+     */
+    @UnstableApi
+    public CircuitBreakerBuilder slowCallThresholdMillis(long slowCallThresholdMillis) {
+        slowCallThreshold(Duration.ofMillis(slowCallThresholdMillis));
+        return this;
+    }
+
+    /**
+     * Sets the threshold of slow call rate to detect a slow remote service, which is checked in addition to
+     * {@link #failureRateThreshold(double)}. This only takes effect when
+     * {@link #slowCallThreshold(Duration)} is set. Defaults to {@value #DEFAULT_SLOW_CALL_RATE_THRESHOLD},
+     * which means that the circuit is opened by slow calls only when they exceed the failure rate threshold.
+     *
+     * @param slowCallRateThreshold The rate between 0 (exclusive) and 1 (inclusive)
+     */
+    @UnstableApi
+    public CircuitBreakerBuilder slowCallRateThreshold(double slowCallRateThreshold) {
+        if (slowCallRateThreshold <= 0 || 1 < slowCallRateThreshold) {
+            throw new IllegalArgumentException(
+                    "slowCallRateThreshold: " + slowCallRateThreshold + " (expected: > 0 and <= 1)");
+        }
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
     /**
      * Adds a {@link CircuitBreakerListener}.
      */
@@ -223,6 +277,7 @@ public final class CircuitBreakerBuilder {
                 new CircuitBreakerConfig(name, failureRateThreshold, minimumRequestThreshold,
                                          circuitOpenWindow, trialRequestInterval,
                                          counterSlidingWindow, counterUpdateInterval,
+                                         slowCallThreshold, slowCallRateThreshold,
                                          Collections.unmodifiableList(listeners)));
     }
 }
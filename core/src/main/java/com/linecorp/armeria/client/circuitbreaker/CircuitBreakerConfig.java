@@ -43,12 +43,17 @@ final class CircuitBreakerConfig {
 
     private final Duration counterUpdateInterval;
 
+    private final Duration slowCallThreshold;
+
+    private final double slowCallRateThreshold;
+
     private final List<CircuitBreakerListener> listeners;
 
     CircuitBreakerConfig(@Nullable String name,
                          double failureRateThreshold, long minimumRequestThreshold,
                          Duration circuitOpenWindow, Duration trialRequestInterval,
                          Duration counterSlidingWindow, Duration counterUpdateInterval,
+                         Duration slowCallThreshold, double slowCallRateThreshold,
                          List<CircuitBreakerListener> listeners) {
         this.name = name;
         this.failureRateThreshold = failureRateThreshold;
@@ -57,6 +62,8 @@ final class CircuitBreakerConfig {
         this.trialRequestInterval = trialRequestInterval;
         this.counterSlidingWindow = counterSlidingWindow;
         this.counterUpdateInterval = counterUpdateInterval;
+        this.slowCallThreshold = slowCallThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
         this.listeners = listeners;
     }
 
@@ -89,6 +96,18 @@ final class CircuitBreakerConfig {
         return counterUpdateInterval;
     }
 
+    /**
+     * Returns the duration above which a call is counted as a slow call, or {@link Duration#ZERO} if
+     * slow calls are not detected.
+     */
+    Duration slowCallThreshold() {
+        return slowCallThreshold;
+    }
+
+    double slowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
     List<CircuitBreakerListener> listeners() {
         return listeners;
     }
@@ -104,6 +123,8 @@ final class CircuitBreakerConfig {
                 .add("trialRequestInterval", trialRequestInterval)
                 .add("counterSlidingWindow", counterSlidingWindow)
                 .add("counterUpdateInterval", counterUpdateInterval)
+                .add("slowCallThreshold", slowCallThreshold)
+                .add("slowCallRateThreshold", slowCallRateThreshold)
                 .toString();
     }
 }
@@ -19,6 +19,7 @@ package com.linecorp.armeria.client.circuitbreaker;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 
 /**
  * An immutable object that stores the count of events.
@@ -28,7 +29,7 @@ public final class EventCount {
     /**
      * An {@link EventCount} without any successes and failures.
      */
-    public static final EventCount ZERO = new EventCount(0, 0);
+    public static final EventCount ZERO = new EventCount(0, 0, 0);
 
     /**
      * Returns a new {@link EventCount} with the specified number of successes and failures.
@@ -38,18 +39,36 @@ public final class EventCount {
             return ZERO;
         }
 
-        return new EventCount(success, failure);
+        return new EventCount(success, failure, 0);
+    }
+
+    /**
+     * Returns a new {@link EventCount} with the specified number of successes, failures and slow calls.
+     * Slow calls are the calls which took longer than the slow call threshold. They are also counted as
+     * failures, so {@code slow} must not be greater than {@code failure}.
+     */
+    @UnstableApi
+    public static EventCount of(long success, long failure, long slow) {
+        if (slow == 0) {
+            return of(success, failure);
+        }
+
+        return new EventCount(success, failure, slow);
     }
 
     private final long success;
 
     private final long failure;
 
-    private EventCount(long success, long failure) {
+    private final long slow;
+
+    private EventCount(long success, long failure, long slow) {
         checkArgument(success >= 0, "success: %s (expected: >= 0)", success);
         checkArgument(failure >= 0, "failure: %s (expected: >= 0)", failure);
+        checkArgument(slow >= 0 && slow <= failure, "slow: %s (expected: >= 0 && <= %s)", slow, failure);
         this.success = success;
         this.failure = failure;
+        this.slow = slow;
     }
 
     /**
@@ -66,6 +85,14 @@ public final class EventCount {
         return failure;
     }
 
+    /**
+     * Returns the number of slow call events, which are included in {@link #failure()}.
+     */
+    @UnstableApi
+    public long slow() {
+        return slow;
+    }
+
     /**
      * Returns the total number of events.
      */
@@ -95,9 +122,21 @@ public final class EventCount {
         return failure / (double) total;
     }
 
+    /**
+     * Returns the slow call rate (slow/total), or throws an {@link ArithmeticException} if total is 0.
+     */
+    @UnstableApi
+    public double slowRate() {
+        final long total = total();
+        if (total == 0) {
+            throw new ArithmeticException("Failed to calculate slow call rate since total count is 0");
+        }
+        return slow / (double) total;
+    }
+
     @Override
     public int hashCode() {
-        return (int) (31 * success + failure);
+        return (int) (31 * (31 * success + failure) + slow);
     }
 
     @Override
@@ -109,7 +148,7 @@ public final class EventCount {
             return false;
         }
         final EventCount that = (EventCount) o;
-        return success == that.success && failure == that.failure;
+        return success == that.success && failure == that.failure && slow == that.slow;
     }
 
     @Override
@@ -119,6 +158,10 @@ public final class EventCount {
             return "success% = NaN (0/0)";
         }
         final double percentageOfSuccess = 100 * successRate();
-        return String.format("success%% = %.2f%% (%d/%d)", percentageOfSuccess, success(), total);
+        if (slow == 0) {
+            return String.format("success%% = %.2f%% (%d/%d)", percentageOfSuccess, success(), total);
+        }
+        return String.format("success%% = %.2f%% (%d/%d), slow%% = %.2f%% (%d/%d)",
+                             percentageOfSuccess, success(), total, 100 * slowRate(), slow(), total);
     }
 }
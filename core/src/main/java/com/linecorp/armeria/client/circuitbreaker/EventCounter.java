@@ -40,4 +40,12 @@ interface EventCounter {
      */
     @Nullable
     EventCount onFailure();
+
+    /**
+     * Counts slow call events, which are also counted as failures.
+     *
+     * @return the current {@link EventCount} if it has been updated, or {@code null} otherwise.
+     */
+    @Nullable
+    EventCount onSlowCall();
 }
@@ -31,6 +31,9 @@ import com.google.common.base.MoreObjects;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.circuitbreaker.CircuitBreakerCallback;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAccess;
+import com.linecorp.armeria.common.logging.RequestLogProperty;
 import com.linecorp.armeria.common.util.Ticker;
 
 /**
@@ -90,15 +93,40 @@ final class NonBlockingCircuitBreaker implements CircuitBreaker, CircuitBreakerC
 
     @Override
     public void onSuccess(RequestContext ctx) {
-        onSuccess();
+        if (config.slowCallThreshold().isZero()) {
+            onSuccess();
+            return;
+        }
+
+        // Use the response end time recorded in the log instead of starting a timer for every call.
+        final RequestLogAccess log = ctx.log();
+        if (log.isAvailable(RequestLogProperty.RESPONSE_END_TIME)) {
+            onSuccessOrSlowCall(log.partial());
+        } else {
+            log.whenAvailable(RequestLogProperty.RESPONSE_END_TIME).thenAccept(this::onSuccessOrSlowCall);
+        }
+    }
+
+    private void onSuccessOrSlowCall(RequestLog log) {
+        final long durationNanos = log.responseEndTimeNanos() - log.requestStartTimeNanos();
+        if (durationNanos > config.slowCallThreshold().toNanos()) {
+            onFailure(true);
+        } else {
+            onSuccess();
+        }
     }
 
     @Override
     public void onFailure() {
+        onFailure(false);
+    }
+
+    private void onFailure(boolean slowCall) {
         final State currentState = state.get();
         if (currentState.isClosed()) {
             // fires failure event
-            final EventCount updatedCount = currentState.counter().onFailure();
+            final EventCount updatedCount = slowCall ? currentState.counter().onSlowCall()
+                                                     : currentState.counter().onFailure();
             // checks the count if it has been updated
             if (updatedCount != null) {
                 // changes to OPEN if failure rate exceeds the threshold
@@ -127,7 +155,8 @@ final class NonBlockingCircuitBreaker implements CircuitBreaker, CircuitBreakerC
     private boolean checkIfExceedingFailureThreshold(EventCount count) {
         return 0 < count.total() &&
                config.minimumRequestThreshold() <= count.total() &&
-               config.failureRateThreshold() < count.failureRate();
+               (config.failureRateThreshold() < count.failureRate() ||
+                config.slowCallRateThreshold() < count.slowRate());
     }
 
     @Deprecated
@@ -363,6 +392,11 @@ final class NonBlockingCircuitBreaker implements CircuitBreaker, CircuitBreakerC
         public EventCount onFailure() {
             return null;
         }
+
+        @Override
+        public EventCount onSlowCall() {
+            return null;
+        }
     }
 
     @Override
@@ -18,52 +18,81 @@ package com.linecorp.armeria.client.circuitbreaker;
 
 import static java.util.Objects.requireNonNull;
 
+import java.math.RoundingMode;
 import java.time.Duration;
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.LongAdder;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.LongMath;
+
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.Ticker;
 
 /**
  * An {@link EventCounter} that accumulates the count of events within a time window.
+ *
+ * <p>The events are recorded into a preallocated ring of {@link Bucket}s, each of which covers a fixed
+ * time slot measured from the creation of the counter, so that no objects are created while counting
+ * except the {@link EventCount} snapshot which is recomputed once per {@code updateInterval}.
+ * The number of {@link Bucket}s is capped by {@value #MAX_NUM_BUCKETS}, so the time slot may be longer than
+ * {@code updateInterval} when {@code slidingWindow} is much longer than {@code updateInterval}.
  */
 final class SlidingWindowCounter implements EventCounter {
 
-    private final Ticker ticker;
+    @VisibleForTesting
+    static final int MAX_NUM_BUCKETS = 128;
 
-    private final long slidingWindowNanos;
+    private static final AtomicLongFieldUpdater<SlidingWindowCounter> nextUpdateNanosUpdater =
+            AtomicLongFieldUpdater.newUpdater(SlidingWindowCounter.class, "nextUpdateNanos");
+
+    private final Ticker ticker;
 
     private final long updateIntervalNanos;
 
+    private final long startNanos;
+
+    private final long bucketNanos;
+
     /**
-     * The reference to the latest {@link Bucket}.
+     * The number of {@link Bucket}s which are within the time window.
      */
-    private final AtomicReference<Bucket> current;
+    private final int numWindowBuckets;
 
     /**
-     * The reference to the latest accumulated {@link EventCount}.
+     * The ring of {@link Bucket}s. It has one more {@link Bucket} than {@link #numWindowBuckets} so that
+     * the oldest {@link Bucket} in the window is not reused for the current time slot.
      */
-    private final AtomicReference<EventCount> snapshot = new AtomicReference<>(EventCount.ZERO);
+    private final Bucket[] buckets;
 
     /**
-     * The queue that stores {@link Bucket}s within the time window.
+     * The latest accumulated {@link EventCount}.
      */
-    private final Queue<Bucket> reservoir = new ConcurrentLinkedQueue<>();
+    private volatile EventCount snapshot = EventCount.ZERO;
+
+    /**
+     * The time when {@link #snapshot} is updated next.
+     */
+    private volatile long nextUpdateNanos;
 
     SlidingWindowCounter(Ticker ticker, Duration slidingWindow, Duration updateInterval) {
         this.ticker = requireNonNull(ticker, "ticker");
-        slidingWindowNanos = requireNonNull(slidingWindow, "slidingWindow").toNanos();
+        final long slidingWindowNanos = requireNonNull(slidingWindow, "slidingWindow").toNanos();
         updateIntervalNanos = requireNonNull(updateInterval, "updateInterval").toNanos();
-        current = new AtomicReference<>(new Bucket(ticker.read()));
+        bucketNanos = Math.max(updateIntervalNanos,
+                               LongMath.divide(slidingWindowNanos, MAX_NUM_BUCKETS, RoundingMode.CEILING));
+        numWindowBuckets = (int) LongMath.divide(slidingWindowNanos, bucketNanos, RoundingMode.CEILING);
+        buckets = new Bucket[numWindowBuckets + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        startNanos = ticker.read();
+        nextUpdateNanos = startNanos + updateIntervalNanos;
     }
 
     @Override
     public EventCount count() {
-        return snapshot.get();
+        return snapshot;
     }
 
     @Override
@@ -76,68 +105,83 @@ final class SlidingWindowCounter implements EventCounter {
         return onEvent(Event.FAILURE);
     }
 
+    @Override
+    public EventCount onSlowCall() {
+        return onEvent(Event.SLOW_CALL);
+    }
+
     @Nullable
     private EventCount onEvent(Event event) {
         final long tickerNanos = ticker.read();
-
-        final Bucket currentBucket = current.get();
-
-        if (tickerNanos < currentBucket.timestamp()) {
-            // if current timestamp is older than bucket's timestamp (maybe race or GC pause?),
-            // then creates an instant bucket and puts it to the reservoir not to lose event.
-            final Bucket bucket = new Bucket(tickerNanos);
-            event.increment(bucket);
-            reservoir.offer(bucket);
+        final long elapsedNanos = tickerNanos - startNanos;
+        if (elapsedNanos < 0) {
+            // An event which happened before this counter was created. (maybe race or GC pause?)
             return null;
         }
+        final long epoch = elapsedNanos / bucketNanos;
+
+        EventCount updatedCount = null;
+        final long nextUpdateNanos = this.nextUpdateNanos;
+        if (tickerNanos - nextUpdateNanos >= 0 &&
+            nextUpdateNanosUpdater.compareAndSet(this, nextUpdateNanos, tickerNanos + updateIntervalNanos)) {
+            // Sum up before recording the current event so that the snapshot does not include it.
+            updatedCount = sum(epoch);
+            snapshot = updatedCount;
+        }
 
-        if (tickerNanos < currentBucket.timestamp() + updateIntervalNanos) {
-            // increments the current bucket since it is exactly latest
-            event.increment(currentBucket);
-            return null;
+        final Bucket bucket = bucket(epoch);
+        if (bucket != null) {
+            event.increment(bucket);
         }
+        return updatedCount;
+    }
 
-        // the current bucket is old
-        // it's time to create new one
-        final Bucket nextBucket = new Bucket(tickerNanos);
-        event.increment(nextBucket);
-
-        // replaces the bucket
-        if (current.compareAndSet(currentBucket, nextBucket)) {
-            // puts old one to the reservoir
-            reservoir.offer(currentBucket);
-            // and then updates count
-            final EventCount eventCount = trimAndSum(tickerNanos);
-            snapshot.set(eventCount);
-            return eventCount;
-        } else {
-            // the bucket has been replaced already
-            // puts new one as an instant bucket to the reservoir not to lose event
-            reservoir.offer(nextBucket);
-            return null;
+    /**
+     * Returns the {@link Bucket} for the specified time slot, resetting it if it was used for an old one.
+     * {@code null} if the {@link Bucket} has already been reused for a newer time slot.
+     */
+    @Nullable
+    private Bucket bucket(long epoch) {
+        final Bucket bucket = buckets[(int) (epoch % buckets.length)];
+        if (bucket.epoch == epoch) {
+            return bucket;
+        }
+        synchronized (bucket) {
+            final long bucketEpoch = bucket.epoch;
+            if (bucketEpoch == epoch) {
+                return bucket;
+            }
+            if (bucketEpoch > epoch) {
+                // A late event whose time slot is out of the window already.
+                return null;
+            }
+            bucket.success.reset();
+            bucket.failure.reset();
+            bucket.slow.reset();
+            // Publish the new epoch only after the reset so that no increments are lost.
+            bucket.epoch = epoch;
         }
+        return bucket;
     }
 
     /**
-     * Sums up buckets within the time window, and removes all the others.
+     * Sums up the {@link Bucket}s within the time window.
      */
-    private EventCount trimAndSum(long tickerNanos) {
-        final long oldLimit = tickerNanos - slidingWindowNanos;
-        final Iterator<Bucket> iterator = reservoir.iterator();
+    private EventCount sum(long epoch) {
+        final long oldestEpoch = epoch - numWindowBuckets;
         long success = 0;
         long failure = 0;
-        while (iterator.hasNext()) {
-            final Bucket bucket = iterator.next();
-            if (bucket.timestamp < oldLimit) {
-                // removes old bucket
-                iterator.remove();
-            } else {
-                success += bucket.success();
-                failure += bucket.failure();
+        long slow = 0;
+        for (Bucket bucket : buckets) {
+            final long bucketEpoch = bucket.epoch;
+            if (bucketEpoch > oldestEpoch && bucketEpoch <= epoch) {
+                // Read the slow calls first because they are incremented after the failures.
+                slow += bucket.slow.sum();
+                success += bucket.success.sum();
+                failure += bucket.failure.sum();
             }
         }
-
-        return EventCount.of(success, failure);
+        return EventCount.of(success, failure, Math.min(slow, failure));
     }
 
     private enum Event {
@@ -152,44 +196,38 @@ final class SlidingWindowCounter implements EventCounter {
             void increment(Bucket bucket) {
                 bucket.failure.increment();
             }
+        },
+        SLOW_CALL {
+            @Override
+            void increment(Bucket bucket) {
+                bucket.failure.increment();
+                bucket.slow.increment();
+            }
         };
 
         abstract void increment(Bucket bucket);
     }
 
     /**
-     * Holds the count of events within {@code updateInterval}.
+     * Holds the count of events within a time slot.
      */
     private static final class Bucket {
 
-        private final long timestamp;
-
         private final LongAdder success = new LongAdder();
 
         private final LongAdder failure = new LongAdder();
 
-        private Bucket(long timestamp) {
-            this.timestamp = timestamp;
-        }
-
-        private long timestamp() {
-            return timestamp;
-        }
+        private final LongAdder slow = new LongAdder();
 
-        private long success() {
-            return success.sum();
-        }
-
-        private long failure() {
-            return failure.sum();
-        }
+        private volatile long epoch = -1;
 
         @Override
         public String toString() {
             return "Bucket{" +
-                   "timestamp=" + timestamp +
+                   "epoch=" + epoch +
                    ", success=" + success +
                    ", failure=" + failure +
+                   ", slow=" + slow +
                    '}';
         }
     }
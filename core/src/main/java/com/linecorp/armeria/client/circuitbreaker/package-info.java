@@ -119,6 +119,12 @@
  * <h2>{@code counterUpdateInterval}</h2>
  * The interval that a circuit breaker can see the latest count of events.
  *
+ * <h2>{@code slowCallThreshold}</h2>
+ * The duration above which a successful call is counted as a slow call, which is also a failure.
+ *
+ * <h2>{@code slowCallRateThreshold}</h2>
+ * The threshold of slow call rate(= slow/total) to detect a slow remote service.
+ *
  * <h2>{@code exceptionFilter}</h2>
  * A filter that decides whether a circuit breaker should deal with a given error.
  */
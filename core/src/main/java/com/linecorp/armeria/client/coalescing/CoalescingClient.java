@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.coalescing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.client.SimpleDecoratingHttpClient;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseDuplicator;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAccess;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
+
+import io.netty.util.AsciiString;
+
+/**
+ * An {@link HttpClient} decorator that coalesces concurrent identical {@link HttpMethod#GET} and
+ * {@link HttpMethod#HEAD} requests into a single exchange. While a request is in flight, the requests with
+ * the same method, authority, path and the values of the headers specified with
+ * {@link CoalescingClientBuilder#keyHeaders(CharSequence...)} do not hit the delegate but receive a
+ * duplicate of the in-flight {@link HttpResponse}.
+ *
+ * <p>Note that the coalesced requests share the options of the first request, such as its response timeout
+ * and its maximum response length. The requests with content are never coalesced.
+ */
+@UnstableApi
+public final class CoalescingClient extends SimpleDecoratingHttpClient {
+
+    /**
+     * Creates a new {@link CoalescingClient} decorator which uses the default key headers.
+     */
+    public static Function<? super HttpClient, CoalescingClient> newDecorator() {
+        return builder().newDecorator();
+    }
+
+    /**
+     * Returns a new {@link CoalescingClientBuilder}.
+     */
+    public static CoalescingClientBuilder builder() {
+        return new CoalescingClientBuilder();
+    }
+
+    private final Map<CoalescingKey, InflightResponse> inflightResponses = new ConcurrentHashMap<>();
+    private final List<AsciiString> keyHeaders;
+
+    CoalescingClient(HttpClient delegate, List<AsciiString> keyHeaders) {
+        super(delegate);
+        this.keyHeaders = keyHeaders;
+    }
+
+    @Override
+    public HttpResponse execute(ClientRequestContext ctx, HttpRequest req) throws Exception {
+        final HttpMethod method = req.method();
+        if ((method != HttpMethod.GET && method != HttpMethod.HEAD) || !req.isEmpty()) {
+            return unwrap().execute(ctx, req);
+        }
+
+        final CoalescingKey key = newKey(ctx, req);
+        for (;;) {
+            InflightResponse inflight = inflightResponses.get(key);
+            if (inflight == null) {
+                // Register a placeholder whose upstream is set after the delegate is invoked, so that
+                // the delegate is not invoked while the map is being updated.
+                final CompletableFuture<HttpResponse> upstreamFuture = new CompletableFuture<>();
+                final InflightResponse newInflight =
+                        new InflightResponse(ctx, HttpResponse.from(upstreamFuture));
+                inflight = inflightResponses.putIfAbsent(key, newInflight);
+                if (inflight == null) {
+                    return executeLeader(ctx, req, key, newInflight, upstreamFuture);
+                }
+                // Another request has become the leader in the meantime.
+                newInflight.close();
+            }
+
+            final HttpResponse duplicate = inflight.duplicate();
+            if (duplicate == null) {
+                // The in-flight response has just completed. Send a new request.
+                inflightResponses.remove(key, inflight);
+                continue;
+            }
+
+            completeFollowerLog(ctx, inflight.ctx.log());
+            return duplicate;
+        }
+    }
+
+    private HttpResponse executeLeader(ClientRequestContext ctx, HttpRequest req, CoalescingKey key,
+                                       InflightResponse inflight,
+                                       CompletableFuture<HttpResponse> upstreamFuture) throws Exception {
+        final HttpResponse duplicate = inflight.duplicate();
+        assert duplicate != null;
+        // Stop accepting new followers once the response is fully received. The followers which joined
+        // before that still receive the whole response from the duplicator.
+        inflight.upstream.whenComplete().handle((unused1, unused2) -> {
+            inflightResponses.remove(key, inflight);
+            inflight.close();
+            return null;
+        });
+
+        final HttpResponse upstream;
+        try {
+            upstream = unwrap().execute(ctx, req);
+        } catch (Throwable cause) {
+            // Fail the followers which joined in the meantime and rethrow the cause to the caller.
+            upstreamFuture.completeExceptionally(cause);
+            duplicate.abort(cause);
+            throw cause;
+        }
+        upstreamFuture.complete(upstream);
+        return duplicate;
+    }
+
+    private CoalescingKey newKey(ClientRequestContext ctx, HttpRequest req) {
+        Object authority = req.authority();
+        if (authority == null) {
+            // Coalesce the requests sent to the same EndpointGroup even if they chose different Endpoints.
+            authority = ctx.endpointGroup();
+        }
+        final String[] headerValues;
+        if (keyHeaders.isEmpty()) {
+            headerValues = null;
+        } else {
+            headerValues = new String[keyHeaders.size()];
+            for (int i = 0; i < headerValues.length; i++) {
+                headerValues[i] = req.headers().get(keyHeaders.get(i));
+            }
+        }
+        return new CoalescingKey(ctx.sessionProtocol(), req.method(), authority, req.path(), headerValues);
+    }
+
+    /**
+     * Completes the {@link RequestLog} of a request that did not hit the delegate with the response of the
+     * in-flight request.
+     */
+    private static void completeFollowerLog(ClientRequestContext ctx, RequestLogAccess upstreamLog) {
+        final RequestLogBuilder logBuilder = ctx.logBuilder();
+        logBuilder.endRequest();
+        upstreamLog.whenComplete().thenAccept(log -> {
+            logBuilder.responseHeaders(log.responseHeaders());
+            final Throwable cause = log.responseCause();
+            if (cause != null) {
+                logBuilder.endResponse(cause);
+            } else {
+                logBuilder.responseTrailers(log.responseTrailers());
+                logBuilder.endResponse();
+            }
+        });
+    }
+
+    private static final class InflightResponse {
+
+        private final ClientRequestContext ctx;
+        private final HttpResponse upstream;
+        private final HttpResponseDuplicator duplicator;
+        private boolean closed;
+
+        InflightResponse(ClientRequestContext ctx, HttpResponse upstream) {
+            this.ctx = ctx;
+            this.upstream = upstream;
+            duplicator = upstream.toDuplicator(ctx.eventLoop().withoutContext(), ctx.maxResponseLength());
+        }
+
+        @Nullable
+        synchronized HttpResponse duplicate() {
+            if (closed) {
+                return null;
+            }
+            return duplicator.duplicate();
+        }
+
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                duplicator.close();
+            }
+        }
+    }
+
+    private static final class CoalescingKey {
+
+        private final SessionProtocol sessionProtocol;
+        private final HttpMethod method;
+        @Nullable
+        private final Object authority;
+        private final String path;
+        @Nullable
+        private final String[] headerValues;
+        private final int hashCode;
+
+        CoalescingKey(SessionProtocol sessionProtocol, HttpMethod method, @Nullable Object authority,
+                      String path, @Nullable String[] headerValues) {
+            this.sessionProtocol = sessionProtocol;
+            this.method = method;
+            this.authority = authority;
+            this.path = path;
+            this.headerValues = headerValues;
+
+            int hashCode = sessionProtocol.hashCode();
+            hashCode = hashCode * 31 + method.hashCode();
+            hashCode = hashCode * 31 + (authority != null ? authority.hashCode() : 0);
+            hashCode = hashCode * 31 + path.hashCode();
+            hashCode = hashCode * 31 + Arrays.hashCode(headerValues);
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalescingKey)) {
+                return false;
+            }
+            final CoalescingKey that = (CoalescingKey) o;
+            return hashCode == that.hashCode &&
+                   sessionProtocol == that.sessionProtocol &&
+                   method == that.method &&
+                   Objects.equals(authority, that.authority) &&
+                   path.equals(that.path) &&
+                   Arrays.equals(headerValues, that.headerValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                              .add("sessionProtocol", sessionProtocol)
+                              .add("method", method)
+                              .add("authority", authority)
+                              .add("path", path)
+                              .add("headerValues", headerValues)
+                              .toString();
+        }
+    }
+}
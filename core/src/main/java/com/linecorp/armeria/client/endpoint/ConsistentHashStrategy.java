@@ -0,0 +1,312 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * An {@link EndpointSelectionStrategy} which places the {@link Endpoint}s on a hash ring with virtual
+ * nodes, so that only about {@code 1/N} of the keys move to another {@link Endpoint} when an
+ * {@link Endpoint} is added or removed. If a load factor is specified, an {@link Endpoint} whose in-flight
+ * requests exceed {@code loadFactor} times the average is skipped and the next {@link Endpoint} on the ring
+ * is chosen instead, a.k.a. consistent hashing with bounded loads.
+ */
+final class ConsistentHashStrategy implements EndpointSelectionStrategy {
+
+    private static final HashFunction hashFunction = Hashing.murmur3_128();
+
+    private final ToLongFunction<? super ClientRequestContext> requestContextHasher;
+    private final int virtualNodes;
+    private final double loadFactor;
+
+    ConsistentHashStrategy(ToLongFunction<? super ClientRequestContext> requestContextHasher,
+                           int virtualNodes, double loadFactor) {
+        this.requestContextHasher = requestContextHasher;
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new ConsistentHashSelector(endpointGroup, requestContextHasher, virtualNodes, loadFactor);
+    }
+
+    @VisibleForTesting
+    static final class ConsistentHashSelector extends AbstractEndpointSelector {
+
+        private final ToLongFunction<? super ClientRequestContext> requestContextHasher;
+        private final int virtualNodes;
+        private final double loadFactor;
+        // The sum of the in-flight requests of all nodes, updated alongside the counter of each node.
+        private final LongAdder inFlightRequests = new LongAdder();
+        @Nullable
+        private volatile HashRing ring;
+
+        ConsistentHashSelector(EndpointGroup endpointGroup,
+                               ToLongFunction<? super ClientRequestContext> requestContextHasher,
+                               int virtualNodes, double loadFactor) {
+            super(endpointGroup);
+            this.requestContextHasher = requestContextHasher;
+            this.virtualNodes = virtualNodes;
+            this.loadFactor = loadFactor;
+            endpointGroup.addListener(this::updateEndpoints, true);
+        }
+
+        private void updateEndpoints(List<Endpoint> endpoints) {
+            ring = HashRing.of(endpoints, ring, virtualNodes);
+        }
+
+        @Override
+        public Endpoint selectNow(ClientRequestContext ctx) {
+            final HashRing ring = this.ring;
+            if (ring == null || ring.isEmpty()) {
+                return null;
+            }
+
+            final long key = hashFunction.hashLong(requestContextHasher.applyAsLong(ctx)).asLong();
+            final int start = ring.indexOf(key);
+            if (loadFactor <= 0 || ctx == null) {
+                return ring.owners[start].endpoint;
+            }
+
+            // Consistent hashing with bounded loads: walk the ring clockwise until a node whose
+            // in-flight requests are below the capacity is found.
+            final int numNodes = ring.nodes.length;
+            final long capacity = (long) Math.ceil((inFlightRequests.sum() + 1) * loadFactor / numNodes);
+            final RingNode[] owners = ring.owners;
+            final int[] ownerIndexes = ring.ownerIndexes;
+            RingNode selected = owners[start];
+            // Allocated only when the first candidate is at its capacity.
+            boolean[] probed = null;
+            int numProbed = 0;
+            for (int i = start;;) {
+                final int ownerIndex = ownerIndexes[i];
+                if (probed == null || !probed[ownerIndex]) {
+                    final RingNode node = owners[i];
+                    if (node.inFlightRequests.sum() < capacity) {
+                        selected = node;
+                        break;
+                    }
+                    if (++numProbed == numNodes) {
+                        // Every node is at its capacity, which can happen only with concurrent updates.
+                        break;
+                    }
+                    if (probed == null) {
+                        probed = new boolean[numNodes];
+                    }
+                    // Skip the other virtual nodes of the same node.
+                    probed[ownerIndex] = true;
+                }
+                if (++i == owners.length) {
+                    i = 0;
+                }
+            }
+
+            final RingNode node = selected;
+            node.inFlightRequests.increment();
+            inFlightRequests.increment();
+            ctx.log().whenComplete().thenAccept(unused -> {
+                node.inFlightRequests.decrement();
+                inFlightRequests.decrement();
+            });
+            return node.endpoint;
+        }
+    }
+
+    /**
+     * An {@link Endpoint} and the positions of its virtual nodes on a {@link HashRing}.
+     */
+    private static final class RingNode {
+
+        final Endpoint endpoint;
+        // Sorted in ascending order.
+        final long[] points;
+        final LongAdder inFlightRequests = new LongAdder();
+
+        RingNode(Endpoint endpoint, int virtualNodes) {
+            this.endpoint = endpoint;
+            points = new long[virtualNodes];
+            final String prefix = endpoint.host() + '/' + endpoint.ipAddr() + ':' + endpoint.port() + '#';
+            for (int i = 0; i < virtualNodes; i++) {
+                points[i] = hashFunction.hashString(prefix + i, StandardCharsets.UTF_8).asLong();
+            }
+            Arrays.sort(points);
+        }
+    }
+
+    /**
+     * A sorted run of the virtual nodes.
+     */
+    private static final class Run {
+
+        static Run merge(Run a, Run b) {
+            final int size = a.points.length + b.points.length;
+            final long[] points = new long[size];
+            final RingNode[] owners = new RingNode[size];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                if (j == b.points.length || (i < a.points.length && a.points[i] <= b.points[j])) {
+                    points[k] = a.points[i];
+                    owners[k] = a.owners[i++];
+                } else {
+                    points[k] = b.points[j];
+                    owners[k] = b.owners[j++];
+                }
+            }
+            return new Run(points, owners);
+        }
+
+        final long[] points;
+        final RingNode[] owners;
+
+        Run(long[] points, RingNode[] owners) {
+            this.points = points;
+            this.owners = owners;
+        }
+    }
+
+    /**
+     * An immutable hash ring. A new ring reuses the {@link RingNode}s of the previous ring, so that
+     * the virtual nodes of the unchanged {@link Endpoint}s are neither rehashed nor resorted, and their
+     * in-flight request counters survive the update.
+     */
+    @VisibleForTesting
+    static final class HashRing {
+
+        static HashRing of(List<Endpoint> endpoints, @Nullable HashRing old, int virtualNodes) {
+            final Map<Endpoint, RingNode> nodes = Maps.newLinkedHashMapWithExpectedSize(endpoints.size());
+            final Map<Endpoint, RingNode> oldNodes = old != null ? old.nodesByEndpoint : null;
+            for (Endpoint endpoint : endpoints) {
+                if (nodes.containsKey(endpoint)) {
+                    continue;
+                }
+                RingNode node = oldNodes != null ? oldNodes.get(endpoint) : null;
+                if (node == null) {
+                    node = new RingNode(endpoint, virtualNodes);
+                }
+                nodes.put(endpoint, node);
+            }
+
+            // Keep the points of the remaining nodes, which are already sorted, and merge the points of
+            // the new nodes into them, so that an update costs O(N) rather than O(N log N).
+            final List<Run> runs = new ArrayList<>();
+            if (old != null) {
+                final long[] points = new long[old.points.length];
+                final RingNode[] owners = new RingNode[old.points.length];
+                int size = 0;
+                for (int i = 0; i < old.points.length; i++) {
+                    final RingNode owner = old.owners[i];
+                    if (nodes.get(owner.endpoint) == owner) {
+                        points[size] = old.points[i];
+                        owners[size++] = owner;
+                    }
+                }
+                runs.add(new Run(Arrays.copyOf(points, size), Arrays.copyOf(owners, size)));
+            }
+            for (RingNode node : nodes.values()) {
+                if (oldNodes == null || oldNodes.get(node.endpoint) != node) {
+                    final RingNode[] owners = new RingNode[node.points.length];
+                    Arrays.fill(owners, node);
+                    runs.add(new Run(node.points, owners));
+                }
+            }
+
+            // Merge the sorted runs pairwise.
+            while (runs.size() > 1) {
+                final List<Run> merged = new ArrayList<>((runs.size() + 1) / 2);
+                for (int i = 0; i < runs.size(); i += 2) {
+                    merged.add(i + 1 < runs.size() ? Run.merge(runs.get(i), runs.get(i + 1)) : runs.get(i));
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+
+            if (runs.isEmpty()) {
+                return new HashRing(nodes, new long[0], new RingNode[0]);
+            }
+            final Run run = runs.get(0);
+            return new HashRing(nodes, run.points, run.owners);
+        }
+
+        private final Map<Endpoint, RingNode> nodesByEndpoint;
+        final RingNode[] nodes;
+        final long[] points;
+        final RingNode[] owners;
+        // The index of each owner in 'nodes'.
+        final int[] ownerIndexes;
+
+        private HashRing(Map<Endpoint, RingNode> nodesByEndpoint, long[] points, RingNode[] owners) {
+            this.nodesByEndpoint = nodesByEndpoint;
+            nodes = nodesByEndpoint.values().toArray(new RingNode[0]);
+            this.points = points;
+            this.owners = owners;
+
+            final Map<RingNode, Integer> indexes = new IdentityHashMap<>(nodes.length);
+            for (int i = 0; i < nodes.length; i++) {
+                indexes.put(nodes[i], i);
+            }
+            ownerIndexes = new int[owners.length];
+            for (int i = 0; i < owners.length; i++) {
+                ownerIndexes[i] = indexes.get(owners[i]);
+            }
+        }
+
+        boolean isEmpty() {
+            return points.length == 0;
+        }
+
+        /**
+         * Returns the index of the first virtual node whose position is equal to or greater than
+         * the specified {@code key}, wrapping around to the first virtual node.
+         */
+        int indexOf(long key) {
+            int index = Arrays.binarySearch(points, key);
+            if (index < 0) {
+                index = -index - 1;
+                if (index == points.length) {
+                    index = 0;
+                }
+            }
+            return index;
+        }
+
+        @Nullable
+        Endpoint select(long key) {
+            if (isEmpty()) {
+                return null;
+            }
+            return owners[indexOf(hashFunction.hashLong(key).asLong())].endpoint;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.function.ToLongFunction;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Builds an {@link EndpointSelectionStrategy} which selects an {@link Endpoint} using consistent hashing
+ * with virtual nodes. Unlike {@link EndpointSelectionStrategy#sticky(ToLongFunction)}, adding or removing
+ * an {@link Endpoint} moves only the keys owned by the {@link Endpoint}, so that the local caches of
+ * the other {@link Endpoint}s stay warm.
+ *
+ * @see EndpointSelectionStrategy#builderForConsistentHash(ToLongFunction)
+ */
+@UnstableApi
+public final class ConsistentHashStrategyBuilder {
+
+    static final int DEFAULT_VIRTUAL_NODES = 100;
+
+    private final ToLongFunction<? super ClientRequestContext> requestContextHasher;
+    private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+    private double loadFactor;
+
+    ConsistentHashStrategyBuilder(ToLongFunction<? super ClientRequestContext> requestContextHasher) {
+        this.requestContextHasher = requestContextHasher;
+    }
+
+    /**
+     * Sets the number of virtual nodes of each {@link Endpoint} on the hash ring. More virtual nodes
+     * distribute the keys more evenly at the cost of memory and update time.
+     * {@value #DEFAULT_VIRTUAL_NODES} is used by default.
+     */
+    public ConsistentHashStrategyBuilder virtualNodes(int virtualNodes) {
+        checkArgument(virtualNodes > 0, "virtualNodes: %s (expected: > 0)", virtualNodes);
+        this.virtualNodes = virtualNodes;
+        return this;
+    }
+
+    /**
+     * Bounds the load of each {@link Endpoint} to {@code loadFactor} times the average number of
+     * in-flight requests. A request whose {@link Endpoint} is at its capacity is sent to the next
+     * {@link Endpoint} on the hash ring instead, so that a hot key cannot overload a single
+     * {@link Endpoint}. A smaller {@code loadFactor} balances the load more evenly, but moves more keys
+     * away from their {@link Endpoint}s. The load is not bounded by default.
+     *
+     * <p>The in-flight requests are tracked with {@link ClientRequestContext#log()}, so every
+     * {@link ClientRequestContext} passed to the {@link EndpointSelector} should belong to an actual request.
+     *
+     * @param loadFactor the ratio of the maximum load to the average load. e.g. {@code 1.25}
+     */
+    public ConsistentHashStrategyBuilder boundedLoad(double loadFactor) {
+        checkArgument(loadFactor > 1, "loadFactor: %s (expected: > 1)", loadFactor);
+        this.loadFactor = loadFactor;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link EndpointSelectionStrategy} based on the properties of this builder.
+     */
+    public EndpointSelectionStrategy build() {
+        return new ConsistentHashStrategy(requestContextHasher, virtualNodes, loadFactor);
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.linecorp.armeria.client.endpoint;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.function.ToLongFunction;
 
 import com.linecorp.armeria.client.ClientRequestContext;
@@ -73,6 +75,54 @@ public interface EndpointSelectionStrategy {
         return new WeightRampingUpStrategyBuilder();
     }
 
+    /**
+     * Returns a load-aware strategy which selects the {@link Endpoint} with fewer in-flight requests among
+     * two randomly chosen {@link Endpoint}s, a.k.a. the power of two choices. The number of in-flight
+     * requests is divided by {@link Endpoint#weight()}. The requests are tracked with
+     * {@link ClientRequestContext#log()}, so every {@link ClientRequestContext} passed to the
+     * {@link EndpointSelector} should belong to an actual request.
+     *
+     * @see #builderForLeastLoaded()
+     */
+    @UnstableApi
+    static EndpointSelectionStrategy leastLoaded() {
+        return LeastLoadedStrategy.INSTANCE;
+    }
+
+    /**
+     * Returns a new {@link LeastLoadedStrategyBuilder} that builds a load-aware
+     * {@link EndpointSelectionStrategy} which can also take the latency of {@link Endpoint}s into account.
+     */
+    @UnstableApi
+    static LeastLoadedStrategyBuilder builderForLeastLoaded() {
+        return new LeastLoadedStrategyBuilder();
+    }
+
+    /**
+     * Returns a strategy which selects an {@link Endpoint} using consistent hashing on a hash ring with
+     * virtual nodes. The {@link ToLongFunction} computes the key of a request. Unlike
+     * {@link #sticky(ToLongFunction)}, only the keys owned by an added or removed {@link Endpoint} move
+     * to another {@link Endpoint} when the {@link EndpointGroup} is updated.
+     *
+     * @see #builderForConsistentHash(ToLongFunction)
+     */
+    @UnstableApi
+    static EndpointSelectionStrategy consistentHash(
+            ToLongFunction<? super ClientRequestContext> requestContextHasher) {
+        return builderForConsistentHash(requestContextHasher).build();
+    }
+
+    /**
+     * Returns a new {@link ConsistentHashStrategyBuilder} that builds a consistent hashing
+     * {@link EndpointSelectionStrategy} which can also bound the load of each {@link Endpoint}.
+     */
+    @UnstableApi
+    static ConsistentHashStrategyBuilder builderForConsistentHash(
+            ToLongFunction<? super ClientRequestContext> requestContextHasher) {
+        requireNonNull(requestContextHasher, "requestContextHasher");
+        return new ConsistentHashStrategyBuilder(requestContextHasher);
+    }
+
     /**
      * Returns a sticky strategy which uses a user passed {@link ToLongFunction} to compute hashes for
      * consistent hashing.
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * An {@link EndpointSelectionStrategy} which selects the less loaded of two randomly chosen
+ * {@link Endpoint}s, a.k.a. the power of two choices. The load of an {@link Endpoint} is the number of its
+ * in-flight requests, optionally multiplied by the exponentially weighted moving average of its latency,
+ * divided by its {@link Endpoint#weight()}. An {@link Endpoint} without a latency sample is assumed to be
+ * as fast as the average of the other {@link Endpoint}s, and a failed request is recorded as a latency
+ * sample slower than the current average, so that neither a cold nor a failing {@link Endpoint} attracts
+ * the traffic.
+ */
+final class LeastLoadedStrategy implements EndpointSelectionStrategy {
+
+    /**
+     * The factor multiplied to the latency of an {@link Endpoint} to get the latency sample of
+     * a failed request.
+     */
+    private static final int FAILURE_PENALTY = 2;
+
+    static final LeastLoadedStrategy INSTANCE = new LeastLoadedStrategy(false, 0);
+
+    private final boolean latencyAware;
+    private final long latencyDecayNanos;
+
+    LeastLoadedStrategy(boolean latencyAware, long latencyDecayNanos) {
+        this.latencyAware = latencyAware;
+        this.latencyDecayNanos = latencyDecayNanos;
+    }
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new LeastLoadedSelector(endpointGroup, latencyAware, latencyDecayNanos);
+    }
+
+    @VisibleForTesting
+    static final class LeastLoadedSelector extends AbstractEndpointSelector {
+
+        private final boolean latencyAware;
+        private final long latencyDecayNanos;
+        @Nullable
+        private volatile EndpointsAndStats endpointsAndStats;
+
+        LeastLoadedSelector(EndpointGroup endpointGroup, boolean latencyAware, long latencyDecayNanos) {
+            super(endpointGroup);
+            this.latencyAware = latencyAware;
+            this.latencyDecayNanos = latencyDecayNanos;
+            endpointGroup.addListener(this::updateEndpoints, true);
+        }
+
+        private void updateEndpoints(List<Endpoint> endpoints) {
+            // Keep the stats of the existing endpoints so that a membership change does not reset
+            // the in-flight counters of the endpoints which are still being used.
+            final EndpointsAndStats oldEndpointsAndStats = endpointsAndStats;
+            endpointsAndStats = new EndpointsAndStats(endpoints, oldEndpointsAndStats);
+        }
+
+        @Override
+        public Endpoint selectNow(ClientRequestContext ctx) {
+            final EndpointsAndStats endpointsAndStats = this.endpointsAndStats;
+            if (endpointsAndStats == null) {
+                // 'endpointGroup' has not been initialized yet.
+                return null;
+            }
+
+            final List<Endpoint> endpoints = endpointsAndStats.endpoints;
+            final EndpointStats[] stats = endpointsAndStats.stats;
+            final int size = endpoints.size();
+            if (size == 0) {
+                return null;
+            }
+
+            final int selected;
+            if (size == 1) {
+                selected = 0;
+            } else {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                final int first = random.nextInt(size);
+                int second = random.nextInt(size - 1);
+                if (second >= first) {
+                    second++;
+                }
+                double firstLatency = 1;
+                double secondLatency = 1;
+                if (latencyAware) {
+                    firstLatency = stats[first].latencyNanos();
+                    secondLatency = stats[second].latencyNanos();
+                    if (firstLatency == 0 || secondLatency == 0) {
+                        // Assume the endpoint without a sample is as fast as the others until it gets one.
+                        final double meanLatency = meanLatencyNanos(stats);
+                        if (meanLatency == 0) {
+                            // No endpoint has a sample yet. Compare the in-flight requests only.
+                            firstLatency = secondLatency = 1;
+                        } else {
+                            firstLatency = firstLatency == 0 ? meanLatency : firstLatency;
+                            secondLatency = secondLatency == 0 ? meanLatency : secondLatency;
+                        }
+                    }
+                }
+                selected = load(endpoints.get(first), stats[first], firstLatency) <=
+                           load(endpoints.get(second), stats[second], secondLatency) ? first : second;
+            }
+
+            final EndpointStats selectedStats = stats[selected];
+            if (ctx != null) {
+                selectedStats.onRequestStart();
+                ctx.log().whenComplete().thenAccept(log -> {
+                    if (!latencyAware) {
+                        selectedStats.onRequestEnd(0, 0);
+                        return;
+                    }
+                    long latencyNanos = log.totalDurationNanos();
+                    if (log.responseCause() != null) {
+                        // Do not let a fast failure, e.g. a refused connection, attract more requests.
+                        double baseLatency = selectedStats.latencyNanos();
+                        if (baseLatency == 0) {
+                            baseLatency = meanLatencyNanos(stats);
+                        }
+                        latencyNanos = (long) (Math.max(latencyNanos, baseLatency) * FAILURE_PENALTY);
+                    }
+                    selectedStats.onRequestEnd(latencyNanos, System.nanoTime());
+                });
+            }
+            return endpoints.get(selected);
+        }
+
+        private static double load(Endpoint endpoint, EndpointStats stats, double latencyNanos) {
+            final double load = (stats.inFlightRequests() + 1) * latencyNanos;
+            return load / Math.max(endpoint.weight(), 1);
+        }
+
+        /**
+         * Returns the mean latency of the {@link Endpoint}s which have a latency sample, or {@code 0} if none
+         * of them has one.
+         */
+        private static double meanLatencyNanos(EndpointStats[] stats) {
+            double sum = 0;
+            int count = 0;
+            for (EndpointStats stat : stats) {
+                final double latency = stat.latencyNanos();
+                if (latency > 0) {
+                    sum += latency;
+                    count++;
+                }
+            }
+            return count == 0 ? 0 : sum / count;
+        }
+
+        private final class EndpointsAndStats {
+
+            final List<Endpoint> endpoints;
+            final EndpointStats[] stats;
+
+            EndpointsAndStats(List<Endpoint> endpoints, @Nullable EndpointsAndStats old) {
+                this.endpoints = ImmutableList.copyOf(endpoints);
+                stats = new EndpointStats[endpoints.size()];
+
+                Map<Endpoint, EndpointStats> oldStats = null;
+                if (old != null) {
+                    oldStats = Maps.newHashMapWithExpectedSize(old.stats.length);
+                    for (int i = 0; i < old.stats.length; i++) {
+                        oldStats.put(old.endpoints.get(i), old.stats[i]);
+                    }
+                }
+                // Endpoints may appear more than once. Give each occurrence its own stats.
+                final Map<EndpointStats, Boolean> used = new IdentityHashMap<>();
+                for (int i = 0; i < stats.length; i++) {
+                    EndpointStats stat = oldStats != null ? oldStats.get(endpoints.get(i)) : null;
+                    if (stat == null || used.put(stat, Boolean.TRUE) != null) {
+                        stat = new EndpointStats(latencyDecayNanos);
+                    }
+                    stats[i] = stat;
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of in-flight requests and the moving average of the latency of an {@link Endpoint}.
+     */
+    @VisibleForTesting
+    static final class EndpointStats {
+
+        private final LongAdder inFlightRequests = new LongAdder();
+        private final long latencyDecayNanos;
+        // The bits of a double. 0 until the first request completes.
+        private final AtomicLong latencyNanos = new AtomicLong();
+        private volatile long lastUpdateNanos;
+
+        EndpointStats(long latencyDecayNanos) {
+            this.latencyDecayNanos = latencyDecayNanos;
+        }
+
+        long inFlightRequests() {
+            return Math.max(inFlightRequests.sum(), 0);
+        }
+
+        /**
+         * Returns the moving average of the latency, or {@code 0} if no request has completed yet.
+         */
+        double latencyNanos() {
+            return Double.longBitsToDouble(latencyNanos.get());
+        }
+
+        void onRequestStart() {
+            inFlightRequests.increment();
+        }
+
+        void onRequestEnd(long latencyNanos, long now) {
+            inFlightRequests.decrement();
+            if (latencyNanos <= 0 || now == 0) {
+                return;
+            }
+
+            final long elapsed = Math.max(now - lastUpdateNanos, 0);
+            lastUpdateNanos = now;
+            // The weight of the old average decays exponentially with the time since the last update,
+            // so that an endpoint recovers quickly after a spike even if it receives few requests.
+            final double decay = Math.exp(-(double) elapsed / latencyDecayNanos);
+            for (;;) {
+                final long oldBits = this.latencyNanos.get();
+                final double oldLatency = Double.longBitsToDouble(oldBits);
+                final double newLatency = oldLatency == 0 ? latencyNanos
+                                                          : oldLatency * decay + latencyNanos * (1 - decay);
+                if (this.latencyNanos.compareAndSet(oldBits, Double.doubleToRawLongBits(newLatency))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Builds an {@link EndpointSelectionStrategy} which selects the less loaded of two randomly chosen
+ * {@link Endpoint}s. The load of an {@link Endpoint} is the number of its in-flight requests divided by
+ * its {@link Endpoint#weight()}. If {@link #latencyAware(boolean)} is enabled, the load is also multiplied
+ * by the moving average of the latency of the {@link Endpoint}, so that a slow {@link Endpoint}, e.g. one
+ * in a GC pause, receives fewer requests.
+ *
+ * @see EndpointSelectionStrategy#builderForLeastLoaded()
+ */
+@UnstableApi
+public final class LeastLoadedStrategyBuilder {
+
+    static final long DEFAULT_LATENCY_DECAY_MILLIS = 10000;
+
+    private boolean latencyAware;
+    private long latencyDecayMillis = DEFAULT_LATENCY_DECAY_MILLIS;
+
+    LeastLoadedStrategyBuilder() {}
+
+    /**
+     * Sets whether to take the latency of {@link Endpoint}s into account. This option is disabled by
+     * default.
+     */
+    public LeastLoadedStrategyBuilder latencyAware(boolean latencyAware) {
+        this.latencyAware = latencyAware;
+        return this;
+    }
+
+    /**
+     * Sets the time constant of the exponentially weighted moving average of the latency. The weight of
+     * a latency sample decays to {@code 1/e} after this duration. A shorter duration makes the average
+     * follow the latest latency more closely.
+     * {@value #DEFAULT_LATENCY_DECAY_MILLIS} milliseconds is used by default.
+     */
+    public LeastLoadedStrategyBuilder latencyDecay(Duration latencyDecay) {
+        requireNonNull(latencyDecay, "latencyDecay");
+        return latencyDecayMillis(latencyDecay.toMillis());
+    }
+
+    /**
+     * Sets the time constant of the exponentially weighted moving average of the latency in milliseconds.
+     * {@value #DEFAULT_LATENCY_DECAY_MILLIS} milliseconds is used by default.
+     *
+     * @see #latencyDecay(Duration)
+     */
+    public LeastLoadedStrategyBuilder latencyDecayMillis(long latencyDecayMillis) {
+        checkArgument(latencyDecayMillis > 0, "latencyDecayMillis: %s (expected: > 0)", latencyDecayMillis);
+        this.latencyDecayMillis = latencyDecayMillis;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link EndpointSelectionStrategy} based on the properties of this builder.
+     */
+    public EndpointSelectionStrategy build() {
+        if (!latencyAware) {
+            return LeastLoadedStrategy.INSTANCE;
+        }
+        return new LeastLoadedStrategy(true, TimeUnit.MILLISECONDS.toNanos(latencyDecayMillis));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.MoreObjects.ToStringHelper;
+
+/**
+ * A skeletal {@link AdaptiveLimit} which serializes the updates of the limit and smooths and clamps
+ * the limit estimated by a subclass.
+ */
+abstract class AbstractAdaptiveLimit implements AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile int limit;
+
+    // Guarded by lock.
+    private double estimatedLimit;
+
+    AbstractAdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        limit = initialLimit;
+        estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public final int limit() {
+        return limit;
+    }
+
+    @Override
+    public final void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        // Samples are reported from many event loops. Skip a sample rather than blocking an event loop
+        // while another thread updates the limit; the next sample will be taken into account instead.
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            update(rttNanos, inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the limit with the specified sample. Invoked with the lock held, so the state of a subclass
+     * which is accessed only by this method does not need to be thread-safe.
+     */
+    abstract void update(long rttNanos, int inFlight);
+
+    /**
+     * Returns the limit before smoothing and truncating to an integer. Must be invoked from
+     * {@link #update(long, int)}.
+     */
+    final double estimatedLimit() {
+        return estimatedLimit;
+    }
+
+    /**
+     * Moves the limit towards the specified {@code newLimit} by the smoothing factor, within the minimum
+     * and maximum limits. Must be invoked from {@link #update(long, int)}.
+     */
+    final void updateLimit(double newLimit) {
+        final double currentLimit = estimatedLimit;
+        final double smoothed = currentLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Returns a {@link ToStringHelper} with the common properties added.
+     */
+    final ToStringHelper toStringHelper() {
+        return MoreObjects.toStringHelper(this)
+                          .add("limit", limit)
+                          .add("minLimit", minLimit)
+                          .add("maxLimit", maxLimit)
+                          .add("smoothing", smoothing);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * A concurrency limit which adjusts itself continuously from the round-trip time of the requests executed
+ * under it. An {@link AdaptiveLimit} grows while the latency stays close to the lowest observed latency and
+ * shrinks as requests start to queue up at the backend, so that the concurrency stays around the point
+ * where the throughput stops increasing.
+ *
+ * <pre>{@code
+ * ConcurrencyLimit limit =
+ *         ConcurrencyLimit.builder(AdaptiveLimit.gradient())
+ *                         .maxPendingAcquisitions(100)
+ *                         .build();
+ * WebClient.builder("https://example.com")
+ *          .decorator(ConcurrencyLimitingClient.newDecorator(limit))
+ *          ...
+ * }</pre>
+ *
+ * <p>Note that an {@link AdaptiveLimit} keeps the state of a single backend, so it should not be shared
+ * between {@link ConcurrencyLimit}s.
+ */
+@UnstableApi
+public interface AdaptiveLimit {
+
+    /**
+     * Returns a new {@link AdaptiveLimit} that adjusts the limit with the TCP Vegas congestion avoidance
+     * algorithm, using the default options.
+     */
+    static AdaptiveLimit vegas() {
+        return builderForVegas().build();
+    }
+
+    /**
+     * Returns a new {@link VegasLimitBuilder}.
+     */
+    static VegasLimitBuilder builderForVegas() {
+        return new VegasLimitBuilder();
+    }
+
+    /**
+     * Returns a new {@link AdaptiveLimit} that adjusts the limit from the gradient between the long-term
+     * and the current round-trip time, using the default options.
+     */
+    static AdaptiveLimit gradient() {
+        return builderForGradient().build();
+    }
+
+    /**
+     * Returns a new {@link GradientLimitBuilder}.
+     */
+    static GradientLimitBuilder builderForGradient() {
+        return new GradientLimitBuilder();
+    }
+
+    /**
+     * Returns the current limit. This method is invoked whenever a permit is acquired, so it must be cheap.
+     */
+    int limit();
+
+    /**
+     * Invoked when a request executed under the limit is complete.
+     *
+     * @param rttNanos the time between acquiring and releasing the permit, in nanoseconds
+     * @param inFlight the number of permits that were acquired when the request completed,
+     *                 including the permit of the completed request
+     */
+    void onSample(long rttNanos, int inFlight);
+}
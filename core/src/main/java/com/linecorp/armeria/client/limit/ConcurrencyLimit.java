@@ -116,6 +116,22 @@ public interface ConcurrencyLimit {
         return new ConcurrencyLimitBuilder(maxConcurrency);
     }
 
+    /**
+     * Returns a new {@link ConcurrencyLimitBuilder} whose maximum number of concurrent active requests is
+     * adjusted by the specified {@link AdaptiveLimit}. The {@link AdaptiveLimit} is notified with the
+     * round-trip time of every request executed under the {@link ConcurrencyLimit}. For example:
+     * <pre>{@code
+     * ConcurrencyLimit limit = ConcurrencyLimit.builder(AdaptiveLimit.vegas())
+     *                                          .timeout(Duration.ofSeconds(5))
+     *                                          .build();
+     * }</pre>
+     */
+    @UnstableApi
+    static ConcurrencyLimitBuilder builder(AdaptiveLimit adaptiveLimit) {
+        requireNonNull(adaptiveLimit, "adaptiveLimit");
+        return new ConcurrencyLimitBuilder(adaptiveLimit);
+    }
+
     /**
      * Acquires a {@link SafeCloseable} that allows you to execute a job under the limit.
      * The {@link SafeCloseable} must be closed after the job is done:
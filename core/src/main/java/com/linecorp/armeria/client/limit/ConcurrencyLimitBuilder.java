@@ -25,10 +25,14 @@ import java.util.function.IntSupplier;
 import java.util.function.Predicate;
 
 import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.SafeCloseable;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Builds a {@link ConcurrencyLimit}.
  */
@@ -45,18 +49,32 @@ public final class ConcurrencyLimitBuilder {
 
     private final boolean useLimit;
     private final IntSupplier maxConcurrency;
+    @Nullable
+    private final AdaptiveLimit adaptiveLimit;
     private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
     private int maxPendingAcquisitions = DEFAULT_MAX_PENDING_ACQUIRES;
     private Predicate<? super ClientRequestContext> predicate = requestContext -> true;
+    @Nullable
+    private MeterRegistry meterRegistry;
+    @Nullable
+    private MeterIdPrefix meterIdPrefix;
 
     ConcurrencyLimitBuilder(int maxConcurrency) {
         useLimit = !(maxConcurrency == 0 || maxConcurrency == Integer.MAX_VALUE);
         this.maxConcurrency = () -> maxConcurrency;
+        adaptiveLimit = null;
     }
 
     ConcurrencyLimitBuilder(IntSupplier maxConcurrency) {
         useLimit = true;
         this.maxConcurrency = maxConcurrency;
+        adaptiveLimit = null;
+    }
+
+    ConcurrencyLimitBuilder(AdaptiveLimit adaptiveLimit) {
+        useLimit = true;
+        maxConcurrency = adaptiveLimit::limit;
+        this.adaptiveLimit = adaptiveLimit;
     }
 
     /**
@@ -99,6 +117,23 @@ public final class ConcurrencyLimitBuilder {
         return this;
     }
 
+    /**
+     * Exports the current limit, the number of acquired permits and the number of pending acquisitions of
+     * the {@link ConcurrencyLimit} as gauges to the specified {@link MeterRegistry}:
+     * <ul>
+     *   <li>{@code <prefix>.limit}</li>
+     *   <li>{@code <prefix>.acquired.permits}</li>
+     *   <li>{@code <prefix>.pending.acquisitions}</li>
+     * </ul>
+     * Use a different {@link MeterIdPrefix} for each {@link ConcurrencyLimit}.
+     */
+    @UnstableApi
+    public ConcurrencyLimitBuilder meterRegistry(MeterRegistry meterRegistry, MeterIdPrefix meterIdPrefix) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link ConcurrencyLimit} based on the properties of this builder.
      */
@@ -106,6 +141,13 @@ public final class ConcurrencyLimitBuilder {
         if (!useLimit) {
             return noLimit;
         }
-        return new DefaultConcurrencyLimit(predicate, maxConcurrency, maxPendingAcquisitions, timeoutMillis);
+        final DefaultConcurrencyLimit concurrencyLimit =
+                new DefaultConcurrencyLimit(predicate, maxConcurrency, adaptiveLimit,
+                                            maxPendingAcquisitions, timeoutMillis);
+        if (meterRegistry != null) {
+            assert meterIdPrefix != null;
+            concurrencyLimit.registerMetrics(meterRegistry, meterIdPrefix);
+        }
+        return concurrencyLimit;
     }
 }
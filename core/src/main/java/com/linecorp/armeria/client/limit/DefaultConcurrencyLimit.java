@@ -37,9 +37,12 @@ import com.google.common.base.MoreObjects;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.common.ContextAwareEventLoop;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.SafeCloseable;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Concurrency settings that limits the concurrent number of active requests.
  */
@@ -48,6 +51,8 @@ final class DefaultConcurrencyLimit implements ConcurrencyLimit {
 
     private final Predicate<? super ClientRequestContext> predicate;
     private final IntSupplier maxConcurrency;
+    @Nullable
+    private final AdaptiveLimit adaptiveLimit;
     private final int maxPendingAcquisitions;
     private final long timeoutMillis;
 
@@ -57,12 +62,28 @@ final class DefaultConcurrencyLimit implements ConcurrencyLimit {
 
     DefaultConcurrencyLimit(Predicate<? super ClientRequestContext> predicate,
                             IntSupplier maxConcurrency, int maxPendingAcquisitions, long timeoutMillis) {
+        this(predicate, maxConcurrency, null, maxPendingAcquisitions, timeoutMillis);
+    }
+
+    DefaultConcurrencyLimit(Predicate<? super ClientRequestContext> predicate,
+                            IntSupplier maxConcurrency, @Nullable AdaptiveLimit adaptiveLimit,
+                            int maxPendingAcquisitions, long timeoutMillis) {
         this.predicate = predicate;
         this.maxConcurrency = maxConcurrency;
+        this.adaptiveLimit = adaptiveLimit;
         this.maxPendingAcquisitions = maxPendingAcquisitions;
         this.timeoutMillis = timeoutMillis;
     }
 
+    void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        registry.gauge(idPrefix.name("limit"), idPrefix.tags(), this,
+                       DefaultConcurrencyLimit::maxConcurrency);
+        registry.gauge(idPrefix.name("acquired.permits"), idPrefix.tags(), acquiredPermits,
+                       AtomicInteger::get);
+        registry.gauge(idPrefix.name("pending.acquisitions"), idPrefix.tags(), numPendingAcquisitions,
+                       AtomicLong::get);
+    }
+
     @VisibleForTesting
     int acquiredPermits() {
         return acquiredPermits.get();
@@ -191,13 +212,15 @@ final class DefaultConcurrencyLimit implements ConcurrencyLimit {
         private void completePermit() {
             final Permit permit = new Permit();
             if (!future.complete(permit)) {
-                permit.close();
+                // The permit was never used, so it's not a sample of the round-trip time.
+                permit.discard();
             }
         }
     }
 
     private class Permit implements SafeCloseable {
 
+        private final long acquiredNanos = adaptiveLimit != null ? System.nanoTime() : 0;
         private boolean closed;
 
         @Override
@@ -205,6 +228,15 @@ final class DefaultConcurrencyLimit implements ConcurrencyLimit {
             if (closed) {
                 return;
             }
+            closed = true;
+            final int inFlight = acquiredPermits.getAndDecrement();
+            if (adaptiveLimit != null) {
+                adaptiveLimit.onSample(System.nanoTime() - acquiredNanos, inFlight);
+            }
+            drain();
+        }
+
+        void discard() {
             closed = true;
             acquiredPermits.decrementAndGet();
             drain();
@@ -214,7 +246,7 @@ final class DefaultConcurrencyLimit implements ConcurrencyLimit {
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
-                          .add("maxConcurrency", maxConcurrency)
+                          .add("maxConcurrency", adaptiveLimit != null ? adaptiveLimit : maxConcurrency)
                           .add("maxPendingAcquisitions", maxPendingAcquisitions)
                           .add("acquiredPermits", acquiredPermits)
                           .add("timeoutMillis", timeoutMillis)
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+/**
+ * An {@link AdaptiveLimit} which scales the limit by the gradient between the long-term average of the
+ * round-trip time and the round-trip time of the latest request, {@code longRtt / rtt}. The gradient is
+ * {@code 1} when there's no queueing and decreases as the latency increases. A small headroom,
+ * {@code sqrt(limit)}, is always added so that the limit can grow when the latency does not change.
+ */
+final class GradientLimit extends AbstractAdaptiveLimit {
+
+    private final double rttTolerance;
+    private final double longWindowFactor;
+
+    // Accessed only by update().
+    private double longRttNanos;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing,
+                  int longWindow) {
+        super(initialLimit, minLimit, maxLimit, smoothing);
+        this.rttTolerance = rttTolerance;
+        longWindowFactor = 2.0 / (longWindow + 1);
+    }
+
+    @Override
+    void update(long rttNanos, int inFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * longWindowFactor;
+        }
+
+        // Let the long-term RTT catch up quickly when the latency drops sharply,
+        // e.g. after the backend recovered from an overload.
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        final double currentLimit = estimatedLimit();
+        if (inFlight * 2 < currentLimit) {
+            // The limit is not what bounds the throughput. Growing it would only make the limit
+            // meaningless when the load increases.
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        updateLimit(currentLimit * gradient + Math.sqrt(currentLimit));
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper().add("rttTolerance", rttTolerance)
+                               .add("longWindowFactor", longWindowFactor)
+                               .toString();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Builds an {@link AdaptiveLimit} which scales the limit by the gradient between the long-term average of
+ * the round-trip time and the round-trip time of the latest request.
+ *
+ * @see AdaptiveLimit#builderForGradient()
+ */
+@UnstableApi
+public final class GradientLimitBuilder {
+
+    static final int DEFAULT_INITIAL_LIMIT = 20;
+    static final int DEFAULT_MIN_LIMIT = 1;
+    static final int DEFAULT_MAX_LIMIT = 1000;
+    static final double DEFAULT_RTT_TOLERANCE = 1.5;
+    static final double DEFAULT_SMOOTHING = 0.2;
+    static final int DEFAULT_LONG_WINDOW = 600;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+    private double smoothing = DEFAULT_SMOOTHING;
+    private int longWindow = DEFAULT_LONG_WINDOW;
+
+    GradientLimitBuilder() {}
+
+    /**
+     * Sets the limit used until enough samples are collected.
+     * If unspecified, {@value #DEFAULT_INITIAL_LIMIT} is used.
+     */
+    public GradientLimitBuilder initialLimit(int initialLimit) {
+        checkArgument(initialLimit > 0, "initialLimit: %s (expected: > 0)", initialLimit);
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    /**
+     * Sets the lower bound of the limit. If unspecified, {@value #DEFAULT_MIN_LIMIT} is used.
+     */
+    public GradientLimitBuilder minLimit(int minLimit) {
+        checkArgument(minLimit > 0, "minLimit: %s (expected: > 0)", minLimit);
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    /**
+     * Sets the upper bound of the limit. If unspecified, {@value #DEFAULT_MAX_LIMIT} is used.
+     */
+    public GradientLimitBuilder maxLimit(int maxLimit) {
+        checkArgument(maxLimit > 0, "maxLimit: %s (expected: > 0)", maxLimit);
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * Sets how much longer than the long-term average the round-trip time may be before the limit is
+     * decreased. For example, {@code 2.0} tolerates a round-trip time up to twice the average.
+     * If unspecified, {@value #DEFAULT_RTT_TOLERANCE} is used.
+     */
+    public GradientLimitBuilder rttTolerance(double rttTolerance) {
+        checkArgument(rttTolerance >= 1, "rttTolerance: %s (expected: >= 1)", rttTolerance);
+        this.rttTolerance = rttTolerance;
+        return this;
+    }
+
+    /**
+     * Sets the weight of a new limit against the current limit, between {@code 0} (exclusive) and
+     * {@code 1} (inclusive). A smaller value makes the limit change more slowly.
+     * If unspecified, {@value #DEFAULT_SMOOTHING} is used.
+     */
+    public GradientLimitBuilder smoothing(double smoothing) {
+        checkArgument(smoothing > 0 && smoothing <= 1,
+                      "smoothing: %s (expected: 0 < smoothing <= 1)", smoothing);
+        this.smoothing = smoothing;
+        return this;
+    }
+
+    /**
+     * Sets the number of samples the long-term average of the round-trip time is computed over.
+     * If unspecified, {@value #DEFAULT_LONG_WINDOW} is used.
+     */
+    public GradientLimitBuilder longWindow(int longWindow) {
+        checkArgument(longWindow > 0, "longWindow: %s (expected: > 0)", longWindow);
+        this.longWindow = longWindow;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link AdaptiveLimit} based on the properties of this builder.
+     */
+    public AdaptiveLimit build() {
+        checkState(minLimit <= initialLimit && initialLimit <= maxLimit,
+                   "initialLimit: %s (expected: minLimit(%s) <= initialLimit <= maxLimit(%s))",
+                   initialLimit, minLimit, maxLimit);
+        return new GradientLimit(initialLimit, minLimit, maxLimit, rttTolerance, smoothing, longWindow);
+    }
+}
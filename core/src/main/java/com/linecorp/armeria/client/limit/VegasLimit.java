@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+/**
+ * An {@link AdaptiveLimit} based on TCP Vegas. The number of queued requests is estimated as
+ * {@code limit * (1 - minRtt / rtt)}. The limit grows while the estimated queue is shorter than
+ * {@code alpha} and shrinks when it's longer than {@code beta}, where both thresholds scale with
+ * {@code log10(limit)}.
+ */
+final class VegasLimit extends AbstractAdaptiveLimit {
+
+    private final double alphaFactor;
+    private final double betaFactor;
+    private final int probeMultiplier;
+
+    // Accessed only by update().
+    private long minRttNanos;
+    private long numSamplesUntilProbe;
+
+    VegasLimit(int initialLimit, int minLimit, int maxLimit, double alphaFactor, double betaFactor,
+               int probeMultiplier, double smoothing) {
+        super(initialLimit, minLimit, maxLimit, smoothing);
+        this.alphaFactor = alphaFactor;
+        this.betaFactor = betaFactor;
+        this.probeMultiplier = probeMultiplier;
+        numSamplesUntilProbe = (long) probeMultiplier * initialLimit;
+    }
+
+    @Override
+    void update(long rttNanos, int inFlight) {
+        if (--numSamplesUntilProbe <= 0) {
+            // Forget the minimum RTT from time to time so that a permanent change of the backend latency,
+            // e.g. a new deployment in another zone, is not mistaken for queueing.
+            minRttNanos = 0;
+            numSamplesUntilProbe = (long) probeMultiplier * limit();
+        }
+
+        if (minRttNanos == 0 || rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+            return;
+        }
+
+        final double currentLimit = estimatedLimit();
+        if (inFlight * 2 < currentLimit) {
+            // The limit is not what bounds the throughput. Growing it would only make the limit
+            // meaningless when the load increases.
+            return;
+        }
+
+        final double log10Limit = Math.log10(Math.max(currentLimit, 1));
+        final double queueSize = Math.ceil(currentLimit * (1 - (double) minRttNanos / rttNanos));
+        final double alpha = alphaFactor * log10Limit;
+        final double beta = betaFactor * log10Limit;
+
+        final double newLimit;
+        if (queueSize <= log10Limit) {
+            newLimit = currentLimit + beta;
+        } else if (queueSize < alpha) {
+            newLimit = currentLimit + log10Limit;
+        } else if (queueSize > beta) {
+            newLimit = currentLimit - log10Limit;
+        } else {
+            return;
+        }
+        updateLimit(newLimit);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper().add("alphaFactor", alphaFactor)
+                               .add("betaFactor", betaFactor)
+                               .add("probeMultiplier", probeMultiplier)
+                               .toString();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Builds an {@link AdaptiveLimit} based on the TCP Vegas congestion avoidance algorithm.
+ * The limit is increased while the estimated number of requests queued at the backend,
+ * {@code limit * (1 - minRtt / rtt)}, is less than {@code alphaFactor * log10(limit)} and decreased when
+ * it is greater than {@code betaFactor * log10(limit)}.
+ *
+ * @see AdaptiveLimit#builderForVegas()
+ */
+@UnstableApi
+public final class VegasLimitBuilder {
+
+    static final int DEFAULT_INITIAL_LIMIT = 20;
+    static final int DEFAULT_MIN_LIMIT = 1;
+    static final int DEFAULT_MAX_LIMIT = 1000;
+    static final double DEFAULT_ALPHA_FACTOR = 3;
+    static final double DEFAULT_BETA_FACTOR = 6;
+    static final int DEFAULT_PROBE_MULTIPLIER = 30;
+    static final double DEFAULT_SMOOTHING = 1.0;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double alphaFactor = DEFAULT_ALPHA_FACTOR;
+    private double betaFactor = DEFAULT_BETA_FACTOR;
+    private int probeMultiplier = DEFAULT_PROBE_MULTIPLIER;
+    private double smoothing = DEFAULT_SMOOTHING;
+
+    VegasLimitBuilder() {}
+
+    /**
+     * Sets the limit used until enough samples are collected.
+     * If unspecified, {@value #DEFAULT_INITIAL_LIMIT} is used.
+     */
+    public VegasLimitBuilder initialLimit(int initialLimit) {
+        checkArgument(initialLimit > 0, "initialLimit: %s (expected: > 0)", initialLimit);
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    /**
+     * Sets the lower bound of the limit. If unspecified, {@value #DEFAULT_MIN_LIMIT} is used.
+     */
+    public VegasLimitBuilder minLimit(int minLimit) {
+        checkArgument(minLimit > 0, "minLimit: %s (expected: > 0)", minLimit);
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    /**
+     * Sets the upper bound of the limit. If unspecified, {@value #DEFAULT_MAX_LIMIT} is used.
+     */
+    public VegasLimitBuilder maxLimit(int maxLimit) {
+        checkArgument(maxLimit > 0, "maxLimit: %s (expected: > 0)", maxLimit);
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * Sets the factors of {@code log10(limit)} below which the limit is increased and above which the limit
+     * is decreased. If unspecified, {@value #DEFAULT_ALPHA_FACTOR} and {@value #DEFAULT_BETA_FACTOR} are
+     * used.
+     */
+    public VegasLimitBuilder queueSizeThresholds(double alphaFactor, double betaFactor) {
+        checkArgument(alphaFactor > 0, "alphaFactor: %s (expected: > 0)", alphaFactor);
+        checkArgument(betaFactor > alphaFactor,
+                      "betaFactor: %s (expected: > alphaFactor(%s))", betaFactor, alphaFactor);
+        this.alphaFactor = alphaFactor;
+        this.betaFactor = betaFactor;
+        return this;
+    }
+
+    /**
+     * Sets how often the minimum round-trip time is reset, as a multiplier of the current limit.
+     * For example, the minimum round-trip time is reset every {@code 3000} samples if the current limit is
+     * {@code 100} and the {@code probeMultiplier} is {@code 30}.
+     * If unspecified, {@value #DEFAULT_PROBE_MULTIPLIER} is used.
+     */
+    public VegasLimitBuilder probeMultiplier(int probeMultiplier) {
+        checkArgument(probeMultiplier > 0, "probeMultiplier: %s (expected: > 0)", probeMultiplier);
+        this.probeMultiplier = probeMultiplier;
+        return this;
+    }
+
+    /**
+     * Sets the weight of a new limit against the current limit, between {@code 0} (exclusive) and
+     * {@code 1} (inclusive). A smaller value makes the limit change more slowly.
+     * If unspecified, {@value #DEFAULT_SMOOTHING} is used.
+     */
+    public VegasLimitBuilder smoothing(double smoothing) {
+        checkArgument(smoothing > 0 && smoothing <= 1,
+                      "smoothing: %s (expected: 0 < smoothing <= 1)", smoothing);
+        this.smoothing = smoothing;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link AdaptiveLimit} based on the properties of this builder.
+     */
+    public AdaptiveLimit build() {
+        checkState(minLimit <= initialLimit && initialLimit <= maxLimit,
+                   "initialLimit: %s (expected: minLimit(%s) <= initialLimit <= maxLimit(%s))",
+                   initialLimit, minLimit, maxLimit);
+        return new VegasLimit(initialLimit, minLimit, maxLimit, alphaFactor, betaFactor,
+                              probeMultiplier, smoothing);
+    }
+}
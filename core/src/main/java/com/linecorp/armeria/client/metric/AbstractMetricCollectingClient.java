@@ -25,6 +25,7 @@ import com.linecorp.armeria.client.SimpleDecoratingClient;
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.Response;
+import com.linecorp.armeria.common.SuccessFunction;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
@@ -45,20 +46,21 @@ abstract class AbstractMetricCollectingClient<I extends Request, O extends Respo
 
     private final MeterIdPrefixFunction meterIdPrefixFunction;
     @Nullable
-    private final BiPredicate<? super RequestContext, ? super RequestLog> successFunction;
+    private final SuccessFunction successFunction;
 
     AbstractMetricCollectingClient(
             Client<I, O> delegate, MeterIdPrefixFunction meterIdPrefixFunction,
             @Nullable BiPredicate<? super RequestContext, ? super RequestLog> successFunction) {
         super(delegate);
         this.meterIdPrefixFunction = requireNonNull(meterIdPrefixFunction, "meterIdPrefixFunction");
-        this.successFunction = successFunction;
+        // Convert only once to avoid allocating a method reference for each request.
+        this.successFunction = successFunction != null ? successFunction::test : null;
     }
 
     @Override
     public final O execute(ClientRequestContext ctx, I req) throws Exception {
         RequestMetricSupport.setup(ctx, REQUEST_METRICS_SET, meterIdPrefixFunction, false,
-                                   successFunction != null ? successFunction::test
+                                   successFunction != null ? successFunction
                                                            : ctx.options().successFunction());
         return unwrap().execute(ctx, req);
     }
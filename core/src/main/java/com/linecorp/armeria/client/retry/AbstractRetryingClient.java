@@ -82,10 +82,15 @@ public abstract class AbstractRetryingClient<I extends Request, O extends Respon
         final RetryConfig<O> config = mapping.get(ctx, req);
         requireNonNull(config, "mapping.get() returned null");
 
+        final RetryBudget retryBudget = config.retryBudget();
+        if (retryBudget != null) {
+            retryBudget.onRequest(ctx);
+        }
         final State state = new State(
                 config.maxTotalAttempts(),
                 config.responseTimeoutMillisForEachAttempt(),
-                ctx.responseTimeoutMillis());
+                ctx.responseTimeoutMillis(),
+                retryBudget);
         ctx.setAttr(STATE, state);
         return doExecute(ctx, req);
     }
@@ -230,6 +235,11 @@ public abstract class AbstractRetryingClient<I extends Request, O extends Respon
             return -1;
         }
 
+        if (state.retryBudget != null && !state.retryBudget.tryAcquireRetry(ctx)) {
+            logger.debug("Exceeded the retry budget: {}", state.retryBudget);
+            return -1;
+        }
+
         return nextDelay;
     }
 
@@ -245,6 +255,18 @@ public abstract class AbstractRetryingClient<I extends Request, O extends Respon
         return state.totalAttemptNo;
     }
 
+    /**
+     * Increments the total number of attempts of the current request represented by the specified
+     * {@link ClientRequestContext} for a hedged attempt.
+     *
+     * @return {@code false} if the number of attempts has reached {@code maxTotalAttempts} or
+     *         the {@link RetryBudget} has been exhausted
+     */
+    static boolean tryIncrementTotalAttempts(ClientRequestContext ctx) {
+        final State state = ctx.attr(STATE);
+        return state != null && state.tryIncrementTotalAttempts(ctx);
+    }
+
     /**
      * Creates a new derived {@link ClientRequestContext}, replacing the requests.
      * If {@link ClientRequestContext#endpointGroup()} exists, a new {@link Endpoint} will be selected.
@@ -262,14 +284,18 @@ public abstract class AbstractRetryingClient<I extends Request, O extends Respon
         private final long responseTimeoutMillisForEachAttempt;
         private final long deadlineNanos;
         private final boolean isTimeoutEnabled;
+        @Nullable
+        private final RetryBudget retryBudget;
 
         @Nullable
         private Backoff lastBackoff;
         private int currentAttemptNoWithLastBackoff;
         private int totalAttemptNo;
 
-        State(int maxTotalAttempts, long responseTimeoutMillisForEachAttempt, long responseTimeoutMillis) {
+        State(int maxTotalAttempts, long responseTimeoutMillisForEachAttempt, long responseTimeoutMillis,
+              @Nullable RetryBudget retryBudget) {
             this.maxTotalAttempts = maxTotalAttempts;
+            this.retryBudget = retryBudget;
             this.responseTimeoutMillisForEachAttempt = responseTimeoutMillisForEachAttempt;
 
             if (responseTimeoutMillis <= 0 || responseTimeoutMillis == Long.MAX_VALUE) {
@@ -316,7 +342,8 @@ public abstract class AbstractRetryingClient<I extends Request, O extends Respon
             return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
         }
 
-        int currentAttemptNoWith(Backoff backoff) {
+        // Synchronized because hedged attempts may complete on different event loops concurrently.
+        synchronized int currentAttemptNoWith(Backoff backoff) {
             if (totalAttemptNo++ >= maxTotalAttempts) {
                 return -1;
             }
@@ -326,5 +353,18 @@ public abstract class AbstractRetryingClient<I extends Request, O extends Respon
             }
             return currentAttemptNoWithLastBackoff++;
         }
+
+        synchronized boolean tryIncrementTotalAttempts(ClientRequestContext ctx) {
+            if (totalAttemptNo >= maxTotalAttempts) {
+                return false;
+            }
+            // Consult the budget before counting the attempt so that a rejected hedged attempt does not
+            // use up one of the remaining attempts.
+            if (retryBudget != null && !retryBudget.tryAcquireRetry(ctx)) {
+                return false;
+            }
+            totalAttemptNo++;
+            return true;
+        }
     }
 }
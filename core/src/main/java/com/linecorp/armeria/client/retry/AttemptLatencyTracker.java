@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * Keeps the latencies of the recent attempts to an
+ * {@link com.linecorp.armeria.client.endpoint.EndpointGroup} to derive the hedging delay from a percentile.
+ * The percentile is computed from a sorted snapshot of the samples, which is refreshed only after
+ * {@value #REFRESH_INTERVAL} new samples have been recorded so that a lookup is cheap.
+ */
+final class AttemptLatencyTracker {
+
+    private static final int NUM_SAMPLES = 256;
+    private static final int SAMPLE_MASK = NUM_SAMPLES - 1;
+    private static final int MIN_SAMPLES = 32;
+    private static final int REFRESH_INTERVAL = 32;
+
+    private final AtomicLongArray samples = new AtomicLongArray(NUM_SAMPLES);
+    private final AtomicLong numRecorded = new AtomicLong();
+
+    @Nullable
+    private volatile Snapshot snapshot;
+
+    void record(long latencyNanos) {
+        if (latencyNanos < 0) {
+            return;
+        }
+        final long index = numRecorded.getAndIncrement();
+        samples.set((int) (index & SAMPLE_MASK), latencyNanos);
+    }
+
+    /**
+     * Returns the latency at the specified percentile in nanoseconds, or {@code -1} if not enough
+     * samples have been recorded yet.
+     */
+    long percentileNanos(double percentile) {
+        final long numRecorded = this.numRecorded.get();
+        if (numRecorded < MIN_SAMPLES) {
+            return -1;
+        }
+
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null || numRecorded - snapshot.numRecorded >= REFRESH_INTERVAL) {
+            final int numSamples = (int) Math.min(numRecorded, NUM_SAMPLES);
+            final long[] sorted = new long[numSamples];
+            for (int i = 0; i < numSamples; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            this.snapshot = snapshot = new Snapshot(numRecorded, sorted);
+        }
+
+        final long[] sorted = snapshot.sorted;
+        final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static final class Snapshot {
+        final long numRecorded;
+        final long[] sorted;
+
+        Snapshot(long numRecorded, long[] sorted) {
+            this.numRecorded = numRecorded;
+            this.sorted = sorted;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.MapMaker;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.retry.RetryBudgetBuilder.KeyType;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The default {@link RetryBudget} implementation which counts requests and retries in a ring of
+ * {@value #NUM_BUCKETS} time buckets per key. Each bucket is made of {@link LongAdder}s and is reset
+ * lazily by the first thread which observes that it belongs to an expired time slot.
+ */
+final class DefaultRetryBudget implements RetryBudget {
+
+    static final int NUM_BUCKETS = 10;
+
+    private final double maxRetryRatio;
+    private final long windowMillis;
+    private final long bucketNanos;
+    private final long minRetriesPerWindow;
+    private final KeyType keyType;
+    private final Ticker ticker;
+
+    private final SlidingWindow defaultWindow;
+    @Nullable
+    private final ConcurrentMap<Object, SlidingWindow> windows;
+    @Nullable
+    private final Cache<Object, SlidingWindow> expiringWindows;
+
+    private final LongAdder allowedRetries = new LongAdder();
+    private final LongAdder rejectedRetries = new LongAdder();
+
+    DefaultRetryBudget(double maxRetryRatio, long windowMillis, long minRetriesPerWindow,
+                       KeyType keyType, Ticker ticker) {
+        this.maxRetryRatio = maxRetryRatio;
+        this.windowMillis = windowMillis;
+        bucketNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis) / NUM_BUCKETS;
+        this.minRetriesPerWindow = minRetriesPerWindow;
+        this.keyType = keyType;
+        this.ticker = ticker;
+
+        defaultWindow = new SlidingWindow();
+        switch (keyType) {
+            case ENDPOINT_GROUP:
+                // Hold EndpointGroups weakly so that the budget does not keep closed groups alive.
+                windows = new MapMaker().weakKeys().makeMap();
+                expiringWindows = null;
+                break;
+            case AUTHORITY:
+                // Evict the window of an authority which has not been used for a whole window, because
+                // all of its buckets are stale anyway. Otherwise, the map would grow with every authority
+                // ever seen.
+                expiringWindows = Caffeine.newBuilder()
+                                          .expireAfterAccess(windowMillis, TimeUnit.MILLISECONDS)
+                                          .ticker(ticker::read)
+                                          .build();
+                windows = expiringWindows.asMap();
+                break;
+            default:
+                windows = null;
+                expiringWindows = null;
+        }
+    }
+
+    void bindTo(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        final String name = idPrefix.name("retries");
+        registry.more().counter(name, idPrefix.tags("result", "allowed"), allowedRetries, LongAdder::sum);
+        registry.more().counter(name, idPrefix.tags("result", "rejected"), rejectedRetries, LongAdder::sum);
+    }
+
+    @Override
+    public void onRequest(ClientRequestContext ctx) {
+        final Bucket bucket = window(ctx).bucket(epoch());
+        if (bucket != null) {
+            bucket.requests.increment();
+        }
+    }
+
+    @Override
+    public boolean tryAcquireRetry(ClientRequestContext ctx) {
+        final long epoch = epoch();
+        final SlidingWindow window = window(ctx);
+        long requests = 0;
+        long retries = 0;
+        for (Bucket bucket : window.buckets) {
+            // Skip the buckets which have not been reset for the current window yet.
+            if (bucket.epoch > epoch - NUM_BUCKETS) {
+                requests += bucket.requests.sum();
+                retries += bucket.retries.sum();
+            }
+        }
+
+        if (retries >= minRetriesPerWindow + (long) (requests * maxRetryRatio)) {
+            rejectedRetries.increment();
+            return false;
+        }
+        final Bucket bucket = window.bucket(epoch);
+        if (bucket != null) {
+            bucket.retries.increment();
+        }
+        allowedRetries.increment();
+        return true;
+    }
+
+    private long epoch() {
+        return Math.floorDiv(ticker.read(), bucketNanos);
+    }
+
+    private SlidingWindow window(ClientRequestContext ctx) {
+        if (windows == null) {
+            return defaultWindow;
+        }
+        final Object key = keyType == KeyType.ENDPOINT_GROUP ? ctx.endpointGroup() : ctx.authority();
+        if (key == null) {
+            return defaultWindow;
+        }
+        final SlidingWindow window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        return windows.computeIfAbsent(key, unused -> new SlidingWindow());
+    }
+
+    @VisibleForTesting
+    long numWindows() {
+        if (expiringWindows != null) {
+            expiringWindows.cleanUp();
+        }
+        return windows != null ? windows.size() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("maxRetryRatio", maxRetryRatio)
+                          .add("windowMillis", windowMillis)
+                          .add("minRetriesPerWindow", minRetriesPerWindow)
+                          .add("keyType", keyType)
+                          .toString();
+    }
+
+    private static final class SlidingWindow {
+
+        final Bucket[] buckets = new Bucket[NUM_BUCKETS];
+
+        SlidingWindow() {
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        /**
+         * Returns the {@link Bucket} for the specified time slot, resetting it if it was used for an old one.
+         * {@code null} if the {@link Bucket} has already been reused for a newer time slot.
+         */
+        @Nullable
+        Bucket bucket(long epoch) {
+            final Bucket bucket = buckets[(int) Math.floorMod(epoch, NUM_BUCKETS)];
+            if (bucket.epoch == epoch) {
+                return bucket;
+            }
+            synchronized (bucket) {
+                final long bucketEpoch = bucket.epoch;
+                if (bucketEpoch == epoch) {
+                    return bucket;
+                }
+                if (bucketEpoch > epoch) {
+                    // The epoch was computed before a pause and its time slot is out of the window already.
+                    return null;
+                }
+                bucket.requests.reset();
+                bucket.retries.reset();
+                // Publish the new epoch only after the reset so that no increments are lost.
+                bucket.epoch = epoch;
+            }
+            return bucket;
+        }
+    }
+
+    private static final class Bucket {
+
+        final LongAdder requests = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        volatile long epoch = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Limits the number of retries relative to the number of requests, so that retries do not multiply
+ * the load on a backend which is already failing. For example, a {@link RetryBudget} which allows
+ * retries up to 20% of the requests over the last 10 seconds can be created as follows:
+ * <pre>{@code
+ * RetryBudget budget = RetryBudget.builder()
+ *                                 .maxRetryRatio(0.2)
+ *                                 .window(Duration.ofSeconds(10))
+ *                                 .keyedByEndpointGroup()
+ *                                 .build();
+ * RetryConfig<HttpResponse> config = RetryConfig.builder(RetryRule.failsafe())
+ *                                               .retryBudget(budget)
+ *                                               .build();
+ * }</pre>
+ * A {@link RetryBudget} is thread-safe and may be shared by multiple {@link RetryingClient}s and
+ * {@link RetryingRpcClient}s.
+ */
+@UnstableApi
+public interface RetryBudget {
+
+    /**
+     * Returns a new {@link RetryBudget} which allows retries up to the specified ratio of the requests
+     * with the default settings.
+     */
+    static RetryBudget of(double maxRetryRatio) {
+        return builder().maxRetryRatio(maxRetryRatio).build();
+    }
+
+    /**
+     * Returns a new {@link RetryBudgetBuilder}.
+     */
+    static RetryBudgetBuilder builder() {
+        return new RetryBudgetBuilder();
+    }
+
+    /**
+     * Invoked when a new request, which is not a retry, is about to be sent.
+     */
+    void onRequest(ClientRequestContext ctx);
+
+    /**
+     * Withdraws a retry from this budget.
+     *
+     * @return {@code true} if the retry is allowed, or {@code false} if the budget has been exhausted
+     */
+    boolean tryAcquireRetry(ClientRequestContext ctx);
+}
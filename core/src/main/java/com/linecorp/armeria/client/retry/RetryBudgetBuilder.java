@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Builds a new {@link RetryBudget}.
+ */
+@UnstableApi
+public final class RetryBudgetBuilder {
+
+    enum KeyType {
+        NONE,
+        ENDPOINT_GROUP,
+        AUTHORITY
+    }
+
+    private static final double DEFAULT_MAX_RETRY_RATIO = 0.2;
+    private static final long DEFAULT_WINDOW_MILLIS = 10_000;
+    private static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+    private static final MeterIdPrefix DEFAULT_METER_ID_PREFIX =
+            new MeterIdPrefix("armeria.client.retry.budget");
+
+    private double maxRetryRatio = DEFAULT_MAX_RETRY_RATIO;
+    private long windowMillis = DEFAULT_WINDOW_MILLIS;
+    private int minRetriesPerSecond = DEFAULT_MIN_RETRIES_PER_SECOND;
+    private KeyType keyType = KeyType.NONE;
+    @Nullable
+    private MeterRegistry meterRegistry;
+    private MeterIdPrefix meterIdPrefix = DEFAULT_METER_ID_PREFIX;
+    private Ticker ticker = Ticker.systemTicker();
+
+    RetryBudgetBuilder() {}
+
+    /**
+     * Sets the maximum ratio of retries to requests in the window. {@code 0.2} is used by default,
+     * which means that retries may be at most 20% of the requests.
+     */
+    public RetryBudgetBuilder maxRetryRatio(double maxRetryRatio) {
+        checkArgument(maxRetryRatio >= 0, "maxRetryRatio: %s (expected: >= 0)", maxRetryRatio);
+        this.maxRetryRatio = maxRetryRatio;
+        return this;
+    }
+
+    /**
+     * Sets the length of the sliding window over which requests and retries are counted.
+     * 10 seconds is used by default.
+     */
+    public RetryBudgetBuilder window(Duration window) {
+        requireNonNull(window, "window");
+        checkArgument(!window.isNegative() && !window.isZero(), "window: %s (expected: > 0)", window);
+        return windowMillis(window.toMillis());
+    }
+
+    /**
+     * Sets the length of the sliding window in milliseconds over which requests and retries are counted.
+     * 10 seconds is used by default.
+     */
+    public RetryBudgetBuilder windowMillis(long windowMillis) {
+        checkArgument(windowMillis >= DefaultRetryBudget.NUM_BUCKETS,
+                      "windowMillis: %s (expected: >= %s)", windowMillis, DefaultRetryBudget.NUM_BUCKETS);
+        this.windowMillis = windowMillis;
+        return this;
+    }
+
+    /**
+     * Sets the number of retries per second which are always allowed regardless of
+     * {@link #maxRetryRatio(double)}, so that a client with a low request rate can still retry.
+     * {@code 10} is used by default.
+     */
+    public RetryBudgetBuilder minRetriesPerSecond(int minRetriesPerSecond) {
+        checkArgument(minRetriesPerSecond >= 0,
+                      "minRetriesPerSecond: %s (expected: >= 0)", minRetriesPerSecond);
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        return this;
+    }
+
+    /**
+     * Makes the {@link RetryBudget} keep a separate budget for each
+     * {@link ClientRequestContext#endpointGroup()}. By default, all requests share a single budget.
+     */
+    public RetryBudgetBuilder keyedByEndpointGroup() {
+        keyType = KeyType.ENDPOINT_GROUP;
+        return this;
+    }
+
+    /**
+     * Makes the {@link RetryBudget} keep a separate budget for each {@link ClientRequestContext#authority()}.
+     * By default, all requests share a single budget.
+     */
+    public RetryBudgetBuilder keyedByAuthority() {
+        keyType = KeyType.AUTHORITY;
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterRegistry} which collects the number of allowed and rejected retries.
+     */
+    public RetryBudgetBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the meters registered to {@link #meterRegistry(MeterRegistry)}.
+     * {@code "armeria.client.retry.budget"} is used by default.
+     */
+    public RetryBudgetBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    RetryBudgetBuilder ticker(Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link RetryBudget} based on the properties of this builder.
+     * Note that {@link EndpointGroup}s are held weakly when {@link #keyedByEndpointGroup()} is used.
+     */
+    public RetryBudget build() {
+        final long minRetriesPerWindow = (long) Math.ceil(minRetriesPerSecond * windowMillis / 1000.0);
+        final DefaultRetryBudget budget = new DefaultRetryBudget(maxRetryRatio, windowMillis,
+                                                                 minRetriesPerWindow, keyType, ticker);
+        if (meterRegistry != null) {
+            budget.bindTo(meterRegistry, meterIdPrefix);
+        }
+        return budget;
+    }
+}
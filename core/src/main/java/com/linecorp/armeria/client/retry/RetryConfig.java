@@ -26,6 +26,7 @@ import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 
 /**
  * Holds retry config used by a {@link RetryingClient}.
@@ -78,6 +79,10 @@ public final class RetryConfig<T extends Response> {
     private final int maxTotalAttempts;
     private final long responseTimeoutMillisForEachAttempt;
     private final int maxContentLength;
+    private final long hedgingDelayMillis;
+    private final double hedgingDelayPercentile;
+    @Nullable
+    private final RetryBudget retryBudget;
 
     @Nullable
     private final RetryRule retryRule;
@@ -89,9 +94,14 @@ public final class RetryConfig<T extends Response> {
     private RetryRuleWithContent<T> fromRetryRule;
 
     RetryConfig(RetryRule retryRule, int maxTotalAttempts, long responseTimeoutMillisForEachAttempt) {
+        this(retryRule, maxTotalAttempts, responseTimeoutMillisForEachAttempt, 0, 0, null);
+    }
+
+    RetryConfig(RetryRule retryRule, int maxTotalAttempts, long responseTimeoutMillisForEachAttempt,
+                long hedgingDelayMillis, double hedgingDelayPercentile, @Nullable RetryBudget retryBudget) {
         this(requireNonNull(retryRule, "retryRule"), null,
-                maxTotalAttempts, responseTimeoutMillisForEachAttempt, 0);
-        checkArguments(maxTotalAttempts, responseTimeoutMillisForEachAttempt);
+                maxTotalAttempts, responseTimeoutMillisForEachAttempt, 0,
+                hedgingDelayMillis, hedgingDelayPercentile, retryBudget);
     }
 
     RetryConfig(
@@ -99,8 +109,21 @@ public final class RetryConfig<T extends Response> {
             int maxContentLength,
             int maxTotalAttempts,
             long responseTimeoutMillisForEachAttempt) {
+        this(retryRuleWithContent, maxContentLength, maxTotalAttempts, responseTimeoutMillisForEachAttempt,
+             0, 0, null);
+    }
+
+    RetryConfig(
+            RetryRuleWithContent<T> retryRuleWithContent,
+            int maxContentLength,
+            int maxTotalAttempts,
+            long responseTimeoutMillisForEachAttempt,
+            long hedgingDelayMillis,
+            double hedgingDelayPercentile,
+            @Nullable RetryBudget retryBudget) {
         this(null, requireNonNull(retryRuleWithContent, "retryRuleWithContent"),
-                maxTotalAttempts, responseTimeoutMillisForEachAttempt, maxContentLength);
+                maxTotalAttempts, responseTimeoutMillisForEachAttempt, maxContentLength,
+                hedgingDelayMillis, hedgingDelayPercentile, retryBudget);
     }
 
     private RetryConfig(
@@ -108,13 +131,25 @@ public final class RetryConfig<T extends Response> {
             @Nullable RetryRuleWithContent<T> retryRuleWithContent,
             int maxTotalAttempts,
             long responseTimeoutMillisForEachAttempt,
-            int maxContentLength) {
+            int maxContentLength,
+            long hedgingDelayMillis,
+            double hedgingDelayPercentile,
+            @Nullable RetryBudget retryBudget) {
         checkArguments(maxTotalAttempts, responseTimeoutMillisForEachAttempt);
+        checkArgument(hedgingDelayMillis >= 0,
+                      "hedgingDelayMillis: %s (expected: >= 0)", hedgingDelayMillis);
+        checkArgument(hedgingDelayPercentile >= 0 && hedgingDelayPercentile < 100,
+                      "hedgingDelayPercentile: %s (expected: >= 0 && < 100)", hedgingDelayPercentile);
+        checkArgument(hedgingDelayPercentile == 0 || hedgingDelayMillis > 0,
+                      "hedgingDelayMillis must be set when hedgingDelayPercentile is set.");
         this.retryRule = retryRule;
         this.retryRuleWithContent = retryRuleWithContent;
         this.maxTotalAttempts = maxTotalAttempts;
         this.responseTimeoutMillisForEachAttempt = responseTimeoutMillisForEachAttempt;
         this.maxContentLength = maxContentLength;
+        this.hedgingDelayMillis = hedgingDelayMillis;
+        this.hedgingDelayPercentile = hedgingDelayPercentile;
+        this.retryBudget = retryBudget;
         if (retryRuleWithContent == null) {
             fromRetryRuleWithContent = null;
         } else {
@@ -140,9 +175,18 @@ public final class RetryConfig<T extends Response> {
         final RetryConfigBuilder<T> builder =
                 retryRuleWithContent != null ?
                 builder0(retryRuleWithContent).maxContentLength(maxContentLength) : builder0(retryRule);
-        return builder
-                .maxTotalAttempts(maxTotalAttempts)
-                .responseTimeoutMillisForEachAttempt(responseTimeoutMillisForEachAttempt);
+        builder.maxTotalAttempts(maxTotalAttempts)
+               .responseTimeoutMillisForEachAttempt(responseTimeoutMillisForEachAttempt);
+        if (hedgingDelayMillis > 0) {
+            builder.hedgingDelayMillis(hedgingDelayMillis);
+        }
+        if (hedgingDelayPercentile > 0) {
+            builder.hedgingDelayPercentile(hedgingDelayPercentile);
+        }
+        if (retryBudget != null) {
+            builder.retryBudget(retryBudget);
+        }
+        return builder;
     }
 
     /**
@@ -161,6 +205,45 @@ public final class RetryConfig<T extends Response> {
         return responseTimeoutMillisForEachAttempt;
     }
 
+    /**
+     * Returns the delay in milliseconds after which a {@link RetryingClient} sends a hedged request
+     * while the previous attempt is still in flight. {@code 0} if hedging is disabled.
+     * If {@link #hedgingDelayPercentile()} is set, this value is used only until enough latency samples
+     * have been collected.
+     */
+    @UnstableApi
+    public long hedgingDelayMillis() {
+        return hedgingDelayMillis;
+    }
+
+    /**
+     * Returns the percentile of the recent attempt latencies to the same
+     * {@link com.linecorp.armeria.client.endpoint.EndpointGroup}, which is used as the delay before
+     * sending a hedged request. {@code 0} if the fixed {@link #hedgingDelayMillis()} is used.
+     */
+    @UnstableApi
+    public double hedgingDelayPercentile() {
+        return hedgingDelayPercentile;
+    }
+
+    /**
+     * Returns whether a {@link RetryingClient} sends hedged requests.
+     */
+    @UnstableApi
+    public boolean hedgingEnabled() {
+        return hedgingDelayMillis > 0;
+    }
+
+    /**
+     * Returns the {@link RetryBudget} which limits the retries across requests,
+     * or {@code null} if not set.
+     */
+    @Nullable
+    @UnstableApi
+    public RetryBudget retryBudget() {
+        return retryBudget;
+    }
+
     /**
      * Returns the {@link RetryRule} which was specified with {@link RetryConfig#builder(RetryRule)}.
      */
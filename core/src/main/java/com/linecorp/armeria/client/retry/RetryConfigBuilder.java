@@ -27,6 +27,7 @@ import com.google.common.base.MoreObjects.ToStringHelper;
 import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 
 /**
  * Builds a {@link RetryConfig}.
@@ -37,6 +38,10 @@ public final class RetryConfigBuilder<T extends Response> {
     private int maxTotalAttempts = Flags.defaultMaxTotalAttempts();
     private long responseTimeoutMillisForEachAttempt = Flags.defaultResponseTimeoutMillis();
     private int maxContentLength;
+    private long hedgingDelayMillis;
+    private double hedgingDelayPercentile;
+    @Nullable
+    private RetryBudget retryBudget;
 
     @Nullable
     private final RetryRule retryRule;
@@ -111,19 +116,80 @@ public final class RetryConfigBuilder<T extends Response> {
         return this;
     }
 
+    /**
+     * Enables request hedging with the specified delay. If no response has been received for an attempt
+     * within the delay, a {@link RetryingClient} sends another attempt, which is likely to be routed to
+     * a different {@link com.linecorp.armeria.client.Endpoint}, without cancelling the previous one.
+     * The first attempt whose response is not retried wins and the other in-flight attempts are aborted.
+     * Hedged attempts count towards {@code maxTotalAttempts}.
+     *
+     * <p>Note that hedging sends the same request more than once concurrently, so it should only be
+     * enabled for idempotent requests. Hedging is ignored by {@link RetryingRpcClient}.
+     */
+    @UnstableApi
+    public RetryConfigBuilder<T> hedgingDelay(Duration hedgingDelay) {
+        requireNonNull(hedgingDelay, "hedgingDelay");
+        checkArgument(!hedgingDelay.isNegative() && !hedgingDelay.isZero(),
+                      "hedgingDelay: %s (expected: > 0)", hedgingDelay);
+        return hedgingDelayMillis(hedgingDelay.toMillis());
+    }
+
+    /**
+     * Enables request hedging with the specified delay in milliseconds.
+     *
+     * @see #hedgingDelay(Duration)
+     */
+    @UnstableApi
+    public RetryConfigBuilder<T> hedgingDelayMillis(long hedgingDelayMillis) {
+        checkArgument(hedgingDelayMillis > 0,
+                      "hedgingDelayMillis: %s (expected: > 0)", hedgingDelayMillis);
+        this.hedgingDelayMillis = hedgingDelayMillis;
+        return this;
+    }
+
+    /**
+     * Derives the hedging delay from the specified percentile of the recent attempt latencies to the same
+     * {@link com.linecorp.armeria.client.endpoint.EndpointGroup}, e.g. {@code 95} to hedge the slowest
+     * 5% of attempts. The delay specified with {@link #hedgingDelay(Duration)} must also be set and is
+     * used until enough latency samples have been collected.
+     */
+    @UnstableApi
+    public RetryConfigBuilder<T> hedgingDelayPercentile(double hedgingDelayPercentile) {
+        checkArgument(hedgingDelayPercentile > 0 && hedgingDelayPercentile < 100,
+                      "hedgingDelayPercentile: %s (expected: > 0 && < 100)", hedgingDelayPercentile);
+        this.hedgingDelayPercentile = hedgingDelayPercentile;
+        return this;
+    }
+
+    /**
+     * Sets the {@link RetryBudget} which limits the number of retries relative to the number of requests.
+     * A retry which exceeds the budget is not made and the last response is returned instead.
+     * Unlike {@code maxTotalAttempts}, which limits the attempts of a single request, a {@link RetryBudget}
+     * may be shared across requests and clients to prevent retry storms during an outage.
+     */
+    @UnstableApi
+    public RetryConfigBuilder<T> retryBudget(RetryBudget retryBudget) {
+        this.retryBudget = requireNonNull(retryBudget, "retryBudget");
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link RetryConfig} from this {@link RetryConfigBuilder}'s values.
      */
     public RetryConfig<T> build() {
         if (retryRule != null) {
-            return new RetryConfig<>(retryRule, maxTotalAttempts, responseTimeoutMillisForEachAttempt);
+            return new RetryConfig<>(retryRule, maxTotalAttempts, responseTimeoutMillisForEachAttempt,
+                                     hedgingDelayMillis, hedgingDelayPercentile, retryBudget);
         }
         assert retryRuleWithContent != null;
         return new RetryConfig<>(
                 retryRuleWithContent,
                 maxContentLength,
                 maxTotalAttempts,
-                responseTimeoutMillisForEachAttempt);
+                responseTimeoutMillisForEachAttempt,
+                hedgingDelayMillis,
+                hedgingDelayPercentile,
+                retryBudget);
     }
 
     @Override
@@ -139,6 +205,9 @@ public final class RetryConfigBuilder<T extends Response> {
                 .add("retryRuleWithContent", retryRuleWithContent)
                 .add("maxTotalAttempts", maxTotalAttempts)
                 .add("responseTimeoutMillisForEachAttempt", responseTimeoutMillisForEachAttempt)
-                .add("maxContentLength", maxContentLength);
+                .add("maxContentLength", maxContentLength)
+                .add("hedgingDelayMillis", hedgingDelayMillis)
+                .add("hedgingDelayPercentile", hedgingDelayPercentile)
+                .add("retryBudget", retryBudget);
     }
 }
@@ -21,14 +21,23 @@ import static com.linecorp.armeria.internal.client.ClientUtil.executeWithFallbac
 import static com.linecorp.armeria.internal.client.ClientUtil.initContextAndExecuteWithFallback;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.HttpClient;
 import com.linecorp.armeria.client.ResponseTimeoutException;
@@ -40,6 +49,7 @@ import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpRequestDuplicator;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpResponseDuplicator;
+import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.RequestHeadersBuilder;
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -53,6 +63,7 @@ import com.linecorp.armeria.internal.client.ClientRequestContextExtension;
 import com.linecorp.armeria.internal.client.TruncatingHttpResponse;
 
 import io.netty.handler.codec.DateFormatter;
+import io.netty.util.AttributeKey;
 
 /**
  * An {@link HttpClient} decorator that handles failures of an invocation and retries HTTP requests.
@@ -62,6 +73,9 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
 
     private static final Logger logger = LoggerFactory.getLogger(RetryingClient.class);
 
+    private static final AttributeKey<HedgingState> HEDGING_STATE =
+            AttributeKey.valueOf(RetryingClient.class, "HEDGING_STATE");
+
     /**
      * Returns a new {@link RetryingClientBuilder} with the specified {@link RetryConfig}.
      * The {@link RetryConfig} object encapsulates {@link RetryRule} or {@link RetryRuleWithContent},
@@ -224,6 +238,8 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
     }
 
     private final boolean useRetryAfter;
+    private final Map<EndpointGroup, AttemptLatencyTracker> latencyTrackers =
+            new MapMaker().weakKeys().makeMap();
 
     /**
      * Creates a new instance that decorates the specified {@link HttpClient}.
@@ -326,6 +342,16 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
         }
 
         final RetryConfig<HttpResponse> config = mapping().get(ctx, duplicateReq);
+        if (config.hedgingEnabled()) {
+            final Runnable hedgedAttempt =
+                    () -> doExecute0(ctx, rootReqDuplicator, originalReq, returnedRes, future);
+            if (!scheduleHedgedAttempt(config, ctx, derivedCtx, response, hedgedAttempt)) {
+                // Another attempt has already completed the request.
+                abortResponse(response, derivedCtx);
+                return;
+            }
+        }
+
         if (!ctx.exchangeType().isResponseStreaming() || config.requiresResponseTrailers()) {
             // XXX(ikhoon): Should we use `response.aggregateWithPooledObjects()`?
             response.aggregate().handle((aggregated, cause) -> {
@@ -345,6 +371,60 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
         }
     }
 
+    /**
+     * Registers the specified attempt as in flight and schedules a hedged attempt which is sent if no
+     * response has been received for it within the hedging delay.
+     *
+     * @return {@code false} if the request has already been completed by another attempt
+     */
+    private boolean scheduleHedgedAttempt(RetryConfig<HttpResponse> config, ClientRequestContext ctx,
+                                          ClientRequestContext derivedCtx, HttpResponse response,
+                                          Runnable hedgedAttempt) {
+        HedgingState hedgingState = ctx.attr(HEDGING_STATE);
+        if (hedgingState == null) {
+            // The first attempt is always made before any hedged attempts, so no need to synchronize.
+            hedgingState = new HedgingState();
+            ctx.setAttr(HEDGING_STATE, hedgingState);
+        }
+        if (!hedgingState.add(derivedCtx, response)) {
+            return false;
+        }
+
+        final HedgingState finalHedgingState = hedgingState;
+        long delayMillis = config.hedgingDelayMillis();
+        final EndpointGroup endpointGroup = derivedCtx.endpointGroup();
+        if (config.hedgingDelayPercentile() > 0 && endpointGroup != null) {
+            final AttemptLatencyTracker tracker =
+                    latencyTrackers.computeIfAbsent(endpointGroup, unused -> new AttemptLatencyTracker());
+            derivedCtx.log().whenComplete().thenAccept(log -> {
+                if (log.responseHeaders().status() != HttpStatus.UNKNOWN) {
+                    tracker.record(log.responseStartTimeNanos() - log.requestStartTimeNanos());
+                } else if (finalHedgingState.isAborted(derivedCtx)) {
+                    // The attempt was aborted because another attempt won. Record how long it waited at
+                    // least, so that the slow attempts are not left out of the samples and the percentile
+                    // is not biased toward the fast ones.
+                    tracker.record(log.responseEndTimeNanos() - log.requestStartTimeNanos());
+                }
+            });
+            final long percentileNanos = tracker.percentileNanos(config.hedgingDelayPercentile());
+            if (percentileNanos >= 0) {
+                delayMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(percentileNanos));
+            }
+        }
+
+        try {
+            ctx.eventLoop().schedule(() -> {
+                if (finalHedgingState.isInFlight(derivedCtx) && tryIncrementTotalAttempts(ctx)) {
+                    hedgedAttempt.run();
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (Throwable t) {
+            // The event loop has been shut down. Keep waiting for the current attempt without hedging.
+            logger.debug("Failed to schedule a hedged attempt for {}", ctx, t);
+        }
+        return true;
+    }
+
     private void handleResponseWithoutContent(RetryConfig<HttpResponse> config, ClientRequestContext ctx,
                                               HttpRequestDuplicator rootReqDuplicator, HttpRequest originalReq,
                                               HttpResponse returnedRes, CompletableFuture<HttpResponse> future,
@@ -439,6 +519,10 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
                                         CompletableFuture<HttpResponse> future, Throwable cause,
                                         boolean endRequestLog) {
         future.completeExceptionally(cause);
+        final HedgingState hedgingState = ctx.attr(HEDGING_STATE);
+        if (hedgingState != null) {
+            hedgingState.completeAndAbortOthers();
+        }
         if (rootReqDuplicator != null) {
             rootReqDuplicator.abort(cause);
         }
@@ -453,6 +537,13 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
                                      HttpRequest originalReq, HttpResponse returnedRes,
                                      CompletableFuture<HttpResponse> future, HttpResponse originalRes) {
         final Backoff backoff = decision != null ? decision.backoff() : null;
+        final HedgingState hedgingState = ctx.attr(HEDGING_STATE);
+        if (hedgingState != null && !hedgingState.onAttemptComplete(derivedCtx, backoff != null)) {
+            // Either another attempt has won or this attempt is retryable but other attempts are still
+            // in flight, which may succeed without an extra retry.
+            abortResponse(originalRes, derivedCtx);
+            return;
+        }
         if (backoff != null) {
             final long millisAfter = useRetryAfter ? getRetryAfterMillis(derivedCtx) : -1;
             final long nextDelay = getNextDelay(ctx, backoff, millisAfter);
@@ -465,6 +556,9 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
                 return;
             }
         }
+        if (hedgingState != null) {
+            hedgingState.completeAndAbortOthers();
+        }
         onRetryingComplete(ctx);
         future.complete(originalRes);
         rootReqDuplicator.close();
@@ -518,4 +612,68 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
         }
         return retryConfig.retryRule();
     }
+
+    /**
+     * Tracks the in-flight attempts of a request when hedging is enabled.
+     */
+    private static final class HedgingState {
+
+        private final Map<ClientRequestContext, HttpResponse> inFlightAttempts = new IdentityHashMap<>();
+        private final Set<ClientRequestContext> abortedAttempts = Sets.newIdentityHashSet();
+        private boolean completed;
+
+        synchronized boolean add(ClientRequestContext derivedCtx, HttpResponse response) {
+            if (completed) {
+                return false;
+            }
+            inFlightAttempts.put(derivedCtx, response);
+            return true;
+        }
+
+        synchronized boolean isInFlight(ClientRequestContext derivedCtx) {
+            return !completed && inFlightAttempts.containsKey(derivedCtx);
+        }
+
+        /**
+         * Returns whether the specified attempt was still in flight when the request was completed.
+         */
+        synchronized boolean isAborted(ClientRequestContext derivedCtx) {
+            return abortedAttempts.contains(derivedCtx);
+        }
+
+        /**
+         * Invoked when the retry decision for the specified attempt has been made.
+         *
+         * @return {@code true} if the response of the attempt should be handled, or {@code false} if it
+         *         should be discarded because the request has been completed by another attempt or
+         *         other attempts are still in flight for a retryable response.
+         */
+        synchronized boolean onAttemptComplete(ClientRequestContext derivedCtx, boolean retryable) {
+            inFlightAttempts.remove(derivedCtx);
+            if (completed) {
+                return false;
+            }
+            if (retryable) {
+                return inFlightAttempts.isEmpty();
+            }
+            completed = true;
+            return true;
+        }
+
+        void completeAndAbortOthers() {
+            final List<Map.Entry<ClientRequestContext, HttpResponse>> others;
+            synchronized (this) {
+                completed = true;
+                if (inFlightAttempts.isEmpty()) {
+                    return;
+                }
+                others = new ArrayList<>(inFlightAttempts.entrySet());
+                abortedAttempts.addAll(inFlightAttempts.keySet());
+                inFlightAttempts.clear();
+            }
+            for (Map.Entry<ClientRequestContext, HttpResponse> e : others) {
+                abortResponse(e.getValue(), e.getKey());
+            }
+        }
+    }
 }
@@ -79,6 +79,7 @@ final class DefaultFlagsProvider implements FlagsProvider {
     static final String DEFAULT_BACKOFF_SPEC = "exponential=200:10000,jitter=0.2";
     static final int DEFAULT_MAX_TOTAL_ATTEMPTS = 10;
     static final String ROUTE_CACHE_SPEC = "maximumSize=4096";
+    static final int EVENT_LOOP_ROUTE_CACHE_SIZE = 0;
     static final String ROUTE_DECORATOR_CACHE_SPEC = "maximumSize=4096";
     static final String PARSED_PATH_CACHE_SPEC = "maximumSize=4096";
     static final String HEADER_VALUE_CACHE_SPEC = "maximumSize=4096";
@@ -303,6 +304,16 @@ final class DefaultFlagsProvider implements FlagsProvider {
         return ROUTE_CACHE_SPEC;
     }
 
+    @Override
+    public Integer eventLoopRouteCacheSize() {
+        return EVENT_LOOP_ROUTE_CACHE_SIZE;
+    }
+
+    @Override
+    public Boolean useCompactRoutingTrie() {
+        return false;
+    }
+
     @Override
     public String routeDecoratorCacheSpec() {
         return ROUTE_DECORATOR_CACHE_SPEC;
@@ -318,6 +318,12 @@ public final class Flags {
     private static final String ROUTE_CACHE_SPEC =
             nullableCaffeineSpec(FlagsProvider::routeCacheSpec, "routeCacheSpec");
 
+    private static final int EVENT_LOOP_ROUTE_CACHE_SIZE =
+            getValue(FlagsProvider::eventLoopRouteCacheSize, "eventLoopRouteCacheSize", value -> value >= 0);
+
+    private static final boolean USE_COMPACT_ROUTING_TRIE =
+            getValue(FlagsProvider::useCompactRoutingTrie, "useCompactRoutingTrie");
+
     @Nullable
     private static final String ROUTE_DECORATOR_CACHE_SPEC =
             nullableCaffeineSpec(FlagsProvider::routeDecoratorCacheSpec, "routeDecoratorCacheSpec");
@@ -1012,6 +1018,36 @@ public final class Flags {
         return ROUTE_CACHE_SPEC;
     }
 
+    /**
+     * Returns the number of the hot routes that are cached per event loop in front of the route cache
+     * specified by {@link #routeCacheSpec()}. A route of an exact or prefix path is promoted into
+     * the cache of the current event loop after it was found repeatedly, so that the subsequent lookups for
+     * it do not touch the shared cache. The caches are released when the routes are rebuilt, e.g. on
+     * {@code Server.reconfigure()}. The value is rounded up to the next power of two.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#EVENT_LOOP_ROUTE_CACHE_SIZE}, which
+     * disables the per-event loop cache. Specify the
+     * {@code -Dcom.linecorp.armeria.eventLoopRouteCacheSize=<integer>} JVM option to override
+     * the default value.
+     */
+    @UnstableApi
+    public static int eventLoopRouteCacheSize() {
+        return EVENT_LOOP_ROUTE_CACHE_SIZE;
+    }
+
+    /**
+     * Returns whether to build the routing trie of a virtual host as a compact trie whose nodes are
+     * encoded into the parallel primitive arrays instead of the linked node objects. The compact trie
+     * retains less heap and is more cache-friendly when a virtual host has a large number of routes.
+     *
+     * <p>This flag is disabled by default. Specify the
+     * {@code -Dcom.linecorp.armeria.useCompactRoutingTrie=true} JVM option to enable it.
+     */
+    @UnstableApi
+    public static boolean useCompactRoutingTrie() {
+        return USE_COMPACT_ROUTING_TRIE;
+    }
+
     /**
      * Returns the {@linkplain CaffeineSpec Caffeine specification string} of the cache that stores the recent
      * request routing history for all route decorators.
@@ -687,6 +687,37 @@ public interface FlagsProvider {
         return null;
     }
 
+    /**
+     * Returns the number of the hot routes that are cached per event loop in front of the route cache
+     * specified by {@link #routeCacheSpec()}. A route of an exact or prefix path is promoted into
+     * the cache of the current thread after it was found repeatedly, so that the subsequent lookups for it
+     * do not touch the shared cache. The value is rounded up to the next power of two.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#EVENT_LOOP_ROUTE_CACHE_SIZE}, which
+     * disables the per-event loop cache. Specify the
+     * {@code -Dcom.linecorp.armeria.eventLoopRouteCacheSize=<integer>} JVM option to override
+     * the default value.
+     */
+    @UnstableApi
+    @Nullable
+    default Integer eventLoopRouteCacheSize() {
+        return null;
+    }
+
+    /**
+     * Returns whether to build the routing trie of a virtual host as a compact trie whose nodes are
+     * encoded into the parallel primitive arrays instead of the linked node objects. The compact trie
+     * retains less heap and is more cache-friendly when a virtual host has a large number of routes.
+     *
+     * <p>This flag is disabled by default. Specify the
+     * {@code -Dcom.linecorp.armeria.useCompactRoutingTrie=true} JVM option to enable it.
+     */
+    @UnstableApi
+    @Nullable
+    default Boolean useCompactRoutingTrie() {
+        return null;
+    }
+
     /**
      * Returns the {@linkplain CaffeineSpec Caffeine specification string} of the cache that stores the recent
      * request routing history for all route decorators.
@@ -303,6 +303,16 @@ final class SystemPropertyFlagsProvider implements FlagsProvider {
         return getNormalized("routeCacheSpec");
     }
 
+    @Override
+    public Integer eventLoopRouteCacheSize() {
+        return getInt("eventLoopRouteCacheSize");
+    }
+
+    @Override
+    public Boolean useCompactRoutingTrie() {
+        return getBoolean("useCompactRoutingTrie");
+    }
+
     @Override
     public String routeDecoratorCacheSpec() {
         return getNormalized("routeDecoratorCacheSpec");
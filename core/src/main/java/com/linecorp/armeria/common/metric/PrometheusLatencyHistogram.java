@@ -0,0 +1,419 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.DecoratingHttpClientFunction;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.internal.common.util.EventLoopThread;
+import com.linecorp.armeria.server.DecoratingHttpServiceFunction;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.metric.PrometheusExpositionService;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.prometheus.client.Collector;
+
+/**
+ * A Prometheus {@link Collector} that records the total duration of requests into high-resolution
+ * histograms, one per route, endpoint and status class. The histograms are exposed as classic Prometheus
+ * histograms, e.g. via {@link PrometheusExpositionService}.
+ * <pre>{@code
+ * CollectorRegistry collectorRegistry = new CollectorRegistry();
+ * PrometheusLatencyHistogram histogram =
+ *         PrometheusLatencyHistogram.of("armeria_server_request_duration_seconds");
+ * histogram.register(collectorRegistry);
+ *
+ * Server.builder()
+ *       .decorator(histogram.newServiceDecorator())
+ *       .service("/internal/metrics", PrometheusExpositionService.of(collectorRegistry))
+ * }</pre>
+ *
+ * <p>A histogram is labeled with {@code route} and {@code status_class} for a server-side request, and with
+ * {@code endpoint} and {@code status_class} for a client-side request. The label that does not apply to
+ * a request is left empty.
+ *
+ * <p>The bucket boundaries start from the minimum value and grow exponentially by the factor of
+ * {@code 2^(2^-schema)}, like the Prometheus native histograms. They coincide with the native histogram
+ * buckets only when the minimum value is a power of two in seconds. Either way, all instances with the same
+ * configuration use the same boundaries, so the histograms can be aggregated across a fleet without losing
+ * precision.
+ *
+ * <p>Each event loop thread records into its own shard without locking, and the shards are merged only
+ * when the histograms are collected. Since the event loop threads live as long as the application, their
+ * shards are bounded. The other threads, which may come and go, record into a shard shared by all of them.
+ *
+ * <p>A histogram which has not recorded any request for the {@linkplain
+ * PrometheusLatencyHistogramBuilder#idleTimeout(Duration) idle timeout} is removed when collected, so that
+ * the histograms of the endpoints which went away, e.g. after a DNS or service discovery update, do not
+ * accumulate. It is re-created with zero counts when a request is recorded again.
+ */
+@UnstableApi
+public final class PrometheusLatencyHistogram extends Collector {
+
+    private static final List<String> LABEL_NAMES = ImmutableList.of("route", "endpoint", "status_class");
+    private static final List<String> BUCKET_LABEL_NAMES =
+            ImmutableList.of("route", "endpoint", "status_class", "le");
+    private static final String[] STATUS_CLASSES = { "unknown", "1xx", "2xx", "3xx", "4xx", "5xx" };
+    private static final int PURGE_INTERVAL_MASK = 63;
+
+    /**
+     * Returns a new {@link PrometheusLatencyHistogram} with the specified {@code name} and the default
+     * settings.
+     */
+    public static PrometheusLatencyHistogram of(String name) {
+        return builder(name).build();
+    }
+
+    /**
+     * Returns a new {@link PrometheusLatencyHistogramBuilder} with the specified {@code name}.
+     */
+    public static PrometheusLatencyHistogramBuilder builder(String name) {
+        return new PrometheusLatencyHistogramBuilder(name);
+    }
+
+    private final String name;
+    private final String help;
+    private final long[] upperBoundsNanos;
+    private final List<String> upperBoundLabels;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<Key, Series> series = new ConcurrentHashMap<>();
+    private final FastThreadLocal<ThreadState> threadStates = new FastThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            return new ThreadState();
+        }
+    };
+    private final Consumer<RequestLog> recorder = this::record;
+
+    PrometheusLatencyHistogram(String name, String help, int schema, long minValueNanos, long maxValueNanos,
+                               long idleTimeoutNanos) {
+        this.name = name;
+        this.help = help;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+
+        final List<Long> upperBounds = new ArrayList<>();
+        final ImmutableList.Builder<String> upperBoundLabels = ImmutableList.builder();
+        long last = 0;
+        for (int i = 0; last < maxValueNanos; i++) {
+            final long upperBound = Math.round(minValueNanos * Math.pow(2, (double) i / (1 << schema)));
+            if (upperBound <= last) {
+                continue;
+            }
+            upperBounds.add(upperBound);
+            upperBoundLabels.add(doubleToGoString(upperBound / NANOSECONDS_PER_SECOND));
+            last = upperBound;
+        }
+        upperBoundLabels.add("+Inf");
+        upperBoundsNanos = upperBounds.stream().mapToLong(Long::longValue).toArray();
+        this.upperBoundLabels = upperBoundLabels.build();
+    }
+
+    /**
+     * Returns the upper bounds of the buckets in seconds, excluding the {@code +Inf} bucket.
+     */
+    public double[] upperBounds() {
+        return Arrays.stream(upperBoundsNanos).mapToDouble(b -> b / NANOSECONDS_PER_SECOND).toArray();
+    }
+
+    /**
+     * Returns a new {@link DecoratingHttpServiceFunction} that records the requests served by the decorated
+     * service into this histogram.
+     */
+    public DecoratingHttpServiceFunction newServiceDecorator() {
+        return (delegate, ctx, req) -> {
+            ctx.log().whenComplete().thenAccept(recorder);
+            return delegate.serve(ctx, req);
+        };
+    }
+
+    /**
+     * Returns a new {@link DecoratingHttpClientFunction} that records the requests sent by the decorated
+     * client into this histogram.
+     */
+    public DecoratingHttpClientFunction newClientDecorator() {
+        return (delegate, ctx, req) -> {
+            ctx.log().whenComplete().thenAccept(recorder);
+            return delegate.execute(ctx, req);
+        };
+    }
+
+    /**
+     * Records the total duration of the specified completed {@link RequestLog}.
+     */
+    public void record(RequestLog log) {
+        requireNonNull(log, "log");
+        final RequestContext ctx = log.context();
+        final String route;
+        final String endpoint;
+        if (ctx instanceof ServiceRequestContext) {
+            route = ((ServiceRequestContext) ctx).config().route().patternString();
+            endpoint = "";
+        } else if (ctx instanceof ClientRequestContext) {
+            route = "";
+            final Endpoint e = ((ClientRequestContext) ctx).endpoint();
+            endpoint = e != null ? e.authority() : "none";
+        } else {
+            route = "";
+            endpoint = "";
+        }
+
+        final long durationNanos = log.totalDurationNanos();
+        final Shard shard = threadStates.get().shard(route, endpoint, statusClass(log));
+        shard.record(bucketIndex(durationNanos), durationNanos);
+    }
+
+    private static int statusClass(RequestLog log) {
+        if (!log.isAvailable(RequestLogProperty.RESPONSE_HEADERS)) {
+            return 0;
+        }
+        final int statusClass = log.responseHeaders().status().code() / 100;
+        return statusClass > 0 && statusClass < STATUS_CLASSES.length ? statusClass : 0;
+    }
+
+    private int bucketIndex(long durationNanos) {
+        final int index = Arrays.binarySearch(upperBoundsNanos, durationNanos);
+        // Use the first bucket whose upper bound is greater than the duration if not found.
+        return index >= 0 ? index : -index - 1;
+    }
+
+    @Override
+    public synchronized List<MetricFamilySamples> collect() {
+        final int numBuckets = upperBoundsNanos.length + 1;
+        final long[] merged = new long[numBuckets + 1];
+        final List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+        final long now = System.nanoTime();
+        for (Series s : series.values()) {
+            Arrays.fill(merged, 0);
+            for (Shard shard : s.shards) {
+                shard.addTo(merged);
+            }
+
+            long totalCount = 0;
+            for (int i = 0; i < numBuckets; i++) {
+                totalCount += merged[i];
+            }
+            if (totalCount != s.lastCount) {
+                s.lastCount = totalCount;
+                s.lastChangedNanos = now;
+            } else if (idleTimeoutNanos > 0 && now - s.lastChangedNanos >= idleTimeoutNanos) {
+                // A request recorded while removing the series may be lost, which is fine for an idle one.
+                s.removed = true;
+                series.remove(s.key, s);
+                continue;
+            }
+
+            long count = 0;
+            for (int i = 0; i < numBuckets; i++) {
+                count += merged[i];
+                samples.add(new MetricFamilySamples.Sample(name + "_bucket", BUCKET_LABEL_NAMES,
+                                                           s.bucketLabelValues.get(i), count));
+            }
+            samples.add(new MetricFamilySamples.Sample(name + "_count", LABEL_NAMES, s.labelValues, count));
+            samples.add(new MetricFamilySamples.Sample(name + "_sum", LABEL_NAMES, s.labelValues,
+                                                       merged[numBuckets] / NANOSECONDS_PER_SECOND));
+        }
+        return ImmutableList.of(new MetricFamilySamples(name, Type.HISTOGRAM, help, samples));
+    }
+
+    private final class ThreadState {
+        // Accessed only by the owner thread.
+        private final Map<Key, Shard> shards = new HashMap<>();
+        private final Key probe = new Key();
+        // Created in the owner thread by FastThreadLocal.initialValue().
+        private final boolean ownsShards = Thread.currentThread() instanceof EventLoopThread;
+        private int numMisses;
+
+        Shard shard(String route, String endpoint, int statusClass) {
+            final Shard shard = shards.get(probe.set(route, endpoint, statusClass));
+            if (shard != null && !shard.series.removed) {
+                return shard;
+            }
+
+            if ((++numMisses & PURGE_INTERVAL_MASK) == 0) {
+                // Forget the shards of the removed series, which may never be looked up again.
+                shards.values().removeIf(cached -> cached.series.removed);
+            }
+
+            final Key key = new Key().set(route, endpoint, statusClass);
+            final Series s = series.computeIfAbsent(key, Series::new);
+            final Shard newShard;
+            if (ownsShards) {
+                newShard = new ThreadShard(s, upperBoundsNanos.length + 1);
+                s.shards.add(newShard);
+            } else {
+                // Do not add a shard per thread, which would be never removed after the thread terminates.
+                newShard = s.sharedShard;
+            }
+            shards.put(key, newShard);
+            return newShard;
+        }
+    }
+
+    private final class Series {
+        final Key key;
+        final List<String> labelValues;
+        final List<List<String>> bucketLabelValues;
+        final List<Shard> shards = new CopyOnWriteArrayList<>();
+        final SharedShard sharedShard;
+        volatile boolean removed;
+        // Accessed only by collect().
+        long lastCount = -1;
+        long lastChangedNanos;
+
+        Series(Key key) {
+            this.key = key;
+            sharedShard = new SharedShard(this, upperBoundsNanos.length + 1);
+            shards.add(sharedShard);
+            assert key.route != null;
+            assert key.endpoint != null;
+            final String statusClass = STATUS_CLASSES[key.statusClass];
+            labelValues = ImmutableList.of(key.route, key.endpoint, statusClass);
+            final ImmutableList.Builder<List<String>> bucketLabelValues = ImmutableList.builder();
+            for (String upperBound : upperBoundLabels) {
+                bucketLabelValues.add(ImmutableList.of(key.route, key.endpoint, statusClass, upperBound));
+            }
+            this.bucketLabelValues = bucketLabelValues.build();
+        }
+    }
+
+    /**
+     * The bucket counts followed by the sum of the durations in nanoseconds.
+     */
+    private abstract static class Shard {
+
+        final Series series;
+
+        Shard(Series series) {
+            this.series = series;
+        }
+
+        abstract void record(int bucketIndex, long durationNanos);
+
+        abstract void addTo(long[] merged);
+    }
+
+    /**
+     * A {@link Shard} updated by a single event loop thread.
+     */
+    private static final class ThreadShard extends Shard {
+        private final AtomicLongArray values;
+
+        ThreadShard(Series series, int numBuckets) {
+            super(series);
+            values = new AtomicLongArray(numBuckets + 1);
+        }
+
+        @Override
+        void record(int bucketIndex, long durationNanos) {
+            // Only the owner thread updates a shard, so an ordered store is enough.
+            values.lazySet(bucketIndex, values.get(bucketIndex) + 1);
+            final int sumIndex = values.length() - 1;
+            values.lazySet(sumIndex, values.get(sumIndex) + durationNanos);
+        }
+
+        @Override
+        void addTo(long[] merged) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += values.get(i);
+            }
+        }
+    }
+
+    /**
+     * A {@link Shard} updated by any threads other than the event loop threads.
+     */
+    private static final class SharedShard extends Shard {
+        private final LongAdder[] values;
+
+        SharedShard(Series series, int numBuckets) {
+            super(series);
+            values = new LongAdder[numBuckets + 1];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        void record(int bucketIndex, long durationNanos) {
+            values[bucketIndex].increment();
+            values[values.length - 1].add(durationNanos);
+        }
+
+        @Override
+        void addTo(long[] merged) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += values[i].sum();
+            }
+        }
+    }
+
+    private static final class Key {
+        @Nullable
+        private String route;
+        @Nullable
+        private String endpoint;
+        private int statusClass;
+
+        Key set(String route, String endpoint, int statusClass) {
+            this.route = route;
+            this.endpoint = endpoint;
+            this.statusClass = statusClass;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Objects.hashCode(route) * 31 + Objects.hashCode(endpoint)) * 31 + statusClass;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return statusClass == that.statusClass &&
+                   Objects.equals(route, that.route) &&
+                   Objects.equals(endpoint, that.endpoint);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Builds a {@link PrometheusLatencyHistogram}.
+ */
+@UnstableApi
+public final class PrometheusLatencyHistogramBuilder {
+
+    private static final int MAX_SCHEMA = 8;
+
+    private final String name;
+    private String help = "The total duration of requests in seconds";
+    private int schema = 2;
+    private long minValueNanos = TimeUnit.MICROSECONDS.toNanos(100);
+    private long maxValueNanos = TimeUnit.SECONDS.toNanos(60);
+    private long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(10);
+
+    PrometheusLatencyHistogramBuilder(String name) {
+        requireNonNull(name, "name");
+        checkArgument(!name.isEmpty(), "name is empty.");
+        this.name = name;
+    }
+
+    /**
+     * Sets the help text of the histogram.
+     */
+    public PrometheusLatencyHistogramBuilder help(String help) {
+        this.help = requireNonNull(help, "help");
+        return this;
+    }
+
+    /**
+     * Sets the resolution of the histogram. The upper bound of a bucket is {@code 2^(2^-schema)} times of
+     * the previous one, so a bucket spans about 19% when {@code 2} and about 4% when {@code 4}.
+     * The higher the schema, the more buckets are exposed. {@code 2} is used by default.
+     *
+     * @param schema the schema between {@code 0} and {@code 8}, as defined by the Prometheus native histograms
+     */
+    public PrometheusLatencyHistogramBuilder schema(int schema) {
+        checkArgument(schema >= 0 && schema <= MAX_SCHEMA,
+                      "schema: %s (expected: 0 <= schema <= %s)", schema, MAX_SCHEMA);
+        this.schema = schema;
+        return this;
+    }
+
+    /**
+     * Sets the range of the durations that are recorded into the finite buckets. The durations greater than
+     * {@code maxValue} are counted only in the {@code +Inf} bucket. {@code 100us} to {@code 60s} is used
+     * by default. The bucket boundaries line up with the Prometheus native histogram buckets of the same
+     * schema only when {@code minValue} is a power of two in seconds, apart from the rounding to nanoseconds.
+     */
+    public PrometheusLatencyHistogramBuilder range(Duration minValue, Duration maxValue) {
+        requireNonNull(minValue, "minValue");
+        requireNonNull(maxValue, "maxValue");
+        checkArgument(!minValue.isNegative() && !minValue.isZero(),
+                      "minValue: %s (expected: > 0)", minValue);
+        checkArgument(maxValue.compareTo(minValue) > 0,
+                      "maxValue: %s (expected: > minValue(%s))", maxValue, minValue);
+        minValueNanos = minValue.toNanos();
+        maxValueNanos = maxValue.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the duration after which a histogram that has not recorded any request is removed. The removal
+     * happens when the histograms are collected, and bounds the number of the histograms of the endpoints
+     * which are not used anymore. {@code 10m} is used by default. {@link Duration#ZERO} disables the removal.
+     */
+    public PrometheusLatencyHistogramBuilder idleTimeout(Duration idleTimeout) {
+        requireNonNull(idleTimeout, "idleTimeout");
+        checkArgument(!idleTimeout.isNegative(), "idleTimeout: %s (expected: >= 0)", idleTimeout);
+        idleTimeoutNanos = idleTimeout.toNanos();
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link PrometheusLatencyHistogram} based on the properties of this builder.
+     */
+    public PrometheusLatencyHistogram build() {
+        return new PrometheusLatencyHistogram(name, help, schema, minValueNanos, maxValueNanos,
+                                              idleTimeoutNanos);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.multipart;
+
+import java.util.Arrays;
+
+import com.linecorp.armeria.common.stream.StreamDecoderInput;
+
+/**
+ * Finds a MIME boundary in a {@link StreamDecoderInput} using the Boyer-Moore-Horspool algorithm.
+ *
+ * <p>Unlike the Boyer-Moore matcher forked from {@link java.util.regex.Pattern}, the bad character table
+ * covers all 256 byte values, so non-ASCII bytes in a part body never alias a boundary character and
+ * the scan never has to shift by less than it could.
+ */
+final class MimeBoundaryMatcher {
+
+    private final byte[] boundary;
+
+    /**
+     * The distance from the last occurrence of each byte in {@code boundary[0..length - 2]} to the end of
+     * the boundary, or the length of the boundary if the byte does not occur.
+     */
+    private final int[] shifts = new int[256];
+
+    MimeBoundaryMatcher(byte[] boundary) {
+        assert boundary.length > 0;
+        this.boundary = boundary;
+        final int length = boundary.length;
+        Arrays.fill(shifts, length);
+        for (int i = 0; i < length - 1; i++) {
+            shifts[boundary[i] & 0xFF] = length - 1 - i;
+        }
+    }
+
+    /**
+     * Returns the length of the boundary.
+     */
+    int length() {
+        return boundary.length;
+    }
+
+    /**
+     * Returns the index of the first boundary that starts at or after {@code fromIndex}, relative to the
+     * reader index of the specified {@link StreamDecoderInput}, or {@code -1} if there's no match.
+     */
+    int indexOf(StreamDecoderInput in, int fromIndex) {
+        final byte[] boundary = this.boundary;
+        final int lastIndex = boundary.length - 1;
+        final byte lastByte = boundary[lastIndex];
+        final int end = in.readableBytes() - boundary.length;
+
+        int off = fromIndex;
+        while (off <= end) {
+            final byte b = in.getByte(off + lastIndex);
+            if (b == lastByte) {
+                int j = lastIndex - 1;
+                while (j >= 0 && in.getByte(off + j) == boundary[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return off;
+                }
+            }
+            off += shifts[b & 0xFF];
+        }
+        return -1;
+    }
+}
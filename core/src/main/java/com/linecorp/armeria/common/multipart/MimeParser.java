@@ -32,7 +32,6 @@ package com.linecorp.armeria.common.multipart;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +43,7 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.multipart.MultipartDecoder.BodyPartPublisher;
 import com.linecorp.armeria.common.stream.StreamDecoderInput;
 import com.linecorp.armeria.common.stream.StreamDecoderOutput;
+import com.linecorp.armeria.internal.common.stream.ByteBufsDecoderInput;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
@@ -61,11 +61,6 @@ final class MimeParser {
     private static final ByteBuf NEED_MORE = Unpooled.buffer(1);
     private static final Charset HEADER_ENCODING = StandardCharsets.ISO_8859_1;
 
-    /**
-     * Boundary as bytes.
-     */
-    private final byte[] boundaryBytes;
-
     private final MultipartDecoder multipartDecoder;
 
     /**
@@ -74,14 +69,9 @@ final class MimeParser {
     private final int boundaryLength;
 
     /**
-     * BnM algorithm: Bad Character Shift table.
-     */
-    private final int[] badCharacters = new int[128];
-
-    /**
-     * BnM algorithm: Good Suffix Shift table.
+     * Finds the boundary in the input.
      */
-    private final int[] goodSuffixes;
+    private final MimeBoundaryMatcher boundaryMatcher;
 
     /**
      * The current parser state.
@@ -130,6 +120,12 @@ final class MimeParser {
      */
     private int boundaryStart;
 
+    /**
+     * The offset from which the next boundary search starts. The bytes before this offset are known not to
+     * contain the start of a boundary, so they are not scanned again when more data arrives.
+     */
+    private int boundarySearchStart;
+
     /**
      * Indicates whether this parser is closed.
      */
@@ -142,11 +138,9 @@ final class MimeParser {
                MultipartDecoder multipartDecoder) {
         this.in = in;
         this.out = out;
-        boundaryBytes = getBytes("--" + boundary);
+        boundaryMatcher = new MimeBoundaryMatcher(getBytes("--" + boundary));
         this.multipartDecoder = multipartDecoder;
-        boundaryLength = boundaryBytes.length;
-        goodSuffixes = new int[boundaryLength];
-        compileBoundaryPattern();
+        boundaryLength = boundaryMatcher.length();
     }
 
     /**
@@ -294,25 +288,38 @@ final class MimeParser {
      */
     private ByteBuf readBody() {
         // matches boundary
-        boundaryStart = match();
+        boundaryStart = boundaryMatcher.indexOf(in, boundarySearchStart);
         final int length = in.readableBytes();
 
         if (boundaryStart == -1) {
             // No boundary is found
+            boundarySearchStart = Math.max(0, length - boundaryLength + 1);
             if (boundaryLength + 1 < length) {
                 // There may be an incomplete boundary at the end of the buffer.
                 // Return the remaining data minus the boundary length
                 // so that it can be processed next iteration.
                 // e.g. |---body---|--bound|
 
-                final int bodyLength = length - (boundaryLength + 1);
-                return in.readBytes(bodyLength);
+                final int bodyLength = Math.min(length - (boundaryLength + 1), contiguousReadableBytes());
+                return readBodyBytes(bodyLength);
             }
             // remaining data can be a complete boundary, force it to be
             // processed during next iteration
             return NEED_MORE;
         }
 
+        final int contiguousReadableBytes = contiguousReadableBytes();
+        if (boundaryStart > contiguousReadableBytes + 2) {
+            // The body before the boundary spans more than one buffer. Emit the first buffer as is so that
+            // the body is not copied into a new buffer, and find the same boundary again next iteration.
+            // Note that a CRLF before the boundary must not be emitted, hence the margin of two bytes.
+            // e.g. |---body---|---body---\r\n--boundary|
+            boundarySearchStart = boundaryStart;
+            boundaryStart = -1;
+            return readBodyBytes(contiguousReadableBytes);
+        }
+        boundarySearchStart = 0;
+
         // Found boundary.
         // Is it at the start of a line ?
         int bodyLength = boundaryStart;
@@ -403,6 +410,24 @@ final class MimeParser {
         return body;
     }
 
+    /**
+     * Reads the body content that is known not to contain a boundary.
+     */
+    private ByteBuf readBodyBytes(int length) {
+        boundarySearchStart = Math.max(0, boundarySearchStart - length);
+        return in.readBytes(length);
+    }
+
+    /**
+     * Returns the number of bytes that can be read from the input without copying them into a new buffer.
+     */
+    private int contiguousReadableBytes() {
+        if (in instanceof ByteBufsDecoderInput) {
+            return ((ByteBufsDecoderInput) in).firstBufferReadableBytes();
+        }
+        return in.readableBytes();
+    }
+
     private static ByteBuf safeReadBytes(StreamDecoderInput in, int length) {
         if (length == 0) {
             return Unpooled.EMPTY_BUFFER;
@@ -416,7 +441,7 @@ final class MimeParser {
      */
     private void skipPreamble() {
         boundaryStart = -1;
-        final int boundaryStartOffset = match();
+        final int boundaryStartOffset = boundaryMatcher.indexOf(in, 0);
         if (boundaryStartOffset == -1) {
             // No boundary is found
             return;
@@ -545,83 +570,6 @@ final class MimeParser {
         }
     }
 
-    /**
-     * Boyer-Moore search method.
-     * Copied from {@link Pattern}
-     *
-     * <p>Pre calculates arrays needed to generate the bad character shift and the
-     * good suffix shift. Only the last seven bits are used to see if chars
-     * match; This keeps the tables small and covers the heavily used ASCII
-     * range, but occasionally results in an aliased match for the bad character
-     * shift.
-     */
-    private void compileBoundaryPattern() {
-        int i;
-        int j;
-
-        // Precalculate part of the bad character shift
-        // It is a table for where in the pattern each
-        // lower 7-bit value occurs
-        for (i = 0; i < boundaryBytes.length; i++) {
-            badCharacters[boundaryBytes[i] & 0x7F] = i + 1;
-        }
-
-        // Precalculate the good suffix shift
-        // i is the shift amount being considered
-        NEXT:
-        for (i = boundaryBytes.length; i > 0; i--) {
-            // j is the beginning index of suffix being considered
-            for (j = boundaryBytes.length - 1; j >= i; j--) {
-                // Testing for good suffix
-                if (boundaryBytes[j] == boundaryBytes[j - i]) {
-                    // src[j..len] is a good suffix
-                    goodSuffixes[j - 1] = i;
-                } else {
-                    // No match. The array has already been
-                    // filled up with correct values before.
-                    continue NEXT;
-                }
-            }
-            // This fills up the remaining of optoSft
-            // any suffix can not have larger shift amount
-            // then its sub-suffix. Why???
-            while (j > 0) {
-                goodSuffixes[--j] = i;
-            }
-        }
-        // Set the guard value because of unicode compression
-        goodSuffixes[boundaryBytes.length - 1] = 1;
-    }
-
-    /**
-     * Finds the boundary in the given buffer using Boyer-Moore algorithm.
-     * Copied from {@link Pattern}
-     *
-     * @return -1 if there is no match or index where the match starts
-     */
-    private int match() {
-        final int last = in.readableBytes() - boundaryBytes.length;
-        int off = 0;
-
-        // Loop over all possible match positions in text
-        NEXT:
-        while (off <= last) {
-            // Loop over pattern from right to left
-            for (int j = boundaryBytes.length - 1; j >= 0; j--) {
-                final byte ch = in.getByte(off + j);
-                if (ch != boundaryBytes[j]) {
-                    // Shift search to the right by the maximum of the
-                    // bad character shift and the good suffix shift
-                    off += Math.max(j + 1 - badCharacters[ch & 0x7F], goodSuffixes[j]);
-                    continue NEXT;
-                }
-            }
-            // Entire pattern matched starting at off
-            return off;
-        }
-        return -1;
-    }
-
     /**
      * Gets the bytes representation of a string.
      * @param str string to convert
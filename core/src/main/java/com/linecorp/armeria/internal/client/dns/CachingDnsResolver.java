@@ -23,17 +23,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.linecorp.armeria.client.DnsCache;
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.AbstractUnwrappable;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
 
 import io.netty.handler.codec.dns.DnsQuestion;
 import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.util.concurrent.EventExecutor;
 
 final class CachingDnsResolver extends AbstractUnwrappable<DnsResolver> implements DnsResolver {
 
@@ -43,38 +46,69 @@ final class CachingDnsResolver extends AbstractUnwrappable<DnsResolver> implemen
             new ConcurrentHashMap<>();
 
     private final DnsCache dnsCache;
-
-    CachingDnsResolver(DnsResolver delegate, DnsCache dnsCache) {
+    @Nullable
+    private final DnsCacheExtension dnsCacheExtension;
+    private final Consumer<DnsQuestion> refresher = this::refresh;
+    private final EventExecutor executor;
+    private final long queryTimeoutMillis;
+
+    CachingDnsResolver(DnsResolver delegate, DnsCache dnsCache, EventExecutor executor,
+                       long queryTimeoutMillis) {
         super(delegate);
         this.dnsCache = dnsCache;
+        if (dnsCache instanceof DnsCacheExtension) {
+            dnsCacheExtension = (DnsCacheExtension) dnsCache;
+        } else {
+            dnsCacheExtension = null;
+        }
+        this.executor = executor;
+        this.queryTimeoutMillis = queryTimeoutMillis;
     }
 
     @Override
     public CompletableFuture<List<DnsRecord>> resolve(DnsQuestionContext ctx, DnsQuestion question) {
         try {
-            final List<DnsRecord> dnsRecords = dnsCache.get(question);
+            final List<DnsRecord> dnsRecords;
+            if (dnsCacheExtension != null) {
+                // Stale or soon-to-expire records are returned as well while being refreshed.
+                dnsRecords = dnsCacheExtension.get(question, refresher);
+            } else {
+                dnsRecords = dnsCache.get(question);
+            }
             if (dnsRecords != null) {
                 return UnmodifiableFuture.completedFuture(dnsRecords);
             } else {
-                return resolve0(ctx, question);
+                return resolve0(ctx, question, false);
             }
         } catch (UnknownHostException e) {
             return UnmodifiableFuture.exceptionallyCompletedFuture(e);
         }
     }
 
-    private CompletableFuture<List<DnsRecord>> resolve0(DnsQuestionContext ctx, DnsQuestion question) {
+    private void refresh(DnsQuestion question) {
+        logger.debug("[{}] Refreshing the cached DNS records: {}", question.name(), question);
+        final DnsQuestionContext ctx = new DnsQuestionContext(executor, queryTimeoutMillis);
+        resolve0(ctx, question, true).handle((unused0, unused1) -> {
+            ctx.cancel();
+            return null;
+        });
+    }
+
+    private CompletableFuture<List<DnsRecord>> resolve0(DnsQuestionContext ctx, DnsQuestion question,
+                                                        boolean refresh) {
         final CompletableFuture<List<DnsRecord>> future =
                 inflightRequests.computeIfAbsent(question, key -> {
-                    try {
-                        // Re-check the DNS cache to avoid duplicate requests.
-                        // Because a request could be computed right after the in-flight request is removed.
-                        final List<DnsRecord> dnsRecords = dnsCache.get(key);
-                        if (dnsRecords != null) {
-                            return UnmodifiableFuture.completedFuture(dnsRecords);
+                    if (!refresh) {
+                        try {
+                            // Re-check the DNS cache to avoid duplicate requests. Because a request could be
+                            // computed right after the in-flight request is removed.
+                            final List<DnsRecord> dnsRecords = dnsCache.get(key);
+                            if (dnsRecords != null) {
+                                return UnmodifiableFuture.completedFuture(dnsRecords);
+                            }
+                        } catch (UnknownHostException e) {
+                            return UnmodifiableFuture.exceptionallyCompletedFuture(e);
                         }
-                    } catch (UnknownHostException e) {
-                        return UnmodifiableFuture.exceptionallyCompletedFuture(e);
                     }
 
                     return unwrap().resolve(ctx, key).handle((records, cause) -> {
@@ -56,7 +56,7 @@ public final class DefaultDnsResolver implements SafeCloseable {
         requireNonNull(hostsFileEntriesResolver, "hostsFileEntriesResolver");
 
         DnsResolver resolver = new DelegatingDnsResolver(delegate, eventLoop);
-        resolver = new CachingDnsResolver(resolver, dnsCache);
+        resolver = new CachingDnsResolver(resolver, dnsCache, eventLoop, queryTimeoutMillis);
         if (!searchDomains.isEmpty()) {
             resolver = new SearchDomainDnsResolver(resolver, searchDomains, ndots);
         }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.dns;
+
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.linecorp.armeria.client.DnsCache;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsRecord;
+
+/**
+ * This class exposes extension methods for {@link DnsCache}
+ * which are used internally by Armeria but aren't intended for public usage.
+ */
+public interface DnsCacheExtension extends DnsCache {
+
+    /**
+     * Returns the cached {@link DnsRecord}s for the specified {@link DnsQuestion}. Unlike
+     * {@link #get(DnsQuestion)}, this method also returns the {@link DnsRecord}s whose TTL has expired but
+     * which are still allowed to be served while being revalidated. The specified {@code refresher} is
+     * invoked at most once per cached entry if the entry is stale or about to expire, so that the caller
+     * can send a new query in the background.
+     */
+    @Nullable
+    List<DnsRecord> get(DnsQuestion question, Consumer<? super DnsQuestion> refresher)
+            throws UnknownHostException;
+}
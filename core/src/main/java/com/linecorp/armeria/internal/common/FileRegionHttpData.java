@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.ByteBufAccessMode;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.internal.common.util.EventLoopThread;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+
+/**
+ * An {@link HttpData} which refers to a region of a file rather than holding its content in memory.
+ * {@link Http1ObjectEncoder} writes it as a {@link FileRegion} on a cleartext connection so that the content
+ * is transferred by the kernel, e.g. {@code sendfile(2)}. Any other consumer reads the region into memory
+ * on the first access, which is rejected on an event loop because the read blocks.
+ */
+public final class FileRegionHttpData implements HttpData {
+
+    private final Path path;
+    private final long position;
+    private final int length;
+    private final boolean endOfStream;
+
+    @Nullable
+    private HttpData content;
+
+    /**
+     * Creates a new instance.
+     */
+    public FileRegionHttpData(Path path, long position, int length, boolean endOfStream) {
+        checkArgument(position >= 0, "position: %s (expected: >= 0)", position);
+        checkArgument(length > 0, "length: %s (expected: > 0)", length);
+        this.path = requireNonNull(path, "path");
+        this.position = position;
+        this.length = length;
+        this.endOfStream = endOfStream;
+    }
+
+    /**
+     * Returns a new {@link FileRegion} which transfers the content of this data.
+     */
+    public FileRegion newFileRegion() {
+        return new DefaultFileRegion(path.toFile(), position, length);
+    }
+
+    private HttpData content() {
+        HttpData content = this.content;
+        if (content != null) {
+            return content;
+        }
+
+        if (Thread.currentThread() instanceof EventLoopThread) {
+            throw new IllegalStateException(
+                    "Cannot read a file region from an event loop because it blocks: " + this);
+        }
+
+        final byte[] array = new byte[length];
+        final ByteBuffer buf = ByteBuffer.wrap(array);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, position + buf.position()) < 0) {
+                    // The file has been truncated since the region was created.
+                    throw new EOFException();
+                }
+            }
+        } catch (IOException e) {
+            return Exceptions.throwUnsafely(e);
+        }
+
+        content = HttpData.wrap(array);
+        this.content = content;
+        return content;
+    }
+
+    @Override
+    public byte[] array() {
+        return content().array();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString(Charset charset) {
+        return content().toString(charset);
+    }
+
+    @Override
+    public InputStream toInputStream() {
+        return content().toInputStream();
+    }
+
+    @Override
+    public boolean isPooled() {
+        return false;
+    }
+
+    @Override
+    public ByteBuf byteBuf(ByteBufAccessMode mode) {
+        return content().byteBuf(mode);
+    }
+
+    @Override
+    public ByteBuf byteBuf(int offset, int length, ByteBufAccessMode mode) {
+        return content().byteBuf(offset, length, mode);
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    @Override
+    public HttpData withEndOfStream(boolean endOfStream) {
+        if (this.endOfStream == endOfStream) {
+            return this;
+        }
+        return new FileRegionHttpData(path, position, length, endOfStream);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("path", path)
+                          .add("position", position)
+                          .add("length", length)
+                          .add("endOfStream", endOfStream)
+                          .toString();
+    }
+}
@@ -187,6 +187,10 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         }
 
         try {
+            if (data instanceof FileRegionHttpData && !protocol.isTls()) {
+                // Let the kernel transfer the file content, e.g. sendfile(2).
+                return doWriteFileRegion(id, (FileRegionHttpData) data, endStream);
+            }
             if (!protocol.isTls() || length <= MAX_TLS_DATA_LENGTH) {
                 // Cleartext connection or data.length() <= MAX_TLS_DATA_LENGTH
                 return doWriteUnsplitData(id, data, endStream);
@@ -221,6 +225,15 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         }
     }
 
+    private ChannelFuture doWriteFileRegion(int id, FileRegionHttpData data, boolean endStream) {
+        ChannelFuture future = write(id, data.newFileRegion(), false, ch.newPromise());
+        if (endStream) {
+            future = write(id, LastHttpContent.EMPTY_LAST_CONTENT, true);
+        }
+        ch.flush();
+        return future;
+    }
+
     private ChannelFuture doWriteSplitData(int id, HttpData data, boolean endStream) {
         try {
             int offset = 0;
@@ -252,7 +265,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         return write(id, obj, endStream, ch.newPromise());
     }
 
-    final ChannelFuture write(int id, HttpObject obj, boolean endStream, ChannelPromise promise) {
+    final ChannelFuture write(int id, Object obj, boolean endStream, ChannelPromise promise) {
         if (id < currentId) {
             // Attempted to write something on a finished request/response; discard.
             // e.g. the request already timed out.
@@ -294,7 +307,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
 
             return future;
         } else {
-            final Entry<HttpObject, ChannelPromise> entry = new SimpleImmutableEntry<>(obj, promise);
+            final Entry<Object, ChannelPromise> entry = new SimpleImmutableEntry<>(obj, promise);
             final PendingWrites pendingWrites;
             if (currentPendingWrites == null) {
                 pendingWrites = new PendingWrites();
@@ -314,7 +327,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         }
     }
 
-    private ChannelFuture write(HttpObject obj, ChannelPromise promise) {
+    private ChannelFuture write(Object obj, ChannelPromise promise) {
         // Use FQCN for Netty HttpResponse to avoid confusion with Armeria HttpResponse
         // We check if obj is an HttpResponse here because server-side writes both headers
         // and errors as an HttpResponse.
@@ -335,7 +348,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
 
     private void flushPendingWrites(PendingWrites pendingWrites) {
         for (;;) {
-            final Entry<HttpObject, ChannelPromise> e = pendingWrites.poll();
+            final Entry<Object, ChannelPromise> e = pendingWrites.poll();
             if (e == null) {
                 break;
             }
@@ -380,7 +393,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
             for (int i = minClosedId; i <= maxIdWithPendingWrites; i++) {
                 final PendingWrites pendingWrites = pendingWritesMap.remove(i);
                 for (;;) {
-                    final Entry<HttpObject, ChannelPromise> e = pendingWrites.poll();
+                    final Entry<Object, ChannelPromise> e = pendingWrites.poll();
                     if (e == null) {
                         break;
                     }
@@ -426,9 +439,9 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         }
 
         final ClosedSessionException cause = ClosedSessionException.get();
-        for (Queue<Entry<HttpObject, ChannelPromise>> queue : pendingWritesMap.values()) {
+        for (Queue<Entry<Object, ChannelPromise>> queue : pendingWritesMap.values()) {
             for (;;) {
-                final Entry<HttpObject, ChannelPromise> e = queue.poll();
+                final Entry<Object, ChannelPromise> e = queue.poll();
                 if (e == null) {
                     break;
                 }
@@ -449,7 +462,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         return lastResponseHeadersId;
     }
 
-    private static final class PendingWrites extends ArrayDeque<Entry<HttpObject, ChannelPromise>> {
+    private static final class PendingWrites extends ArrayDeque<Entry<Object, ChannelPromise>> {
 
         private static final long serialVersionUID = 4241891747461017445L;
 
@@ -460,7 +473,7 @@ public abstract class Http1ObjectEncoder implements HttpObjectEncoder {
         }
 
         @Override
-        public boolean add(Entry<HttpObject, ChannelPromise> httpObjectChannelPromiseEntry) {
+        public boolean add(Entry<Object, ChannelPromise> httpObjectChannelPromiseEntry) {
             return isEndOfStream() ? false : super.add(httpObjectChannelPromiseEntry);
         }
 
@@ -39,6 +39,7 @@ import io.micrometer.core.instrument.Tag;
 public final class DefaultMeterIdPrefixFunction implements MeterIdPrefixFunction {
 
     private final String name;
+    private final MeterHandleCache handleCache = new MeterHandleCache();
 
     public static MeterIdPrefixFunction of(String name) {
         return new DefaultMeterIdPrefixFunction(name);
@@ -48,6 +49,14 @@ public final class DefaultMeterIdPrefixFunction implements MeterIdPrefixFunction
         this.name = requireNonNull(name, "name");
     }
 
+    /**
+     * Returns the {@link MeterHandleCache} of the meters created for the {@link MeterIdPrefix}es
+     * built by this function.
+     */
+    MeterHandleCache handleCache() {
+        return handleCache;
+    }
+
     @Override
     public MeterIdPrefix activeRequestPrefix(MeterRegistry registry, RequestOnlyLog log) {
         /* hostname.pattern, method, service */
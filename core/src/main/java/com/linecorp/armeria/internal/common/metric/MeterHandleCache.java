@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.metric;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.common.logging.RequestOnlyLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.VirtualHost;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Caches the meters created for the {@link MeterIdPrefix}es built by a {@link DefaultMeterIdPrefixFunction},
+ * so that recording the metrics of a request does not build a {@link MeterIdPrefix} again.
+ * The tags built by a {@link DefaultMeterIdPrefixFunction} depend only on the
+ * {@linkplain VirtualHost#hostnamePattern() hostname pattern} of the {@link ServiceConfig}, the name,
+ * the service name and the status of a request, which are used as the cache key. The key does not hold
+ * the {@link ServiceConfig} itself and the {@link MeterRegistry} is weakly referenced, so that the cache
+ * does not retain the services replaced by a reconfiguration. A lookup reuses a thread-local key, so
+ * a cache hit does not allocate.
+ */
+final class MeterHandleCache {
+
+    private static final int NO_STATUS = -1;
+
+    private static final FastThreadLocal<Key> probes = new FastThreadLocal<Key>() {
+        @Override
+        protected Key initialValue() {
+            return new Key();
+        }
+    };
+
+    private final ConcurrentMap<MeterRegistry, ConcurrentMap<Key, Object>> handles =
+            new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Returns the object cached for the active requests of the specified {@link RequestOnlyLog}.
+     */
+    @Nullable
+    Object getActive(MeterRegistry registry, RequestOnlyLog log) {
+        final ConcurrentMap<Key, Object> handles = this.handles.get(registry);
+        return handles != null ? handles.get(probes.get().set(log, NO_STATUS)) : null;
+    }
+
+    void putActive(MeterRegistry registry, RequestOnlyLog log, Object handle) {
+        handles(registry).putIfAbsent(new Key().set(log, NO_STATUS), handle);
+    }
+
+    /**
+     * Returns the object cached for the completed requests of the specified {@link RequestLog}.
+     */
+    @Nullable
+    Object getComplete(MeterRegistry registry, RequestLog log) {
+        final ConcurrentMap<Key, Object> handles = this.handles.get(registry);
+        return handles != null ? handles.get(probes.get().set(log, status(log))) : null;
+    }
+
+    void putComplete(MeterRegistry registry, RequestLog log, Object handle) {
+        handles(registry).putIfAbsent(new Key().set(log, status(log)), handle);
+    }
+
+    private ConcurrentMap<Key, Object> handles(MeterRegistry registry) {
+        return handles.computeIfAbsent(registry, unused -> new ConcurrentHashMap<>());
+    }
+
+    private static int status(RequestLog log) {
+        if (log.isAvailable(RequestLogProperty.RESPONSE_HEADERS)) {
+            return log.responseHeaders().status().code();
+        }
+        return HttpStatus.UNKNOWN.code();
+    }
+
+    private static final class Key {
+        // The hostname pattern of the virtual host of a server-side request or null.
+        @Nullable
+        private String hostnamePattern;
+        @Nullable
+        private String name;
+        @Nullable
+        private String serviceName;
+        private int status;
+        private int hashCode;
+
+        Key set(RequestOnlyLog log, int status) {
+            final RequestContext ctx = log.context();
+            hostnamePattern = ctx instanceof ServiceRequestContext ?
+                              ((ServiceRequestContext) ctx).config().virtualHost().hostnamePattern() : null;
+            name = log.name();
+            serviceName = log.serviceName();
+            this.status = status;
+
+            int hashCode = Objects.hashCode(hostnamePattern);
+            hashCode = 31 * hashCode + Objects.hashCode(name);
+            hashCode = 31 * hashCode + Objects.hashCode(serviceName);
+            this.hashCode = 31 * hashCode + status;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return hashCode == that.hashCode &&
+                   status == that.status &&
+                   Objects.equals(hostnamePattern, that.hostnamePattern) &&
+                   Objects.equals(name, that.name) &&
+                   Objects.equals(serviceName, that.serviceName);
+        }
+    }
+}
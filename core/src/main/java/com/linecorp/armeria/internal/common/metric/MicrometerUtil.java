@@ -67,6 +67,14 @@ public final class MicrometerUtil {
         final ConcurrentMap<MeterIdPrefix, Object> objects =
                 map.computeIfAbsent(registry, unused -> new ConcurrentHashMap<>());
 
+        // Fast path: skip the thread-local state and the capturing lambda if registered already.
+        final Object existing = objects.get(idPrefix);
+        if (type.isInstance(existing)) {
+            @SuppressWarnings("unchecked")
+            final T cast = (T) existing;
+            return cast;
+        }
+
         // Prevent calling computeIfAbsent inside computeIfAbsent.
         // See https://bugs.openjdk.java.net/browse/JDK-8062841 for more information.
         final RegistrationState registrationState = MicrometerUtil.registrationState.get();
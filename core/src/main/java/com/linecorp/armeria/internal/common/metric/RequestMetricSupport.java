@@ -22,6 +22,7 @@ import static com.linecorp.armeria.common.metric.MoreMeters.newTimer;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
 
 import com.linecorp.armeria.client.ResponseTimeoutException;
 import com.linecorp.armeria.client.WriteTimeoutException;
@@ -31,6 +32,7 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.logging.ClientConnectionTimings;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.common.logging.RequestOnlyLog;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
 import com.linecorp.armeria.server.RequestTimeoutException;
@@ -73,19 +75,36 @@ public final class RequestMetricSupport {
             SuccessFunction successFunction) {
         final RequestContext ctx = log.context();
         final MeterRegistry registry = ctx.meterRegistry();
+        final ActiveRequestMetrics activeRequestMetrics =
+                activeRequestMetrics(registry, log, meterIdPrefixFunction);
+        activeRequestMetrics.increment();
+        ctx.log().whenComplete().thenAccept(requestLog -> {
+            onResponse(requestLog, meterIdPrefixFunction, server, successFunction);
+            activeRequestMetrics.decrement();
+        });
+    }
+
+    private static ActiveRequestMetrics activeRequestMetrics(
+            MeterRegistry registry, RequestOnlyLog log, MeterIdPrefixFunction meterIdPrefixFunction) {
+        final MeterHandleCache cache = handleCache(meterIdPrefixFunction);
+        if (cache != null) {
+            final Object cached = cache.getActive(registry, log);
+            if (cached instanceof ActiveRequestMetrics) {
+                return (ActiveRequestMetrics) cached;
+            }
+        }
+
         final MeterIdPrefix activeRequestsId =
                 meterIdPrefixFunction.activeRequestPrefix(registry, log).append("active.requests");
-
         final ActiveRequestMetrics activeRequestMetrics = MicrometerUtil.register(
                 registry, activeRequestsId, ActiveRequestMetrics.class,
                 (reg, prefix) ->
                         reg.gauge(prefix.name(), prefix.tags(),
                                   new ActiveRequestMetrics(), ActiveRequestMetrics::doubleValue));
-        activeRequestMetrics.increment();
-        ctx.log().whenComplete().thenAccept(requestLog -> {
-            onResponse(requestLog, meterIdPrefixFunction, server, successFunction);
-            activeRequestMetrics.decrement();
-        });
+        if (cache != null) {
+            cache.putActive(registry, log, activeRequestMetrics);
+        }
+        return activeRequestMetrics;
     }
 
     private static void onResponse(
@@ -93,23 +112,23 @@ public final class RequestMetricSupport {
             SuccessFunction successFunction) {
         final RequestContext ctx = log.context();
         final MeterRegistry registry = ctx.meterRegistry();
-        final MeterIdPrefix idPrefix = meterIdPrefixFunction.completeRequestPrefix(registry, log);
+        final boolean success = successFunction.isSuccess(ctx, log);
 
         if (server) {
-            final ServiceRequestMetrics metrics = MicrometerUtil.register(registry, idPrefix,
-                                                                          ServiceRequestMetrics.class,
-                                                                          DefaultServiceRequestMetrics::new);
-            updateMetrics(ctx, log, metrics, successFunction);
+            final ServiceRequestMetrics metrics = completeRequestMetrics(
+                    registry, log, meterIdPrefixFunction,
+                    ServiceRequestMetrics.class, DefaultServiceRequestMetrics::new);
+            metrics.record(log, success);
             if (log.responseCause() instanceof RequestTimeoutException) {
                 metrics.requestTimeouts().increment();
             }
             return;
         }
 
-        final ClientRequestMetrics metrics = MicrometerUtil.register(registry, idPrefix,
-                                                                     ClientRequestMetrics.class,
-                                                                     DefaultClientRequestMetrics::new);
-        updateMetrics(ctx, log, metrics, successFunction);
+        final ClientRequestMetrics metrics = completeRequestMetrics(
+                registry, log, meterIdPrefixFunction,
+                ClientRequestMetrics.class, DefaultClientRequestMetrics::new);
+        metrics.record(log, success);
         final ClientConnectionTimings timings = log.connectionTimings();
         if (timings != null) {
             metrics.connectionAcquisitionDuration().record(timings.connectionAcquisitionDurationNanos(),
@@ -145,20 +164,35 @@ public final class RequestMetricSupport {
         }
     }
 
-    private static void updateMetrics(
-            RequestContext ctx, RequestLog log, RequestMetrics metrics,
-            SuccessFunction successFunction) {
-        metrics.requestDuration().record(log.requestDurationNanos(), TimeUnit.NANOSECONDS);
-        metrics.requestLength().record(log.requestLength());
-        metrics.responseDuration().record(log.responseDurationNanos(), TimeUnit.NANOSECONDS);
-        metrics.responseLength().record(log.responseLength());
-        metrics.totalDuration().record(log.totalDurationNanos(), TimeUnit.NANOSECONDS);
-
-        if (successFunction.isSuccess(ctx, log)) {
-            metrics.success().increment();
-        } else {
-            metrics.failure().increment();
+    private static <T> T completeRequestMetrics(
+            MeterRegistry registry, RequestLog log, MeterIdPrefixFunction meterIdPrefixFunction,
+            Class<T> type, BiFunction<MeterRegistry, MeterIdPrefix, T> factory) {
+        final MeterHandleCache cache = handleCache(meterIdPrefixFunction);
+        if (cache != null) {
+            final Object cached = cache.getComplete(registry, log);
+            if (type.isInstance(cached)) {
+                return type.cast(cached);
+            }
         }
+
+        final MeterIdPrefix idPrefix = meterIdPrefixFunction.completeRequestPrefix(registry, log);
+        final T metrics = MicrometerUtil.register(registry, idPrefix, type, factory);
+        if (cache != null) {
+            cache.putComplete(registry, log, metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the {@link MeterHandleCache} if the specified {@link MeterIdPrefixFunction} builds
+     * a {@link MeterIdPrefix} only from the properties used as the cache key.
+     */
+    @Nullable
+    private static MeterHandleCache handleCache(MeterIdPrefixFunction meterIdPrefixFunction) {
+        if (meterIdPrefixFunction instanceof DefaultMeterIdPrefixFunction) {
+            return ((DefaultMeterIdPrefixFunction) meterIdPrefixFunction).handleCache();
+        }
+        return null;
     }
 
     private RequestMetricSupport() {}
@@ -178,6 +212,23 @@ public final class RequestMetricSupport {
         DistributionSummary responseLength();
 
         Timer totalDuration();
+
+        /**
+         * Records all the metrics of the specified completed {@link RequestLog} at once.
+         */
+        default void record(RequestLog log, boolean success) {
+            requestDuration().record(log.requestDurationNanos(), TimeUnit.NANOSECONDS);
+            requestLength().record(log.requestLength());
+            responseDuration().record(log.responseDurationNanos(), TimeUnit.NANOSECONDS);
+            responseLength().record(log.responseLength());
+            totalDuration().record(log.totalDurationNanos(), TimeUnit.NANOSECONDS);
+
+            if (success) {
+                success().increment();
+            } else {
+                failure().increment();
+            }
+        }
     }
 
     private interface ClientRequestMetrics extends RequestMetrics {
@@ -22,6 +22,7 @@ import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.Queue;
 
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.stream.StreamDecoderInput;
 
 import io.netty.buffer.ByteBuf;
@@ -34,6 +35,15 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
     private final Queue<ByteBuf> queue;
     private int readableBytes;
 
+    /**
+     * The last non-first buffer accessed by {@link #getByte(int)} and the index of its first readable byte
+     * relative to the reader index of this input. Cached so that scanning across buffers does not walk
+     * the queue for every byte. Cleared whenever bytes are consumed.
+     */
+    @Nullable
+    private ByteBuf cachedBuf;
+    private int cachedBufOffset;
+
     private boolean closed;
 
     public ByteBufsDecoderInput(ByteBufAllocator alloc) {
@@ -58,8 +68,18 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
         return readableBytes;
     }
 
+    /**
+     * Returns the number of readable bytes in the first buffer, which can be read with
+     * {@link #readBytes(int)} as a retained slice without copying.
+     */
+    public int firstBufferReadableBytes() {
+        final ByteBuf firstBuf = queue.peek();
+        return firstBuf != null ? firstBuf.readableBytes() : 0;
+    }
+
     @Override
     public byte readByte() {
+        cachedBuf = null;
         final ByteBuf buf = queue.peek();
 
         if (buf == null) {
@@ -79,6 +99,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
     @Override
     public int readUnsignedShort() {
+        cachedBuf = null;
         final ByteBuf firstBuf = queue.peek();
         if (firstBuf == null) {
             throw newEndOfInputException();
@@ -99,6 +120,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
     @Override
     public int readInt() {
+        cachedBuf = null;
         final ByteBuf firstBuf = queue.peek();
         if (firstBuf == null) {
             throw newEndOfInputException();
@@ -157,6 +179,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
     @Override
     public long readLong() {
+        cachedBuf = null;
         final ByteBuf firstBuf = queue.peek();
         if (firstBuf == null) {
             throw newEndOfInputException();
@@ -179,6 +202,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
     @Override
     public ByteBuf readBytes(int length) {
+        cachedBuf = null;
         if (length == 0) {
             return Unpooled.EMPTY_BUFFER;
         }
@@ -204,6 +228,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
     @Override
     public void readBytes(byte[] dst) {
+        cachedBuf = null;
         final int length = dst.length;
         if (length == 0) {
             return;
@@ -284,11 +309,19 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
         if (readableBytes > index) {
             return firstBuf.getByte(firstBuf.readerIndex() + index);
         } else {
-            return getByteSlow(index - readableBytes);
+            return getByteSlow(index, index - readableBytes);
         }
     }
 
-    private byte getByteSlow(int remaining) {
+    private byte getByteSlow(int index, int remaining) {
+        final ByteBuf cachedBuf = this.cachedBuf;
+        if (cachedBuf != null) {
+            final int offset = index - cachedBufOffset;
+            if (offset >= 0 && offset < cachedBuf.readableBytes()) {
+                return cachedBuf.getByte(cachedBuf.readerIndex() + offset);
+            }
+        }
+
         final Iterator<ByteBuf> it = queue.iterator();
         // The first buf was already checked in getByte().
         it.next();
@@ -297,6 +330,8 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
             final ByteBuf buf = it.next();
             final int readableBytes = buf.readableBytes();
             if (readableBytes > remaining) {
+                this.cachedBuf = buf;
+                cachedBufOffset = index - remaining;
                 return buf.getByte(buf.readerIndex() + remaining);
             } else {
                 remaining -= readableBytes;
@@ -308,6 +343,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
     @Override
     public void skipBytes(int length) {
+        cachedBuf = null;
         if (length == 0) {
             return;
         }
@@ -365,6 +401,7 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
 
         closed = true;
         readableBytes = 0;
+        cachedBuf = null;
         for (;;) {
             final ByteBuf buf = queue.poll();
             if (buf != null) {
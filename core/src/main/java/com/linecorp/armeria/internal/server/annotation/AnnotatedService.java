@@ -63,6 +63,7 @@ import com.linecorp.armeria.server.Route;
 import com.linecorp.armeria.server.RoutingContext;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+import com.linecorp.armeria.server.annotation.AnnotatedServiceInvoker;
 import com.linecorp.armeria.server.annotation.ExceptionHandlerFunction;
 import com.linecorp.armeria.server.annotation.ExceptionVerbosity;
 import com.linecorp.armeria.server.annotation.FallthroughException;
@@ -89,6 +90,9 @@ public final class AnnotatedService implements HttpService {
     private final int overloadId;
     private final MethodHandle methodHandle;
     @Nullable
+    private final AnnotatedServiceInvoker generatedInvoker;
+    private final int generatedInvokerIndex;
+    @Nullable
     private final MethodHandle callKotlinSuspendingMethod;
     private final boolean isKotlinSuspendingMethod;
     private final List<AnnotatedValueResolver> resolvers;
@@ -175,6 +179,23 @@ public final class AnnotatedService implements HttpService {
         this.method.setAccessible(true);
         // following must be called only after method.setAccessible(true)
         methodHandle = asMethodHandle(method, object);
+
+        // Prefer the invoker generated by the annotation processor, which calls the method directly.
+        final AnnotatedServiceInvoker invoker;
+        if (isKotlinSuspendingMethod) {
+            invoker = null;
+        } else {
+            invoker = AnnotatedServiceInvokers.find(method.getDeclaringClass());
+        }
+        final int invokerIndex =
+                invoker != null ? invoker.indexOf(AnnotatedServiceInvokers.methodSignature(method)) : -1;
+        if (invokerIndex >= 0) {
+            generatedInvoker = invoker;
+            generatedInvokerIndex = invokerIndex;
+        } else {
+            generatedInvoker = null;
+            generatedInvokerIndex = -1;
+        }
     }
 
     private static Type getActualReturnType(Method method) {
@@ -351,6 +372,8 @@ public final class AnnotatedService implements HttpService {
                         method, object, arguments,
                         executor,
                         ctx);
+            } else if (generatedInvoker != null) {
+                return generatedInvoker.invoke(generatedInvokerIndex, object, arguments);
             } else {
                 return methodHandle.invoke(arguments);
             }
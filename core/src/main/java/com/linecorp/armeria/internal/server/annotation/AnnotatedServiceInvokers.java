@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.internal.server.annotation;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.server.annotation.AnnotatedServiceInvoker;
+
+/**
+ * Helper class for the {@link AnnotatedServiceInvoker}s generated by {@code armeria-annotation-processor}.
+ */
+public final class AnnotatedServiceInvokers {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotatedServiceInvokers.class);
+
+    private static final String INVOKER_CLASS_NAME_SUFFIX = "_ArmeriaInvoker";
+
+    /**
+     * Returns the binary name of the {@link AnnotatedServiceInvoker} generated for the class with the
+     * specified binary name. The invoker is placed in the same package as the class so that it can access
+     * the package-private methods.
+     */
+    public static String invokerClassName(String className) {
+        final int lastDotIdx = className.lastIndexOf('.');
+        final String packagePrefix = className.substring(0, lastDotIdx + 1);
+        final String simpleName = className.substring(lastDotIdx + 1).replace('$', '_');
+        return packagePrefix + simpleName + INVOKER_CLASS_NAME_SUFFIX;
+    }
+
+    /**
+     * Returns the signature of the specified {@link Method} which is used to look up the method in
+     * an {@link AnnotatedServiceInvoker}.
+     */
+    public static String methodSignature(Method method) {
+        final StringJoiner joiner = new StringJoiner(",", method.getName() + '(', ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            joiner.add(parameterType.getTypeName());
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the generated {@link AnnotatedServiceInvoker} for the specified {@code clazz}, or {@code null}
+     * if the class was compiled without generating an invoker.
+     */
+    @Nullable
+    static AnnotatedServiceInvoker find(Class<?> clazz) {
+        final String invokerClassName = invokerClassName(clazz.getName());
+        final Class<?> invokerClass;
+        try {
+            invokerClass = Class.forName(invokerClassName, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+
+        if (!AnnotatedServiceInvoker.class.isAssignableFrom(invokerClass)) {
+            logger.warn("{} does not implement {}; using a MethodHandle for {}",
+                        invokerClassName, AnnotatedServiceInvoker.class.getSimpleName(), clazz.getName());
+            return null;
+        }
+        try {
+            return (AnnotatedServiceInvoker) invokerClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            logger.warn("Failed to instantiate {}; using a MethodHandle for {}",
+                        invokerClassName, clazz.getName(), e);
+            return null;
+        }
+    }
+
+    private AnnotatedServiceInvokers() {}
+}
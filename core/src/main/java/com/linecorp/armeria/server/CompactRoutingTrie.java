@@ -0,0 +1,399 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.server.RoutingTrie.Node;
+import com.linecorp.armeria.server.RoutingTrie.NodeType;
+
+/**
+ * A read-only variant of {@link RoutingTrie} whose nodes are encoded into parallel primitive arrays.
+ * The radix-compressed paths of all nodes are concatenated into a single {@code char[]} and the children
+ * of a node are stored as a sorted range of {@link #childKeys} and {@link #childNodes}, so that a lookup
+ * walks a few contiguous arrays instead of chasing the pointers of the node objects and the hash maps.
+ * A lookup matches the characters of the request path in place without creating substrings.
+ *
+ * <p>The lookup semantics are identical to {@link RoutingTrie}.
+ *
+ * @param <V> Value type of {@link CompactRoutingTrie}.
+ */
+final class CompactRoutingTrie<V> {
+
+    private static final int NO_NODE = -1;
+
+    // Use a linear search for the children if a node has less children than this.
+    private static final int BINARY_SEARCH_THRESHOLD = 8;
+
+    private static final byte TYPE_EXACT = 0;
+    private static final byte TYPE_PARAMETER = 1;
+    private static final byte TYPE_CATCH_ALL = 2;
+
+    /**
+     * Builds a {@link CompactRoutingTrie} from the nodes of the specified {@link RoutingTrie}.
+     */
+    static <V> CompactRoutingTrie<V> of(RoutingTrie<V> trie) {
+        requireNonNull(trie, "trie");
+
+        // Number the nodes in breadth-first order so that the siblings are placed next to each other.
+        final List<Node<V>> nodes = new ArrayList<>();
+        final Map<Node<V>, Integer> indexes = new IdentityHashMap<>();
+        final Queue<Node<V>> queue = new ArrayDeque<>();
+        queue.add(trie.root());
+        while (!queue.isEmpty()) {
+            final Node<V> node = queue.remove();
+            indexes.put(node, nodes.size());
+            nodes.add(node);
+            queue.addAll(sortedChildren(node));
+        }
+
+        final int numNodes = nodes.size();
+        final byte[] types = new byte[numNodes];
+        final int[] pathStarts = new int[numNodes + 1];
+        final int[] childStarts = new int[numNodes + 1];
+        final int[] parameterChildren = new int[numNodes];
+        final int[] catchAllChildren = new int[numNodes];
+        final Object[] values = new Object[numNodes];
+
+        int pathLength = 0;
+        int numChildren = 0;
+        for (int i = 0; i < numNodes; i++) {
+            final Node<V> node = nodes.get(i);
+            pathLength += node.path.length();
+            numChildren += node.children.size();
+        }
+        final char[] paths = new char[pathLength];
+        final char[] childKeys = new char[numChildren];
+        final int[] childNodes = new int[numChildren];
+
+        int pathOffset = 0;
+        int childOffset = 0;
+        for (int i = 0; i < numNodes; i++) {
+            final Node<V> node = nodes.get(i);
+            types[i] = toType(node.type);
+
+            pathStarts[i] = pathOffset;
+            node.path.getChars(0, node.path.length(), paths, pathOffset);
+            pathOffset += node.path.length();
+
+            childStarts[i] = childOffset;
+            for (char key : sortedKeys(node)) {
+                childKeys[childOffset] = key;
+                childNodes[childOffset] = indexes.get(node.children.get(key));
+                childOffset++;
+            }
+
+            parameterChildren[i] = node.parameterChild != null ? indexes.get(node.parameterChild) : NO_NODE;
+            catchAllChildren[i] = node.catchAllChild != null ? indexes.get(node.catchAllChild) : NO_NODE;
+            values[i] = node.values;
+        }
+        pathStarts[numNodes] = pathOffset;
+        childStarts[numNodes] = childOffset;
+
+        return new CompactRoutingTrie<>(types, paths, pathStarts, childKeys, childNodes, childStarts,
+                                        parameterChildren, catchAllChildren, values);
+    }
+
+    private static <V> List<Node<V>> sortedChildren(Node<V> node) {
+        final char[] keys = sortedKeys(node);
+        final List<Node<V>> children = new ArrayList<>(keys.length);
+        for (char key : keys) {
+            children.add(node.children.get(key));
+        }
+        return children;
+    }
+
+    private static <V> char[] sortedKeys(Node<V> node) {
+        final char[] keys = node.children.keySet().toCharArray();
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static byte toType(NodeType type) {
+        switch (type) {
+            case EXACT:
+                return TYPE_EXACT;
+            case PARAMETER:
+                return TYPE_PARAMETER;
+            case CATCH_ALL:
+                return TYPE_CATCH_ALL;
+            default:
+                throw new Error("Should not reach here");
+        }
+    }
+
+    private final byte[] types;
+    private final char[] paths;
+    // The path of the node 'i' is 'paths[pathStarts[i]..pathStarts[i + 1])'.
+    private final int[] pathStarts;
+    private final char[] childKeys;
+    private final int[] childNodes;
+    // The children of the node 'i' are 'childKeys/childNodes[childStarts[i]..childStarts[i + 1])'.
+    private final int[] childStarts;
+    private final int[] parameterChildren;
+    private final int[] catchAllChildren;
+    private final Object[] values;
+
+    private CompactRoutingTrie(byte[] types, char[] paths, int[] pathStarts,
+                               char[] childKeys, int[] childNodes, int[] childStarts,
+                               int[] parameterChildren, int[] catchAllChildren, Object[] values) {
+        this.types = types;
+        this.paths = paths;
+        this.pathStarts = pathStarts;
+        this.childKeys = childKeys;
+        this.childNodes = childNodes;
+        this.childStarts = childStarts;
+        this.parameterChildren = parameterChildren;
+        this.catchAllChildren = catchAllChildren;
+        this.values = values;
+    }
+
+    /**
+     * Returns the list of values which is mapped to the given {@code path}.
+     */
+    List<V> find(String path) {
+        return find(path, ValuesProcessor.noop());
+    }
+
+    /**
+     * Returns the list of values which is mapped to the given {@code path}.
+     * The values of each node matched with the given {@code path} would be passed into
+     * the given {@link ValuesProcessor}.
+     */
+    List<V> find(String path, ValuesProcessor<V> processor) {
+        requireNonNull(path, "path");
+        requireNonNull(processor, "processor");
+        final int node = findFirstNode(0, path, 0, processor);
+        return node == NO_NODE ? ImmutableList.of() : values(node);
+    }
+
+    /**
+     * Returns the list of values which is mapped to the given {@code path}.
+     */
+    List<V> findAll(String path) {
+        requireNonNull(path, "path");
+        final ImmutableList.Builder<V> accumulator = ImmutableList.builder();
+        findAllNodes(0, path, 0, accumulator);
+        return accumulator.build();
+    }
+
+    /**
+     * Returns the number of the nodes in this trie.
+     */
+    int size() {
+        return types.length;
+    }
+
+    private int findFirstNode(int node, String path, int begin, ValuesProcessor<V> processor) {
+        final int checked = checkNode(node, path, begin);
+        if (checked >= 0) {
+            return processor.process(values(checked)) ? checked : NO_NODE;
+        }
+        if (checked == NO_NODE) {
+            return NO_NODE;
+        }
+
+        // See RoutingTrie.findFirstNode() for the order of visiting children.
+        final int next = continueIndex(checked);
+        int child = child(node, path.charAt(next));
+        if (child != NO_NODE) {
+            final int found = findFirstNode(child, path, next, processor);
+            if (found != NO_NODE) {
+                return found;
+            }
+        }
+        child = parameterChildren[node];
+        if (child != NO_NODE) {
+            final int found = findFirstNode(child, path, next, processor);
+            if (found != NO_NODE) {
+                return found;
+            }
+        }
+        child = catchAllChildren[node];
+        if (child != NO_NODE) {
+            return processor.process(values(child)) ? child : NO_NODE;
+        }
+        return NO_NODE;
+    }
+
+    private void findAllNodes(int node, String path, int begin, ImmutableList.Builder<V> accumulator) {
+        final int checked = checkNode(node, path, begin);
+        if (checked >= 0) {
+            accumulator.addAll(values(checked));
+            return;
+        }
+        if (checked == NO_NODE) {
+            return;
+        }
+
+        final int next = continueIndex(checked);
+        // find the nearest child node from root to preserve the access order
+        int child = catchAllChildren[node];
+        if (child != NO_NODE) {
+            accumulator.addAll(values(child));
+        }
+        child = parameterChildren[node];
+        if (child != NO_NODE) {
+            findAllNodes(child, path, next, accumulator);
+        }
+        child = child(node, path.charAt(next));
+        if (child != NO_NODE) {
+            findAllNodes(child, path, next, accumulator);
+        }
+    }
+
+    /**
+     * Checks the node which is mapped to the given {@code path}. Returns:
+     * <ul>
+     *   <li>the index of the matched node,</li>
+     *   <li>{@link #NO_NODE} if the given {@code path} does not start with the path of the node, or</li>
+     *   <li>a negative value less than {@link #NO_NODE} which encodes the index of the path to continue
+     *       walking the children from. Use {@link #continueIndex(int)} to decode it.</li>
+     * </ul>
+     */
+    private int checkNode(int node, String path, int begin) {
+        switch (types[node]) {
+            case TYPE_EXACT:
+                final int start = pathStarts[node];
+                final int len = pathStarts[node + 1] - start;
+                if (!regionMatches(path, begin, start, len)) {
+                    // A given path does not start with the path of this node.
+                    return NO_NODE;
+                }
+                if (len == path.length() - begin) {
+                    // Matched. No more input characters.
+                    final int catchAllChild = catchAllChildren[node];
+                    if (!values(node).isEmpty() || catchAllChild == NO_NODE) {
+                        return node;
+                    }
+                    return catchAllChild;
+                }
+                return continueAt(begin + len);
+            case TYPE_PARAMETER:
+                // Consume characters until the delimiter '/' as a path variable.
+                final int delim = path.indexOf('/', begin);
+                if (delim < 0) {
+                    // No more delimiter.
+                    return node;
+                }
+                if (path.length() == delim + 1) {
+                    final int trailingSlashNode = child(node, '/');
+                    return trailingSlashNode != NO_NODE ? trailingSlashNode : node;
+                }
+                return continueAt(delim);
+            default:
+                throw new Error("Should not reach here");
+        }
+    }
+
+    private static int continueAt(int index) {
+        return -index - 2;
+    }
+
+    private static int continueIndex(int encoded) {
+        return -encoded - 2;
+    }
+
+    private boolean regionMatches(String path, int begin, int start, int len) {
+        if (begin + len > path.length()) {
+            return false;
+        }
+        final char[] paths = this.paths;
+        for (int i = 0; i < len; i++) {
+            if (path.charAt(begin + i) != paths[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int child(int node, char key) {
+        final int from = childStarts[node];
+        final int to = childStarts[node + 1];
+        if (to - from < BINARY_SEARCH_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                if (childKeys[i] == key) {
+                    return childNodes[i];
+                }
+            }
+            return NO_NODE;
+        }
+        final int i = Arrays.binarySearch(childKeys, from, to, key);
+        return i >= 0 ? childNodes[i] : NO_NODE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<V> values(int node) {
+        return (List<V>) values[node];
+    }
+
+    void dump(OutputStream output) {
+        // Do not close this writer in order to keep output stream open.
+        final PrintWriter p = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        p.printf("Dump of %s:%n", this);
+        dump(p, 0, 0);
+        p.flush();
+    }
+
+    private void dump(PrintWriter p, int node, int depth) {
+        p.printf("<%d> Node{path=%s, type=%s, values=%s}%n",
+                 depth, new String(paths, pathStarts[node], pathStarts[node + 1] - pathStarts[node]),
+                 typeName(types[node]), values(node));
+        for (int i = childStarts[node]; i < childStarts[node + 1]; i++) {
+            dump(p, childNodes[i], depth + 1);
+        }
+    }
+
+    private static String typeName(byte type) {
+        switch (type) {
+            case TYPE_EXACT:
+                return NodeType.EXACT.name();
+            case TYPE_PARAMETER:
+                return NodeType.PARAMETER.name();
+            default:
+                return NodeType.CATCH_ALL.name();
+        }
+    }
+
+    @FunctionalInterface
+    interface ValuesProcessor<V> {
+        static <V> ValuesProcessor<V> noop() {
+            return values -> true;
+        }
+
+        /**
+         * Looks into the values of a node before picking it as a candidate for handling the current request.
+         * Returns {@code false} to exclude the node from the candidate list.
+         */
+        boolean process(List<V> values);
+    }
+}
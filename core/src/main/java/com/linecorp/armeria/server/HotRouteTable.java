@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.IntMath;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * A small direct-mapped table of the hot routes which is confined to a single thread, usually an event loop.
+ * A {@link RoutingContext} is promoted into this table only after it was looked up
+ * {@value #PROMOTION_THRESHOLD} times through the shared route cache. A slot is taken over by another
+ * {@link RoutingContext} only after the competing lookups wear down the hit count of its occupant,
+ * so that a burst of cold requests does not evict the hot routes.
+ *
+ * <p>Note that this class is not thread-safe.
+ */
+final class HotRouteTable<V> {
+
+    @VisibleForTesting
+    static final int PROMOTION_THRESHOLD = 4;
+
+    private static final int MAX_HITS = 255;
+
+    private final RoutingContext[] keys;
+    private final Object[] values;
+    private final int[] hits;
+    private final int mask;
+
+    HotRouteTable(int size) {
+        checkArgument(size > 0, "size: %s (expected: > 0)", size);
+        final int capacity = IntMath.ceilingPowerOfTwo(size);
+        keys = new RoutingContext[capacity];
+        values = new Object[capacity];
+        hits = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the value of the promoted {@link RoutingContext} which equals to the specified one,
+     * or {@code null} if not promoted yet.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(RoutingContext routingCtx) {
+        final int idx = index(routingCtx);
+        final RoutingContext key = keys[idx];
+        if (key == null || hits[idx] < PROMOTION_THRESHOLD || !key.equals(routingCtx)) {
+            return null;
+        }
+        if (hits[idx] < MAX_HITS) {
+            hits[idx]++;
+        }
+        return (V) values[idx];
+    }
+
+    /**
+     * Records that the specified {@link RoutingContext} was resolved into the specified {@code value}
+     * through the shared route cache.
+     */
+    void record(RoutingContext routingCtx, V value) {
+        final int idx = index(routingCtx);
+        final RoutingContext key = keys[idx];
+        if (key != null && key.equals(routingCtx)) {
+            if (hits[idx] < MAX_HITS) {
+                hits[idx]++;
+            }
+            values[idx] = value;
+            return;
+        }
+
+        if (key == null || --hits[idx] <= 0) {
+            keys[idx] = routingCtx;
+            values[idx] = value;
+            hits[idx] = 1;
+        }
+    }
+
+    @VisibleForTesting
+    int capacity() {
+        return keys.length;
+    }
+
+    private int index(RoutingContext routingCtx) {
+        final int hashCode = routingCtx.hashCode();
+        return (hashCode ^ (hashCode >>> 16)) & mask;
+    }
+}
@@ -23,7 +23,9 @@ import java.io.OutputStream;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import com.github.benmanes.caffeine.cache.Cache;
@@ -35,11 +37,14 @@ import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.internal.common.metric.CaffeineMetricSupport;
+import com.linecorp.armeria.internal.common.util.EventLoopThread;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.concurrent.FastThreadLocal;
 
 /**
- * See {@link Flags#routeCacheSpec()} to configure this {@link RouteCache}.
+ * See {@link Flags#routeCacheSpec()} and {@link Flags#eventLoopRouteCacheSize()} to configure this
+ * {@link RouteCache}.
  */
 final class RouteCache {
 
@@ -83,6 +88,20 @@ final class RouteCache {
                                                                   ambiguousRoutes);
     }
 
+    /**
+     * Incremented whenever a {@link CachingRouter} is created, i.e. when a {@link Server} is started or
+     * reconfigured, so that the {@link HotRouteTable}s of the replaced {@link Router}s are released.
+     */
+    private static final AtomicLong routerGeneration = new AtomicLong();
+
+    private static final FastThreadLocal<HotRouteTables> hotRouteTables =
+            new FastThreadLocal<HotRouteTables>() {
+                @Override
+                protected HotRouteTables initialValue() {
+                    return new HotRouteTables();
+                }
+            };
+
     private static <T> Cache<RoutingContext, T> buildCache(String spec) {
         return Caffeine.from(spec).recordStats().build();
     }
@@ -99,6 +118,7 @@ final class RouteCache {
         private final Cache<RoutingContext, V> findCache;
         private final Cache<RoutingContext, List<V>> findAllCache;
         private final Set<Route> ambiguousRoutes;
+        private final int hotRouteTableSize;
 
         CachingRouter(Router<V> delegate, Function<V, Route> routeResolver,
                       Cache<RoutingContext, V> findCache,
@@ -113,26 +133,68 @@ final class RouteCache {
                     Collections.newSetFromMap(new IdentityHashMap<>(ambiguousRoutes.size()));
             newAmbiguousRoutes.addAll(requireNonNull(ambiguousRoutes, "ambiguousRoutes"));
             this.ambiguousRoutes = Collections.unmodifiableSet(newAmbiguousRoutes);
+
+            hotRouteTableSize = Flags.eventLoopRouteCacheSize();
+            if (hotRouteTableSize > 0) {
+                routerGeneration.incrementAndGet();
+            }
+        }
+
+        @Nullable
+        private HotRouteTable<V> hotRouteTable() {
+            // Other threads, e.g. blocking task executors, may be unbounded in number and do not see
+            // enough requests to make a table pay off.
+            if (hotRouteTableSize <= 0 || !(Thread.currentThread() instanceof EventLoopThread)) {
+                return null;
+            }
+            return hotRouteTables.get().get(this, hotRouteTableSize);
         }
 
         @Override
         public Routed<V> find(RoutingContext routingCtx) {
+            final HotRouteTable<V> hotRouteTable = hotRouteTable();
+            if (hotRouteTable != null) {
+                final V hot = hotRouteTable.get(routingCtx);
+                if (hot != null) {
+                    return routed(hot, routingCtx);
+                }
+            }
+
             final V cached = findCache.getIfPresent(routingCtx);
             if (cached != null) {
-                // RoutingResult may be different to each other for every requests, so we cannot
-                // use it as a cache value.
-                final Route route = routeResolver.apply(cached);
-                final RoutingResult routingResult = route.apply(routingCtx, false);
-                return Routed.of(route, routingResult, cached);
+                if (hotRouteTable != null) {
+                    maybeRecordHotRoute(hotRouteTable, routingCtx, cached);
+                }
+                return routed(cached, routingCtx);
             }
 
             final Routed<V> result = delegate.find(routingCtx);
             if (result.isPresent() && !ambiguousRoutes.contains(result.route())) {
                 findCache.put(routingCtx, result.value());
+                if (hotRouteTable != null) {
+                    maybeRecordHotRoute(hotRouteTable, routingCtx, result.value());
+                }
             }
             return result;
         }
 
+        private Routed<V> routed(V cached, RoutingContext routingCtx) {
+            // RoutingResult may be different to each other for every requests, so we cannot
+            // use it as a cache value.
+            final Route route = routeResolver.apply(cached);
+            final RoutingResult routingResult = route.apply(routingCtx, false);
+            return Routed.of(route, routingResult, cached);
+        }
+
+        private void maybeRecordHotRoute(HotRouteTable<V> hotRouteTable, RoutingContext routingCtx, V value) {
+            // Only exact and prefix paths are promoted because a parameterized or regex path may match
+            // a lot of distinct paths, which would thrash the small table.
+            final RoutePathType pathType = routeResolver.apply(value).pathType();
+            if (pathType == RoutePathType.EXACT || pathType == RoutePathType.PREFIX) {
+                hotRouteTable.record(routingCtx, value);
+            }
+        }
+
         @Override
         public List<Routed<V>> findAll(RoutingContext routingCtx) {
             final List<V> cachedList = findAllCache.getIfPresent(routingCtx);
@@ -181,6 +243,27 @@ final class RouteCache {
         }
     }
 
+    /**
+     * The {@link HotRouteTable}s of an event loop, one for each {@link CachingRouter}. Cleared when
+     * the {@link Router}s are rebuilt, so that the tables do not retain the {@link RoutingContext}s and
+     * the {@link ServiceConfig}s of the replaced {@link Router}s.
+     */
+    private static final class HotRouteTables {
+
+        private final Map<CachingRouter<?>, HotRouteTable<?>> tables = new IdentityHashMap<>();
+        private long generation = routerGeneration.get();
+
+        @SuppressWarnings("unchecked")
+        <V> HotRouteTable<V> get(CachingRouter<V> router, int size) {
+            final long currentGeneration = routerGeneration.get();
+            if (generation != currentGeneration) {
+                generation = currentGeneration;
+                tables.clear();
+            }
+            return (HotRouteTable<V>) tables.computeIfAbsent(router, unused -> new HotRouteTable<V>(size));
+        }
+    }
+
     @VisibleForTesting
     static final class CachingRoutingContext extends RoutingContextWrapper {
 
@@ -46,7 +46,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.server.CompactRoutingTrie.ValuesProcessor;
 import com.linecorp.armeria.server.RoutingTrie.Node;
 import com.linecorp.armeria.server.RoutingTrie.NodeProcessor;
 
@@ -305,7 +307,12 @@ public final class Routers {
                     }
                 }
             }
-            router = new TrieRouter<>(builder.build(), routeResolver, isRouteDecorator);
+            if (Flags.useCompactRoutingTrie()) {
+                router = new CompactTrieRouter<>(CompactRoutingTrie.of(builder.build()),
+                                                 routeResolver, isRouteDecorator);
+            } else {
+                router = new TrieRouter<>(builder.build(), routeResolver, isRouteDecorator);
+            }
         } else {
             values.sort(valueComparator);
             router = new SequentialRouter<>(values, routeResolver, isRouteDecorator);
@@ -450,6 +457,68 @@ public final class Routers {
         }
     }
 
+    private static final class CompactTrieRouter<V> implements Router<V> {
+
+        private final CompactRoutingTrie<V> trie;
+        private final Function<V, Route> routeResolver;
+        private final boolean isRouteDecorator;
+
+        CompactTrieRouter(CompactRoutingTrie<V> trie, Function<V, Route> routeResolver,
+                          boolean isRouteDecorator) {
+            this.trie = requireNonNull(trie, "trie");
+            this.routeResolver = requireNonNull(routeResolver, "routeResolver");
+            this.isRouteDecorator = isRouteDecorator;
+        }
+
+        @Override
+        public Routed<V> find(RoutingContext routingCtx) {
+            final RouteCandidateCollectingValuesProcessor processor =
+                    new RouteCandidateCollectingValuesProcessor(routingCtx);
+            trie.find(routingCtx.path(), processor);
+            return findBest(processor.collectRouteCandidates());
+        }
+
+        @Override
+        public List<Routed<V>> findAll(RoutingContext routingCtx) {
+            return getRouteCandidates(routingCtx, trie.findAll(routingCtx.path()),
+                                      routeResolver, isRouteDecorator);
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            trie.dump(output);
+        }
+
+        private final class RouteCandidateCollectingValuesProcessor implements ValuesProcessor<V> {
+            private final RoutingContext routingCtx;
+            @Nullable
+            private ImmutableList.Builder<Routed<V>> routeCollector;
+
+            private RouteCandidateCollectingValuesProcessor(RoutingContext routingCtx) {
+                this.routingCtx = routingCtx;
+            }
+
+            @Override
+            public boolean process(List<V> values) {
+                final List<Routed<V>> list =
+                        getRouteCandidates(routingCtx, values, routeResolver, isRouteDecorator);
+                if (list.isEmpty()) {
+                    // Not acceptable node.
+                    return false;
+                }
+                if (routeCollector == null) {
+                    routeCollector = ImmutableList.builder();
+                }
+                routeCollector.addAll(list);
+                return true;
+            }
+
+            List<Routed<V>> collectRouteCandidates() {
+                return routeCollector != null ? routeCollector.build() : ImmutableList.of();
+            }
+        }
+    }
+
     private static final class SequentialRouter<V> implements Router<V> {
 
         private final List<V> values;
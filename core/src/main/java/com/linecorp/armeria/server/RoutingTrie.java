@@ -73,6 +73,10 @@ final class RoutingTrie<V> {
         this.root = root;
     }
 
+    Node<V> root() {
+        return root;
+    }
+
     /**
      * Returns the list of values which is mapped to the given {@code path}.
      */
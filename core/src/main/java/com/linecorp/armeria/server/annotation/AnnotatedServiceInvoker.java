@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server.annotation;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Invokes the annotated service methods of a class directly, without going through a
+ * {@link java.lang.invoke.MethodHandle}. An implementation of this interface is generated for each annotated
+ * service class by {@code armeria-annotation-processor} when the
+ * {@code com.linecorp.armeria.generateAnnotatedServiceInvokers} compiler option is set to {@code true}.
+ * Armeria uses the generated invoker automatically if it is found in the class path.
+ */
+@UnstableApi
+public interface AnnotatedServiceInvoker {
+
+    /**
+     * Returns the index of the method with the specified signature, or {@code -1} if this invoker
+     * cannot invoke the method. A signature consists of the method name followed by the comma-separated
+     * {@linkplain Class#getTypeName() type names} of its parameters in parentheses,
+     * e.g. {@code "hello(java.lang.String,int)"}.
+     */
+    int indexOf(String methodSignature);
+
+    /**
+     * Invokes the method at the specified {@code index} with the specified {@code arguments}.
+     *
+     * @param index the index of the method returned by {@link #indexOf(String)}
+     * @param target the instance of the annotated service, or {@code null} if the method is {@code static}
+     * @param arguments the resolved arguments of the method
+     * @return the value returned by the method, or {@code null} if the method returns {@code void}
+     */
+    @Nullable
+    Object invoke(int index, @Nullable Object target, Object[] arguments) throws Throwable;
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.encoding;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.MoreObjects;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.ServerCacheControl;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * A bounded cache of compressed response bodies, keyed by the {@link HttpEncodingType} and the SHA-256
+ * digest of the uncompressed content. Because the key is derived from the content, a cached body can be
+ * reused for any response with the same content regardless of its path. A collision-resistant digest is
+ * used so that a client cannot craft a response body which is served the compressed form of another.
+ */
+final class CompressedResponseCache {
+
+    private static final HashFunction hashFunction = Hashing.sha256();
+
+    /**
+     * Returns whether the response with the specified {@link ResponseHeaders} is explicitly marked as
+     * shareable, i.e. its {@code "cache-control"} header has the {@code public} or {@code immutable}
+     * directive without {@code private} or {@code no-store}, and it does not have a {@code "set-cookie"}
+     * header.
+     */
+    static boolean isShareable(ResponseHeaders headers) {
+        if (headers.contains(HttpHeaderNames.SET_COOKIE)) {
+            return false;
+        }
+        final List<String> directives = headers.getAll(HttpHeaderNames.CACHE_CONTROL);
+        if (directives.isEmpty()) {
+            return false;
+        }
+        final ServerCacheControl cacheControl = ServerCacheControl.parse(directives);
+        return (cacheControl.cachePublic() || cacheControl.immutable()) &&
+               !cacheControl.cachePrivate() && !cacheControl.noStore();
+    }
+
+    private final Cache<Key, byte[]> cache;
+    private final int maxEntrySizeBytes;
+    private final Predicate<? super ResponseHeaders> cacheableResponsePredicate;
+
+    CompressedResponseCache(long maxSizeBytes, int maxEntrySizeBytes,
+                            Predicate<? super ResponseHeaders> cacheableResponsePredicate) {
+        cache = Caffeine.newBuilder()
+                        .maximumWeight(maxSizeBytes)
+                        .<Key, byte[]>weigher((key, value) -> value.length)
+                        .recordStats()
+                        .build();
+        this.maxEntrySizeBytes = maxEntrySizeBytes;
+        this.cacheableResponsePredicate = requireNonNull(cacheableResponsePredicate,
+                                                         "cacheableResponsePredicate");
+    }
+
+    Cache<Key, byte[]> cache() {
+        return cache;
+    }
+
+    /**
+     * Returns whether the content of the response with the specified {@link ResponseHeaders} should be
+     * aggregated and looked up from this cache.
+     */
+    boolean isCacheable(ResponseHeaders headers) {
+        final long contentLength = headers.contentLength();
+        return contentLength > 0 && contentLength <= maxEntrySizeBytes &&
+               cacheableResponsePredicate.test(headers);
+    }
+
+    /**
+     * Returns the compressed form of the specified {@code content}, compressing and caching it if it
+     * does not exist in this cache.
+     */
+    byte[] encode(HttpEncodingType encodingType, byte[] content, int offset, int length) {
+        final Key key = new Key(encodingType, hashFunction.hashBytes(content, offset, length), length);
+        @Nullable
+        final byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // A compression ratio heavily depends on the content but the compression ratio is higher than
+        // 50% in common cases.
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2);
+        try (OutputStream encodingStream = HttpEncoders.getEncodingOutputStream(encodingType, out)) {
+            encodingStream.write(content, offset, length);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Error encoding HttpData, this should not happen with byte arrays.", e);
+        }
+
+        final byte[] encoded = out.toByteArray();
+        cache.put(key, encoded);
+        return encoded;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("maxEntrySizeBytes", maxEntrySizeBytes)
+                          .add("estimatedSize", cache.estimatedSize())
+                          .toString();
+    }
+
+    static final class Key {
+
+        private final HttpEncodingType encodingType;
+        private final HashCode hash;
+        private final int length;
+
+        Key(HttpEncodingType encodingType, HashCode hash, int length) {
+            this.encodingType = encodingType;
+            this.hash = hash;
+            this.length = length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (hash.asInt() * 31 + length) * 31 + encodingType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return encodingType == that.encodingType && length == that.length && hash.equals(that.hash);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                              .add("encodingType", encodingType)
+                              .add("hash", hash)
+                              .add("length", length)
+                              .toString();
+        }
+    }
+}
@@ -24,8 +24,12 @@ import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.internal.common.metric.CaffeineMetricSupport;
 import com.linecorp.armeria.server.HttpService;
 import com.linecorp.armeria.server.RoutingContext;
+import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.SimpleDecoratingHttpService;
 
@@ -38,12 +42,21 @@ import com.linecorp.armeria.server.SimpleDecoratingHttpService;
  *     <li>the request headers are acceptable</li>
  *     <li>the response either has no fixed content length or the length is larger than 1KB</li>
  * </ul>
+ *
+ * <p>If {@link EncodingServiceBuilder#compressedResponseCacheSizeBytes(long)} is set, the content of
+ * a cacheable response is aggregated and its compressed form is reused for the responses with the same
+ * content.
  */
 public final class EncodingService extends SimpleDecoratingHttpService {
 
+    private static final MeterIdPrefix CACHE_METER_ID_PREFIX =
+            new MeterIdPrefix("armeria.server.encoding.cache");
+
     private final Predicate<MediaType> encodableContentTypePredicate;
     private final Predicate<? super RequestHeaders> encodableRequestHeadersPredicate;
     private final long minBytesToForceChunkedAndEncoding;
+    @Nullable
+    private final CompressedResponseCache compressedResponseCache;
 
     /**
      * Returns a new {@link EncodingServiceBuilder}.
@@ -65,11 +78,24 @@ public final class EncodingService extends SimpleDecoratingHttpService {
     EncodingService(HttpService delegate,
                     Predicate<MediaType> encodableContentTypePredicate,
                     Predicate<? super RequestHeaders> encodableRequestHeadersPredicate,
-                    long minBytesToForceChunkedAndEncoding) {
+                    long minBytesToForceChunkedAndEncoding,
+                    @Nullable CompressedResponseCache compressedResponseCache) {
         super(delegate);
         this.encodableContentTypePredicate = encodableContentTypePredicate;
         this.encodableRequestHeadersPredicate = encodableRequestHeadersPredicate;
         this.minBytesToForceChunkedAndEncoding = minBytesToForceChunkedAndEncoding;
+        this.compressedResponseCache = compressedResponseCache;
+    }
+
+    @Override
+    public void serviceAdded(ServiceConfig cfg) throws Exception {
+        super.serviceAdded(cfg);
+        if (compressedResponseCache != null) {
+            // The cache is shared by all routes decorated by the same builder, so it is not tagged
+            // with a route. A cache is registered only once even if it's set up for many routes.
+            CaffeineMetricSupport.setup(cfg.server().meterRegistry(), CACHE_METER_ID_PREFIX,
+                                        compressedResponseCache.cache());
+        }
     }
 
     @Override
@@ -85,7 +111,14 @@ public final class EncodingService extends SimpleDecoratingHttpService {
         if (encodingType == null || !encodableRequestHeadersPredicate.test(req.headers())) {
             return delegateResponse;
         }
-        return new HttpEncodedResponse(delegateResponse, encodingType, encodableContentTypePredicate,
-                                       ctx.alloc(), minBytesToForceChunkedAndEncoding);
+        final HttpEncodedResponse encodedResponse =
+                new HttpEncodedResponse(delegateResponse, encodingType, encodableContentTypePredicate,
+                                        ctx.alloc(), minBytesToForceChunkedAndEncoding,
+                                        compressedResponseCache);
+        if (compressedResponseCache == null) {
+            return encodedResponse;
+        }
+        // Drop the empty placeholders emitted while a cacheable response is being aggregated.
+        return HttpResponse.of(encodedResponse.filter(HttpEncodedResponse::isNotEmptyData));
     }
 }
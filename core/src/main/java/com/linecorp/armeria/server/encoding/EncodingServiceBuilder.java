@@ -32,6 +32,8 @@ import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.RequestHeaders;
 import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.server.HttpService;
 
 /**
@@ -58,12 +60,29 @@ public final class EncodingServiceBuilder {
 
     private static final int DEFAULT_MIN_BYTES_TO_FORCE_CHUNKED_AND_ENCODING = 1024;
 
+    private static final int DEFAULT_MAX_COMPRESSED_RESPONSE_CACHE_ENTRY_SIZE_BYTES = 1048576;
+
     private Predicate<MediaType> encodableContentTypePredicate = defaultEncodableContentTypePredicate;
 
     private Predicate<? super RequestHeaders> encodableRequestHeadersPredicate = headers -> true;
 
     private int minBytesToForceChunkedAndEncoding = DEFAULT_MIN_BYTES_TO_FORCE_CHUNKED_AND_ENCODING;
 
+    private long compressedResponseCacheSizeBytes;
+
+    private int maxCompressedResponseCacheEntrySizeBytes =
+            DEFAULT_MAX_COMPRESSED_RESPONSE_CACHE_ENTRY_SIZE_BYTES;
+
+    private Predicate<? super ResponseHeaders> cacheableResponsePredicate =
+            CompressedResponseCache::isShareable;
+
+    /**
+     * The {@link CompressedResponseCache} shared by all {@link EncodingService}s built by this builder.
+     * Created lazily and reset whenever one of its properties changes.
+     */
+    @Nullable
+    private CompressedResponseCache compressedResponseCache;
+
     EncodingServiceBuilder() {}
 
     /**
@@ -120,12 +139,82 @@ public final class EncodingServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum total size of the compressed response bodies to cache, in bytes. When set to
+     * a positive value, the content of a cacheable response with a {@code "Content-Length"} header is
+     * aggregated and looked up by its hash, so that the same content is not compressed again.
+     * The cached bodies are bounded by their compressed length. The default is {@code 0}, which disables
+     * the cache.
+     *
+     * @see #maxCompressedResponseCacheEntrySizeBytes(int)
+     * @see #cacheableResponses(Predicate)
+     */
+    @UnstableApi
+    public EncodingServiceBuilder compressedResponseCacheSizeBytes(long compressedResponseCacheSizeBytes) {
+        checkArgument(compressedResponseCacheSizeBytes >= 0,
+                      "compressedResponseCacheSizeBytes: %s (expected: >= 0)",
+                      compressedResponseCacheSizeBytes);
+        this.compressedResponseCacheSizeBytes = compressedResponseCacheSizeBytes;
+        compressedResponseCache = null;
+        return this;
+    }
+
+    /**
+     * Sets the maximum uncompressed length of a response whose compressed form is cached. A response whose
+     * {@code "Content-Length"} exceeds this value is compressed as it streams. The default is
+     * {@value DEFAULT_MAX_COMPRESSED_RESPONSE_CACHE_ENTRY_SIZE_BYTES}.
+     */
+    @UnstableApi
+    public EncodingServiceBuilder maxCompressedResponseCacheEntrySizeBytes(
+            int maxCompressedResponseCacheEntrySizeBytes) {
+        checkArgument(maxCompressedResponseCacheEntrySizeBytes > 0,
+                      "maxCompressedResponseCacheEntrySizeBytes: %s (expected: > 0)",
+                      maxCompressedResponseCacheEntrySizeBytes);
+        this.maxCompressedResponseCacheEntrySizeBytes = maxCompressedResponseCacheEntrySizeBytes;
+        compressedResponseCache = null;
+        return this;
+    }
+
+    /**
+     * Sets the specified {@link Predicate} to evaluate whether the compressed form of the
+     * {@link HttpResponse} whose {@link ResponseHeaders} is the input of the {@link Predicate} is cached.
+     * By default, only the responses whose {@code "cache-control"} header has the {@code public} or
+     * {@code immutable} directive, without {@code private}, {@code no-store} or a {@code "set-cookie"}
+     * header, are cached.
+     *
+     * @see #compressedResponseCacheSizeBytes(long)
+     */
+    @UnstableApi
+    public EncodingServiceBuilder cacheableResponses(
+            Predicate<? super ResponseHeaders> cacheableResponsePredicate) {
+        this.cacheableResponsePredicate = requireNonNull(cacheableResponsePredicate,
+                                                         "cacheableResponsePredicate");
+        compressedResponseCache = null;
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link EncodingService} based on the properties of this builder.
+     * The {@link EncodingService}s built by the same builder share the compressed response cache,
+     * so a decorator applied to many routes is bounded by
+     * {@link #compressedResponseCacheSizeBytes(long)} as a whole.
      */
     public EncodingService build(HttpService delegate) {
         return new EncodingService(delegate, encodableContentTypePredicate, encodableRequestHeadersPredicate,
-                                   minBytesToForceChunkedAndEncoding);
+                                   minBytesToForceChunkedAndEncoding, compressedResponseCache());
+    }
+
+    @Nullable
+    private CompressedResponseCache compressedResponseCache() {
+        if (compressedResponseCacheSizeBytes <= 0) {
+            return null;
+        }
+        if (compressedResponseCache == null) {
+            compressedResponseCache = new CompressedResponseCache(compressedResponseCacheSizeBytes,
+                                                                  maxCompressedResponseCacheEntrySizeBytes,
+                                                                  cacheableResponsePredicate);
+        }
+        return compressedResponseCache;
     }
 
     /**
@@ -57,6 +57,8 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
     private final Predicate<MediaType> encodableContentTypePredicate;
     private final long minBytesToForceChunkedAndEncoding;
     private final ByteBufAllocator alloc;
+    @Nullable
+    private final CompressedResponseCache cache;
 
     @VisibleForTesting
     @Nullable
@@ -69,16 +71,40 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
 
     private boolean encoderClosed;
 
+    /**
+     * The buffer that aggregates the content of a response whose compressed form is looked up from
+     * the {@link #cache}. {@code null} if the content is encoded as it streams.
+     */
+    @Nullable
+    private ByteBuf aggregatedContent;
+    private long expectedContentLength;
+    /**
+     * Whether the compressed form of the aggregated content has been sent. Any content after that exceeds
+     * the {@code "Content-Length"} and cannot be appended to the compressed body.
+     */
+    private boolean aggregatedContentSent;
+
     HttpEncodedResponse(HttpResponse delegate,
                         HttpEncodingType encodingType,
                         Predicate<MediaType> encodableContentTypePredicate,
                         ByteBufAllocator alloc,
                         long minBytesToForceChunkedAndEncoding) {
+        this(delegate, encodingType, encodableContentTypePredicate, alloc, minBytesToForceChunkedAndEncoding,
+             null);
+    }
+
+    HttpEncodedResponse(HttpResponse delegate,
+                        HttpEncodingType encodingType,
+                        Predicate<MediaType> encodableContentTypePredicate,
+                        ByteBufAllocator alloc,
+                        long minBytesToForceChunkedAndEncoding,
+                        @Nullable CompressedResponseCache cache) {
         super(delegate);
         this.encodingType = encodingType;
         this.encodableContentTypePredicate = encodableContentTypePredicate;
         this.alloc = alloc;
         this.minBytesToForceChunkedAndEncoding = minBytesToForceChunkedAndEncoding;
+        this.cache = cache;
     }
 
     @Override
@@ -102,17 +128,14 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
                 return obj;
             }
 
-            final ByteBuf buf;
             final long contentLength = headers.contentLength();
-            if (contentLength > 0) {
-                // A compression ratio heavily depends on the content but the compression ratio is higher than
-                // 50% in common cases.
-                buf = alloc.buffer(Ints.saturatedCast(contentLength) / 2);
+            if (cache != null && cache.isCacheable(headers)) {
+                // Aggregate the content so that its compressed form can be looked up from the cache.
+                expectedContentLength = contentLength;
+                aggregatedContent = alloc.heapBuffer(Ints.saturatedCast(contentLength));
             } else {
-                buf = alloc.buffer();
+                initEncodingStream(contentLength);
             }
-            encodedStream = new ByteBufOutputStream(buf);
-            encodingStream = HttpEncoders.getEncodingOutputStream(encodingType, encodedStream);
 
             final ResponseHeadersBuilder mutable = headers.toBuilder();
             // Always use chunked encoding when compressing.
@@ -127,6 +150,9 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
                 case BROTLI:
                     mutable.set(HttpHeaderNames.CONTENT_ENCODING, "br");
                     break;
+                case ZSTD:
+                    mutable.set(HttpHeaderNames.CONTENT_ENCODING, "zstd");
+                    break;
             }
             mutable.set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING.toString());
             return mutable.build();
@@ -137,13 +163,44 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
             return obj;
         }
 
+        if (aggregatedContent != null) {
+            return aggregate((HttpData) obj);
+        }
+
+        if (aggregatedContentSent) {
+            final HttpData data = (HttpData) obj;
+            if (data.isEmpty()) {
+                return data;
+            }
+            throw new IllegalStateException(
+                    "content exceeds content-length: " + expectedContentLength + " (received: " +
+                    (expectedContentLength + data.length()) + " bytes or more)");
+        }
+
         if (encodingStream == null) {
             // Encoding was disabled for this response.
             return obj;
         }
 
-        final HttpData data = (HttpData) obj;
-        assert encodedStream != null;
+        return encode((HttpData) obj);
+    }
+
+    private void initEncodingStream(long contentLength) {
+        final ByteBuf buf;
+        if (contentLength > 0) {
+            // A compression ratio heavily depends on the content but the compression ratio is higher
+            // than 50% in common cases.
+            buf = alloc.buffer(Ints.saturatedCast(contentLength) / 2);
+        } else {
+            buf = alloc.buffer();
+        }
+        encodedStream = new ByteBufOutputStream(buf);
+        encodingStream = HttpEncoders.getEncodingOutputStream(encodingType, encodedStream);
+    }
+
+    private HttpData encode(HttpData data) {
+        final OutputStream encodingStream = this.encodingStream;
+        assert encodingStream != null && encodedStream != null;
         try {
             encodingStream.write(data.array());
             encodingStream.flush();
@@ -159,8 +216,67 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
         }
     }
 
+    private HttpData aggregate(HttpData data) {
+        final ByteBuf aggregatedContent = this.aggregatedContent;
+        assert aggregatedContent != null;
+        if (aggregatedContent.readableBytes() + data.length() > expectedContentLength) {
+            // The content is longer than its content-length. Compress it as it streams instead of
+            // caching the compressed form of the content that does not match the headers.
+            bypassCache();
+            return encode(data);
+        }
+        aggregatedContent.writeBytes(data.array());
+        if (aggregatedContent.readableBytes() < expectedContentLength) {
+            // Send nothing until the last chunk arrives. The empty placeholder is dropped by
+            // EncodingService.
+            return HttpData.empty();
+        }
+        return encodeAggregatedContent();
+    }
+
+    /**
+     * Stops aggregating the content and feeds what has been aggregated so far to a new encoding stream.
+     */
+    private void bypassCache() {
+        final ByteBuf aggregatedContent = this.aggregatedContent;
+        assert aggregatedContent != null;
+        this.aggregatedContent = null;
+        try {
+            initEncodingStream(expectedContentLength);
+            assert encodingStream != null;
+            encodingStream.write(aggregatedContent.array(),
+                                 aggregatedContent.arrayOffset() + aggregatedContent.readerIndex(),
+                                 aggregatedContent.readableBytes());
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Error encoding HttpData, this should not happen with byte arrays.", e);
+        } finally {
+            aggregatedContent.release();
+        }
+    }
+
+    private HttpData encodeAggregatedContent() {
+        final ByteBuf aggregatedContent = this.aggregatedContent;
+        assert aggregatedContent != null && cache != null;
+        this.aggregatedContent = null;
+        aggregatedContentSent = true;
+        try {
+            return HttpData.wrap(cache.encode(encodingType, aggregatedContent.array(),
+                                              aggregatedContent.arrayOffset() +
+                                              aggregatedContent.readerIndex(),
+                                              aggregatedContent.readableBytes()));
+        } finally {
+            aggregatedContent.release();
+        }
+    }
+
     @Override
     protected void beforeComplete(Subscriber<? super HttpObject> subscriber) {
+        if (aggregatedContent != null) {
+            // The response ended before its content-length was reached. Don't cache the truncated content.
+            bypassCache();
+        }
+
         closeEncoder(false);
         if (encodedStream == null) {
             return;
@@ -183,15 +299,24 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
 
     @Override
     protected Throwable beforeError(Subscriber<? super HttpObject> subscriber, Throwable cause) {
+        releaseAggregatedContent();
         closeEncoder(true);
         return cause;
     }
 
     @Override
     protected void onCancellation(Subscriber<? super HttpObject> subscriber) {
+        releaseAggregatedContent();
         closeEncoder(true);
     }
 
+    private void releaseAggregatedContent() {
+        if (aggregatedContent != null) {
+            aggregatedContent.release();
+            aggregatedContent = null;
+        }
+    }
+
     private void closeEncoder(boolean releaseEncodedBuf) {
         if (encoderClosed) {
             return;
@@ -210,6 +335,14 @@ final class HttpEncodedResponse extends FilteredHttpResponse {
         }
     }
 
+    /**
+     * Returns {@code false} if the specified {@link HttpObject} is an empty {@link HttpData}, such as
+     * the placeholder emitted while the content is aggregated.
+     */
+    static boolean isNotEmptyData(HttpObject obj) {
+        return !(obj instanceof HttpData) || !((HttpData) obj).isEmpty();
+    }
+
     private boolean shouldEncodeResponse(ResponseHeaders headers) {
         if (headers.status().isContentAlwaysEmpty()) {
             return false;
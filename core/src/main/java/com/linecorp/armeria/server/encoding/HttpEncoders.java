@@ -27,12 +27,14 @@ import java.util.zip.GZIPOutputStream;
 
 import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
 import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.ZstdOutputStream;
 
 import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.annotation.Nullable;
 
 import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.Zstd;
 
 /**
  * Support utilities for dealing with HTTP encoding (e.g., gzip).
@@ -76,6 +78,13 @@ final class HttpEncoders {
                     throw new IllegalStateException(
                             "Error writing brotli header. This should not happen with byte arrays.", e);
                 }
+            case ZSTD:
+                try {
+                    return ZstdEncoder.newOutputStream(out);
+                } catch (IOException e) {
+                    throw new IllegalStateException(
+                            "Error writing zstd header. This should not happen with byte arrays.", e);
+                }
             default:
                 throw new IllegalArgumentException("Unexpected zlib type, this is a programming bug.");
         }
@@ -101,6 +110,8 @@ final class HttpEncoders {
                 starQ = q;
             } else if (encoding.contains("br") && Brotli.isAvailable()) {
                 encodings.put(HttpEncodingType.BROTLI, q);
+            } else if (encoding.contains("zstd") && Zstd.isAvailable()) {
+                encodings.put(HttpEncodingType.ZSTD, q);
             } else if (encoding.contains("gzip")) {
                 encodings.put(HttpEncodingType.GZIP, q);
             } else if (encoding.contains("deflate")) {
@@ -130,4 +141,17 @@ final class HttpEncoders {
     }
 
     private HttpEncoders() {}
+
+    /**
+     * Isolates the references to {@code zstd-jni}, which is an optional dependency, so that the classes are
+     * loaded only when {@link Zstd#isAvailable()} returns {@code true}.
+     */
+    private static final class ZstdEncoder {
+
+        static OutputStream newOutputStream(OutputStream out) throws IOException {
+            return new ZstdOutputStream(out);
+        }
+
+        private ZstdEncoder() {}
+    }
 }
@@ -22,5 +22,6 @@ package com.linecorp.armeria.server.encoding;
 enum HttpEncodingType {
     GZIP,
     DEFLATE,
-    BROTLI
+    BROTLI,
+    ZSTD
 }
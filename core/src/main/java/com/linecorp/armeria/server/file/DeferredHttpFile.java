@@ -146,6 +146,14 @@ final class DeferredHttpFile implements HttpFile {
         }));
     }
 
+    /**
+     * Returns the {@link HttpFile} this file delegates to, or {@code null} if it is not determined yet.
+     */
+    @Nullable
+    HttpFile delegate() {
+        return delegate;
+    }
+
     private void setDelegate(@Nullable HttpFile delegate) {
         if (delegate == null) {
             if (!warnedNullDelegate) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.file;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.internal.common.FileRegionHttpData;
+
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * An {@link HttpFile} which streams the content of a {@link FileSystemHttpFile} as
+ * {@link FileRegionHttpData}s, so that the content is sent without being copied into the user space when
+ * the connection allows it.
+ */
+final class FileRegionHttpFile extends AbstractHttpFile {
+
+    /**
+     * The maximum length of a single {@link FileRegionHttpData}. Note that a region is read into memory
+     * when its content has to be transformed, e.g. by a decorator.
+     */
+    private static final int MAX_REGION_LENGTH = 4 * 1024 * 1024;
+
+    private final FileSystemHttpFile file;
+
+    FileRegionHttpFile(FileSystemHttpFile file) {
+        super(requireNonNull(file, "file").contentType(), file.clock(), file.isDateEnabled(),
+              file.isLastModifiedEnabled(), file.entityTagFunction(), file.additionalHeaders());
+        this.file = file;
+    }
+
+    @Override
+    protected String pathOrUri() {
+        return file.pathOrUri();
+    }
+
+    @Override
+    public CompletableFuture<HttpFileAttributes> readAttributes(Executor fileReadExecutor) {
+        return file.readAttributes(fileReadExecutor);
+    }
+
+    @Override
+    protected HttpResponse doRead(ResponseHeaders headers, long length,
+                                  Executor fileReadExecutor, ByteBufAllocator alloc) {
+        final HttpResponseWriter res = HttpResponse.streaming();
+        res.write(headers);
+        write(res, 0, length);
+        return res;
+    }
+
+    private void write(HttpResponseWriter res, long offset, long end) {
+        final int regionLength = (int) Math.min(MAX_REGION_LENGTH, end - offset);
+        final long nextOffset = offset + regionLength;
+        final boolean endOfStream = nextOffset == end;
+        if (!res.tryWrite(new FileRegionHttpData(file.path(), offset, regionLength, endOfStream))) {
+            return;
+        }
+
+        if (endOfStream) {
+            res.close();
+            return;
+        }
+
+        res.whenConsumed().thenRun(() -> write(res, nextOffset, end));
+    }
+
+    @Override
+    public CompletableFuture<AggregatedHttpFile> aggregate(Executor fileReadExecutor) {
+        return file.aggregate(fileReadExecutor);
+    }
+
+    @Override
+    public CompletableFuture<AggregatedHttpFile> aggregateWithPooledObjects(Executor fileReadExecutor,
+                                                                            ByteBufAllocator alloc) {
+        return file.aggregateWithPooledObjects(fileReadExecutor, alloc);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("file", file)
+                          .toString();
+    }
+}
@@ -35,7 +35,9 @@ import org.slf4j.LoggerFactory;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy.Eviction;
 import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Sets;
 
@@ -44,6 +46,7 @@ import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.encoding.StreamDecoder;
 import com.linecorp.armeria.common.encoding.StreamDecoderFactory;
@@ -151,6 +154,13 @@ public final class FileService extends AbstractHttpService {
 
     private static Cache<PathAndEncoding, AggregatedHttpFile> newCache(String cacheSpec) {
         final Caffeine<Object, Object> b = Caffeine.from(cacheSpec);
+        if (isWeighted(cacheSpec)) {
+            // Weigh an entry by the length of its content so that the cache is bounded by bytes.
+            b.weigher((Weigher<PathAndEncoding, AggregatedHttpFile>) (key, value) -> {
+                final HttpData data = value.content();
+                return data != null ? data.length() : 0;
+            });
+        }
         b.recordStats()
          .removalListener((RemovalListener<PathAndEncoding, AggregatedHttpFile>) (key, value, cause) -> {
              if (value != null) {
@@ -163,6 +173,15 @@ public final class FileService extends AbstractHttpService {
         return b.build();
     }
 
+    private static boolean isWeighted(String cacheSpec) {
+        for (String option : COMMA_SPLITTER.trimResults().split(cacheSpec)) {
+            if (option.startsWith("maximumWeight")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void serviceAdded(ServiceConfig cfg) throws Exception {
         final MeterRegistry registry = cfg.server().meterRegistry();
@@ -175,6 +194,12 @@ public final class FileService extends AbstractHttpService {
                                       "vfs", config.vfs().meterTag());
 
             CaffeineMetricSupport.setup(registry, meterIdPrefix, cache);
+            if (cache.policy().eviction().map(Eviction::isWeighted).orElse(false)) {
+                registry.gauge(meterIdPrefix.name("weighted.size"), meterIdPrefix.tags(), cache,
+                               c -> c.policy().eviction()
+                                     .map(eviction -> eviction.weightedSize().orElse(0))
+                                     .orElse(0L));
+            }
         }
     }
 
@@ -345,7 +370,7 @@ public final class FileService extends AbstractHttpService {
                                                          config.mediaTypeResolver()
                                                                .guessFromPath(path, encoding.headerValue));
                     } else {
-                        return uncachedFile;
+                        return maybeUseFileRegion(ctx, uncachedFile);
                     }
                 }
                 return null;
@@ -361,7 +386,7 @@ public final class FileService extends AbstractHttpService {
             if (uncachedAttrs.length() > config.maxCacheEntrySizeBytes()) {
                 // Invalidate the cache just in case the file was small previously.
                 cache.invalidate(pathAndEncoding);
-                return uncachedFile;
+                return maybeUseFileRegion(ctx, uncachedFile);
             }
 
             @Nullable
@@ -384,6 +409,34 @@ public final class FileService extends AbstractHttpService {
         });
     }
 
+    private HttpFile maybeUseFileRegion(ServiceRequestContext ctx, HttpFile uncachedFile) {
+        // A FileRegion can't be used with TLS or HTTP/2, which requires the content to be copied anyway.
+        if (!config.useFileRegion() || ctx.sessionProtocol() != SessionProtocol.H1C) {
+            return uncachedFile;
+        }
+        // A decorator may read the content on an event loop, which FileRegionHttpData does not allow.
+        if (ctx.config().service() != this) {
+            return uncachedFile;
+        }
+
+        @Nullable
+        final FileSystemHttpFile file = fileSystemFile(uncachedFile);
+        if (file != null) {
+            return new FileRegionHttpFile(file);
+        }
+        return uncachedFile;
+    }
+
+    @Nullable
+    private static FileSystemHttpFile fileSystemFile(HttpFile uncachedFile) {
+        HttpFile file = uncachedFile;
+        if (file instanceof DeferredHttpFile) {
+            // The delegate has been determined already because the attributes were read.
+            file = ((DeferredHttpFile) file).delegate();
+        }
+        return file instanceof FileSystemHttpFile ? (FileSystemHttpFile) file : null;
+    }
+
     private CompletableFuture<@Nullable HttpFile> findFileAndDecompress(
             ServiceRequestContext ctx, String path, Set<ContentEncoding> supportedEncodings) {
         // Look up a non-compressed file first to avoid extra decompression
@@ -404,7 +457,17 @@ public final class FileService extends AbstractHttpService {
         final Executor executor = ctx.blockingTaskExecutor();
         final ByteBufAllocator alloc = ctx.alloc();
 
-        return HttpFile.from(uncachedFile.aggregateWithPooledObjects(executor, alloc).thenApply(aggregated -> {
+        final CompletableFuture<AggregatedHttpFile> future;
+        @Nullable
+        final FileSystemHttpFile fileSystemFile = config.memoryMappedCache() && !decompress ?
+                                                  fileSystemFile(uncachedFile) : null;
+        if (fileSystemFile != null) {
+            future = fileSystemFile.aggregateMapped(executor);
+        } else {
+            future = uncachedFile.aggregateWithPooledObjects(executor, alloc);
+        }
+
+        return HttpFile.from(future.thenApply(aggregated -> {
             if (decompress && encoding != null) {
                 assert aggregated instanceof HttpDataFile;
                 aggregated = decompress((HttpDataFile) aggregated, encoding, alloc);
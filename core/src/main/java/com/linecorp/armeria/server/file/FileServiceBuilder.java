@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.server.file;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.linecorp.armeria.server.file.FileServiceConfig.validateEntryCacheSpec;
 import static com.linecorp.armeria.server.file.FileServiceConfig.validateMaxCacheEntrySizeBytes;
@@ -35,6 +36,10 @@ import com.linecorp.armeria.common.HttpHeadersBuilder;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.server.encoding.EncodingService;
+
+import io.netty.channel.FileRegion;
 
 /**
  * Builds a new {@link FileService} and its {@link FileServiceConfig}. Use the factory methods in
@@ -59,6 +64,8 @@ public final class FileServiceBuilder {
     @Nullable
     HttpHeadersBuilder headers;
     MediaTypeResolver mediaTypeResolver = MediaTypeResolver.ofDefault();
+    boolean useFileRegion;
+    boolean memoryMappedCache;
 
     FileServiceBuilder(HttpVfs vfs) {
         this.vfs = requireNonNull(vfs, "vfs");
@@ -78,7 +85,7 @@ public final class FileServiceBuilder {
      */
     public FileServiceBuilder maxCacheEntries(int maxCacheEntries) {
         checkState(canSetMaxCacheEntries,
-                   "Cannot call maxCacheEntries() if called entryCacheSpec() already.");
+                   "Cannot call maxCacheEntries() if called entryCacheSpec() or maxCacheSizeBytes() already.");
         validateNonNegativeParameter(maxCacheEntries, "maxCacheEntries");
         if (maxCacheEntries == 0) {
             entryCacheSpec = null;
@@ -89,6 +96,29 @@ public final class FileServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum total size of the cached file content in bytes. Unlike
+     * {@link #maxCacheEntries(int)}, the cache is bounded by the length of the cached content rather than
+     * the number of entries. Specifying {@code 0} disables the cache. Note that a Caffeine specification
+     * string with {@code maximumWeight} given to {@link #entryCacheSpec(String)} or
+     * {@link Flags#fileServiceCacheSpec()} is also interpreted as the maximum size in bytes.
+     */
+    @UnstableApi
+    public FileServiceBuilder maxCacheSizeBytes(long maxCacheSizeBytes) {
+        checkState(canSetMaxCacheEntries,
+                   "Cannot call maxCacheSizeBytes() if called entryCacheSpec() or maxCacheEntries() already.");
+        checkArgument(maxCacheSizeBytes >= 0,
+                      "maxCacheSizeBytes: %s (expected: >= 0)", maxCacheSizeBytes);
+        if (maxCacheSizeBytes == 0) {
+            entryCacheSpec = null;
+        } else {
+            entryCacheSpec = String.format("maximumWeight=%d", maxCacheSizeBytes);
+        }
+        canSetMaxCacheEntries = false;
+        canSetEntryCacheSpec = false;
+        return this;
+    }
+
     /**
      * Sets the {@linkplain CaffeineSpec Caffeine specification string} of the cache that stores the content
      * of the {@link HttpFile}s read by the {@link FileService}.
@@ -97,7 +127,7 @@ public final class FileServiceBuilder {
     public FileServiceBuilder entryCacheSpec(String entryCacheSpec) {
         requireNonNull(entryCacheSpec, "entryCacheSpec");
         checkState(canSetEntryCacheSpec,
-                   "Cannot call entryCacheSpec() if called maxCacheEntries() already.");
+                   "Cannot call entryCacheSpec() if called maxCacheEntries() or maxCacheSizeBytes() already.");
         this.entryCacheSpec = validateEntryCacheSpec(entryCacheSpec);
         canSetMaxCacheEntries = false;
         return this;
@@ -153,6 +183,38 @@ public final class FileServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets whether {@link FileService} transfers the content of a file with a {@link FileRegion},
+     * e.g. {@code sendfile(2)}, so that the content is not copied into the user space. This option takes
+     * effect only for the files which are not served from the cache on a cleartext HTTP/1 connection,
+     * and only when the {@link FileService} is not decorated. The content is read as usual when a decorator,
+     * e.g. an {@link EncodingService}, may transform it, or when it is decompressed by
+     * {@link #autoDecompress(boolean)}.
+     * By default, this feature is disabled.
+     */
+    @UnstableApi
+    public FileServiceBuilder useFileRegion(boolean useFileRegion) {
+        this.useFileRegion = useFileRegion;
+        return this;
+    }
+
+    /**
+     * Sets whether {@link FileService} caches the content of a file in a file system as a memory-mapped
+     * buffer rather than reading it into a buffer. A cached file is served from the mapped buffer without
+     * copying, and its content is kept in the page cache of the operating system instead of the JVM heap or
+     * the pooled direct memory. A mapped region is unmapped when its buffer is garbage-collected after
+     * evicted from the cache. Consider using {@link #maxCacheSizeBytes(long)} with this option so that the
+     * cache is bounded by the total size of the mapped files. By default, this feature is disabled.
+     *
+     * <p>Note that a file must not be truncated while it is mapped, which may crash the JVM on
+     * some operating systems. Enable this option only for immutable files.
+     */
+    @UnstableApi
+    public FileServiceBuilder memoryMappedCache(boolean memoryMappedCache) {
+        this.memoryMappedCache = memoryMappedCache;
+        return this;
+    }
+
     /**
      * Returns the immutable additional {@link HttpHeaders} which will be set when building an
      * {@link HttpResponse}.
@@ -248,12 +310,14 @@ public final class FileServiceBuilder {
         return new FileService(new FileServiceConfig(
                 vfs, clock, entryCacheSpec, maxCacheEntrySizeBytes,
                 serveCompressedFiles, autoDecompress, autoIndex, buildHeaders(),
-                mediaTypeResolver.orElse(MediaTypeResolver.ofDefault())));
+                mediaTypeResolver.orElse(MediaTypeResolver.ofDefault()), useFileRegion,
+                memoryMappedCache));
     }
 
     @Override
     public String toString() {
         return FileServiceConfig.toString(this, vfs, clock, entryCacheSpec, maxCacheEntrySizeBytes,
-                                          serveCompressedFiles, autoIndex, headers, mediaTypeResolver);
+                                          serveCompressedFiles, autoIndex, headers, mediaTypeResolver,
+                                          useFileRegion, memoryMappedCache);
     }
 }
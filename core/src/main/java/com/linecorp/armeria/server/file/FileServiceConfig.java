@@ -28,7 +28,9 @@ import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpHeaders;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 
+import io.netty.channel.FileRegion;
 import io.netty.util.AsciiString;
 
 /**
@@ -46,10 +48,13 @@ public final class FileServiceConfig {
     private final boolean autoIndex;
     private final HttpHeaders headers;
     private final MediaTypeResolver mediaTypeResolver;
+    private final boolean useFileRegion;
+    private final boolean memoryMappedCache;
 
     FileServiceConfig(HttpVfs vfs, Clock clock, @Nullable String entryCacheSpec, int maxCacheEntrySizeBytes,
                       boolean serveCompressedFiles, boolean autoDecompress, boolean autoIndex,
-                      HttpHeaders headers, MediaTypeResolver mediaTypeResolver) {
+                      HttpHeaders headers, MediaTypeResolver mediaTypeResolver, boolean useFileRegion,
+                      boolean memoryMappedCache) {
         this.vfs = requireNonNull(vfs, "vfs");
         this.clock = requireNonNull(clock, "clock");
         this.entryCacheSpec = validateEntryCacheSpec(entryCacheSpec);
@@ -59,6 +64,8 @@ public final class FileServiceConfig {
         this.autoIndex = autoIndex;
         this.headers = requireNonNull(headers, "headers");
         this.mediaTypeResolver = requireNonNull(mediaTypeResolver, "mediaTypeResolver");
+        this.useFileRegion = useFileRegion;
+        this.memoryMappedCache = memoryMappedCache;
     }
 
     @Nullable
@@ -152,17 +159,36 @@ public final class FileServiceConfig {
         return mediaTypeResolver;
     }
 
+    /**
+     * Returns whether the content of a file which is not served from the cache is transferred with
+     * a {@link FileRegion} on a cleartext HTTP/1 connection.
+     */
+    @UnstableApi
+    public boolean useFileRegion() {
+        return useFileRegion;
+    }
+
+    /**
+     * Returns whether the content of a file in a file system is cached as a memory-mapped buffer.
+     */
+    @UnstableApi
+    public boolean memoryMappedCache() {
+        return memoryMappedCache;
+    }
+
     @Override
     public String toString() {
         return toString(this, vfs(), clock(), entryCacheSpec(), maxCacheEntrySizeBytes(),
-                        serveCompressedFiles(), autoIndex(), headers(), mediaTypeResolver());
+                        serveCompressedFiles(), autoIndex(), headers(), mediaTypeResolver(), useFileRegion(),
+                        memoryMappedCache());
     }
 
     static String toString(Object holder, HttpVfs vfs, Clock clock,
                            @Nullable String entryCacheSpec, int maxCacheEntrySizeBytes,
                            boolean serveCompressedFiles, boolean autoIndex,
                            @Nullable Iterable<Entry<AsciiString, String>> headers,
-                           MediaTypeResolver mediaTypeResolver) {
+                           MediaTypeResolver mediaTypeResolver, boolean useFileRegion,
+                           boolean memoryMappedCache) {
 
         return MoreObjects.toStringHelper(holder).omitNullValues()
                           .add("vfs", vfs)
@@ -173,6 +199,8 @@ public final class FileServiceConfig {
                           .add("autoIndex", autoIndex)
                           .add("headers", headers)
                           .add("mediaTypeResolver", mediaTypeResolver)
+                          .add("useFileRegion", useFileRegion)
+                          .add("memoryMappedCache", memoryMappedCache)
                           .toString();
     }
 }
@@ -19,6 +19,8 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
@@ -32,11 +34,13 @@ import java.util.function.BiFunction;
 
 import com.google.common.base.MoreObjects;
 
+import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpHeaders;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.Exceptions;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 final class FileSystemHttpFile extends StreamingHttpFile<ByteChannel> {
 
@@ -55,6 +59,10 @@ final class FileSystemHttpFile extends StreamingHttpFile<ByteChannel> {
         this.path = requireNonNull(path, "path");
     }
 
+    Path path() {
+        return path;
+    }
+
     @Override
     protected String pathOrUri() {
         return path.toString();
@@ -82,6 +90,33 @@ final class FileSystemHttpFile extends StreamingHttpFile<ByteChannel> {
         }, fileReadExecutor);
     }
 
+    /**
+     * Aggregates the content of this file into a memory-mapped buffer rather than reading it into memory.
+     * The mapped region is unmapped when the buffer is garbage-collected.
+     */
+    CompletableFuture<AggregatedHttpFile> aggregateMapped(Executor fileReadExecutor) {
+        return readAttributes(fileReadExecutor).thenApplyAsync(attrs -> {
+            if (attrs == null) {
+                return NonExistentAggregatedHttpFile.INSTANCE;
+            }
+
+            if (attrs.length() > Integer.MAX_VALUE) {
+                return Exceptions.throwUnsafely(
+                        new IOException("too large to aggregate: " + attrs.length() + " bytes"));
+            }
+
+            final ByteBuf buf;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                buf = Unpooled.wrappedBuffer(ch.map(MapMode.READ_ONLY, 0, attrs.length()));
+            } catch (NoSuchFileException e) {
+                return NonExistentAggregatedHttpFile.INSTANCE;
+            } catch (IOException e) {
+                return Exceptions.throwUnsafely(e);
+            }
+            return newAggregatedFile(HttpData.wrap(buf), attrs);
+        }, fileReadExecutor);
+    }
+
     @Override
     protected ByteChannel newStream() throws IOException {
         try {
@@ -217,26 +217,8 @@ public abstract class StreamingHttpFile<T extends Closeable> extends AbstractHtt
                             }
                         }
 
-                        final HttpData data = (array != null ? HttpData.wrap(array)
-                                                             : HttpData.wrap(buf)).withEndOfStream();
-                        final AggregatedHttpFileBuilder builder =
-                                AggregatedHttpFile.builder(data, attrs.lastModifiedMillis())
-                                                  .date(isDateEnabled())
-                                                  .lastModified(isLastModifiedEnabled());
-
-                        if (contentType() != null) {
-                            builder.contentType(contentType());
-                        }
-
-                        final String etag = generateEntityTag(attrs);
-                        if (etag != null) {
-                            builder.entityTag((unused1, unused2) -> etag);
-                        } else {
-                            builder.entityTag(false);
-                        }
-
-                        builder.setHeaders(additionalHeaders());
-                        success = future.complete(builder.build());
+                        final HttpData data = array != null ? HttpData.wrap(array) : HttpData.wrap(buf);
+                        success = future.complete(newAggregatedFile(data, attrs));
                     } catch (Exception e) {
                         future.completeExceptionally(e);
                     } finally {
@@ -257,6 +239,31 @@ public abstract class StreamingHttpFile<T extends Closeable> extends AbstractHtt
         });
     }
 
+    /**
+     * Returns a new {@link AggregatedHttpFile} whose content is the specified {@link HttpData} and whose
+     * headers are generated from the properties of this file.
+     */
+    AggregatedHttpFile newAggregatedFile(HttpData data, HttpFileAttributes attrs) {
+        final AggregatedHttpFileBuilder builder =
+                AggregatedHttpFile.builder(data.withEndOfStream(), attrs.lastModifiedMillis())
+                                  .date(isDateEnabled())
+                                  .lastModified(isLastModifiedEnabled());
+
+        if (contentType() != null) {
+            builder.contentType(contentType());
+        }
+
+        final String etag = generateEntityTag(attrs);
+        if (etag != null) {
+            builder.entityTag((unused1, unused2) -> etag);
+        } else {
+            builder.entityTag(false);
+        }
+
+        builder.setHeaders(additionalHeaders());
+        return builder.build();
+    }
+
     /**
      * Opens a new stream which reads from the file.
      *
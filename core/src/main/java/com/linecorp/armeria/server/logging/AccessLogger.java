@@ -115,7 +115,15 @@ final class AccessLogger {
 
     static String format(List<AccessLogComponent> format, RequestLog log) {
         final StringBuilder message = new StringBuilder();
+        format(message, format, log);
+        return message.toString();
+    }
 
+    /**
+     * Appends an access log message for the specified {@link RequestLog} to the specified
+     * {@link StringBuilder}.
+     */
+    static void format(StringBuilder message, List<AccessLogComponent> format, RequestLog log) {
         for (final AccessLogComponent component : format) {
             final boolean addQuote = component.addQuote();
             try {
@@ -134,7 +142,6 @@ final class AccessLogger {
                 appendEmptyField(message, addQuote);
             }
         }
-        return message.toString();
     }
 
     private static void appendEmptyField(StringBuilder message, boolean addQuote) {
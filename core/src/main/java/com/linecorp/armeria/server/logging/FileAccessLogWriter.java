@@ -0,0 +1,387 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jctools.queues.MpscArrayQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.ThreadFactories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * An {@link AccessLogWriter} that writes access logs to a file from a dedicated thread.
+ *
+ * <p>{@link #log(RequestLog)} only enqueues the {@link RequestLog} into a bounded lock-free queue, so that
+ * an event loop is never blocked by formatting or I/O. The writer thread drains the queue in batches,
+ * formats the access logs with its own reusable buffers and writes them to the file with a
+ * {@link FileChannel}. The file is rolled over when its size exceeds
+ * {@link FileAccessLogWriterBuilder#maxFileSize(long)}.
+ *
+ * <p>If the queue is full, the {@link RequestLog} is dropped rather than blocking the caller.
+ * The following meters are exported:
+ * <ul>
+ *   <li>{@code <prefix>.written} - the number of the access logs written to the file</li>
+ *   <li>{@code <prefix>.dropped} - the number of the access logs dropped due to a full queue</li>
+ *   <li>{@code <prefix>.pending} - the number of the access logs waiting in the queue</li>
+ *   <li>{@code <prefix>.lag} - the time between the end of the response and the write of the access log
+ *       which was written last</li>
+ * </ul>
+ */
+@UnstableApi
+public final class FileAccessLogWriter implements AccessLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileAccessLogWriter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_IDLE_YIELDS = 64;
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Returns a new {@link FileAccessLogWriter} that writes the access logs in the common format to the
+     * specified {@link Path}.
+     */
+    public static FileAccessLogWriter of(Path path) {
+        return builder(path).build();
+    }
+
+    /**
+     * Returns a new {@link FileAccessLogWriterBuilder} that builds a {@link FileAccessLogWriter} which
+     * writes to the specified {@link Path}.
+     */
+    public static FileAccessLogWriterBuilder builder(Path path) {
+        return new FileAccessLogWriterBuilder(requireNonNull(path, "path"));
+    }
+
+    private final Path path;
+    private final List<AccessLogComponent> format;
+    private final MpscArrayQueue<RequestLog> queue;
+    private final int batchSize;
+    private final long maxFileSize;
+    private final int maxBackups;
+    private final Thread writerThread;
+    private final AtomicBoolean writerThreadStarted = new AtomicBoolean();
+    private final CompletableFuture<Void> shutdownFuture = new CompletableFuture<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean shutdownRequested;
+    // Set by the writer thread when it stops writing. The queue is drained under the lock of the queue
+    // since then, so that the queue keeps having a single consumer at a time.
+    private volatile boolean finalDrainStarted;
+    // Set by the writer thread while it is parked or about to park, so that log() wakes it up.
+    private volatile boolean writerThreadSleeping;
+    // Updated by the writer thread only.
+    private volatile long written;
+    private volatile long lagNanos;
+
+    // Accessed by the writer thread only.
+    private final StringBuilder message = new StringBuilder(256);
+    private final CharsetEncoder encoder =
+            StandardCharsets.UTF_8.newEncoder()
+                                  .onMalformedInput(CodingErrorAction.REPLACE)
+                                  .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private char[] chars = new char[256];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    @Nullable
+    private FileChannel channel;
+    private long fileSize;
+    private boolean writeFailureWarned;
+
+    FileAccessLogWriter(Path path, List<AccessLogComponent> format, int queueCapacity, int batchSize,
+                        long maxFileSize, int maxBackups, MeterRegistry meterRegistry,
+                        MeterIdPrefix idPrefix) {
+        this.path = path;
+        this.format = format;
+        queue = new MpscArrayQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxFileSize = maxFileSize;
+        this.maxBackups = maxBackups;
+
+        meterRegistry.more().counter(idPrefix.name("written"), idPrefix.tags(), this, w -> w.written);
+        meterRegistry.more().counter(idPrefix.name("dropped"), idPrefix.tags(), dropped, LongAdder::sum);
+        meterRegistry.gauge(idPrefix.name("pending"), idPrefix.tags(), queue, MpscArrayQueue::size);
+        meterRegistry.more().timeGauge(idPrefix.name("lag"), idPrefix.tags(), this, TimeUnit.NANOSECONDS,
+                                       w -> w.lagNanos);
+
+        // Started lazily by the first log() or shutdown(), so that an unused writer does not hold a thread.
+        writerThread = ThreadFactories.newThreadFactory("armeria-access-log-writer", true)
+                                      .newThread(this::run);
+    }
+
+    @Override
+    public void log(RequestLog log) {
+        requireNonNull(log, "log");
+        if (shutdownRequested || !queue.offer(log)) {
+            dropped.increment();
+            return;
+        }
+        if (finalDrainStarted) {
+            // The writer thread may have stopped before the log was enqueued.
+            // Count what was left behind as dropped because nothing will write it.
+            dropRemaining();
+            return;
+        }
+        if (!writerThreadStarted.get()) {
+            startWriterThread();
+        } else if (writerThreadSleeping) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> shutdown() {
+        shutdownRequested = true;
+        if (!writerThreadStarted.get()) {
+            // Start the writer thread even if nothing was logged, so that it completes the shutdown.
+            startWriterThread();
+        }
+        LockSupport.unpark(writerThread);
+        return shutdownFuture;
+    }
+
+    private void startWriterThread() {
+        if (writerThreadStarted.compareAndSet(false, true)) {
+            writerThread.start();
+        }
+    }
+
+    private void run() {
+        try {
+            int idleCount = 0;
+            for (;;) {
+                if (drain() > 0) {
+                    idleCount = 0;
+                    continue;
+                }
+                if (shutdownRequested && queue.isEmpty()) {
+                    finalDrainStarted = true;
+                    // A log() which passed the shutdownRequested check may have enqueued in the meantime.
+                    dropRemaining();
+                    break;
+                }
+                if (++idleCount <= MAX_IDLE_YIELDS) {
+                    // Back off briefly before parking because more access logs are likely to follow.
+                    Thread.yield();
+                    continue;
+                }
+
+                // Check the queue again after announcing the park, so that a log() which enqueued before
+                // seeing the announcement is not missed. The park is bounded just in case.
+                writerThreadSleeping = true;
+                if (queue.isEmpty() && !shutdownRequested) {
+                    LockSupport.parkNanos(this, MAX_IDLE_PARK_NANOS);
+                }
+                writerThreadSleeping = false;
+            }
+        } catch (Throwable cause) {
+            logger.warn("Unexpected exception while writing access logs to {}", path, cause);
+        } finally {
+            closeChannel();
+            shutdownFuture.complete(null);
+        }
+    }
+
+    private void dropRemaining() {
+        synchronized (queue) {
+            for (;;) {
+                // poll() instead of relaxedPoll() so that an element being enqueued is not missed.
+                if (queue.poll() == null) {
+                    break;
+                }
+                dropped.increment();
+            }
+        }
+    }
+
+    private int drain() {
+        int numLogs = 0;
+        RequestLog last = null;
+        for (; numLogs < batchSize; numLogs++) {
+            final RequestLog log = queue.relaxedPoll();
+            if (log == null) {
+                break;
+            }
+            last = log;
+            try {
+                append(log);
+            } catch (IOException e) {
+                onWriteFailure(e);
+            }
+        }
+
+        if (last == null) {
+            return 0;
+        }
+
+        try {
+            flushBuffer();
+            maybeRollOver();
+        } catch (IOException e) {
+            onWriteFailure(e);
+        }
+        written += numLogs;
+        lagNanos = System.nanoTime() - last.responseEndTimeNanos();
+        return numLogs;
+    }
+
+    private void append(RequestLog log) throws IOException {
+        message.setLength(0);
+        AccessLogger.format(message, format, log);
+        message.append('\n');
+
+        final int length = message.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length << 1)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        message.getChars(0, length, chars, 0);
+        charBuffer.clear().limit(length);
+
+        encoder.reset();
+        for (;;) {
+            final CoderResult result = encoder.encode(charBuffer, buffer, true);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        try {
+            if (!buffer.hasRemaining()) {
+                return;
+            }
+            final FileChannel channel = channel();
+            while (buffer.hasRemaining()) {
+                fileSize += channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        FileChannel channel = this.channel;
+        if (channel == null) {
+            final Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.APPEND);
+            fileSize = channel.size();
+            this.channel = channel;
+        }
+        return channel;
+    }
+
+    private void maybeRollOver() throws IOException {
+        if (fileSize < maxFileSize) {
+            return;
+        }
+
+        closeChannel();
+        if (maxBackups == 0) {
+            Files.deleteIfExists(path);
+            return;
+        }
+
+        Files.deleteIfExists(backupPath(maxBackups));
+        for (int i = maxBackups - 1; i > 0; i--) {
+            final Path backup = backupPath(i);
+            if (Files.exists(backup)) {
+                Files.move(backup, backupPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, backupPath(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path backupPath(int index) {
+        return path.resolveSibling(path.getFileName().toString() + '.' + index);
+    }
+
+    private void closeChannel() {
+        final FileChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        this.channel = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the access log file: {}", path, e);
+        }
+    }
+
+    private void onWriteFailure(IOException cause) {
+        // Reopen the file on the next write.
+        closeChannel();
+        buffer.clear();
+        if (!writeFailureWarned) {
+            writeFailureWarned = true;
+            logger.warn("Failed to write access logs to {}", path, cause);
+        } else {
+            logger.debug("Failed to write access logs to {}", path, cause);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("path", path)
+                          .add("queueCapacity", queue.capacity())
+                          .add("batchSize", batchSize)
+                          .add("maxFileSize", maxFileSize)
+                          .add("maxBackups", maxBackups)
+                          .toString();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.linecorp.armeria.server.logging.AccessLogFormats.parseCustom;
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A builder for {@link FileAccessLogWriter}.
+ */
+@UnstableApi
+public final class FileAccessLogWriterBuilder {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 65536;
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final long DEFAULT_MAX_FILE_SIZE = 1024L * 1024 * 1024;
+    private static final int DEFAULT_MAX_BACKUPS = 10;
+
+    private final Path path;
+    private List<AccessLogComponent> format = AccessLogFormats.COMMON;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+    private int maxBackups = DEFAULT_MAX_BACKUPS;
+    private MeterRegistry meterRegistry = Flags.meterRegistry();
+    private MeterIdPrefix meterIdPrefix = new MeterIdPrefix("armeria.server.access.log.writer");
+
+    FileAccessLogWriterBuilder(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Writes the access logs in the common log format. This is the default.
+     */
+    public FileAccessLogWriterBuilder commonFormat() {
+        format = AccessLogFormats.COMMON;
+        return this;
+    }
+
+    /**
+     * Writes the access logs in the combined log format.
+     */
+    public FileAccessLogWriterBuilder combinedFormat() {
+        format = AccessLogFormats.COMBINED;
+        return this;
+    }
+
+    /**
+     * Writes the access logs in the specified custom format.
+     *
+     * @see AccessLogWriter#custom(String)
+     */
+    public FileAccessLogWriterBuilder format(String formatStr) {
+        requireNonNull(formatStr, "formatStr");
+        final List<AccessLogComponent> format = parseCustom(formatStr);
+        checkArgument(!format.isEmpty(), "Invalid access log format string: %s", formatStr);
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the access logs waiting to be written. The access logs which arrive while
+     * the queue is full are dropped. The default value is {@code 65536}.
+     */
+    public FileAccessLogWriterBuilder queueCapacity(int queueCapacity) {
+        checkArgument(queueCapacity >= 2, "queueCapacity: %s (expected: >= 2)", queueCapacity);
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the access logs written at once by the writer thread.
+     * The default value is {@code 1024}.
+     */
+    public FileAccessLogWriterBuilder batchSize(int batchSize) {
+        checkArgument(batchSize > 0, "batchSize: %s (expected: > 0)", batchSize);
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the size of the access log file in bytes at which the file is rolled over.
+     * The default value is 1 GiB.
+     */
+    public FileAccessLogWriterBuilder maxFileSize(long maxFileSize) {
+        checkArgument(maxFileSize > 0, "maxFileSize: %s (expected: > 0)", maxFileSize);
+        this.maxFileSize = maxFileSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the rolled over files to keep. The rolled over files are renamed with
+     * a numeric suffix, e.g. {@code access.log.1}, where {@code 1} is the most recent one. If {@code 0} is
+     * specified, the access log file is removed when it is rolled over.
+     * The default value is {@code 10}.
+     */
+    public FileAccessLogWriterBuilder maxBackups(int maxBackups) {
+        checkArgument(maxBackups >= 0, "maxBackups: %s (expected: >= 0)", maxBackups);
+        this.maxBackups = maxBackups;
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterRegistry} which collects the number of the written and dropped access logs and
+     * the lag of the writer thread. If unspecified, {@link Flags#meterRegistry()} is used.
+     */
+    public FileAccessLogWriterBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the meters.
+     * If unspecified, {@code "armeria.server.access.log.writer"} is used.
+     */
+    public FileAccessLogWriterBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link FileAccessLogWriter} based on the properties of this builder.
+     * The writer thread is started immediately and stopped by {@link FileAccessLogWriter#shutdown()}.
+     */
+    public FileAccessLogWriter build() {
+        return new FileAccessLogWriter(path, format, queueCapacity, batchSize, maxFileSize, maxBackups,
+                                       meterRegistry, meterIdPrefix);
+    }
+}
@@ -54,6 +54,10 @@ import com.linecorp.armeria.server.ServiceRequestContext;
  * // Dump only live objects that are reachable from others
  * curl -L http://my-service.com/internal/management/jvm/heapdump?live=true -o heapdump.hprof
  * }</pre>
+ *
+ * <h2>Recent requests</h2>
+ * You can keep the recent requests in a fixed-size {@link RequestLogRing} and query them with
+ * {@link RequestLogRing#newQueryService()}, e.g. the top slow paths or the error rate by route.
  */
 @UnstableApi
 public final class ManagementService extends AbstractHttpService {
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.management;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.math.IntMath;
+
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.logging.AccessLogWriter;
+
+/**
+ * An {@link AccessLogWriter} that keeps the most recent {@link RequestLog}s in a fixed-size ring of
+ * primitive columns, so that recent traffic can be inspected without shipping every log to an external store.
+ * Only the timestamp, duration, status, lengths and the interned path, service name and route of each
+ * request are kept; the {@link RequestLog} itself is not retained.
+ * <pre>{@code
+ * RequestLogRing ring = RequestLogRing.of(65536);
+ * Server.builder()
+ *       .accessLogWriter(ring, true)
+ *       .serviceUnder("/internal/management/", ManagementService.of())
+ *       .service("/internal/management/requests", ring.newQueryService())
+ * }</pre>
+ *
+ * <h2>Queries</h2>
+ * The {@link HttpService} returned by {@link #newQueryService()} aggregates the requests that started within
+ * the recent window and returns the groups as a JSON object. The following query parameters are supported:
+ * <ul>
+ *   <li>{@code groupBy} - {@code path} (default), {@code service} or {@code route}</li>
+ *   <li>{@code sortBy} - {@code meanDuration} (default), {@code maxDuration}, {@code count},
+ *       {@code errors} or {@code errorRate}</li>
+ *   <li>{@code windowSeconds} - the length of the window, {@code 60} by default</li>
+ *   <li>{@code limit} - the maximum number of groups, {@code 10} by default</li>
+ *   <li>{@code minStatus} and {@code maxStatus} - the range of the response status codes to include</li>
+ * </ul>
+ * <pre>{@code
+ * // Top slow paths in the last 60 seconds
+ * curl -L http://my-service.com/internal/management/requests?groupBy=path&sortBy=meanDuration
+ * // Error rate by route in the last 5 minutes
+ * curl -L http://my-service.com/internal/management/requests?groupBy=route&sortBy=errorRate&windowSeconds=300
+ * }</pre>
+ *
+ * <p>The number of distinct values interned for each of the path, service name and route is limited.
+ * Once the limit is reached, a value which has not been recorded since the ring wrapped around twice is
+ * replaced by the new value, and the new values are recorded as {@value #OTHER} until such a value is found.
+ * Recording is lock-free and does not allocate on the hot path, but the ring is best-effort: a slot that is
+ * being overwritten while it is read is skipped by the query. The aggregation is performed in
+ * the {@linkplain ServiceRequestContext#blockingTaskExecutor() blocking task executor}.
+ */
+@UnstableApi
+public final class RequestLogRing implements AccessLogWriter {
+
+    /**
+     * The value recorded in place of a path, service name or route once the interning limit is reached.
+     */
+    public static final String OTHER = "<other>";
+
+    private static final int DEFAULT_CAPACITY = 65536;
+    private static final int MAX_CAPACITY = 1 << 20;
+    private static final int DEFAULT_MAX_DISTINCT_VALUES = 4096;
+
+    /**
+     * Returns a new {@link RequestLogRing} that keeps the most recent {@code 65536} requests.
+     */
+    public static RequestLogRing of() {
+        return of(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns a new {@link RequestLogRing} that keeps the most recent {@code capacity} requests.
+     * The {@code capacity} is rounded up to the next power of two and must not be greater than
+     * {@value #MAX_CAPACITY}.
+     */
+    public static RequestLogRing of(int capacity) {
+        return new RequestLogRing(capacity, DEFAULT_MAX_DISTINCT_VALUES);
+    }
+
+    private final int mask;
+    private final AtomicLong writerIndex = new AtomicLong();
+
+    // A slot is being written when its version is negative. Otherwise, the version is the sequence number
+    // of the request recorded in the slot.
+    private final AtomicLongArray versions;
+    private final AtomicLongArray startTimeMicros;
+    private final AtomicLongArray durationNanos;
+    private final AtomicLongArray requestLengths;
+    private final AtomicLongArray responseLengths;
+    private final AtomicIntegerArray statuses;
+    private final AtomicIntegerArray pathIds;
+    private final AtomicIntegerArray serviceIds;
+    private final AtomicIntegerArray routeIds;
+
+    private final Interner paths;
+    private final Interner services;
+    private final Interner routes;
+
+    RequestLogRing(int capacity, int maxDistinctValues) {
+        checkArgument(capacity > 0 && capacity <= MAX_CAPACITY,
+                      "capacity: %s (expected: 0 < capacity <= %s)", capacity, MAX_CAPACITY);
+        checkArgument(maxDistinctValues > 1, "maxDistinctValues: %s (expected: > 1)", maxDistinctValues);
+        final int size = IntMath.ceilingPowerOfTwo(capacity);
+        mask = size - 1;
+        versions = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            versions.set(i, -1);
+        }
+        startTimeMicros = new AtomicLongArray(size);
+        durationNanos = new AtomicLongArray(size);
+        requestLengths = new AtomicLongArray(size);
+        responseLengths = new AtomicLongArray(size);
+        statuses = new AtomicIntegerArray(size);
+        pathIds = new AtomicIntegerArray(size);
+        serviceIds = new AtomicIntegerArray(size);
+        routeIds = new AtomicIntegerArray(size);
+
+        paths = new Interner(maxDistinctValues, writerIndex, size);
+        services = new Interner(maxDistinctValues, writerIndex, size);
+        routes = new Interner(maxDistinctValues, writerIndex, size);
+    }
+
+    /**
+     * Returns the maximum number of requests this ring keeps.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the total number of requests recorded so far, including the ones that have been overwritten.
+     */
+    public long numRecorded() {
+        return writerIndex.get();
+    }
+
+    /**
+     * Returns a new {@link HttpService} that serves the aggregated queries over this ring.
+     */
+    public HttpService newQueryService() {
+        return new RequestLogRingQueryService(this);
+    }
+
+    @Override
+    public void log(RequestLog log) {
+        requireNonNull(log, "log");
+        final RequestContext ctx = log.context();
+        final String serviceName = log.serviceName();
+        final String route;
+        if (ctx instanceof ServiceRequestContext) {
+            route = ((ServiceRequestContext) ctx).config().route().patternString();
+        } else {
+            route = "-";
+        }
+
+        final int pathId = paths.intern(ctx.path());
+        final int serviceId = services.intern(serviceName != null ? serviceName : "-");
+        final int routeId = routes.intern(route);
+
+        final long seq = writerIndex.getAndIncrement();
+        final int slot = (int) seq & mask;
+        versions.set(slot, -1);
+        startTimeMicros.lazySet(slot, log.requestStartTimeMicros());
+        durationNanos.lazySet(slot, log.totalDurationNanos());
+        requestLengths.lazySet(slot, log.requestLength());
+        responseLengths.lazySet(slot, log.responseLength());
+        statuses.lazySet(slot, log.responseHeaders().status().code());
+        pathIds.lazySet(slot, pathId);
+        serviceIds.lazySet(slot, serviceId);
+        routeIds.lazySet(slot, routeId);
+        versions.lazySet(slot, seq);
+    }
+
+    /**
+     * Reads the slot at the specified index into the specified {@link Row}.
+     *
+     * @return {@code false} if the slot is empty or was overwritten while being read.
+     */
+    boolean read(int slot, Row row) {
+        final long version = versions.get(slot);
+        if (version < 0) {
+            return false;
+        }
+        row.startTimeMicros = startTimeMicros.get(slot);
+        row.durationNanos = durationNanos.get(slot);
+        row.requestLength = requestLengths.get(slot);
+        row.responseLength = responseLengths.get(slot);
+        row.status = statuses.get(slot);
+        row.pathId = pathIds.get(slot);
+        row.serviceId = serviceIds.get(slot);
+        row.routeId = routeIds.get(slot);
+        return versions.get(slot) == version;
+    }
+
+    Interner paths() {
+        return paths;
+    }
+
+    Interner services() {
+        return services;
+    }
+
+    Interner routes() {
+        return routes;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("capacity", capacity())
+                          .add("numRecorded", numRecorded())
+                          .toString();
+    }
+
+    /**
+     * A reusable holder of the columns of a slot.
+     */
+    static final class Row {
+        long startTimeMicros;
+        long durationNanos;
+        long requestLength;
+        long responseLength;
+        int status;
+        int pathId;
+        int serviceId;
+        int routeId;
+    }
+
+    /**
+     * Maps a bounded number of distinct {@link String}s to dense {@code int} IDs. ID {@code 0} is reserved
+     * for {@link #OTHER}. Once all IDs are taken, the ID of a value which has not been recorded for
+     * two rounds of the ring is reused, so that no slot of the ring refers to the old value anymore.
+     */
+    static final class Interner {
+
+        // The maximum number of the IDs checked for reuse when a new value is interned.
+        private static final int MAX_EVICTION_PROBES = 16;
+
+        private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<String> values;
+        // The writer index of the ring when each value was last interned. Updated only once in
+        // half a round of the ring so that the hot values do not contend on the array.
+        private final AtomicLongArray lastUsedIndexes;
+        private final AtomicLong writerIndex;
+        private final long ringSize;
+        private volatile int size;
+        // Guarded by 'this'.
+        private int evictionCursor = 1;
+
+        Interner(int maxDistinctValues, AtomicLong writerIndex, int ringSize) {
+            values = new AtomicReferenceArray<>(maxDistinctValues);
+            lastUsedIndexes = new AtomicLongArray(maxDistinctValues);
+            this.writerIndex = writerIndex;
+            this.ringSize = ringSize;
+            values.set(0, OTHER);
+            ids.put(OTHER, 0);
+            size = 1;
+        }
+
+        int intern(String value) {
+            final Integer id = ids.get(value);
+            if (id != null) {
+                final long index = writerIndex.get();
+                if (lastUsedIndexes.get(id) + ringSize / 2 <= index) {
+                    lastUsedIndexes.lazySet(id, index);
+                }
+                return id;
+            }
+            return intern0(value);
+        }
+
+        private synchronized int intern0(String value) {
+            final Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            final long index = writerIndex.get();
+            final int newId = size;
+            if (newId < values.length()) {
+                lastUsedIndexes.set(newId, index);
+                values.set(newId, value);
+                ids.put(value, newId);
+                size = newId + 1;
+                return newId;
+            }
+
+            // Reuse the ID of a value which is not referred to by the ring anymore.
+            for (int i = 0; i < MAX_EVICTION_PROBES; i++) {
+                if (evictionCursor == values.length()) {
+                    evictionCursor = 1;
+                }
+                final int candidate = evictionCursor++;
+                if (lastUsedIndexes.get(candidate) + 2 * ringSize <= index) {
+                    ids.remove(values.get(candidate));
+                    lastUsedIndexes.set(candidate, index);
+                    values.set(candidate, value);
+                    ids.put(value, candidate);
+                    return candidate;
+                }
+            }
+            return 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String value(int id) {
+            return values.get(id);
+        }
+    }
+}
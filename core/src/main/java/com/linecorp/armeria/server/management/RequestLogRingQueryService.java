@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.management;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.common.ExchangeType;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.QueryParams;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.SystemInfo;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.RoutingContext;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.management.RequestLogRing.Interner;
+import com.linecorp.armeria.server.management.RequestLogRing.Row;
+
+final class RequestLogRingQueryService implements HttpService {
+
+    private static final int DEFAULT_WINDOW_SECONDS = 60;
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final RequestLogRing ring;
+
+    RequestLogRingQueryService(RequestLogRing ring) {
+        this.ring = ring;
+    }
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        final QueryParams params = QueryParams.fromQueryString(ctx.query());
+        final String groupBy = params.get("groupBy", "path");
+        final String sortBy = params.get("sortBy", "meanDuration");
+        final int windowSeconds;
+        final int limit;
+        final int minStatus;
+        final int maxStatus;
+        try {
+            windowSeconds = params.getInt("windowSeconds", DEFAULT_WINDOW_SECONDS);
+            limit = params.getInt("limit", DEFAULT_LIMIT);
+            minStatus = params.getInt("minStatus", 0);
+            maxStatus = params.getInt("maxStatus", Integer.MAX_VALUE);
+        } catch (NumberFormatException e) {
+            return badRequest("windowSeconds, limit, minStatus and maxStatus must be integers: " +
+                              e.getMessage());
+        }
+
+        final Interner interner;
+        switch (groupBy) {
+            case "path":
+                interner = ring.paths();
+                break;
+            case "service":
+                interner = ring.services();
+                break;
+            case "route":
+                interner = ring.routes();
+                break;
+            default:
+                return badRequest("groupBy: " + groupBy + " (expected: path, service or route)");
+        }
+        final Comparator<Group> comparator = comparator(sortBy);
+        if (comparator == null) {
+            return badRequest("sortBy: " + sortBy +
+                              " (expected: meanDuration, maxDuration, count, errors or errorRate)");
+        }
+        if (windowSeconds <= 0) {
+            return badRequest("windowSeconds: " + windowSeconds + " (expected: > 0)");
+        }
+        if (limit <= 0) {
+            return badRequest("limit: " + limit + " (expected: > 0)");
+        }
+
+        // Scan the ring in a blocking task executor because a large ring takes a while to scan.
+        return HttpResponse.from(CompletableFuture.supplyAsync(
+                () -> aggregate(interner, groupBy, sortBy, comparator, windowSeconds, limit,
+                                minStatus, maxStatus),
+                ctx.blockingTaskExecutor()));
+    }
+
+    private HttpResponse aggregate(Interner interner, String groupBy, String sortBy,
+                                   Comparator<Group> comparator, int windowSeconds, int limit,
+                                   int minStatus, int maxStatus) {
+        // Accumulate into arrays indexed by the interned IDs so that a scan does not allocate per request.
+        final int numGroups = interner.size();
+        final long[] counts = new long[numGroups];
+        final long[] errors = new long[numGroups];
+        final long[] totalDurationNanos = new long[numGroups];
+        final long[] maxDurationNanos = new long[numGroups];
+        final long[] requestBytes = new long[numGroups];
+        final long[] responseBytes = new long[numGroups];
+
+        final long windowStartMicros =
+                SystemInfo.currentTimeMicros() - TimeUnit.SECONDS.toMicros(windowSeconds);
+        final Row row = new Row();
+        long matched = 0;
+        for (int slot = 0; slot < ring.capacity(); slot++) {
+            if (!ring.read(slot, row) ||
+                row.startTimeMicros < windowStartMicros ||
+                row.status < minStatus || row.status > maxStatus) {
+                continue;
+            }
+            final int id = groupId(groupBy, row);
+            if (id >= numGroups) {
+                // Interned after the scan has started.
+                continue;
+            }
+            matched++;
+            counts[id]++;
+            if (row.status >= 500) {
+                errors[id]++;
+            }
+            totalDurationNanos[id] += row.durationNanos;
+            maxDurationNanos[id] = Math.max(maxDurationNanos[id], row.durationNanos);
+            requestBytes[id] += row.requestLength;
+            responseBytes[id] += row.responseLength;
+        }
+
+        final List<Group> groups = new ArrayList<>();
+        for (int id = 0; id < numGroups; id++) {
+            if (counts[id] > 0) {
+                groups.add(new Group(interner.value(id), counts[id], errors[id], totalDurationNanos[id],
+                                     maxDurationNanos[id], requestBytes[id], responseBytes[id]));
+            }
+        }
+        groups.sort(comparator);
+
+        final List<Map<String, Object>> results = new ArrayList<>(Math.min(limit, groups.size()));
+        for (int i = 0; i < groups.size() && i < limit; i++) {
+            results.add(groups.get(i).toMap());
+        }
+        return HttpResponse.ofJson(ImmutableMap.<String, Object>builder()
+                                               .put("groupBy", groupBy)
+                                               .put("sortBy", sortBy)
+                                               .put("windowSeconds", windowSeconds)
+                                               .put("matched", matched)
+                                               .put("groups", results)
+                                               .build());
+    }
+
+    private static int groupId(String groupBy, Row row) {
+        switch (groupBy) {
+            case "service":
+                return row.serviceId;
+            case "route":
+                return row.routeId;
+            default:
+                return row.pathId;
+        }
+    }
+
+    @Nullable
+    private static Comparator<Group> comparator(String sortBy) {
+        switch (sortBy) {
+            case "meanDuration":
+                return Comparator.comparingDouble(Group::meanDurationNanos).reversed();
+            case "maxDuration":
+                return Comparator.comparingLong((Group g) -> g.maxDurationNanos).reversed();
+            case "count":
+                return Comparator.comparingLong((Group g) -> g.count).reversed();
+            case "errors":
+                return Comparator.comparingLong((Group g) -> g.errors).reversed();
+            case "errorRate":
+                return Comparator.comparingDouble(Group::errorRate).reversed();
+            default:
+                return null;
+        }
+    }
+
+    private static HttpResponse badRequest(String message) {
+        return HttpResponse.of(HttpStatus.BAD_REQUEST, MediaType.PLAIN_TEXT_UTF_8, message);
+    }
+
+    @Override
+    public ExchangeType exchangeType(RoutingContext routingContext) {
+        return ExchangeType.UNARY;
+    }
+
+    private static final class Group {
+        final String key;
+        final long count;
+        final long errors;
+        final long totalDurationNanos;
+        final long maxDurationNanos;
+        final long requestBytes;
+        final long responseBytes;
+
+        Group(String key, long count, long errors, long totalDurationNanos, long maxDurationNanos,
+              long requestBytes, long responseBytes) {
+            this.key = key;
+            this.count = count;
+            this.errors = errors;
+            this.totalDurationNanos = totalDurationNanos;
+            this.maxDurationNanos = maxDurationNanos;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+
+        double meanDurationNanos() {
+            return (double) totalDurationNanos / count;
+        }
+
+        double errorRate() {
+            return (double) errors / count;
+        }
+
+        Map<String, Object> toMap() {
+            return ImmutableMap.<String, Object>builder()
+                               .put("key", key)
+                               .put("count", count)
+                               .put("errors", errors)
+                               .put("errorRate", errorRate())
+                               .put("meanDurationMillis", meanDurationNanos() / 1_000_000)
+                               .put("maxDurationMillis", maxDurationNanos / 1_000_000.0)
+                               .put("requestBytes", requestBytes)
+                               .put("responseBytes", responseBytes)
+                               .build();
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.function.Function;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.SuccessFunction;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
@@ -76,21 +77,22 @@ public final class MetricCollectingService extends SimpleDecoratingHttpService {
 
     private final MeterIdPrefixFunction meterIdPrefixFunction;
     @Nullable
-    private final BiPredicate<? super RequestContext, ? super RequestLog> successFunction;
+    private final SuccessFunction successFunction;
 
     MetricCollectingService(HttpService delegate,
                             MeterIdPrefixFunction meterIdPrefixFunction,
                             @Nullable BiPredicate<? super RequestContext, ? super RequestLog> successFunction) {
         super(delegate);
         this.meterIdPrefixFunction = requireNonNull(meterIdPrefixFunction, "meterIdPrefixFunction");
-        this.successFunction = successFunction;
+        // Convert only once to avoid allocating a method reference for each request.
+        this.successFunction = successFunction != null ? successFunction::test : null;
     }
 
     @Override
     public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
         if (ctx.config().transientServiceOptions().contains(TransientServiceOption.WITH_METRIC_COLLECTION)) {
             RequestMetricSupport.setup(ctx, REQUEST_METRICS_SET, meterIdPrefixFunction, true,
-                                       successFunction != null ? successFunction::test
+                                       successFunction != null ? successFunction
                                                                : ctx.config().successFunction());
         }
         return unwrap().serve(ctx, req);
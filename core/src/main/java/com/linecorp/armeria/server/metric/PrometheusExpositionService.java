@@ -30,6 +30,7 @@ import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.metric.PrometheusLatencyHistogram;
 import com.linecorp.armeria.server.AbstractHttpService;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.TransientHttpService;
@@ -43,6 +44,8 @@ import io.prometheus.client.exporter.common.TextFormat;
 /**
  * Exposes Prometheus metrics in <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">text
  * format 0.0.4 or OpenMetrics format</a>.
+ * Register a {@link PrometheusLatencyHistogram} to the {@link CollectorRegistry} to expose high-resolution
+ * request latency histograms as well.
  */
 public final class PrometheusExpositionService extends AbstractHttpService implements TransientHttpService {
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
+import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoop;
+
+/**
+ * A {@link ThrottlingStrategy} which sheds requests when the queueing delay stays above a target,
+ * in the style of the CoDel (Controlled Delay) active queue management algorithm.
+ *
+ * <p>The queueing delay of a request is the backlog of the event loop which handles the request, measured by
+ * a probe task submitted to the event loop at most once per {@code interval / 10}. The time between
+ * the start of a request and the moment this strategy sees it is not used because the request is decoded
+ * and throttled in the same event loop task, so it is always close to zero. Optionally, the queueing delay
+ * of the blocking task executor is added, measured by a probe task in the same way.
+ *
+ * <p>The minimum queueing delay is tracked for every {@code interval}. If the minimum of the last interval
+ * exceeded the {@code target}, the queue has not drained for the whole interval and the service is
+ * considered to be overloaded; requests whose queueing delay exceeds the {@code target} are rejected.
+ * Otherwise, only the requests that queued longer than the {@code interval} are rejected, which tolerates
+ * short bursts. The state is kept separately for each {@link ServiceConfig}.
+ *
+ * @see ThrottlingStrategy#builderForCodel()
+ */
+final class CodelThrottlingStrategy<T extends Request> extends ThrottlingStrategy<T> {
+
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final boolean includeBlockingTaskExecutor;
+    private final Map<ServiceConfig, QueueState> states = new ConcurrentHashMap<>();
+
+    CodelThrottlingStrategy(long targetNanos, long intervalNanos, boolean includeBlockingTaskExecutor,
+                            @Nullable String name) {
+        super(name);
+        this.targetNanos = targetNanos;
+        this.intervalNanos = intervalNanos;
+        this.includeBlockingTaskExecutor = includeBlockingTaskExecutor;
+    }
+
+    @Override
+    public CompletionStage<Boolean> accept(ServiceRequestContext ctx, T request) {
+        final ServiceConfig config = ctx.config();
+        QueueState state = states.get(config);
+        if (state == null) {
+            state = states.computeIfAbsent(config, unused -> newQueueState(ctx));
+        }
+
+        final long nowNanos = System.nanoTime();
+        final EventLoop eventLoop = ctx.eventLoop().withoutContext();
+        long delayNanos = state.eventLoopProbe(eventLoop).delayNanos(eventLoop, nowNanos);
+        if (includeBlockingTaskExecutor) {
+            delayNanos += state.blockingTaskExecutorProbe.delayNanos(config.blockingTaskExecutor(), nowNanos);
+        }
+        return UnmodifiableFuture.completedFuture(state.accept(delayNanos, nowNanos));
+    }
+
+    private QueueState newQueueState(ServiceRequestContext ctx) {
+        final ServiceConfig config = ctx.config();
+        final MeterIdPrefix idPrefix =
+                new MeterIdPrefix("armeria.server.throttling",
+                                  "name", name(),
+                                  "hostname.pattern", config.virtualHost().hostnamePattern(),
+                                  "route", config.route().patternString());
+        return new QueueState(ctx.meterRegistry(), idPrefix);
+    }
+
+    @VisibleForTesting
+    final class QueueState {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicLong minDelayNanos = new AtomicLong(Long.MAX_VALUE);
+        private final Counter rejectedRequests;
+        private volatile long intervalEndNanos = System.nanoTime() + intervalNanos;
+        private volatile long lastMinDelayNanos;
+        private volatile boolean overloaded;
+
+        private final Map<EventLoop, DelayProbe> eventLoopProbes = new ConcurrentHashMap<>();
+        private final DelayProbe blockingTaskExecutorProbe = new DelayProbe();
+
+        QueueState(MeterRegistry registry, MeterIdPrefix idPrefix) {
+            registry.gauge(idPrefix.name("queueing.delay"), idPrefix.tags(), this,
+                           state -> state.lastMinDelayNanos / (double) TimeUnit.SECONDS.toNanos(1));
+            registry.gauge(idPrefix.name("overloaded"), idPrefix.tags(), this,
+                           state -> state.overloaded ? 1 : 0);
+            rejectedRequests = registry.counter(idPrefix.name("rejected.requests"), idPrefix.tags());
+        }
+
+        boolean accept(long delayNanos, long nowNanos) {
+            if (nowNanos - intervalEndNanos >= 0 && lock.tryLock()) {
+                try {
+                    if (nowNanos - intervalEndNanos >= 0) {
+                        final long minDelayNanos = this.minDelayNanos.getAndSet(Long.MAX_VALUE);
+                        // No requests in the last interval means that nothing was queued.
+                        lastMinDelayNanos = minDelayNanos != Long.MAX_VALUE ? minDelayNanos : 0;
+                        overloaded = lastMinDelayNanos > targetNanos;
+                        intervalEndNanos = nowNanos + intervalNanos;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            for (;;) {
+                final long minDelayNanos = this.minDelayNanos.get();
+                if (delayNanos >= minDelayNanos ||
+                    this.minDelayNanos.compareAndSet(minDelayNanos, delayNanos)) {
+                    break;
+                }
+            }
+
+            final boolean accepted = delayNanos <= (overloaded ? targetNanos : intervalNanos);
+            if (!accepted) {
+                rejectedRequests.increment();
+            }
+            return accepted;
+        }
+
+        DelayProbe eventLoopProbe(EventLoop eventLoop) {
+            final DelayProbe probe = eventLoopProbes.get(eventLoop);
+            if (probe != null) {
+                return probe;
+            }
+            return eventLoopProbes.computeIfAbsent(eventLoop, unused -> new DelayProbe());
+        }
+
+        @VisibleForTesting
+        boolean isOverloaded() {
+            return overloaded;
+        }
+    }
+
+    /**
+     * Measures the queueing delay of an {@link Executor} by submitting a task at most once per
+     * {@code interval / 10} and recording how long it waited before running.
+     */
+    @VisibleForTesting
+    final class DelayProbe {
+
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private volatile long probeStartNanos;
+        private volatile long nextProbeNanos = System.nanoTime();
+        private volatile long delayNanos;
+
+        long delayNanos(Executor executor, long nowNanos) {
+            if (probing.get()) {
+                // The probe is still waiting in the queue, so the delay is at least as long as it waited.
+                return Math.max(delayNanos, nowNanos - probeStartNanos);
+            }
+            if (nowNanos - nextProbeNanos >= 0 && probing.compareAndSet(false, true)) {
+                probeStartNanos = nowNanos;
+                nextProbeNanos = nowNanos + intervalNanos / 10;
+                try {
+                    executor.execute(() -> {
+                        delayNanos = System.nanoTime() - probeStartNanos;
+                        probing.set(false);
+                    });
+                } catch (Throwable t) {
+                    probing.set(false);
+                }
+            }
+            return delayNanos;
+        }
+    }
+}
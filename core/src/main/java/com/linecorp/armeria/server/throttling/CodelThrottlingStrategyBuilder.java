@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+/**
+ * Builds a {@link ThrottlingStrategy} which sheds requests when the queueing delay stays above a target,
+ * in the style of the CoDel (Controlled Delay) algorithm.
+ *
+ * <p>The following meters are exported to {@link ServiceRequestContext#meterRegistry()} for each service:
+ * <ul>
+ *   <li>{@code armeria.server.throttling.queueing.delay} - the minimum queueing delay of the last interval
+ *       in seconds</li>
+ *   <li>{@code armeria.server.throttling.overloaded} - {@code 1} if the service is considered overloaded,
+ *       {@code 0} otherwise</li>
+ *   <li>{@code armeria.server.throttling.rejected.requests} - the number of rejected requests</li>
+ * </ul>
+ *
+ * @see ThrottlingStrategy#builderForCodel()
+ */
+@UnstableApi
+public final class CodelThrottlingStrategyBuilder {
+
+    static final long DEFAULT_TARGET_MILLIS = 5;
+    static final long DEFAULT_INTERVAL_MILLIS = 100;
+
+    private long targetMillis = DEFAULT_TARGET_MILLIS;
+    private long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+    private boolean includeBlockingTaskExecutor;
+    @Nullable
+    private String name;
+
+    CodelThrottlingStrategyBuilder() {}
+
+    /**
+     * Sets the acceptable queueing delay while the service is overloaded.
+     * If unspecified, {@value #DEFAULT_TARGET_MILLIS} milliseconds is used.
+     */
+    public CodelThrottlingStrategyBuilder target(Duration target) {
+        requireNonNull(target, "target");
+        checkArgument(!target.isNegative() && !target.isZero(), "target: %s (expected: > 0)", target);
+        return targetMillis(target.toMillis());
+    }
+
+    /**
+     * Sets the acceptable queueing delay in milliseconds while the service is overloaded.
+     * If unspecified, {@value #DEFAULT_TARGET_MILLIS} milliseconds is used.
+     */
+    public CodelThrottlingStrategyBuilder targetMillis(long targetMillis) {
+        checkArgument(targetMillis > 0, "targetMillis: %s (expected: > 0)", targetMillis);
+        this.targetMillis = targetMillis;
+        return this;
+    }
+
+    /**
+     * Sets the interval over which the minimum queueing delay is tracked. The service is considered to be
+     * overloaded if the queueing delay did not drop below the target during the last interval, and the
+     * requests that queued longer than the interval are always rejected.
+     * If unspecified, {@value #DEFAULT_INTERVAL_MILLIS} milliseconds is used.
+     */
+    public CodelThrottlingStrategyBuilder interval(Duration interval) {
+        requireNonNull(interval, "interval");
+        checkArgument(!interval.isNegative() && !interval.isZero(), "interval: %s (expected: > 0)", interval);
+        return intervalMillis(interval.toMillis());
+    }
+
+    /**
+     * Sets the interval in milliseconds over which the minimum queueing delay is tracked.
+     * If unspecified, {@value #DEFAULT_INTERVAL_MILLIS} milliseconds is used.
+     *
+     * @see #interval(Duration)
+     */
+    public CodelThrottlingStrategyBuilder intervalMillis(long intervalMillis) {
+        checkArgument(intervalMillis > 0, "intervalMillis: %s (expected: > 0)", intervalMillis);
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * Sets whether to add the queueing delay of the {@link ServiceConfig#blockingTaskExecutor()} to the
+     * queueing delay of a request. Enable this option for services that run on the blocking task executor.
+     * This option is disabled by default.
+     */
+    public CodelThrottlingStrategyBuilder includeBlockingTaskExecutor(boolean includeBlockingTaskExecutor) {
+        this.includeBlockingTaskExecutor = includeBlockingTaskExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the name of the {@link ThrottlingStrategy}.
+     */
+    public CodelThrottlingStrategyBuilder name(String name) {
+        this.name = requireNonNull(name, "name");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link ThrottlingStrategy} based on the properties of this builder.
+     */
+    public <T extends Request> ThrottlingStrategy<T> build() {
+        checkState(targetMillis < intervalMillis,
+                   "targetMillis: %s (expected: < intervalMillis(%s))", targetMillis, intervalMillis);
+        return new CodelThrottlingStrategy<>(TimeUnit.MILLISECONDS.toNanos(targetMillis),
+                                             TimeUnit.MILLISECONDS.toNanos(intervalMillis),
+                                             includeBlockingTaskExecutor, name);
+    }
+}
@@ -21,6 +21,7 @@ import java.util.function.BiFunction;
 
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
@@ -113,6 +114,26 @@ public abstract class ThrottlingStrategy<T extends Request> {
         return new RateLimitingThrottlingStrategy<>(requestsPerSecond, name);
     }
 
+    /**
+     * Returns a new {@link ThrottlingStrategy} that rejects requests when the queueing delay stays above
+     * 5 milliseconds for 100 milliseconds, in the style of the CoDel (Controlled Delay) algorithm.
+     *
+     * @see #builderForCodel()
+     */
+    @UnstableApi
+    public static <T extends Request> ThrottlingStrategy<T> codel() {
+        return builderForCodel().build();
+    }
+
+    /**
+     * Returns a new {@link CodelThrottlingStrategyBuilder} that builds a {@link ThrottlingStrategy}
+     * which rejects requests when the queueing delay stays above a target.
+     */
+    @UnstableApi
+    public static CodelThrottlingStrategyBuilder builderForCodel() {
+        return new CodelThrottlingStrategyBuilder();
+    }
+
     private final String name;
 
     /**
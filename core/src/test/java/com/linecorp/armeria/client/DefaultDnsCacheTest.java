@@ -25,6 +25,7 @@ import java.net.UnknownHostException;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.hamcrest.Matchers;
@@ -35,9 +36,12 @@ import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MoreMeters;
 import com.linecorp.armeria.internal.client.dns.ByteArrayDnsRecord;
+import com.linecorp.armeria.internal.client.dns.DnsCacheExtension;
 import com.linecorp.armeria.internal.client.dns.DnsQuestionWithoutTrailingDot;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.dns.DefaultDnsRawRecord;
@@ -293,4 +297,93 @@ class DefaultDnsCacheTest {
         await().untilTrue(evicted);
         assertThat(removed).isFalse();
     }
+
+    @Test
+    void prefetch() throws Exception {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final DnsCacheExtension dnsCache = (DnsCacheExtension) DnsCache.builder()
+                                                                       .ttl(2, 2)
+                                                                       .prefetchRatio(0.5)
+                                                                       .negativeTtl(10)
+                                                                       .meterRegistry(meterRegistry)
+                                                                       .build();
+        final List<DnsRecord> records = ImmutableList.of(newRecord("foo.com.", "1.1.1.0", 2));
+        final AtomicInteger refreshes = new AtomicInteger();
+        dnsCache.cache(query, records);
+        assertThat(dnsCache.get(query, question -> refreshes.incrementAndGet())).isEqualTo(records);
+        assertThat(refreshes).hasValue(0);
+
+        // Hits in the last half of the TTL trigger a single refresh.
+        Thread.sleep(1200);
+        assertThat(dnsCache.get(query, question -> refreshes.incrementAndGet())).isEqualTo(records);
+        assertThat(dnsCache.get(query, question -> refreshes.incrementAndGet())).isEqualTo(records);
+        assertThat(refreshes).hasValue(1);
+
+        // A failed refresh should not replace the valid records.
+        dnsCache.cache(query, new UnknownHostException("not found"));
+        assertThat(dnsCache.get(query)).isEqualTo(records);
+
+        assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.client.dns.cache.lookups#count{result=hit}", 3.0)
+                .containsEntry("armeria.client.dns.cache.refreshes#count{reason=prefetch}", 1.0);
+    }
+
+    @Test
+    void serveStale() throws Exception {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final DnsCacheExtension dnsCache = (DnsCacheExtension) DnsCache.builder()
+                                                                       .ttl(1, 1)
+                                                                       .staleTtl(10)
+                                                                       .negativeTtl(10)
+                                                                       .meterRegistry(meterRegistry)
+                                                                       .build();
+        final List<DnsRecord> records = ImmutableList.of(newRecord("foo.com.", "1.1.1.0", 1));
+        final AtomicReference<List<DnsRecord>> removed = new AtomicReference<>();
+        dnsCache.addListener(new DnsCacheListener() {
+            @Override
+            public void onRemoval(DnsQuestion question, @Nullable List<DnsRecord> records,
+                                  @Nullable UnknownHostException cause) {
+                removed.set(records);
+            }
+
+            @Override
+            public void onEviction(DnsQuestion question, @Nullable List<DnsRecord> records,
+                                   @Nullable UnknownHostException cause) {}
+        });
+        dnsCache.cache(query, records);
+
+        // The listeners are notified when the records become stale.
+        await().untilAtomic(removed, Matchers.is(records));
+        assertThat(dnsCache.get(query)).isNull();
+
+        final AtomicInteger refreshes = new AtomicInteger();
+        assertThat(dnsCache.get(query, question -> refreshes.incrementAndGet())).isEqualTo(records);
+        assertThat(dnsCache.get(query, question -> refreshes.incrementAndGet())).isEqualTo(records);
+        assertThat(refreshes).hasValue(1);
+
+        // Keep serving the stale records if the revalidation fails and retry on the next lookup.
+        dnsCache.cache(query, new UnknownHostException("not found"));
+        assertThat(dnsCache.get(query, question -> refreshes.incrementAndGet())).isEqualTo(records);
+        assertThat(refreshes).hasValue(2);
+
+        final List<DnsRecord> newRecords = ImmutableList.of(newRecord("foo.com.", "1.1.1.1", 1));
+        dnsCache.cache(query, newRecords);
+        assertThat(dnsCache.get(query)).isEqualTo(newRecords);
+
+        assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.client.dns.cache.lookups#count{result=stale}", 3.0)
+                .containsEntry("armeria.client.dns.cache.refreshes#count{reason=stale}", 2.0);
+    }
+
+    @Test
+    void negativeTtlIsBoundedByMaxTtl() throws Exception {
+        final DnsCache dnsCache = DnsCache.builder()
+                                          .ttl(1, 1)
+                                          .negativeTtl(60)
+                                          .build();
+        final UnknownHostException cause = new UnknownHostException("not found");
+        dnsCache.cache(query, cause);
+        assertThatThrownBy(() -> dnsCache.get(query)).isSameAs(cause);
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(dnsCache.get(query)).isNull());
+    }
 }
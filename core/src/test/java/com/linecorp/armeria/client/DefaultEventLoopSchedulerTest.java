@@ -28,12 +28,17 @@ import java.util.concurrent.ThreadLocalRandom;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.metric.MoreMeters;
 import com.linecorp.armeria.common.util.ReleasableHolder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
@@ -308,6 +313,54 @@ class DefaultEventLoopSchedulerTest {
         }
     }
 
+    @Test
+    void preferCallerEventLoop() {
+        final DefaultEventLoopScheduler s =
+                new DefaultEventLoopScheduler(group, 2, 2, ImmutableList.of(), true, new MeterIdPrefix("foo"));
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        s.bindTo(registry);
+        final List<EventLoop> eventLoops = ImmutableList.copyOf(
+                Iterables.transform(group, EventLoop.class::cast));
+
+        // The caller's event loops are used until the maximum number of event loops is reached.
+        final AbstractEventLoopEntry e0 = acquireEntryFrom(s, eventLoops.get(0));
+        assertThat(e0.get()).isSameAs(eventLoops.get(0));
+        final AbstractEventLoopEntry e1 = acquireEntryFrom(s, eventLoops.get(1));
+        assertThat(e1.get()).isSameAs(eventLoops.get(1));
+        final AbstractEventLoopEntry e2 = acquireEntryFrom(s, eventLoops.get(0));
+        assertThat(e2).isSameAs(e0);
+        assertThat(e0.activeRequests()).isEqualTo(2);
+
+        // The third event loop cannot be used for the endpoint.
+        final AbstractEventLoopEntry e3 = acquireEntryFrom(s, eventLoops.get(2));
+        assertThat(e3).isSameAs(e1);
+        assertThat(s.entries(SessionProtocol.HTTP, endpoint, endpoint)).hasSize(2);
+
+        // Not called from an event loop.
+        acquireEntry(s, endpoint);
+
+        assertThat(MoreMeters.measureAll(registry))
+                .containsEntry("foo.acquisitions#count{result=local}", 3.0)
+                .containsEntry("foo.acquisitions#count{result=handoff}", 1.0)
+                .containsEntry("foo.acquisitions#count{result=external}", 1.0);
+
+        s.unbind();
+        assertThat(MoreMeters.measureAll(registry)).isEmpty();
+    }
+
+    @Test
+    void noAcquisitionMetersWithoutPreferringCallerEventLoop() {
+        final DefaultEventLoopScheduler s = defaultEventLoopScheduler();
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        s.bindTo(registry);
+        acquireEntry(s, endpoint);
+        assertThat(MoreMeters.measureAll(registry)).isEmpty();
+    }
+
+    private static AbstractEventLoopEntry acquireEntryFrom(DefaultEventLoopScheduler s, EventLoop eventLoop) {
+        return eventLoop.submit(() -> acquireEntry(s, endpoint)).syncUninterruptibly().getNow();
+    }
+
     private static DefaultEventLoopScheduler defaultEventLoopScheduler() {
         return new DefaultEventLoopScheduler(group, GROUP_SIZE, GROUP_SIZE, ImmutableList.of());
     }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class HttpChannelPoolPrewarmTest {
+
+    private static final int MAX_CONCURRENT_STREAMS = 4;
+
+    private static final Queue<CompletableFuture<HttpResponse>> responses = new ConcurrentLinkedQueue<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/ok", (ctx, req) -> HttpResponse.of(HttpStatus.OK));
+            sb.service("/pending", (ctx, req) -> {
+                final CompletableFuture<HttpResponse> f = new CompletableFuture<>();
+                responses.add(f);
+                return HttpResponse.from(f);
+            });
+            sb.http2MaxStreamsPerConnection(MAX_CONCURRENT_STREAMS);
+        }
+    };
+
+    @AfterEach
+    void completeResponses() {
+        for (;;) {
+            final CompletableFuture<HttpResponse> f = responses.poll();
+            if (f == null) {
+                break;
+            }
+            f.complete(HttpResponse.of(HttpStatus.OK));
+        }
+    }
+
+    @Test
+    void prewarm() {
+        try (ClientFactory factory = ClientFactory.builder().workerGroup(2).build()) {
+            final EndpointGroup endpointGroup = EndpointGroup.of(server.httpEndpoint());
+            factory.prewarm(SessionProtocol.H2C, endpointGroup, 2).join();
+            assertThat(factory.numConnections()).isEqualTo(2);
+
+            final WebClient client = WebClient.builder(SessionProtocol.H2C, endpointGroup)
+                                              .factory(factory)
+                                              .build();
+            try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+                final AggregatedHttpResponse res = client.get("/ok").aggregate().join();
+                assertThat(res.status()).isEqualTo(HttpStatus.OK);
+                final RequestLog log = captor.get().log().whenComplete().join();
+                // The request was sent through a pre-warmed connection.
+                assertThat(log.connectionTimings()).isNull();
+            }
+            assertThat(factory.numConnections()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void prewarmedConnectionIsClosedWhenIdle() {
+        try (ClientFactory factory = ClientFactory.builder()
+                                                  .workerGroup(1)
+                                                  .idleTimeoutMillis(500)
+                                                  .build()) {
+            final EndpointGroup endpointGroup = EndpointGroup.of(server.httpEndpoint());
+            factory.prewarm(SessionProtocol.H2C, endpointGroup, 1).join();
+            assertThat(factory.numConnections()).isOne();
+
+            // No stream is left reserved, so the idle timeout closes the connection.
+            await().untilAsserted(() -> assertThat(factory.numConnections()).isZero());
+        }
+    }
+
+    @Test
+    void spreadStreamsAcrossConnections() {
+        try (ClientFactory factory = ClientFactory.builder()
+                                                  .workerGroup(1)
+                                                  .http2StreamUtilizationThreshold(0.5)
+                                                  .build()) {
+            final WebClient client = WebClient.builder(server.uri(SessionProtocol.H2C))
+                                              .factory(factory)
+                                              .build();
+            final List<CompletableFuture<AggregatedHttpResponse>> futures = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                futures.add(client.get("/pending").aggregate());
+                final int numRequests = i;
+                await().untilAsserted(() -> assertThat(responses).hasSize(numRequests));
+            }
+            // The third stream exceeded the threshold, so a new connection was opened in the background.
+            await().untilAsserted(() -> assertThat(factory.numConnections()).isEqualTo(2));
+
+            try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+                futures.add(client.get("/pending").aggregate());
+                await().untilAsserted(() -> assertThat(responses).hasSize(4));
+                assertThat(captor.get().log().whenAvailable(RequestLogProperty.SESSION).join()
+                                 .connectionTimings()).isNull();
+            }
+            assertThat(factory.numConnections()).isEqualTo(2);
+
+            completeResponses();
+            futures.forEach(f -> assertThat(f.join().status()).isEqualTo(HttpStatus.OK));
+        }
+    }
+
+    @Test
+    void prewarmUnsupportedProtocol() {
+        final EndpointGroup endpointGroup = EndpointGroup.of(server.httpEndpoint());
+        assertThatThrownBy(() -> ClientFactory.ofDefault().prewarm(SessionProtocol.PROXY, endpointGroup, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -46,12 +46,18 @@ class EventCountTest {
 
         assertThat(EventCount.of(0, 1).failureRate()).isEqualTo(1.0);
         assertThat(EventCount.of(1, 1).failureRate()).isEqualTo(0.5);
+
+        assertThatThrownBy(() -> EventCount.of(0, 0).slowRate()).isInstanceOf(ArithmeticException.class);
+
+        assertThat(EventCount.of(1, 1).slowRate()).isEqualTo(0.0);
+        assertThat(EventCount.of(2, 2, 1).slowRate()).isEqualTo(0.25);
     }
 
     @Test
     void testInvalidArguments() {
         assertThatThrownBy(() -> EventCount.of(-1, 0)).isInstanceOf(IllegalArgumentException.class);
         assertThatThrownBy(() -> EventCount.of(0, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventCount.of(0, 1, 2)).isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
@@ -61,5 +67,7 @@ class EventCountTest {
         assertThat(EventCount.of(0, 0)).isEqualTo(EventCount.of(0, 0));
         assertThat(EventCount.of(1, 0)).isNotEqualTo(EventCount.of(0, 0));
         assertThat(EventCount.of(1, 0)).isNotEqualTo(new Object());
+        assertThat(EventCount.of(1, 1, 0)).isEqualTo(EventCount.of(1, 1));
+        assertThat(EventCount.of(1, 1, 1)).isNotEqualTo(EventCount.of(1, 1));
     }
 }
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
@@ -32,6 +33,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+
 class NonBlockingCircuitBreakerTest {
 
     private static final String remoteServiceName = "testService";
@@ -385,4 +390,79 @@ class NonBlockingCircuitBreakerTest {
         verify(listener, times(1)).onEventCountUpdated(name, EventCount.ZERO);
         verify(listener, times(1)).onStateChanged(name, CircuitState.CLOSED);
     }
+
+    @Test
+    void slowCallsAreCountedAsFailures() {
+        final NonBlockingCircuitBreaker cb = createWithSlowCallThreshold(0.5, 1);
+
+        cb.onSuccess(completedContext(Duration.ofMillis(10)));
+        cb.onSuccess(completedContext(Duration.ofSeconds(2)));
+        cb.onSuccess(completedContext(Duration.ofSeconds(2)));
+        ticker.addAndGet(counterUpdateInterval.toNanos());
+        cb.onFailure();
+
+        assertThat(cb.state().isOpen()).isTrue();
+    }
+
+    @Test
+    void slowCallRateThreshold() {
+        final NonBlockingCircuitBreaker cb = createWithSlowCallThreshold(0.9, 0.3);
+
+        cb.onSuccess(completedContext(Duration.ofMillis(10)));
+        cb.onSuccess(completedContext(Duration.ofMillis(10)));
+        cb.onSuccess(completedContext(Duration.ofSeconds(2)));
+        assertThat(cb.state().isClosed()).isTrue();
+        ticker.addAndGet(counterUpdateInterval.toNanos());
+        cb.onFailure();
+
+        // The failure rate is 1/3 but the slow call rate exceeds the threshold.
+        assertThat(cb.state().isOpen()).isTrue();
+    }
+
+    @Test
+    void slowCallIsDetectedWhenResponseEnds() {
+        final NonBlockingCircuitBreaker cb = createWithSlowCallThreshold(0.5, 1);
+        final ClientRequestContext ctx = newContext(Duration.ofSeconds(2));
+        reset(listener);
+
+        // The call is not counted until its response ends.
+        cb.onSuccess(ctx);
+        ctx.logBuilder().endResponse();
+        ticker.addAndGet(counterUpdateInterval.toNanos());
+        cb.onSuccess();
+
+        verify(listener, times(1)).onEventCountUpdated(remoteServiceName, EventCount.of(0, 1, 1));
+    }
+
+    private static NonBlockingCircuitBreaker createWithSlowCallThreshold(double failureRateThreshold,
+                                                                         double slowCallRateThreshold) {
+        return (NonBlockingCircuitBreaker) CircuitBreaker.builder(remoteServiceName)
+                                                         .failureRateThreshold(failureRateThreshold)
+                                                         .minimumRequestThreshold(0)
+                                                         .counterSlidingWindow(Duration.ofSeconds(10))
+                                                         .counterUpdateInterval(counterUpdateInterval)
+                                                         .slowCallThreshold(Duration.ofSeconds(1))
+                                                         .slowCallRateThreshold(slowCallRateThreshold)
+                                                         .listener(listener)
+                                                         .ticker(ticker::get)
+                                                         .build();
+    }
+
+    private static ClientRequestContext newContext(Duration elapsed) {
+        final long startNanos = System.nanoTime() - elapsed.toNanos();
+        final long startMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()) -
+                                 TimeUnit.NANOSECONDS.toMicros(elapsed.toNanos());
+        final ClientRequestContext ctx =
+                ClientRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                    .requestStartTime(startNanos, startMicros)
+                                    .build();
+        ctx.logBuilder().endRequest();
+        return ctx;
+    }
+
+    private static ClientRequestContext completedContext(Duration elapsed) {
+        final ClientRequestContext ctx = newContext(elapsed);
+        ctx.logBuilder().endResponse();
+        return ctx;
+    }
 }
@@ -84,6 +84,25 @@ class SlidingWindowCounterTest {
         assertThat(counter.count()).isEqualTo(EventCount.of(0, 0));
     }
 
+    @Test
+    void testNumBucketsIsCapped() {
+        final SlidingWindowCounter counter = new SlidingWindowCounter(ticker::get, Duration.ofHours(1),
+                                                                      Duration.ofMillis(1));
+
+        assertThat(counter.onSuccess()).isNull();
+
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(counter.onFailure()).isEqualTo(EventCount.of(1, 0));
+
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(counter.onSuccess()).isEqualTo(EventCount.of(1, 1));
+
+        // The events are trimmed once the time slot of their bucket goes out of the window.
+        ticker.addAndGet(TimeUnit.HOURS.toNanos(1) + TimeUnit.MINUTES.toNanos(1));
+        assertThat(counter.onSuccess()).isEqualTo(EventCount.of(0, 0));
+        assertThat(counter.count()).isEqualTo(EventCount.of(0, 0));
+    }
+
     @Test
     void testConcurrentAccess() throws InterruptedException {
         final SlidingWindowCounter counter = new SlidingWindowCounter(
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.internal.testing.AnticipatedException;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class CoalescingClientTest {
+
+    private static final AtomicInteger numRequests = new AtomicInteger();
+    private static volatile CompletableFuture<Void> gate = new CompletableFuture<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/gated", (ctx, req) -> {
+                numRequests.incrementAndGet();
+                return HttpResponse.from(gate.thenApply(unused -> HttpResponse.of("hello")));
+            });
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        numRequests.set(0);
+        gate = new CompletableFuture<>();
+    }
+
+    @Test
+    void concurrentRequestsAreCoalesced() {
+        final WebClient client = WebClient.builder(server.httpUri())
+                                          .decorator(CoalescingClient.newDecorator())
+                                          .build();
+        final List<CompletableFuture<AggregatedHttpResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(client.get("/gated").aggregate());
+        }
+        await().untilAtomic(numRequests, Matchers.is(1));
+
+        gate.complete(null);
+        for (CompletableFuture<AggregatedHttpResponse> response : responses) {
+            assertThat(response.join().contentUtf8()).isEqualTo("hello");
+        }
+        assertThat(numRequests).hasValue(1);
+
+        // A new request is sent once the previous one has completed.
+        await().untilAsserted(() -> {
+            assertThat(client.get("/gated").aggregate().join().contentUtf8()).isEqualTo("hello");
+            assertThat(numRequests).hasValueGreaterThan(1);
+        });
+    }
+
+    @Test
+    void differentKeyHeadersAreNotCoalesced() {
+        final WebClient client = WebClient.builder(server.httpUri())
+                                          .decorator(CoalescingClient.builder()
+                                                                     .keyHeaders(HttpHeaderNames.AUTHORIZATION)
+                                                                     .newDecorator())
+                                          .build();
+        final CompletableFuture<AggregatedHttpResponse> res1 = client.execute(
+                RequestHeaders.of(HttpMethod.GET, "/gated", HttpHeaderNames.AUTHORIZATION, "Bearer a"))
+                                                                     .aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 = client.execute(
+                RequestHeaders.of(HttpMethod.GET, "/gated", HttpHeaderNames.AUTHORIZATION, "Bearer b"))
+                                                                     .aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res3 = client.execute(
+                RequestHeaders.of(HttpMethod.GET, "/gated", HttpHeaderNames.AUTHORIZATION, "Bearer a"))
+                                                                     .aggregate();
+        await().untilAtomic(numRequests, Matchers.is(2));
+
+        gate.complete(null);
+        assertThat(res1.join().status()).isSameAs(HttpStatus.OK);
+        assertThat(res2.join().status()).isSameAs(HttpStatus.OK);
+        assertThat(res3.join().status()).isSameAs(HttpStatus.OK);
+        assertThat(numRequests).hasValue(2);
+    }
+
+    @Test
+    void delegateFailureIsPropagatedAndNotCoalesced() {
+        final AtomicInteger failures = new AtomicInteger(1);
+        final WebClient client = WebClient.builder(server.httpUri())
+                                          .decorator((delegate, ctx, req) -> {
+                                              if (failures.getAndDecrement() > 0) {
+                                                  throw new AnticipatedException();
+                                              }
+                                              return delegate.execute(ctx, req);
+                                          })
+                                          .decorator(CoalescingClient.newDecorator())
+                                          .build();
+        assertThatThrownBy(() -> client.get("/gated").aggregate().join())
+                .hasCauseInstanceOf(AnticipatedException.class);
+
+        // The failed request does not remain in flight.
+        gate.complete(null);
+        await().untilAsserted(() -> assertThat(client.get("/gated").aggregate().join().contentUtf8())
+                .isEqualTo("hello"));
+    }
+
+    @Test
+    void nonIdempotentRequestsAreNotCoalesced() {
+        final WebClient client = WebClient.builder(server.httpUri())
+                                          .decorator(CoalescingClient.newDecorator())
+                                          .build();
+        final CompletableFuture<AggregatedHttpResponse> res1 =
+                client.execute(HttpRequest.of(HttpMethod.POST, "/gated")).aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 =
+                client.execute(HttpRequest.of(HttpMethod.POST, "/gated")).aggregate();
+        await().untilAtomic(numRequests, Matchers.is(2));
+
+        gate.complete(null);
+        assertThat(res1.join().status()).isSameAs(HttpStatus.OK);
+        assertThat(res2.join().status()).isSameAs(HttpStatus.OK);
+    }
+}
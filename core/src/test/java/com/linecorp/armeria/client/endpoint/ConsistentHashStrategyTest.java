@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.ConsistentHashStrategy.HashRing;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+
+class ConsistentHashStrategyTest {
+
+    private static final int NUM_KEYS = 10000;
+
+    @Test
+    void sameKeyToSameEndpoint() {
+        final DynamicEndpointGroup group = new DynamicEndpointGroup(
+                EndpointSelectionStrategy.consistentHash(ctx -> ctx.path().hashCode()));
+        group.setEndpoints(endpoints(5));
+
+        for (int i = 0; i < 100; i++) {
+            final Endpoint endpoint = group.selectNow(newContext(i));
+            assertThat(endpoint).isNotNull();
+            for (int j = 0; j < 3; j++) {
+                assertThat(group.selectNow(newContext(i))).isEqualTo(endpoint);
+            }
+        }
+    }
+
+    @Test
+    void onlyKeysOfChangedEndpointMove() {
+        final DynamicEndpointGroup group = new DynamicEndpointGroup(
+                EndpointSelectionStrategy.consistentHash(ctx -> ctx.path().hashCode()));
+        final List<Endpoint> endpoints = endpoints(10);
+        group.setEndpoints(endpoints);
+        final Map<Integer, Endpoint> before = select(group);
+
+        // Add an endpoint.
+        final Endpoint added = Endpoint.of("127.0.0.1", 10000);
+        group.setEndpoints(ImmutableList.<Endpoint>builder().addAll(endpoints).add(added).build());
+        final Map<Integer, Endpoint> afterAdded = select(group);
+        int moved = 0;
+        for (int i = 0; i < NUM_KEYS; i++) {
+            if (!before.get(i).equals(afterAdded.get(i))) {
+                assertThat(afterAdded.get(i)).isEqualTo(added);
+                moved++;
+            }
+        }
+        // About 1/11 of the keys should move.
+        assertThat(moved).isBetween(NUM_KEYS / 11 / 2, NUM_KEYS / 11 * 2);
+
+        // Remove the endpoint again.
+        group.setEndpoints(endpoints);
+        assertThat(select(group)).isEqualTo(before);
+    }
+
+    @Test
+    void incrementalUpdateEqualsFullRebuild() {
+        final List<Endpoint> endpoints = endpoints(20);
+        final HashRing ring = HashRing.of(endpoints, null, 50);
+
+        final List<Endpoint> updated = new ArrayList<>(endpoints.subList(5, 20));
+        updated.add(Endpoint.of("127.0.0.1", 20000));
+        updated.add(Endpoint.of("127.0.0.1", 20001));
+        final HashRing incremental = HashRing.of(updated, ring, 50);
+        final HashRing rebuilt = HashRing.of(updated, null, 50);
+
+        assertThat(incremental.points).containsExactly(rebuilt.points);
+        for (long key = 0; key < NUM_KEYS; key++) {
+            assertThat(incremental.select(key)).isEqualTo(rebuilt.select(key));
+        }
+    }
+
+    @Test
+    void boundedLoad() {
+        final DynamicEndpointGroup group = new DynamicEndpointGroup(
+                EndpointSelectionStrategy.builderForConsistentHash(ctx -> 42)
+                                         .boundedLoad(1.25)
+                                         .build());
+        group.setEndpoints(endpoints(4));
+
+        // Every request has the same key and never completes.
+        final Map<Endpoint, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            counts.merge(group.selectNow(newContext(i)), 1, Integer::sum);
+        }
+        assertThat(counts).hasSize(4);
+        // The capacity is ceil(100 * 1.25 / 4) = 32.
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isLessThanOrEqualTo(32));
+    }
+
+    @Test
+    void boundedLoadReleasesCompletedRequests() {
+        final DynamicEndpointGroup group = new DynamicEndpointGroup(
+                EndpointSelectionStrategy.builderForConsistentHash(ctx -> 42)
+                                         .boundedLoad(1.25)
+                                         .build());
+        group.setEndpoints(endpoints(4));
+
+        final ClientRequestContext first = newContext(0);
+        final Endpoint preferred = group.selectNow(first);
+        first.logBuilder().endRequest();
+        first.logBuilder().endResponse();
+
+        // Every completed request is released, so the same key keeps choosing the same endpoint.
+        for (int i = 1; i < 100; i++) {
+            final ClientRequestContext ctx = newContext(i);
+            assertThat(group.selectNow(ctx)).isEqualTo(preferred);
+            ctx.logBuilder().endRequest();
+            ctx.logBuilder().endResponse();
+        }
+    }
+
+    @Test
+    void selectEmpty() {
+        final EndpointGroup group = EndpointGroup.of(
+                EndpointSelectionStrategy.consistentHash(ctx -> ctx.path().hashCode()));
+        assertThat(group.selectNow(newContext(0))).isNull();
+    }
+
+    private static List<Endpoint> endpoints(int numEndpoints) {
+        final List<Endpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < numEndpoints; i++) {
+            endpoints.add(Endpoint.of("127.0.0.1", i + 1));
+        }
+        return endpoints;
+    }
+
+    private static Map<Integer, Endpoint> select(EndpointGroup group) {
+        final Map<Integer, Endpoint> selected = new HashMap<>();
+        for (int i = 0; i < NUM_KEYS; i++) {
+            selected.put(i, group.selectNow(newContext(i)));
+        }
+        return selected;
+    }
+
+    private static ClientRequestContext newContext(int key) {
+        return ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/" + key));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.LeastLoadedStrategy.EndpointStats;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+
+class LeastLoadedStrategyTest {
+
+    private static final Endpoint foo = Endpoint.parse("foo.com:1234");
+    private static final Endpoint bar = Endpoint.parse("bar.com:1234");
+
+    @Test
+    void selectEndpointWithFewerInFlightRequests() {
+        final EndpointGroup group = EndpointGroup.of(EndpointSelectionStrategy.leastLoaded(), foo, bar);
+
+        final ClientRequestContext ctx1 = newContext();
+        final Endpoint first = group.selectNow(ctx1);
+        assertThat(first).isNotNull();
+        final Endpoint other = first.equals(foo) ? bar : foo;
+
+        // The first endpoint has an in-flight request.
+        final ClientRequestContext ctx2 = newContext();
+        assertThat(group.selectNow(ctx2)).isEqualTo(other);
+
+        // Only the other endpoint has an in-flight request after the first request completes.
+        complete(ctx1);
+        final ClientRequestContext ctx3 = newContext();
+        assertThat(group.selectNow(ctx3)).isEqualTo(first);
+
+        complete(ctx2);
+        complete(ctx3);
+    }
+
+    @Test
+    void selectEndpointWithHigherWeight() {
+        final Endpoint heavy = foo.withWeight(10000);
+        final Endpoint light = bar.withWeight(1);
+        final EndpointGroup group = EndpointGroup.of(EndpointSelectionStrategy.leastLoaded(), heavy, light);
+        for (int i = 0; i < 5; i++) {
+            // The in-flight requests are never completed.
+            assertThat(group.selectNow(newContext())).isEqualTo(heavy);
+        }
+    }
+
+    @Test
+    void selectEmpty() {
+        final EndpointGroup group = EndpointGroup.of(EndpointSelectionStrategy.leastLoaded());
+        assertThat(group.selectNow(newContext())).isNull();
+    }
+
+    @Test
+    void latencyMovingAverage() {
+        final long decayNanos = TimeUnit.SECONDS.toNanos(1);
+        final EndpointStats stats = new EndpointStats(decayNanos);
+        assertThat(stats.latencyNanos()).isZero();
+
+        stats.onRequestStart();
+        assertThat(stats.inFlightRequests()).isOne();
+        stats.onRequestEnd(1000, 1);
+        assertThat(stats.inFlightRequests()).isZero();
+        assertThat(stats.latencyNanos()).isEqualTo(1000);
+
+        // A sample right after the previous one barely moves the average.
+        stats.onRequestStart();
+        stats.onRequestEnd(2000, 2);
+        assertThat(stats.latencyNanos()).isCloseTo(1000, within(1.0));
+
+        // A sample long after the previous one mostly replaces the average.
+        stats.onRequestStart();
+        stats.onRequestEnd(2000, 2 + decayNanos * 10);
+        assertThat(stats.latencyNanos()).isCloseTo(2000, within(1.0));
+    }
+
+    @Test
+    void endpointWithoutLatencySampleDoesNotAttractAllRequests() {
+        final EndpointSelectionStrategy strategy =
+                EndpointSelectionStrategy.builderForLeastLoaded().latencyAware(true).build();
+        final EndpointGroup group = EndpointGroup.of(strategy, foo, bar);
+        final ClientRequestContext ctx = newContext();
+        final Endpoint sampled = group.selectNow(ctx);
+        complete(ctx);
+
+        int numSampled = 0;
+        for (int i = 0; i < 10; i++) {
+            // The in-flight requests are never completed.
+            if (sampled.equals(group.selectNow(newContext()))) {
+                numSampled++;
+            }
+        }
+        // The endpoint without a sample is assumed to be as fast as the other one.
+        assertThat(numSampled).isBetween(4, 6);
+    }
+
+    @Test
+    void invalidLatencyDecay() {
+        assertThatThrownBy(() -> EndpointSelectionStrategy.builderForLeastLoaded().latencyDecayMillis(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ClientRequestContext newContext() {
+        return ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+    }
+
+    private static void complete(ClientRequestContext ctx) {
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().endResponse();
+    }
+}
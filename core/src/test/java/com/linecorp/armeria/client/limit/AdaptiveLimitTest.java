@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.SafeCloseable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveLimitTest {
+
+    private static final long FAST_RTT = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void vegasGrowsWithoutQueueingAndShrinksWithQueueing() {
+        final AdaptiveLimit limit = AdaptiveLimit.builderForVegas()
+                                                 .initialLimit(20)
+                                                 .maxLimit(100)
+                                                 .build();
+        assertThat(limit.limit()).isEqualTo(20);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST_RTT, limit.limit());
+        }
+        assertThat(limit.limit()).isEqualTo(100);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(SLOW_RTT, limit.limit());
+        }
+        assertThat(limit.limit()).isLessThan(100);
+    }
+
+    @Test
+    void gradientGrowsWithoutQueueingAndShrinksWithQueueing() {
+        final AdaptiveLimit limit = AdaptiveLimit.builderForGradient()
+                                                 .initialLimit(20)
+                                                 .maxLimit(100)
+                                                 .build();
+        assertThat(limit.limit()).isEqualTo(20);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST_RTT, limit.limit());
+        }
+        final int grownLimit = limit.limit();
+        assertThat(grownLimit).isGreaterThan(20);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(SLOW_RTT, limit.limit());
+        }
+        assertThat(limit.limit()).isLessThan(grownLimit);
+    }
+
+    @Test
+    void doesNotGrowWhenUnderutilized() {
+        final AdaptiveLimit vegas = AdaptiveLimit.vegas();
+        final AdaptiveLimit gradient = AdaptiveLimit.gradient();
+        for (int i = 0; i < 100; i++) {
+            vegas.onSample(FAST_RTT, 1);
+            gradient.onSample(FAST_RTT, 1);
+        }
+        assertThat(vegas.limit()).isEqualTo(VegasLimitBuilder.DEFAULT_INITIAL_LIMIT);
+        assertThat(gradient.limit()).isEqualTo(GradientLimitBuilder.DEFAULT_INITIAL_LIMIT);
+    }
+
+    @Test
+    void invalidBuilderOptions() {
+        assertThatThrownBy(() -> AdaptiveLimit.builderForVegas().minLimit(10).initialLimit(5).build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> AdaptiveLimit.builderForVegas().queueSizeThresholds(6, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AdaptiveLimit.builderForGradient().maxLimit(10).initialLimit(20).build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> AdaptiveLimit.builderForGradient().rttTolerance(0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrencyLimitReportsSamplesAndGauges() {
+        final RecordingLimit adaptiveLimit = new RecordingLimit(2);
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final ConcurrencyLimit limit =
+                ConcurrencyLimit.builder(adaptiveLimit)
+                                .meterRegistry(registry, new MeterIdPrefix("concurrency.limit"))
+                                .build();
+        final ClientRequestContext ctx = ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+
+        final SafeCloseable permit1 = limit.acquire(ctx).join();
+        final SafeCloseable permit2 = limit.acquire(ctx).join();
+        assertThat(limit.acquire(ctx)).isNotDone();
+
+        assertThat(registry.get("concurrency.limit.limit").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("concurrency.limit.acquired.permits").gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get("concurrency.limit.pending.acquisitions").gauge().value()).isEqualTo(1.0);
+
+        permit1.close();
+        assertThat(adaptiveLimit.inFlights).containsExactly(2);
+        assertThat(registry.get("concurrency.limit.pending.acquisitions").gauge().value()).isZero();
+
+        // Closing a permit twice should not report another sample.
+        permit1.close();
+        permit2.close();
+        assertThat(adaptiveLimit.inFlights).containsExactly(2, 2);
+    }
+
+    private static final class RecordingLimit implements AdaptiveLimit {
+
+        private final int limit;
+        final List<Integer> inFlights = new ArrayList<>();
+
+        RecordingLimit(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public int limit() {
+            return limit;
+        }
+
+        @Override
+        public void onSample(long rttNanos, int inFlight) {
+            assertThat(rttNanos).isNotNegative();
+            inFlights.add(inFlight);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RetryBudgetTest {
+
+    private static final AtomicInteger numRequests = new AtomicInteger();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/unavailable", (ctx, req) -> {
+                numRequests.incrementAndGet();
+                return HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE);
+            });
+        }
+    };
+
+    private static ClientRequestContext newContext(String host) {
+        return ClientRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                   .endpoint(Endpoint.of(host, 8080))
+                                   .build();
+    }
+
+    @Test
+    void retriesAreLimitedByRatio() {
+        final AtomicLong ticker = new AtomicLong();
+        final RetryBudget budget = RetryBudget.builder()
+                                              .maxRetryRatio(0.5)
+                                              .minRetriesPerSecond(0)
+                                              .ticker(ticker::get)
+                                              .build();
+        final ClientRequestContext ctx = newContext("foo.com");
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest(ctx);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThat(budget.tryAcquireRetry(ctx)).isTrue();
+        }
+        assertThat(budget.tryAcquireRetry(ctx)).isFalse();
+
+        // The requests and retries slide out of the window.
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertThat(budget.tryAcquireRetry(ctx)).isFalse();
+        budget.onRequest(ctx);
+        budget.onRequest(ctx);
+        assertThat(budget.tryAcquireRetry(ctx)).isTrue();
+        assertThat(budget.tryAcquireRetry(ctx)).isFalse();
+    }
+
+    @Test
+    void staleEpochDoesNotResetCurrentBucket() {
+        final AtomicLong ticker = new AtomicLong(TimeUnit.SECONDS.toNanos(11));
+        final RetryBudget budget = RetryBudget.builder()
+                                              .maxRetryRatio(0.5)
+                                              .minRetriesPerSecond(0)
+                                              .window(Duration.ofSeconds(10))
+                                              .ticker(ticker::get)
+                                              .build();
+        final ClientRequestContext ctx = newContext("foo.com");
+        budget.onRequest(ctx);
+        budget.onRequest(ctx);
+
+        // A request whose time was read a window earlier, e.g. before a GC pause, maps to the same bucket.
+        ticker.set(TimeUnit.SECONDS.toNanos(1));
+        budget.onRequest(ctx);
+
+        ticker.set(TimeUnit.SECONDS.toNanos(11));
+        assertThat(budget.tryAcquireRetry(ctx)).isTrue();
+        assertThat(budget.tryAcquireRetry(ctx)).isFalse();
+    }
+
+    @Test
+    void minRetriesPerSecond() {
+        final RetryBudget budget = RetryBudget.builder()
+                                              .maxRetryRatio(0)
+                                              .minRetriesPerSecond(1)
+                                              .window(Duration.ofSeconds(2))
+                                              .ticker(() -> 0)
+                                              .build();
+        final ClientRequestContext ctx = newContext("foo.com");
+        assertThat(budget.tryAcquireRetry(ctx)).isTrue();
+        assertThat(budget.tryAcquireRetry(ctx)).isTrue();
+        assertThat(budget.tryAcquireRetry(ctx)).isFalse();
+    }
+
+    @Test
+    void keyedByAuthority() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final RetryBudget budget = RetryBudget.builder()
+                                              .maxRetryRatio(1)
+                                              .minRetriesPerSecond(0)
+                                              .keyedByAuthority()
+                                              .meterRegistry(registry)
+                                              .meterIdPrefix(new MeterIdPrefix("foo"))
+                                              .build();
+        final ClientRequestContext fooCtx = newContext("foo.com");
+        final ClientRequestContext barCtx = newContext("bar.com");
+        budget.onRequest(fooCtx);
+        assertThat(budget.tryAcquireRetry(fooCtx)).isTrue();
+        assertThat(budget.tryAcquireRetry(fooCtx)).isFalse();
+        assertThat(budget.tryAcquireRetry(barCtx)).isFalse();
+        budget.onRequest(barCtx);
+        assertThat(budget.tryAcquireRetry(barCtx)).isTrue();
+
+        assertThat(MoreMeters.measureAll(registry))
+                .containsEntry("foo.retries#count{result=allowed}", 2.0)
+                .containsEntry("foo.retries#count{result=rejected}", 2.0);
+    }
+
+    @Test
+    void idleAuthoritiesAreEvicted() {
+        final AtomicLong ticker = new AtomicLong();
+        final DefaultRetryBudget budget = (DefaultRetryBudget) RetryBudget.builder()
+                                                                          .keyedByAuthority()
+                                                                          .ticker(ticker::get)
+                                                                          .build();
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest(newContext("host" + i + ".com"));
+        }
+        assertThat(budget.numWindows()).isEqualTo(100);
+
+        // All buckets of the idle authorities became stale, so their windows are not kept anymore.
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        budget.onRequest(newContext("foo.com"));
+        assertThat(budget.numWindows()).isOne();
+    }
+
+    @Test
+    void retryingClientRespectsBudget() {
+        final RetryBudget budget = RetryBudget.builder()
+                                              .maxRetryRatio(0.5)
+                                              .minRetriesPerSecond(0)
+                                              .build();
+        final RetryConfig<HttpResponse> config =
+                RetryConfig.builder(RetryRule.builder()
+                                             .onServerErrorStatus()
+                                             .thenBackoff(Backoff.withoutDelay()))
+                           .maxTotalAttempts(3)
+                           .retryBudget(budget)
+                           .build();
+        final WebClient client = WebClient.builder(server.httpUri())
+                                          .decorator(RetryingClient.newDecorator(config))
+                                          .build();
+
+        numRequests.set(0);
+        for (int i = 0; i < 4; i++) {
+            assertThat(client.get("/unavailable").aggregate().join().status())
+                    .isSameAs(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        // 4 requests allow only 2 retries although each request may be retried twice.
+        assertThat(numRequests).hasValue(6);
+    }
+}
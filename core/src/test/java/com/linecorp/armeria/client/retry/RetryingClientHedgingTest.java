@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class RetryingClientHedgingTest {
+
+    private static final List<Integer> accessedPorts = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger cancelledRequests = new AtomicInteger();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.http(0);
+            sb.http(0);
+            sb.requestTimeoutMillis(0);
+            sb.service("/", (ctx, req) -> {
+                final int port = ((InetSocketAddress) ctx.localAddress()).getPort();
+                accessedPorts.add(port);
+                if (port == ports().get(0)) {
+                    ctx.whenRequestCancelled().thenRun(cancelledRequests::incrementAndGet);
+                    return HttpResponse.delayed(HttpResponse.of(HttpStatus.OK), Duration.ofSeconds(10));
+                }
+                return HttpResponse.of(HttpStatus.OK);
+            });
+        }
+    };
+
+    private static List<Integer> ports() {
+        return server.server().activePorts().keySet().stream()
+                     .map(InetSocketAddress::getPort)
+                     .sorted()
+                     .collect(toImmutableList());
+    }
+
+    private static EndpointGroup endpointGroup() {
+        return EndpointGroup.of(EndpointSelectionStrategy.roundRobin(),
+                                ports().stream()
+                                       .map(port -> Endpoint.of("127.0.0.1", port))
+                                       .collect(toImmutableList()));
+    }
+
+    @BeforeEach
+    void setUp() {
+        accessedPorts.clear();
+        cancelledRequests.set(0);
+    }
+
+    @Test
+    void slowAttemptIsHedged() {
+        final RetryConfig<HttpResponse> config =
+                RetryConfig.builder(RetryRule.failsafe())
+                           .maxTotalAttempts(2)
+                           .hedgingDelayMillis(100)
+                           .build();
+        final WebClient client = WebClient.builder(SessionProtocol.H2C, endpointGroup())
+                                          .responseTimeoutMillis(0)
+                                          .decorator(RetryingClient.newDecorator(config))
+                                          .build();
+
+        final long startNanos = System.nanoTime();
+        final AggregatedHttpResponse res = client.get("/").aggregate().join();
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+        assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(5));
+        assertThat(accessedPorts).containsExactly(ports().get(0), ports().get(1));
+        // The slow attempt should be cancelled once the hedged one has won.
+        await().untilAsserted(() -> assertThat(cancelledRequests).hasValue(1));
+    }
+
+    @Test
+    void fastAttemptIsNotHedged() throws Exception {
+        final RetryConfig<HttpResponse> config =
+                RetryConfig.builder(RetryRule.failsafe())
+                           .maxTotalAttempts(2)
+                           .hedgingDelayMillis(1000)
+                           .build();
+        final EndpointGroup group = Endpoint.of("127.0.0.1", ports().get(1));
+        final WebClient client = WebClient.builder(SessionProtocol.H2C, group)
+                                          .decorator(RetryingClient.newDecorator(config))
+                                          .build();
+
+        assertThat(client.get("/").aggregate().join().status()).isSameAs(HttpStatus.OK);
+        Thread.sleep(1500);
+        assertThat(accessedPorts).containsExactly(ports().get(1));
+    }
+
+    @Test
+    void hedgingRespectsMaxTotalAttempts() {
+        final RetryConfig<HttpResponse> config =
+                RetryConfig.builder(RetryRule.failsafe())
+                           .maxTotalAttempts(1)
+                           .hedgingDelayMillis(100)
+                           .build();
+        final WebClient client = WebClient.builder(SessionProtocol.H2C, endpointGroup())
+                                          .responseTimeoutMillis(500)
+                                          .decorator(RetryingClient.newDecorator(config))
+                                          .build();
+
+        assertThat(client.get("/").aggregate().handle((res, cause) -> cause).join()).isNotNull();
+        assertThat(accessedPorts).containsExactly(ports().get(0));
+    }
+
+    @Test
+    void percentileRequiresFallbackDelay() {
+        final RetryConfigBuilder<HttpResponse> builder =
+                RetryConfig.builder(RetryRule.failsafe()).hedgingDelayPercentile(95);
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void latencyTrackerPercentile() {
+        final AttemptLatencyTracker tracker = new AttemptLatencyTracker();
+        for (int i = 1; i < 32; i++) {
+            tracker.record(i);
+        }
+        assertThat(tracker.percentileNanos(50)).isEqualTo(-1);
+        for (int i = 32; i <= 100; i++) {
+            tracker.record(i);
+        }
+        assertThat(tracker.percentileNanos(50)).isEqualTo(50);
+        assertThat(tracker.percentileNanos(99)).isEqualTo(99);
+    }
+}
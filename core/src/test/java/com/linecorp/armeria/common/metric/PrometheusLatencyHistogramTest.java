@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.CommonPools;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.metric.PrometheusExpositionService;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+import io.prometheus.client.CollectorRegistry;
+
+class PrometheusLatencyHistogramTest {
+
+    private static final PrometheusLatencyHistogram serverHistogram =
+            PrometheusLatencyHistogram.of("test_server_duration_seconds");
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            final CollectorRegistry collectorRegistry = new CollectorRegistry();
+            serverHistogram.register(collectorRegistry);
+            sb.route().path("/ok").decorator(serverHistogram.newServiceDecorator())
+              .build((ctx, req) -> HttpResponse.of(HttpStatus.OK));
+            sb.route().path("/fail").decorator(serverHistogram.newServiceDecorator())
+              .build((ctx, req) -> HttpResponse.of(HttpStatus.INTERNAL_SERVER_ERROR));
+            sb.service("/metrics", PrometheusExpositionService.of(collectorRegistry));
+        }
+    };
+
+    @Test
+    void exposedViaPrometheusExpositionService() {
+        final BlockingWebClient client = server.blockingWebClient();
+        client.get("/ok");
+        client.get("/ok");
+        client.get("/fail");
+        await().untilAsserted(() -> {
+            assertThat(count(serverHistogram, "/ok", "", "2xx")).isEqualTo(2);
+            assertThat(count(serverHistogram, "/fail", "", "5xx")).isEqualTo(1);
+        });
+
+        final String content = client.get("/metrics").contentUtf8();
+        assertThat(content).contains("# TYPE test_server_duration_seconds histogram");
+        assertThat(content.split("\n"))
+                .anySatisfy(line -> assertThat(line).startsWith("test_server_duration_seconds_bucket{")
+                                                    .contains("route=\"/ok\"")
+                                                    .contains("status_class=\"2xx\"")
+                                                    .contains("le=\"+Inf\"")
+                                                    .endsWith(" 2.0"))
+                .anySatisfy(line -> assertThat(line).startsWith("test_server_duration_seconds_count{")
+                                                    .contains("route=\"/fail\"")
+                                                    .contains("status_class=\"5xx\"")
+                                                    .endsWith(" 1.0"));
+    }
+
+    @Test
+    void bucketBoundaries() {
+        final PrometheusLatencyHistogram histogram =
+                PrometheusLatencyHistogram.builder("test_duration_seconds")
+                                          .schema(0)
+                                          .range(Duration.ofMillis(1), Duration.ofMillis(8))
+                                          .build();
+        assertThat(histogram.upperBounds()).containsExactly(0.001, 0.002, 0.004, 0.008);
+
+        final PrometheusLatencyHistogram fine =
+                PrometheusLatencyHistogram.builder("test_duration_seconds")
+                                          .schema(2)
+                                          .range(Duration.ofMillis(1), Duration.ofMillis(2))
+                                          .build();
+        assertThat(fine.upperBounds()).hasSize(5);
+        assertThat(fine.upperBounds()[2]).isEqualTo(0.001414214);
+    }
+
+    @Test
+    void mergesShardsOfAllThreads() throws Exception {
+        final PrometheusLatencyHistogram histogram =
+                PrometheusLatencyHistogram.builder("test_client_duration_seconds")
+                                          .schema(0)
+                                          .range(Duration.ofMillis(1), Duration.ofSeconds(1))
+                                          .build();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        histogram.record(newClientLog(j % 2 == 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND));
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(count(histogram, "", "example.com:8080", "2xx")).isEqualTo(200);
+        assertThat(count(histogram, "", "example.com:8080", "4xx")).isEqualTo(200);
+
+        // The buckets are cumulative and end with the '+Inf' bucket.
+        final List<Sample> buckets = samples(histogram, "_bucket", "", "example.com:8080", "2xx");
+        assertThat(buckets).hasSize(histogram.upperBounds().length + 1);
+        assertThat(buckets).isSortedAccordingTo((a, b) -> Double.compare(a.value, b.value));
+        assertThat(buckets.get(buckets.size() - 1).labelValues).endsWith("+Inf");
+        assertThat(buckets.get(buckets.size() - 1).value).isEqualTo(200);
+    }
+
+    @Test
+    void mergesShardsOfEventLoopsAndOtherThreads() {
+        final PrometheusLatencyHistogram histogram =
+                PrometheusLatencyHistogram.builder("test_client_duration_seconds")
+                                          .schema(0)
+                                          .range(Duration.ofMillis(1), Duration.ofSeconds(1))
+                                          .build();
+        // Recorded into the shard of the event loop thread.
+        CommonPools.workerGroup().next().submit(() -> {
+            for (int i = 0; i < 10; i++) {
+                histogram.record(newClientLog(HttpStatus.OK));
+            }
+        }).syncUninterruptibly();
+        // Recorded into the shard shared by the non-event loop threads.
+        for (int i = 0; i < 10; i++) {
+            histogram.record(newClientLog(HttpStatus.OK));
+        }
+
+        assertThat(count(histogram, "", "example.com:8080", "2xx")).isEqualTo(20);
+    }
+
+    @Test
+    void removesIdleSeries() {
+        final PrometheusLatencyHistogram histogram =
+                PrometheusLatencyHistogram.builder("test_client_duration_seconds")
+                                          .idleTimeout(Duration.ofMillis(10))
+                                          .build();
+        histogram.record(newClientLog(HttpStatus.OK));
+        assertThat(count(histogram, "", "example.com:8080", "2xx")).isOne();
+
+        // Removed when collected after the idle timeout.
+        await().untilAsserted(
+                () -> assertThat(samples(histogram, "_count", "", "example.com:8080", "2xx")).isEmpty());
+
+        // Re-created from scratch rather than recorded into the shard of the removed series.
+        histogram.record(newClientLog(HttpStatus.OK));
+        assertThat(count(histogram, "", "example.com:8080", "2xx")).isOne();
+    }
+
+    private static RequestLog newClientLog(HttpStatus status) {
+        final ClientRequestContext ctx =
+                ClientRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/foo"))
+                                    .endpoint(Endpoint.of("example.com", 8080))
+                                    .build();
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().responseHeaders(ResponseHeaders.of(status));
+        ctx.logBuilder().endResponse();
+        return ctx.log().ensureComplete();
+    }
+
+    private static double count(PrometheusLatencyHistogram histogram,
+                                String route, String endpoint, String statusClass) {
+        final List<Sample> samples = samples(histogram, "_count", route, endpoint, statusClass);
+        return samples.isEmpty() ? 0 : samples.get(0).value;
+    }
+
+    private static List<Sample> samples(PrometheusLatencyHistogram histogram, String suffix,
+                                        String route, String endpoint, String statusClass) {
+        final MetricFamilySamples family = histogram.collect().get(0);
+        return family.samples.stream()
+                             .filter(s -> s.name.equals(family.name + suffix))
+                             .filter(s -> s.labelValues.get(0).equals(route) &&
+                                          s.labelValues.get(1).equals(endpoint) &&
+                                          s.labelValues.get(2).equals(statusClass))
+                             .collect(toImmutableList());
+    }
+}
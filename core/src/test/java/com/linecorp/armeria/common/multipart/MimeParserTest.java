@@ -643,6 +643,43 @@ class MimeParserTest {
         assertThat(part1.contentUtf8()).isEmpty();
     }
 
+    @Test
+    void testLargeBodyInSmallChunks() {
+        final String boundary = "boundary";
+        final byte[] body = new byte[64 * 1024];
+        for (int i = 0; i < body.length; i++) {
+            // Include bytes whose lower seven bits alias the characters of the boundary.
+            body[i] = (byte) (i * 31 + (i >>> 7));
+        }
+        final byte[] boundaryInBody = ("--" + boundary + "--").getBytes();
+        System.arraycopy(boundaryInBody, 0, body, 1000, boundaryInBody.length);
+
+        final byte[] message = concat(("--" + boundary + "\r\n" +
+                                       "Content-Id: part1\r\n" +
+                                       "\r\n").getBytes(),
+                                      body,
+                                      ("\r\n--" + boundary + "\r\n" +
+                                       "Content-Id: part2\r\n" +
+                                       "\r\n" +
+                                       "2\r\n" +
+                                       "--" + boundary + "--").getBytes());
+        for (int chunkSize : new int[] { 1, 7, 11, 4096 }) {
+            final List<byte[]> chunks = new ArrayList<>();
+            for (int i = 0; i < message.length; i += chunkSize) {
+                final byte[] chunk = new byte[Math.min(chunkSize, message.length - i)];
+                System.arraycopy(message, i, chunk, 0, chunk.length);
+                chunks.add(chunk);
+            }
+
+            final List<AggregatedBodyPart> parts = parse(boundary, chunks);
+            assertThat(parts).hasSize(2);
+            assertThat(parts.get(0).headers().get("Content-Id")).isEqualTo("part1");
+            assertThat(parts.get(0).content().array()).isEqualTo(body);
+            assertThat(parts.get(1).headers().get("Content-Id")).isEqualTo("part2");
+            assertThat(parts.get(1).contentUtf8()).isEqualTo("2");
+        }
+    }
+
     @Test
     void testParserClosed() {
         assertThatThrownBy(() -> {
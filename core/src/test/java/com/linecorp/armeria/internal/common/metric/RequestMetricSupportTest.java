@@ -405,4 +405,43 @@ class RequestMetricSupportTest {
                 .containsEntry("foo.requests#count{http.status=500,method=POST,result=failure,service=none}",
                                1.0);
     }
+
+    @Test
+    void cachedMetersPerRegistryAndStatus() {
+        final MeterRegistry registry1 = PrometheusMeterRegistries.newRegistry();
+        final MeterRegistry registry2 = PrometheusMeterRegistries.newRegistry();
+        final MeterIdPrefixFunction meterIdPrefixFunction = MeterIdPrefixFunction.ofDefault("foo");
+
+        completeClientRequest(registry1, meterIdPrefixFunction, 200);
+        completeClientRequest(registry1, meterIdPrefixFunction, 200);
+        completeClientRequest(registry1, meterIdPrefixFunction, 500);
+        completeClientRequest(registry2, meterIdPrefixFunction, 200);
+
+        assertThat(measureAll(registry1))
+                .containsEntry("foo.active.requests#value{method=POST,service=none}", 0.0)
+                .containsEntry("foo.requests#count{http.status=200,method=POST,result=success,service=none}",
+                               2.0)
+                .containsEntry("foo.requests#count{http.status=500,method=POST,result=failure,service=none}",
+                               1.0)
+                .containsEntry("foo.total.duration#count{http.status=200,method=POST,service=none}", 2.0);
+        assertThat(measureAll(registry2))
+                .containsEntry("foo.requests#count{http.status=200,method=POST,result=success,service=none}",
+                               1.0)
+                .doesNotContainKey(
+                        "foo.requests#count{http.status=500,method=POST,result=failure,service=none}");
+    }
+
+    private static void completeClientRequest(MeterRegistry registry,
+                                              MeterIdPrefixFunction meterIdPrefixFunction, int status) {
+        final ClientRequestContext ctx =
+                ClientRequestContext.builder(HttpRequest.of(HttpMethod.POST, "/foo"))
+                                    .meterRegistry(registry)
+                                    .endpoint(Endpoint.of("example.com", 8080))
+                                    .build();
+        RequestMetricSupport.setup(ctx, REQUEST_METRICS_SET, meterIdPrefixFunction, false,
+                                   SuccessFunction.ofDefault());
+        ctx.logBuilder().responseHeaders(ResponseHeaders.of(status));
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().endResponse();
+    }
 }
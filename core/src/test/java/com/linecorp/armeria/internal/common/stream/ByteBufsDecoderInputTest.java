@@ -294,6 +294,22 @@ class ByteBufsDecoderInputTest {
         assertThat(input.getByte(8)).isEqualTo((byte) 9);
     }
 
+    @Test
+    void getByteAcrossBuffersAfterRead() {
+        // Access the same non-first buffer twice; the second access hits the cached buffer.
+        assertThat(input.getByte(5)).isEqualTo((byte) 6);
+        assertThat(input.getByte(6)).isEqualTo((byte) 7);
+        assertThat(input.getByte(7)).isEqualTo((byte) 8);
+
+        // The cached offset must be invalidated when the reader index moves.
+        assertThat(input.readByte()).isEqualTo((byte) 1);
+        assertThat(input.getByte(5)).isEqualTo((byte) 7);
+        input.skipBytes(4);
+        assertThat(input.getByte(2)).isEqualTo((byte) 8);
+        assertThat(input.getByte(3)).isEqualTo((byte) 9);
+        assertThat(input.firstBufferReadableBytes()).isEqualTo(2);
+    }
+
     @Test
     void addAfterClosing() {
         assertThat(input.readableBytes()).isEqualTo(9);
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.google.common.collect.ImmutableList;
+
+class CompactRoutingTrieTest {
+
+    private static final List<String> ROUTES = ImmutableList.of(
+            "/abc/123", "/abc/133", "/abc/134", "/abc/134/*", "/abc/124/:",
+            "/users/:", "/users/:/movies", "/users/:/books", "/users/:/books/harry_potter",
+            "/users/:/books/harry_potter*", "/users/:/books/:", "/users/:/movies/*",
+            "/:", "/*", "/foo/", "/foo/bar", "/foo/bar/", "/foo/:/", "/a", "/b", "/c", "/d", "/e",
+            "/f", "/g", "/h", "/i", "/j");
+
+    private static final RoutingTrie<String> TRIE;
+    private static final CompactRoutingTrie<String> COMPACT_TRIE;
+
+    static {
+        final RoutingTrieBuilder<String> builder = new RoutingTrieBuilder<>();
+        for (String route : ROUTES) {
+            builder.add(route, route);
+        }
+        // Add a duplicate value with low precedence.
+        builder.add("/abc/134", "/abc/134-low", false);
+        TRIE = builder.build();
+        COMPACT_TRIE = CompactRoutingTrie.of(TRIE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/", "/abc/1", "/abc/123", "/abc/133", "/abc/134", "/abc/134/", "/abc/134/5/6", "/abc/124/5678",
+            "/abc/124/5/6", "/abc/111", "/users/1", "/users/1/", "/users/1/movies", "/users/1/movies/1",
+            "/users/1/books", "/users/1/books/harry_potter", "/users/1/books/harry_potter1",
+            "/users/1/books/1", "/users/1/books/1/", "/foo", "/foo/", "/foo/bar", "/foo/bar/", "/foo/baz/",
+            "/foo/baz/qux", "/a", "/j", "/k", "/hello/world"
+    })
+    void sameAsRoutingTrie(String path) {
+        assertThat(COMPACT_TRIE.find(path)).isEqualTo(TRIE.find(path));
+        assertThat(COMPACT_TRIE.findAll(path)).isEqualTo(TRIE.findAll(path));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "/users/1/books/1", "/abc/134/5/6", "/foo/bar" })
+    void sameAsRoutingTrieWithProcessor(String path) {
+        // Reject the first candidate to make the trie continue to look for the next one.
+        final boolean[] rejected = new boolean[2];
+        final List<String> expected = TRIE.find(path, node -> {
+            if (!rejected[0]) {
+                rejected[0] = true;
+                return null;
+            }
+            return node;
+        });
+        final List<String> actual = COMPACT_TRIE.find(path, values -> {
+            if (!rejected[1]) {
+                rejected[1] = true;
+                return false;
+            }
+            return true;
+        });
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "/abc/123", "/users/1/books/harry_potter" })
+    void noSubstringMatchBeyondPath(String path) {
+        assertThat(COMPACT_TRIE.find(path.substring(0, path.length() - 1)))
+                .isEqualTo(TRIE.find(path.substring(0, path.length() - 1)));
+    }
+}
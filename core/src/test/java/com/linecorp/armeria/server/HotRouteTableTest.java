@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.linecorp.armeria.server;
+
+import static com.linecorp.armeria.server.RoutingContextTest.virtualHost;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.RequestHeaders;
+
+class HotRouteTableTest {
+
+    @Test
+    void capacityIsPowerOfTwo() {
+        assertThat(new HotRouteTable<String>(1).capacity()).isEqualTo(1);
+        assertThat(new HotRouteTable<String>(5).capacity()).isEqualTo(8);
+        assertThat(new HotRouteTable<String>(64).capacity()).isEqualTo(64);
+    }
+
+    @Test
+    void promoteAfterThreshold() {
+        final HotRouteTable<String> table = new HotRouteTable<>(8);
+        final RoutingContext ctx = routingContext("/foo");
+        for (int i = 0; i < HotRouteTable.PROMOTION_THRESHOLD - 1; i++) {
+            table.record(ctx, "foo");
+            assertThat(table.get(ctx)).isNull();
+        }
+        table.record(ctx, "foo");
+        assertThat(table.get(ctx)).isEqualTo("foo");
+        // An equal context created for another request hits as well.
+        assertThat(table.get(routingContext("/foo"))).isEqualTo("foo");
+        assertThat(table.get(routingContext("/bar"))).isNull();
+    }
+
+    @Test
+    void hotRouteSurvivesColdLookups() {
+        // Use a single slot so that every context collides.
+        final HotRouteTable<String> table = new HotRouteTable<>(1);
+        final RoutingContext hot = routingContext("/hot");
+        for (int i = 0; i < 10; i++) {
+            table.record(hot, "hot");
+            table.get(hot);
+        }
+
+        final RoutingContext cold = routingContext("/cold");
+        table.record(cold, "cold");
+        assertThat(table.get(hot)).isEqualTo("hot");
+        assertThat(table.get(cold)).isNull();
+    }
+
+    @Test
+    void replaceWornDownRoute() {
+        final HotRouteTable<String> table = new HotRouteTable<>(1);
+        final RoutingContext first = routingContext("/first");
+        table.record(first, "first");
+
+        final RoutingContext second = routingContext("/second");
+        // The first lookup of the competitor wears down the hit count of the occupant.
+        table.record(second, "second");
+        for (int i = 0; i < HotRouteTable.PROMOTION_THRESHOLD; i++) {
+            table.record(second, "second");
+        }
+        assertThat(table.get(second)).isEqualTo("second");
+        assertThat(table.get(first)).isNull();
+    }
+
+    private static RoutingContext routingContext(String path) {
+        final RequestHeaders headers = RequestHeaders.of(HttpMethod.GET, path);
+        return DefaultRoutingContext.of(virtualHost(), "example.com", path, null, headers, RoutingStatus.OK);
+    }
+}
@@ -23,18 +23,31 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.google.common.base.Strings;
 
+import com.linecorp.armeria.common.Http1HeaderNaming;
 import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.internal.common.FileRegionHttpData;
+import com.linecorp.armeria.internal.common.NoopKeepAliveHandler;
 import com.linecorp.armeria.testing.junit5.server.ServerExtension;
 
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+
 class ServerHttp1ObjectEncoderTest {
 
     @RegisterExtension
@@ -70,4 +83,24 @@ class ServerHttp1ObjectEncoderTest {
             }
         }
     }
+
+    @Test
+    void fileRegionIsWrittenOnCleartextConnection(@TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("foo.txt");
+        Files.write(file, "Hello, world!".getBytes(StandardCharsets.UTF_8));
+        final EmbeddedChannel ch = new EmbeddedChannel();
+        final ServerHttp1ObjectEncoder encoder = new ServerHttp1ObjectEncoder(
+                ch, SessionProtocol.H1C, NoopKeepAliveHandler.INSTANCE, false, false,
+                Http1HeaderNaming.ofDefault());
+
+        encoder.writeData(1, 1, new FileRegionHttpData(file, 7, 5, true), true);
+
+        final Object region = ch.readOutbound();
+        assertThat(region).isInstanceOf(FileRegion.class);
+        assertThat(((FileRegion) region).position()).isEqualTo(7);
+        assertThat(((FileRegion) region).count()).isEqualTo(5);
+        ReferenceCountUtil.release(region);
+        assertThat((Object) ch.readOutbound()).isSameAs(LastHttpContent.EMPTY_LAST_CONTENT);
+        ch.finishAndReleaseAll();
+    }
 }
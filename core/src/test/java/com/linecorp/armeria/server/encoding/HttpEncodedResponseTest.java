@@ -31,6 +31,7 @@ import org.reactivestreams.Subscription;
 
 import com.linecorp.armeria.common.AggregatedHttpResponse;
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpObject;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
@@ -211,4 +212,149 @@ class HttpEncodedResponseTest {
         assertThat(result).isEqualTo("foobarbaz");
         assertThat(encoded.encodedStream.buffer().refCnt()).isZero();
     }
+
+    @Test
+    void shouldReuseCachedCompressedContent() {
+        final CompressedResponseCache cache = new CompressedResponseCache(1048576, 1024, headers -> true);
+        final ResponseHeaders headers = ResponseHeaders.builder(HttpStatus.OK)
+                                                       .contentLength(9)
+                                                       .build();
+        String first = null;
+        for (int i = 0; i < 2; i++) {
+            final HttpResponse orig = HttpResponse.of(headers,
+                                                      HttpData.ofUtf8("foo"),
+                                                      HttpData.ofUtf8("bar"),
+                                                      HttpData.ofUtf8("baz"));
+            final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                    orig, HttpEncodingType.DEFLATE, mediaType -> true, ByteBufAllocator.DEFAULT, 1, cache);
+            final AggregatedHttpResponse res = encoded.aggregate().join();
+            assertThat(res.headers().contentLength()).isEqualTo(-1);
+
+            final StreamDecoder decoder = StreamDecoderFactory.deflate().newDecoder(ByteBufAllocator.DEFAULT);
+            String result;
+            try (HttpData httpData = decoder.decode(res.content())) {
+                result = httpData.toStringUtf8();
+            }
+            try (HttpData finish = decoder.finish()) {
+                result += finish.toStringUtf8();
+            }
+            assertThat(result).isEqualTo("foobarbaz");
+            if (first == null) {
+                first = res.content().toStringUtf8();
+            } else {
+                assertThat(res.content().toStringUtf8()).isEqualTo(first);
+            }
+        }
+
+        assertThat(cache.cache().stats().missCount()).isOne();
+        assertThat(cache.cache().stats().hitCount()).isOne();
+    }
+
+    @Test
+    void shouldNotCacheLargeContent() {
+        final CompressedResponseCache cache = new CompressedResponseCache(1048576, 4, headers -> true);
+        final HttpResponse orig = HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                                 .contentLength(6)
+                                                                 .build(),
+                                                  HttpData.ofUtf8("foo"),
+                                                  HttpData.ofUtf8("bar"));
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                orig, HttpEncodingType.GZIP, mediaType -> true, ByteBufAllocator.DEFAULT, 1, cache);
+        encoded.aggregate().join();
+        assertThat(cache.cache().estimatedSize()).isZero();
+        assertThat(encoded.encodedStream).isNotNull();
+    }
+
+    @Test
+    void shouldNotEmitEmptyDataWhileAggregating() {
+        final CompressedResponseCache cache = new CompressedResponseCache(1048576, 1024, headers -> true);
+        final HttpResponse orig = HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                                 .contentLength(9)
+                                                                 .build(),
+                                                  HttpData.ofUtf8("foo"),
+                                                  HttpData.ofUtf8("bar"),
+                                                  HttpData.ofUtf8("baz"));
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                orig, HttpEncodingType.DEFLATE, mediaType -> true, ByteBufAllocator.DEFAULT, 1, cache);
+        final List<HttpObject> objects = encoded.filter(HttpEncodedResponse::isNotEmptyData).collect().join();
+        assertThat(objects).hasSize(2);
+        assertThat(objects.get(0)).isInstanceOf(ResponseHeaders.class);
+        assertThat(decodeDeflate((HttpData) objects.get(1))).isEqualTo("foobarbaz");
+    }
+
+    @Test
+    void shouldBypassCacheWhenContentIsLongerThanContentLength() {
+        final CompressedResponseCache cache = new CompressedResponseCache(1048576, 1024, headers -> true);
+        final HttpResponse orig = HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                                 .contentLength(4)
+                                                                 .build(),
+                                                  HttpData.ofUtf8("foo"),
+                                                  HttpData.ofUtf8("bar"));
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                orig, HttpEncodingType.DEFLATE, mediaType -> true, ByteBufAllocator.DEFAULT, 1, cache);
+        final AggregatedHttpResponse res = encoded.aggregate().join();
+        assertThat(decodeDeflate(res.content())).isEqualTo("foobar");
+        assertThat(cache.cache().estimatedSize()).isZero();
+    }
+
+    @Test
+    void shouldBypassCacheWhenContentIsShorterThanContentLength() {
+        final CompressedResponseCache cache = new CompressedResponseCache(1048576, 1024, headers -> true);
+        final HttpResponse orig = HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                                 .contentLength(9)
+                                                                 .build(),
+                                                  HttpData.ofUtf8("foo"));
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                orig, HttpEncodingType.DEFLATE, mediaType -> true, ByteBufAllocator.DEFAULT, 1, cache);
+        final AggregatedHttpResponse res = encoded.aggregate().join();
+        assertThat(decodeDeflate(res.content())).isEqualTo("foo");
+        assertThat(cache.cache().estimatedSize()).isZero();
+    }
+
+    @Test
+    void shouldFailWhenContentExceedsContentLengthAfterCachedContentIsSent() {
+        final CompressedResponseCache cache = new CompressedResponseCache(1048576, 1024, headers -> true);
+        final HttpResponse orig = HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                                 .contentLength(3)
+                                                                 .build(),
+                                                  HttpData.ofUtf8("foo"),
+                                                  HttpData.ofUtf8("bar"));
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                orig, HttpEncodingType.DEFLATE, mediaType -> true, ByteBufAllocator.DEFAULT, 1, cache);
+        assertThatThrownBy(() -> encoded.aggregate().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("content-length");
+    }
+
+    @Test
+    void onlySharedResponsesAreCacheableByDefault() {
+        assertThat(CompressedResponseCache.isShareable(ResponseHeaders.of(HttpStatus.OK))).isFalse();
+        assertThat(CompressedResponseCache.isShareable(
+                ResponseHeaders.of(HttpStatus.OK, HttpHeaderNames.CACHE_CONTROL, "public, max-age=60")))
+                .isTrue();
+        assertThat(CompressedResponseCache.isShareable(
+                ResponseHeaders.of(HttpStatus.OK, HttpHeaderNames.CACHE_CONTROL, "immutable"))).isTrue();
+        assertThat(CompressedResponseCache.isShareable(
+                ResponseHeaders.of(HttpStatus.OK, HttpHeaderNames.CACHE_CONTROL, "public, no-store")))
+                .isFalse();
+        assertThat(CompressedResponseCache.isShareable(
+                ResponseHeaders.of(HttpStatus.OK, HttpHeaderNames.CACHE_CONTROL, "private"))).isFalse();
+        assertThat(CompressedResponseCache.isShareable(
+                ResponseHeaders.of(HttpStatus.OK,
+                                   HttpHeaderNames.CACHE_CONTROL, "public",
+                                   HttpHeaderNames.SET_COOKIE, "a=b"))).isFalse();
+    }
+
+    private static String decodeDeflate(HttpData data) {
+        final StreamDecoder decoder = StreamDecoderFactory.deflate().newDecoder(ByteBufAllocator.DEFAULT);
+        String result;
+        try (HttpData httpData = decoder.decode(data)) {
+            result = httpData.toStringUtf8();
+        }
+        try (HttpData finish = decoder.finish()) {
+            result += finish.toStringUtf8();
+        }
+        return result;
+    }
 }
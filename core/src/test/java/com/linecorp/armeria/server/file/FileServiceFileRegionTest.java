@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.client.encoding.DecodingClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.internal.common.FileRegionHttpData;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.encoding.EncodingService;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class FileServiceFileRegionTest {
+
+    // Larger than a single file region.
+    private static final byte[] content = new byte[6 * 1024 * 1024 + 123];
+
+    static {
+        ThreadLocalRandom.current().nextBytes(content);
+    }
+
+    private static Path root;
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            root = Files.createTempDirectory("armeria-file-region");
+            root.toFile().deleteOnExit();
+            final Path file = root.resolve("large.bin");
+            Files.write(file, content);
+            file.toFile().deleteOnExit();
+            // Use a text file so that EncodingService compresses it.
+            final Path textFile = root.resolve("large.txt");
+            Files.write(textFile, content);
+            textFile.toFile().deleteOnExit();
+
+            sb.http(0);
+            sb.https(0);
+            sb.tlsSelfSigned();
+            sb.serviceUnder("/plain/", FileService.builder(root)
+                                                  .useFileRegion(true)
+                                                  .build());
+            sb.serviceUnder("/encoded/", FileService.builder(root)
+                                                    .useFileRegion(true)
+                                                    .build()
+                                                    .decorate(EncodingService.newDecorator()));
+        }
+    };
+
+    @ParameterizedTest
+    @EnumSource(value = SessionProtocol.class, names = { "H1C", "H2C", "H1", "H2" })
+    void shouldServeFileContent(SessionProtocol protocol) {
+        final AggregatedHttpResponse res = client(protocol).get("/plain/large.bin").aggregate().join();
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+        assertThat(res.headers().getLong(HttpHeaderNames.CONTENT_LENGTH)).isEqualTo(content.length);
+        assertThat(res.content().array()).isEqualTo(content);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = SessionProtocol.class, names = { "H1C", "H2C" })
+    void shouldFallBackToCopyWhenContentIsTransformed(SessionProtocol protocol) {
+        final AggregatedHttpResponse res =
+                WebClient.builder(server.uri(protocol))
+                         .maxResponseLength(0)
+                         .decorator(DecodingClient.newDecorator())
+                         .build()
+                         .get("/encoded/large.txt")
+                         .aggregate().join();
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+        assertThat(res.content().array()).isEqualTo(content);
+    }
+
+    @Test
+    void shouldStreamFileRegionsOnlyWhenNotDecorated() {
+        final FileService fileService = FileService.builder(root).useFileRegion(true).build();
+        assertThat(serve(fileService, SessionProtocol.H1C))
+                .hasAtLeastOneElementOfType(FileRegionHttpData.class);
+        assertThat(serve(fileService, SessionProtocol.H2C))
+                .noneMatch(FileRegionHttpData.class::isInstance);
+        assertThat(serve(fileService.decorate(EncodingService.newDecorator()), SessionProtocol.H1C))
+                .noneMatch(FileRegionHttpData.class::isInstance);
+    }
+
+    private static List<HttpObject> serve(HttpService service, SessionProtocol protocol) {
+        final HttpRequest req = HttpRequest.of(HttpMethod.GET, "/large.bin");
+        final ServiceRequestContext ctx = ServiceRequestContext.builder(req)
+                                                               .service(service)
+                                                               .sessionProtocol(protocol)
+                                                               .build();
+        try {
+            return service.serve(ctx, req).collect().join();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static WebClient client(SessionProtocol protocol) {
+        return WebClient.builder(server.uri(protocol))
+                        .factory(ClientFactory.insecure())
+                        .maxResponseLength(0)
+                        .build();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FileServiceMemoryMappedCacheTest {
+
+    private static final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static Path root;
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            root = Files.createTempDirectory("armeria-mmap-cache");
+            root.toFile().deleteOnExit();
+
+            sb.meterRegistry(meterRegistry);
+            sb.serviceUnder("/", FileService.builder(root)
+                                            .memoryMappedCache(true)
+                                            .maxCacheSizeBytes(16)
+                                            .build());
+        }
+    };
+
+    @Test
+    void shouldServeAndEvictMappedContent() throws Exception {
+        final Path foo = root.resolve("foo.txt");
+        Files.write(foo, "0123456789".getBytes(StandardCharsets.US_ASCII));
+        foo.toFile().deleteOnExit();
+        final Path bar = root.resolve("bar.txt");
+        Files.write(bar, "abcdefghij".getBytes(StandardCharsets.US_ASCII));
+        bar.toFile().deleteOnExit();
+
+        final BlockingWebClient client = server.blockingWebClient();
+        for (int i = 0; i < 2; i++) {
+            final AggregatedHttpResponse res = client.get("/foo.txt");
+            assertThat(res.status()).isSameAs(HttpStatus.OK);
+            assertThat(res.contentUtf8()).isEqualTo("0123456789");
+        }
+        assertThat(client.get("/bar.txt").contentUtf8()).isEqualTo("abcdefghij");
+
+        // Only one of the two files fits in the 16-byte budget.
+        await().untilAsserted(() -> {
+            final Map<String, Double> meters = MoreMeters.measureAll(meterRegistry);
+            assertThat(meters.entrySet()).anySatisfy(e -> {
+                assertThat(e.getKey()).startsWith("armeria.server.file.vfs.cache.weighted.size#value");
+                assertThat(e.getValue()).isEqualTo(10.0);
+            });
+        });
+    }
+}
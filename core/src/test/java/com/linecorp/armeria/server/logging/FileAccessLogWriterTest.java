@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FileAccessLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static RequestLog newLog(String path) {
+        final ServiceRequestContext ctx =
+                ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, path)).build();
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().responseHeaders(ResponseHeaders.of(HttpStatus.OK));
+        ctx.logBuilder().endResponse();
+        return ctx.log().ensureComplete();
+    }
+
+    @Test
+    void writeAccessLogs() throws Exception {
+        final Path path = tempDir.resolve("access.log");
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final FileAccessLogWriter writer = FileAccessLogWriter.builder(path)
+                                                              .format("%r %s")
+                                                              .meterRegistry(meterRegistry)
+                                                              .build();
+        for (int i = 0; i < 100; i++) {
+            writer.log(newLog("/foo/" + i));
+        }
+        writer.shutdown().join();
+
+        final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(100);
+        assertThat(lines.get(0)).startsWith("\"GET /foo/0 ").endsWith(" 200");
+        assertThat(lines.get(99)).startsWith("\"GET /foo/99 ").endsWith(" 200");
+        assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.server.access.log.writer.written#count", 100.0)
+                .containsEntry("armeria.server.access.log.writer.dropped#count", 0.0);
+
+        // The logs after shutdown are dropped.
+        writer.log(newLog("/bar"));
+        assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.server.access.log.writer.dropped#count", 1.0);
+    }
+
+    @Test
+    void rollOver() throws Exception {
+        final Path path = tempDir.resolve("access.log");
+        final FileAccessLogWriter writer = FileAccessLogWriter.builder(path)
+                                                              .format("%r")
+                                                              .batchSize(1)
+                                                              .maxFileSize(10)
+                                                              .maxBackups(2)
+                                                              .meterRegistry(new SimpleMeterRegistry())
+                                                              .build();
+        for (int i = 0; i < 4; i++) {
+            writer.log(newLog("/foo/" + i + "/bar"));
+        }
+        writer.shutdown().join();
+
+        // Each log is longer than maxFileSize, so every write triggers a rollover.
+        assertThat(path).doesNotExist();
+        assertThat(Files.readAllLines(tempDir.resolve("access.log.1")))
+                .singleElement().asString().contains("/foo/3/bar");
+        assertThat(Files.readAllLines(tempDir.resolve("access.log.2")))
+                .singleElement().asString().contains("/foo/2/bar");
+        assertThat(tempDir.resolve("access.log.3")).doesNotExist();
+    }
+}
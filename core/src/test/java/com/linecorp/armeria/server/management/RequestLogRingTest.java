@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.management.RequestLogRing.Row;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class RequestLogRingTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final RequestLogRing ring = RequestLogRing.of(1024);
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.accessLogWriter(ring, true);
+            sb.service("/ok", (ctx, req) -> HttpResponse.of(HttpStatus.OK));
+            sb.service("/fail", (ctx, req) -> HttpResponse.of(HttpStatus.INTERNAL_SERVER_ERROR));
+            sb.service("/slow", (ctx, req) -> HttpResponse.delayed(HttpResponse.of(HttpStatus.OK),
+                                                                   Duration.ofMillis(300)));
+            sb.service("/internal/management/requests", ring.newQueryService());
+        }
+    };
+
+    @Test
+    void topSlowPathsAndErrorRate() throws Exception {
+        final BlockingWebClient client = server.blockingWebClient();
+        final long numRecorded = ring.numRecorded();
+        for (int i = 0; i < 3; i++) {
+            client.get("/ok");
+        }
+        client.get("/fail");
+        client.get("/fail");
+        client.get("/slow");
+        await().untilAsserted(() -> assertThat(ring.numRecorded()).isGreaterThanOrEqualTo(numRecorded + 6));
+
+        final JsonNode slowPaths = query(client, "groupBy=path&sortBy=meanDuration");
+        assertThat(slowPaths.get("groupBy").asText()).isEqualTo("path");
+        assertThat(slowPaths.get("groups").get(0).get("key").asText()).isEqualTo("/slow");
+        assertThat(slowPaths.get("groups").get(0).get("meanDurationMillis").asDouble())
+                .isGreaterThanOrEqualTo(300);
+
+        final JsonNode errorRate = query(client, "groupBy=route&sortBy=errorRate");
+        final JsonNode fail = errorRate.get("groups").get(0);
+        assertThat(fail.get("key").asText()).isEqualTo("/fail");
+        assertThat(fail.get("count").asLong()).isGreaterThanOrEqualTo(2);
+        assertThat(fail.get("errorRate").asDouble()).isEqualTo(1.0);
+
+        final JsonNode errorsOnly = query(client, "groupBy=path&sortBy=count&minStatus=500");
+        assertThat(errorsOnly.get("groups")).hasSize(1);
+        assertThat(errorsOnly.get("groups").get(0).get("key").asText()).isEqualTo("/fail");
+
+        final JsonNode limited = query(client, "groupBy=path&sortBy=count&limit=1");
+        assertThat(limited.get("groups")).hasSize(1);
+    }
+
+    @Test
+    void badRequest() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.get("/internal/management/requests?groupBy=foo").status())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(client.get("/internal/management/requests?sortBy=foo").status())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(client.get("/internal/management/requests?windowSeconds=0").status())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(client.get("/internal/management/requests?limit=foo").status())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void overwritesOldestAndBoundsInternedValues() {
+        final RequestLogRing smallRing = new RequestLogRing(3, 3);
+        assertThat(smallRing.capacity()).isEqualTo(4);
+        for (int i = 0; i < 6; i++) {
+            smallRing.log(newLog("/" + i, i % 2 == 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND));
+        }
+        assertThat(smallRing.numRecorded()).isEqualTo(6);
+
+        final Row row = new Row();
+        int numRows = 0;
+        for (int slot = 0; slot < smallRing.capacity(); slot++) {
+            assertThat(smallRing.read(slot, row)).isTrue();
+            numRows++;
+            final String path = smallRing.paths().value(row.pathId);
+            // Only '/0' and '/1' were interned. The others are recorded as '<other>'.
+            assertThat(path).isIn("/0", "/1", RequestLogRing.OTHER);
+            assertThat(row.status).isIn(200, 404);
+        }
+        assertThat(numRows).isEqualTo(4);
+        assertThat(smallRing.paths().size()).isEqualTo(3);
+
+        // The slots of '/0' and '/1' have been overwritten by '/4' and '/5'.
+        smallRing.read(0, row);
+        assertThat(smallRing.paths().value(row.pathId)).isEqualTo(RequestLogRing.OTHER);
+        assertThat(row.status).isEqualTo(200);
+        smallRing.read(1, row);
+        assertThat(smallRing.paths().value(row.pathId)).isEqualTo(RequestLogRing.OTHER);
+        assertThat(row.status).isEqualTo(404);
+    }
+
+    @Test
+    void reusesInternedValuesNotReferredAnymore() {
+        final RequestLogRing smallRing = new RequestLogRing(4, 3);
+        smallRing.log(newLog("/0", HttpStatus.OK));
+        smallRing.log(newLog("/1", HttpStatus.OK));
+        final Row row = new Row();
+        // '/0' and '/1' are still referred to by the ring.
+        for (int i = 0; i < 6; i++) {
+            smallRing.log(newLog("/2", HttpStatus.OK));
+            assertThat(smallRing.read((i + 2) & 3, row)).isTrue();
+            assertThat(smallRing.paths().value(row.pathId)).isEqualTo(RequestLogRing.OTHER);
+        }
+
+        // The ring wrapped around twice since '/0' was recorded.
+        smallRing.log(newLog("/2", HttpStatus.OK));
+        assertThat(smallRing.read(0, row)).isTrue();
+        assertThat(smallRing.paths().value(row.pathId)).isEqualTo("/2");
+        assertThat(smallRing.paths().size()).isEqualTo(3);
+    }
+
+    private static RequestLog newLog(String path, HttpStatus status) {
+        final ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.GET, path));
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().responseHeaders(ResponseHeaders.of(status));
+        ctx.logBuilder().endResponse();
+        return ctx.log().ensureComplete();
+    }
+
+    private static JsonNode query(BlockingWebClient client, String queryString) throws Exception {
+        final AggregatedHttpResponse res = client.get("/internal/management/requests?" + queryString);
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        return mapper.readTree(res.contentUtf8());
+    }
+}
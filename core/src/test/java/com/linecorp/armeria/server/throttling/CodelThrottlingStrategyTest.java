@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.throttling.CodelThrottlingStrategy.DelayProbe;
+import com.linecorp.armeria.server.throttling.CodelThrottlingStrategy.QueueState;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CodelThrottlingStrategyTest {
+
+    private static final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.meterRegistry(meterRegistry);
+            sb.service("/codel", ((ctx, req) -> HttpResponse.of(HttpStatus.OK)));
+            sb.decorator(ThrottlingService.newDecorator(ThrottlingStrategy.builderForCodel()
+                                                                          .includeBlockingTaskExecutor(true)
+                                                                          .name("codel")
+                                                                          .build()));
+        }
+    };
+
+    @Test
+    void shedsOnlyWhenQueueingDelayStaysAboveTarget() {
+        final CodelThrottlingStrategy<Request> strategy =
+                new CodelThrottlingStrategy<>(millis(5), millis(100), false, null);
+        final QueueState state = strategy.new QueueState(new SimpleMeterRegistry(), new MeterIdPrefix("test"));
+        final long start = System.nanoTime();
+
+        // A burst is tolerated until the queueing delay exceeds the interval.
+        assertThat(state.accept(millis(10), start)).isTrue();
+        assertThat(state.accept(millis(50), start)).isTrue();
+        assertThat(state.accept(millis(150), start)).isFalse();
+        assertThat(state.isOverloaded()).isFalse();
+
+        // The queueing delay never dropped below the target during the first interval.
+        assertThat(state.accept(millis(10), start + millis(200))).isFalse();
+        assertThat(state.isOverloaded()).isTrue();
+        assertThat(state.accept(millis(1), start + millis(210))).isTrue();
+
+        // The queue drained during the second interval.
+        assertThat(state.accept(millis(10), start + millis(400))).isTrue();
+        assertThat(state.isOverloaded()).isFalse();
+    }
+
+    @Test
+    void probeMeasuresBacklogOfExecutor() throws Exception {
+        final CodelThrottlingStrategy<Request> strategy =
+                new CodelThrottlingStrategy<>(millis(5), millis(100), false, null);
+        final DelayProbe probe = strategy.new DelayProbe();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            // Block the executor so that the probe task waits in the queue.
+            executor.execute(() -> Uninterruptibles.awaitUninterruptibly(latch));
+            final long start = System.nanoTime();
+            assertThat(probe.delayNanos(executor, start)).isZero();
+
+            // The probe is still queued, so the delay is at least as long as it has waited.
+            assertThat(probe.delayNanos(executor, start + millis(50))).isGreaterThanOrEqualTo(millis(50));
+
+            latch.countDown();
+            await().untilAsserted(() -> assertThat(probe.delayNanos(executor, System.nanoTime()))
+                    .isGreaterThan(0));
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void acceptsRequestsWithoutQueueing() {
+        final BlockingWebClient client = server.blockingWebClient();
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.get("/codel").status()).isEqualTo(HttpStatus.OK);
+        }
+        assertThat(meterRegistry.get("armeria.server.throttling.overloaded")
+                                .tag("name", "codel")
+                                .gauge().value()).isZero();
+        assertThat(meterRegistry.get("armeria.server.throttling.rejected.requests")
+                                .tag("name", "codel")
+                                .counter().count()).isZero();
+    }
+
+    @Test
+    void invalidOptions() {
+        assertThatThrownBy(() -> ThrottlingStrategy.builderForCodel().targetMillis(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThrottlingStrategy.builderForCodel()
+                                                   .targetMillis(100)
+                                                   .intervalMillis(100)
+                                                   .build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.kafka;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.server.logging.AccessLogWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * An {@link AccessLogWriter} that sends access logs to a Kafka backend in batches.
+ *
+ * <p>The values extracted from {@link RequestLog}s are accumulated per record key. Each batch is sent as
+ * a single Kafka record whose value is the concatenation of the length-prefixed values, i.e. a 4-byte
+ * big-endian length followed by the value bytes, repeated. If compression is enabled, the batch is
+ * compressed with gzip and the record has the {@value #CONTENT_ENCODING_HEADER} header set to
+ * {@code "gzip"}. A batch is sent when its size exceeds
+ * {@link BatchingKafkaAccessLogWriterBuilder#maxBatchBytes(int)} or when it becomes older than
+ * {@link BatchingKafkaAccessLogWriterBuilder#flushInterval(java.time.Duration)}.
+ *
+ * <p>{@link #log(RequestLog)} never blocks on the {@link Producer}. The batches are sent from a dedicated
+ * thread, and if too many batches are waiting for the {@link Producer}, new batches are dropped and counted
+ * in the {@code <prefix>.logs{result=dropped}} meter instead of applying backpressure to the caller.
+ */
+@UnstableApi
+public final class BatchingKafkaAccessLogWriter<K> implements AccessLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingKafkaAccessLogWriter.class);
+
+    /**
+     * The name of the Kafka record header which tells the encoding of a compressed batch.
+     */
+    public static final String CONTENT_ENCODING_HEADER = "content-encoding";
+
+    private static final List<Header> GZIP_HEADERS = ImmutableList.of(
+            new RecordHeader(CONTENT_ENCODING_HEADER, "gzip".getBytes(StandardCharsets.US_ASCII)));
+
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Returns a new {@link BatchingKafkaAccessLogWriterBuilder}.
+     *
+     * @param producer a Kafka {@link Producer} which is used to send logs to Kafka
+     * @param topic the name of topic which is used to send logs
+     * @param valueExtractor a {@link Function} that extracts the bytes of an access log from
+     *                       a {@link RequestLog}. The {@link Function} is allowed to return {@code null}
+     *                       to skip logging for the given {@link RequestLog}.
+     */
+    public static <K> BatchingKafkaAccessLogWriterBuilder<K> builder(
+            Producer<K, byte[]> producer, String topic,
+            Function<? super RequestLog, byte[]> valueExtractor) {
+        return new BatchingKafkaAccessLogWriterBuilder<>(requireNonNull(producer, "producer"),
+                                                         requireNonNull(topic, "topic"),
+                                                         requireNonNull(valueExtractor, "valueExtractor"));
+    }
+
+    private final Producer<K, byte[]> producer;
+    private final String topic;
+    private final Function<? super RequestLog, ? extends @Nullable K> keyExtractor;
+    private final Function<? super RequestLog, byte[]> valueExtractor;
+    private final int maxBatchBytes;
+    private final long flushIntervalNanos;
+    private final int maxPendingBatches;
+    private final boolean compression;
+
+    private final Map<Object, Batch> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pendingBatches = new AtomicInteger();
+    private final LongAdder sentLogs = new LongAdder();
+    private final LongAdder droppedLogs = new LongAdder();
+    /**
+     * Returned by {@link Batch#append(byte[])} when the {@link Batch} has been removed from {@link #batches}.
+     */
+    private final FullBatch removedBatch = new FullBatch(null, new byte[0], 0, 0);
+    private volatile boolean shuttingDown;
+    private volatile boolean finalDrainStarted;
+
+    BatchingKafkaAccessLogWriter(Producer<K, byte[]> producer, String topic,
+                                 Function<? super RequestLog, ? extends @Nullable K> keyExtractor,
+                                 Function<? super RequestLog, byte[]> valueExtractor,
+                                 int maxBatchBytes, long flushIntervalMillis, int maxPendingBatches,
+                                 boolean compression, MeterRegistry meterRegistry, MeterIdPrefix idPrefix) {
+        this.producer = producer;
+        this.topic = topic;
+        this.keyExtractor = keyExtractor;
+        this.valueExtractor = valueExtractor;
+        this.maxBatchBytes = maxBatchBytes;
+        flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxPendingBatches = maxPendingBatches;
+        this.compression = compression;
+
+        final String logs = idPrefix.name("logs");
+        meterRegistry.more().counter(logs, idPrefix.tags("result", "sent"), sentLogs, LongAdder::sum);
+        meterRegistry.more().counter(logs, idPrefix.tags("result", "dropped"), droppedLogs, LongAdder::sum);
+        meterRegistry.gauge(idPrefix.name("pending.batches"), idPrefix.tags(), pendingBatches,
+                            AtomicInteger::get);
+
+        executor = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactories.newThreadFactory("armeria-kafka-access-log-writer", true));
+        executor.scheduleWithFixedDelay(this::flushExpiredBatches, flushIntervalMillis, flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void log(RequestLog log) {
+        if (shuttingDown) {
+            droppedLogs.increment();
+            return;
+        }
+
+        final byte[] value = valueExtractor.apply(log);
+        if (value == null) {
+            return;
+        }
+
+        final K key = keyExtractor.apply(log);
+        final Object mapKey = key != null ? key : NULL_KEY;
+        for (;;) {
+            final Batch batch = batches.computeIfAbsent(mapKey, unused -> new Batch(key));
+            final FullBatch fullBatch = batch.append(value);
+            if (fullBatch == removedBatch) {
+                // The batch was removed while idle or by the final drain.
+                if (shuttingDown) {
+                    droppedLogs.increment();
+                    return;
+                }
+                continue;
+            }
+            if (fullBatch != null) {
+                flush(fullBatch);
+            }
+            if (finalDrainStarted) {
+                // The final drain may have visited the batch before the value was appended.
+                // Count what was left behind as dropped because nothing will send it.
+                final FullBatch leftover = batch.drainIfNotEmpty();
+                if (leftover != null) {
+                    droppedLogs.add(leftover.numLogs);
+                }
+            }
+            return;
+        }
+    }
+
+    private void flushExpiredBatches() {
+        final long deadline = System.nanoTime() - flushIntervalNanos;
+        for (Map.Entry<Object, Batch> e : batches.entrySet()) {
+            final Batch batch = e.getValue();
+            final FullBatch fullBatch = batch.drainIfOlderThan(deadline);
+            if (fullBatch != null) {
+                flush(fullBatch);
+            } else if (batch.removeIfEmpty()) {
+                // Nothing was appended since the last flush. Remove the batch so that the map does not
+                // grow with every key ever seen. It's created again when its key is used again.
+                batches.remove(e.getKey(), batch);
+            }
+        }
+    }
+
+    private void flush(FullBatch batch) {
+        if (pendingBatches.incrementAndGet() > maxPendingBatches) {
+            // The producer cannot keep up. Drop the batch rather than blocking or buffering indefinitely.
+            pendingBatches.decrementAndGet();
+            droppedLogs.add(batch.numLogs);
+            return;
+        }
+
+        try {
+            executor.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            pendingBatches.decrementAndGet();
+            droppedLogs.add(batch.numLogs);
+        }
+    }
+
+    private void send(FullBatch batch) {
+        final ProducerRecord<K, byte[]> producerRecord;
+        try {
+            if (compression) {
+                producerRecord = new ProducerRecord<>(topic, null, batch.key, gzip(batch), GZIP_HEADERS);
+            } else {
+                producerRecord = new ProducerRecord<>(topic, batch.key,
+                                                      Arrays.copyOf(batch.data, batch.length));
+            }
+        } catch (IOException e) {
+            onSendComplete(batch, e);
+            return;
+        }
+
+        try {
+            producer.send(producerRecord, (metadata, exception) -> onSendComplete(batch, exception));
+        } catch (Exception e) {
+            onSendComplete(batch, e);
+        }
+    }
+
+    private void onSendComplete(FullBatch batch, @Nullable Exception cause) {
+        pendingBatches.decrementAndGet();
+        if (cause == null) {
+            sentLogs.add(batch.numLogs);
+        } else {
+            droppedLogs.add(batch.numLogs);
+            logger.warn("Failed to send {} access log(s) to Kafka topic: {}", batch.numLogs, topic, cause);
+        }
+    }
+
+    private static byte[] gzip(FullBatch batch) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, batch.length / 4));
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(batch.data, 0, batch.length);
+        }
+        return out.toByteArray();
+    }
+
+    @VisibleForTesting
+    int numBatches() {
+        return batches.size();
+    }
+
+    @Override
+    public CompletableFuture<Void> shutdown() {
+        shuttingDown = true;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    finalDrainStarted = true;
+                    for (Batch batch : batches.values()) {
+                        final FullBatch fullBatch = batch.drainAndRemove();
+                        if (fullBatch != null) {
+                            pendingBatches.incrementAndGet();
+                            send(fullBatch);
+                        }
+                    }
+                    batches.clear();
+                    producer.close();
+                } finally {
+                    executor.shutdown();
+                    future.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down already.
+            future.complete(null);
+        }
+        return future;
+    }
+
+    private final class Batch {
+
+        @Nullable
+        private final K key;
+        private byte[] data = new byte[1024];
+        private int length;
+        private int numLogs;
+        private long createdNanos;
+        private boolean removed;
+
+        Batch(@Nullable K key) {
+            this.key = key;
+        }
+
+        /**
+         * Appends the specified value. Returns the drained {@link FullBatch} if this batch became full,
+         * or {@link #removedBatch} if this batch has been removed and the value was not appended.
+         */
+        @Nullable
+        synchronized FullBatch append(byte[] value) {
+            if (removed) {
+                return removedBatch;
+            }
+            final int newLength = length + 4 + value.length;
+            if (newLength > data.length) {
+                data = Arrays.copyOf(data, Math.max(newLength, data.length << 1));
+            }
+            data[length] = (byte) (value.length >>> 24);
+            data[length + 1] = (byte) (value.length >>> 16);
+            data[length + 2] = (byte) (value.length >>> 8);
+            data[length + 3] = (byte) value.length;
+            System.arraycopy(value, 0, data, length + 4, value.length);
+            length = newLength;
+            if (numLogs++ == 0) {
+                createdNanos = System.nanoTime();
+            }
+
+            if (length >= maxBatchBytes) {
+                return drain();
+            }
+            return null;
+        }
+
+        @Nullable
+        synchronized FullBatch drainIfOlderThan(long deadlineNanos) {
+            if (numLogs == 0 || createdNanos - deadlineNanos > 0) {
+                return null;
+            }
+            return drain();
+        }
+
+        @Nullable
+        synchronized FullBatch drainIfNotEmpty() {
+            if (numLogs == 0) {
+                return null;
+            }
+            return drain();
+        }
+
+        synchronized boolean removeIfEmpty() {
+            if (numLogs != 0) {
+                return false;
+            }
+            removed = true;
+            return true;
+        }
+
+        @Nullable
+        synchronized FullBatch drainAndRemove() {
+            removed = true;
+            if (numLogs == 0) {
+                return null;
+            }
+            return drain();
+        }
+
+        private FullBatch drain() {
+            final FullBatch fullBatch = new FullBatch(key, data, length, numLogs);
+            data = new byte[Math.min(Math.max(1024, length), maxBatchBytes)];
+            length = 0;
+            numLogs = 0;
+            return fullBatch;
+        }
+    }
+
+    private final class FullBatch {
+
+        @Nullable
+        final K key;
+        final byte[] data;
+        final int length;
+        final int numLogs;
+
+        FullBatch(@Nullable K key, byte[] data, int length, int numLogs) {
+            this.key = key;
+            this.data = data;
+            this.length = length;
+            this.numLogs = numLogs;
+        }
+    }
+}
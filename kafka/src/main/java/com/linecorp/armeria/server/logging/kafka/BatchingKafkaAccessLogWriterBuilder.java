@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.producer.Producer;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A builder for {@link BatchingKafkaAccessLogWriter}.
+ */
+@UnstableApi
+public final class BatchingKafkaAccessLogWriterBuilder<K> {
+
+    private static final int DEFAULT_MAX_BATCH_BYTES = 64 * 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+    private static final int DEFAULT_MAX_PENDING_BATCHES = 64;
+
+    private final Producer<K, byte[]> producer;
+    private final String topic;
+    private final Function<? super RequestLog, byte[]> valueExtractor;
+    private Function<? super RequestLog, ? extends @Nullable K> keyExtractor = log -> null;
+    private int maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private int maxPendingBatches = DEFAULT_MAX_PENDING_BATCHES;
+    private boolean compression = true;
+    private MeterRegistry meterRegistry = Flags.meterRegistry();
+    private MeterIdPrefix meterIdPrefix = new MeterIdPrefix("armeria.server.access.log.kafka");
+
+    BatchingKafkaAccessLogWriterBuilder(Producer<K, byte[]> producer, String topic,
+                                        Function<? super RequestLog, byte[]> valueExtractor) {
+        this.producer = producer;
+        this.topic = topic;
+        this.valueExtractor = valueExtractor;
+    }
+
+    /**
+     * Sets the {@link Function} that extracts a {@code K}-typed record key from a {@link RequestLog}.
+     * The access logs with the same key are batched together. The {@link Function} is allowed to return
+     * {@code null} to leave the record key unspecified.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> keyExtractor(
+            Function<? super RequestLog, ? extends @Nullable K> keyExtractor) {
+        this.keyExtractor = requireNonNull(keyExtractor, "keyExtractor");
+        return this;
+    }
+
+    /**
+     * Sets the size of a batch in bytes at which the batch is sent, before compression.
+     * The default value is 64 KiB.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> maxBatchBytes(int maxBatchBytes) {
+        checkArgument(maxBatchBytes > 0, "maxBatchBytes: %s (expected: > 0)", maxBatchBytes);
+        this.maxBatchBytes = maxBatchBytes;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time an access log stays in a batch before the batch is sent.
+     * The default value is 500 milliseconds.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> flushInterval(Duration flushInterval) {
+        requireNonNull(flushInterval, "flushInterval");
+        checkArgument(!flushInterval.isNegative() && !flushInterval.isZero(),
+                      "flushInterval: %s (expected: > 0)", flushInterval);
+        return flushIntervalMillis(flushInterval.toMillis());
+    }
+
+    /**
+     * Sets the maximum time in milliseconds an access log stays in a batch before the batch is sent.
+     * The default value is 500 milliseconds.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> flushIntervalMillis(long flushIntervalMillis) {
+        checkArgument(flushIntervalMillis > 0,
+                      "flushIntervalMillis: %s (expected: > 0)", flushIntervalMillis);
+        this.flushIntervalMillis = flushIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the batches which are waiting to be acknowledged by the {@link Producer}.
+     * The batches which are created while the limit is reached are dropped.
+     * The default value is {@code 64}.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> maxPendingBatches(int maxPendingBatches) {
+        checkArgument(maxPendingBatches > 0, "maxPendingBatches: %s (expected: > 0)", maxPendingBatches);
+        this.maxPendingBatches = maxPendingBatches;
+        return this;
+    }
+
+    /**
+     * Sets whether to compress each batch with gzip. This option is enabled by default.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> compression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterRegistry} which collects the number of the sent and dropped access logs.
+     * If unspecified, {@link Flags#meterRegistry()} is used.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the meters.
+     * If unspecified, {@code "armeria.server.access.log.kafka"} is used.
+     */
+    public BatchingKafkaAccessLogWriterBuilder<K> meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link BatchingKafkaAccessLogWriter} based on the properties of this builder.
+     */
+    public BatchingKafkaAccessLogWriter<K> build() {
+        return new BatchingKafkaAccessLogWriter<>(producer, topic, keyExtractor, valueExtractor, maxBatchBytes,
+                                                  flushIntervalMillis, maxPendingBatches, compression,
+                                                  meterRegistry, meterIdPrefix);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchingKafkaAccessLogWriterTest {
+
+    private static final String TOPIC_NAME = "topic-test";
+
+    private static RequestLog newLog(String path) {
+        final ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.GET, path));
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().endResponse();
+        return ctx.log().ensureComplete();
+    }
+
+    private static byte[] path(RequestLog log) {
+        return log.context().path().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> decode(ProducerRecord<String, byte[]> record) throws IOException {
+        InputStream in = new ByteArrayInputStream(record.value());
+        final Header contentEncoding =
+                record.headers().lastHeader(BatchingKafkaAccessLogWriter.CONTENT_ENCODING_HEADER);
+        if (contentEncoding != null) {
+            assertThat(new String(contentEncoding.value(), StandardCharsets.US_ASCII)).isEqualTo("gzip");
+            in = new GZIPInputStream(in);
+        }
+
+        final List<String> values = new ArrayList<>();
+        try (DataInputStream dataIn = new DataInputStream(in)) {
+            for (;;) {
+                final int length = readLength(dataIn);
+                if (length < 0) {
+                    break;
+                }
+                final byte[] value = new byte[length];
+                dataIn.readFully(value);
+                values.add(new String(value, StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        final int b = in.read();
+        if (b < 0) {
+            return -1;
+        }
+        return (b << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) |
+               in.readUnsignedByte();
+    }
+
+    @Test
+    void flushBySize() throws Exception {
+        final MockProducer<String, byte[]> producer =
+                new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final BatchingKafkaAccessLogWriter<String> writer =
+                BatchingKafkaAccessLogWriter.builder(producer, TOPIC_NAME,
+                                                     BatchingKafkaAccessLogWriterTest::path)
+                                            .maxBatchBytes(3 * (4 + 5))
+                                            .flushIntervalMillis(60_000)
+                                            .meterRegistry(meterRegistry)
+                                            .build();
+        for (int i = 0; i < 6; i++) {
+            writer.log(newLog("/log" + i));
+        }
+
+        await().untilAsserted(() -> assertThat(producer.history()).hasSize(2));
+        assertThat(decode(producer.history().get(0))).containsExactly("/log0", "/log1", "/log2");
+        assertThat(decode(producer.history().get(1))).containsExactly("/log3", "/log4", "/log5");
+        assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.server.access.log.kafka.logs#count{result=sent}", 6.0)
+                .containsEntry("armeria.server.access.log.kafka.logs#count{result=dropped}", 0.0);
+
+        writer.shutdown().join();
+        assertThat(producer.closed()).isTrue();
+    }
+
+    @Test
+    void flushByTimeAndKey() throws Exception {
+        final MockProducer<String, byte[]> producer =
+                new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        final BatchingKafkaAccessLogWriter<String> writer =
+                BatchingKafkaAccessLogWriter.builder(producer, TOPIC_NAME,
+                                                     BatchingKafkaAccessLogWriterTest::path)
+                                            .keyExtractor(log -> log.context().path().substring(0, 2))
+                                            .compression(false)
+                                            .flushIntervalMillis(100)
+                                            .meterRegistry(new SimpleMeterRegistry())
+                                            .build();
+        writer.log(newLog("/a1"));
+        writer.log(newLog("/b1"));
+        writer.log(newLog("/a2"));
+
+        await().untilAsserted(() -> assertThat(producer.history()).hasSize(2));
+        for (ProducerRecord<String, byte[]> record : producer.history()) {
+            if ("/a".equals(record.key())) {
+                assertThat(decode(record)).containsExactly("/a1", "/a2");
+            } else {
+                assertThat(record.key()).isEqualTo("/b");
+                assertThat(decode(record)).containsExactly("/b1");
+            }
+        }
+        writer.shutdown().join();
+    }
+
+    @Test
+    void idleBatchesAreRemoved() {
+        final MockProducer<String, byte[]> producer =
+                new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        final BatchingKafkaAccessLogWriter<String> writer =
+                BatchingKafkaAccessLogWriter.builder(producer, TOPIC_NAME,
+                                                     BatchingKafkaAccessLogWriterTest::path)
+                                            .keyExtractor(log -> log.context().path())
+                                            .flushIntervalMillis(100)
+                                            .meterRegistry(new SimpleMeterRegistry())
+                                            .build();
+        for (int i = 0; i < 10; i++) {
+            writer.log(newLog("/key" + i));
+        }
+        assertThat(writer.numBatches()).isEqualTo(10);
+
+        // The batches are sent first and then removed because nothing was appended to them.
+        await().untilAsserted(() -> assertThat(producer.history()).hasSize(10));
+        await().untilAsserted(() -> assertThat(writer.numBatches()).isZero());
+
+        // A removed key gets a new batch.
+        writer.log(newLog("/key0"));
+        await().untilAsserted(() -> assertThat(producer.history()).hasSize(11));
+        writer.shutdown().join();
+    }
+
+    @Test
+    void dropWhenProducerIsBehind() {
+        final MockProducer<String, byte[]> producer =
+                new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final BatchingKafkaAccessLogWriter<String> writer =
+                BatchingKafkaAccessLogWriter.builder(producer, TOPIC_NAME,
+                                                     BatchingKafkaAccessLogWriterTest::path)
+                                            .maxBatchBytes(1)
+                                            .maxPendingBatches(1)
+                                            .meterRegistry(meterRegistry)
+                                            .build();
+        for (int i = 0; i < 3; i++) {
+            writer.log(newLog("/log" + i));
+        }
+        assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.server.access.log.kafka.logs#count{result=dropped}", 2.0);
+
+        await().untilAsserted(() -> assertThat(producer.history()).hasSize(1));
+        producer.completeNext();
+        await().untilAsserted(() -> assertThat(MoreMeters.measureAll(meterRegistry))
+                .containsEntry("armeria.server.access.log.kafka.logs#count{result=sent}", 1.0));
+        writer.shutdown().join();
+    }
+}